@@ -23,10 +23,25 @@ import com.speedment.config.Table;
 import com.speedment.encoder.Encoder;
 import com.speedment.exception.SpeedmentException;
 import com.speedment.field.ComparableField;
+import com.speedment.field.trait.FieldTrait;
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.field.trait.ReferenceForeignKeyFieldTrait;
+import com.speedment.internal.core.manager.ForeignKeyResolver;
+import com.speedment.internal.core.manager.JoinerImpl;
+import com.speedment.internal.core.manager.PagerImpl;
 import com.speedment.internal.core.runtime.Lifecyclable;
+import com.speedment.internal.core.stream.StreamPublisher;
+import com.speedment.internal.util.tuple.Tuple2;
+import com.speedment.internal.util.tuple.Tuples;
+import com.speedment.stream.Joiner;
+import com.speedment.stream.Pager;
+import com.speedment.stream.Publisher;
 import com.speedment.stream.StreamDecorator;
+import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -336,6 +351,128 @@ public interface Manager<ENTITY> extends Lifecyclable<Manager<ENTITY>> {
      */
     Stream<ENTITY> nativeStream(StreamDecorator decorator);
 
+    /**
+     * Creates and returns a new {@link Publisher} of the elements of the
+     * stream that is built by applying the given function to a new
+     * {@link #stream() stream} over all entities in this table. Each
+     * subscriber gets a stream of its own, that is optimized just like a
+     * stream on which a Terminal Operation is called.
+     * <p>
+     * Elements are read from the database only as they are requested by the
+     * subscriber, on the thread that requests them. The stream, and with it
+     * any database connection, is closed when all elements have been
+     * published, when an error occurs or when the subscription is cancelled.
+     *
+     * @param <T> the element type of the publisher
+     * @param streamBuilder function that adds intermediate operations to the
+     * stream
+     * @return a new publisher of the elements of the built stream
+     */
+    default <T> Publisher<T> publisher(Function<Stream<ENTITY>, ? extends Stream<T>> streamBuilder) {
+        requireNonNull(streamBuilder);
+        return new StreamPublisher<>(() -> streamBuilder.apply(stream()));
+    }
+
+    /**
+     * Creates and returns a new {@link Pager} that reads the entities in this
+     * table in pages, sorted on the given key. Further keys and filters may
+     * be added to the returned {@link Pager}. The keys must identify an
+     * entity uniquely.
+     * <p>
+     * Each page is read with a condition on the keys of the last entity of
+     * the previous page rather than with an {@code OFFSET}, so reading a page
+     * takes the same time regardless of how deep into the table it is.
+     *
+     * @param <V> the key type
+     * @param key the most significant key to sort the entities on
+     * @return a new pager over the entities in this table
+     */
+    default <V extends Comparable<? super V>> Pager<ENTITY> pager(ComparableField<ENTITY, V> key) {
+        return new PagerImpl<>(this, key);
+    }
+
+    /**
+     * Returns a stream of the entities of the given stream, each paired with
+     * the entity that the given foreign key field references. The referenced
+     * entities are read in batches of
+     * {@link ForeignKeyResolver#DEFAULT_BATCH_SIZE} entities.
+     *
+     * @param <V> the type of the foreign key field
+     * @param <FK> the type of the referenced entity
+     * @param <F> the type of the foreign key field
+     * @param stream of entities in this table
+     * @param field the foreign key field
+     * @return a stream of the entities paired with the referenced entities
+     * @see #findForeign(Stream, FieldTrait, int)
+     */
+    default <V extends Comparable<? super V>, FK, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V> & ReferenceForeignKeyFieldTrait<ENTITY, FK>>
+        Stream<Tuple2<ENTITY, Optional<FK>>> findForeign(Stream<ENTITY> stream, F field) {
+        return findForeign(stream, field, ForeignKeyResolver.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Returns a stream of the entities of the given stream, each paired with
+     * the entity that the given foreign key field references. The second
+     * element of a pair is empty if the field is {@code null} or if it does
+     * not reference any entity. The given stream is closed when the returned
+     * stream is closed.
+     * <p>
+     * Calling the finder of the field for each entity executes one query per
+     * entity. Instead, the entities of the stream are read in batches of the
+     * given size, and the referenced entities of a batch are read with a
+     * single query that has an {@code IN} condition on the referenced column.
+     *
+     * @param <V> the type of the foreign key field
+     * @param <FK> the type of the referenced entity
+     * @param <F> the type of the foreign key field
+     * @param stream of entities in this table
+     * @param field the foreign key field
+     * @param batchSize the number of entities to read referenced entities for
+     * with a single query
+     * @return a stream of the entities paired with the referenced entities
+     */
+    default <V extends Comparable<? super V>, FK, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V> & ReferenceForeignKeyFieldTrait<ENTITY, FK>>
+        Stream<Tuple2<ENTITY, Optional<FK>>> findForeign(Stream<ENTITY> stream, F field, int batchSize) {
+        requireNonNull(stream);
+        requireNonNull(field);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive, but was " + batchSize + ".");
+        }
+        // Managers that can not look up other managers use the finder
+        return stream.map(e -> Tuples.of(e, Optional.ofNullable(field.findFrom(e))));
+    }
+
+    /**
+     * Returns a {@link Joiner} of the entities in this table and the entities
+     * that the given foreign key field references. Only entities that
+     * reference an entity are included in the streams of the
+     * {@code Joiner}.
+     * <p>
+     * A SQL manager reads both entities of each pair with a single query
+     * that joins the two tables, and renders the predicates of the
+     * {@code Joiner} that are built from fields in its where clause.
+     *
+     * @param <V> the type of the foreign key field
+     * @param <FK> the type of the referenced entity
+     * @param <F> the type of the foreign key field
+     * @param field the foreign key field
+     * @return a {@code Joiner} of the entities and the referenced entities
+     */
+    default <V extends Comparable<? super V>, FK, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V> & ReferenceForeignKeyFieldTrait<ENTITY, FK>>
+        Joiner<ENTITY, FK> join(F field) {
+        requireNonNull(field);
+        return new JoinerImpl<>((filters, foreignFilters) -> {
+            Stream<ENTITY> stream = stream();
+            for (final Predicate<? super ENTITY> filter : filters) {
+                stream = stream.filter(filter);
+            }
+            return findForeign(stream, field)
+                .filter(t -> t.get1().isPresent())
+                .map(t -> Tuples.of(t.get0(), t.get1().get()))
+                .filter(t -> foreignFilters.stream().allMatch(p -> p.test(t.get1())));
+        });
+    }
+
     // TBI: Shall we expose this method in the API?
     // Persistence
     /**
@@ -19,8 +19,12 @@ package com.speedment.component;
 import com.speedment.annotation.Api;
 import com.speedment.exception.SpeedmentException;
 import com.speedment.field.ComparableField;
+import com.speedment.internal.core.stream.StreamPublisher;
+import com.speedment.stream.Publisher;
 import com.speedment.stream.StreamDecorator;
+import static java.util.Objects.requireNonNull;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -47,6 +51,27 @@ public interface StreamSupplierComponent extends Component {
      */
     <ENTITY> Stream<ENTITY> stream(Class<ENTITY> entityClass, StreamDecorator decorator);
 
+    /**
+     * Publisher of the elements of a stream over all entities. The stream is
+     * built by applying the given function to a new
+     * {@link #stream(Class, StreamDecorator) stream} for each subscriber.
+     * Elements are read only as they are requested, and the stream is closed
+     * when it is exhausted, fails or the subscription is cancelled.
+     *
+     * @param <ENTITY> entity type
+     * @param <T> element type of the publisher
+     * @param entityClass the entity class
+     * @param decorator decorates the stream before building it
+     * @param streamBuilder adds intermediate operations to the stream
+     * @return a publisher of the elements of the built stream
+     */
+    default <ENTITY, T> Publisher<T> publisher(Class<ENTITY> entityClass, StreamDecorator decorator, Function<Stream<ENTITY>, ? extends Stream<T>> streamBuilder) {
+        requireNonNull(entityClass);
+        requireNonNull(decorator);
+        requireNonNull(streamBuilder);
+        return new StreamPublisher<>(() -> streamBuilder.apply(stream(entityClass, decorator)));
+    }
+
     default <ENTITY, V extends Comparable<? super V>>
             Optional<ENTITY> findAny(Class<ENTITY> entityClass, ComparableField<ENTITY, V> field, V value) {
         return stream(entityClass, StreamDecorator.IDENTITY)
@@ -17,12 +17,55 @@
 package com.speedment.config.parameters;
 
 import com.speedment.annotation.Api;
+import com.speedment.config.Column;
+import com.speedment.config.Schema;
+import com.speedment.config.Table;
 
 /**
+ * How the values of a column are held by the entities that are read from
+ * the database.
  *
  * @author pemi
  */
 @Api(version = "2.2")
 public enum ColumnCompressionType {
-    INHERIT, NONE, DEDUPLICATION;
-}
\ No newline at end of file
+
+    /**
+     * The compression type of the parent node is used.
+     */
+    INHERIT,
+    /**
+     * Each entity holds its own instance of the value of the column.
+     */
+    NONE,
+    /**
+     * Equal values of the column are replaced by one shared instance when
+     * entities are read, so that repeated values like country codes,
+     * currencies or states only occupy memory once.
+     */
+    DEDUPLICATION;
+
+    /**
+     * Returns the effective compression type of the given column, resolving
+     * {@link #INHERIT} by the compression type of its table and then of its
+     * schema.
+     *
+     * @param column the column
+     * @return the effective compression type of the column
+     */
+    public static ColumnCompressionType of(Column column) {
+        final ColumnCompressionType type = column.getColumnCompressionType();
+        if (type != INHERIT) {
+            return type;
+        }
+        final ColumnCompressionType tableType = column.ancestor(Table.class)
+            .map(Table::getColumnCompressionType)
+            .orElse(INHERIT);
+        if (tableType != INHERIT) {
+            return tableType;
+        }
+        return column.ancestor(Schema.class)
+            .map(Schema::getColumnCompressionType)
+            .orElse(INHERIT);
+    }
+}
@@ -20,8 +20,13 @@ import com.speedment.Speedment;
 import com.speedment.annotation.Api;
 import com.speedment.config.Dbms;
 import com.speedment.db.DbmsHandler;
+import com.speedment.internal.comparator.impl.NullOrder;
 import com.speedment.internal.core.manager.sql.SpeedmentPredicateView;
+import com.speedment.internal.core.manager.sql.SqlPredicateFragment;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -213,4 +218,77 @@ public interface DbmsType {
 
     SpeedmentPredicateView getSpeedmentPredicateView();
 
+    /**
+     * Returns a non-null SQL fragment that, when appended to a select
+     * statement, will skip the first {@code offset} rows of the result and
+     * then return at most {@code limit} rows. Both values are given as
+     * parameters of the returned fragment. If neither an offset nor a limit
+     * is to be applied, the returned fragment is empty.
+     * <p>
+     * The default implementation renders {@code LIMIT ? OFFSET ?}, which is
+     * understood by MySQL, MariaDB and PostgreSQL.
+     *
+     * @param offset the number of rows to skip, {@code 0} if none
+     * @param limit the maximum number of rows to return,
+     * {@code Long.MAX_VALUE} if unlimited
+     * @return a non-null SQL fragment that applies the offset and limit
+     */
+    default SqlPredicateFragment getLimitOffsetFragment(long offset, long limit) {
+        if (offset == 0) {
+            if (limit == Long.MAX_VALUE) {
+                return SqlPredicateFragment.of("");
+            }
+            return SqlPredicateFragment.of(" LIMIT ?", limit);
+        }
+        // MySQL does not allow an OFFSET without a LIMIT
+        return SqlPredicateFragment.of(" LIMIT ? OFFSET ?").add(limit).add(offset);
+    }
+
+    /**
+     * Returns a non-null SQL fragment that, when used in an {@code ORDER BY}
+     * clause, sorts the rows on the given column. If {@code nullOrder} is
+     * {@link NullOrder#FIRST} or {@link NullOrder#LAST}, null values are
+     * placed first or last regardless of the sort direction. If it is
+     * {@link NullOrder#NONE}, the column is known not to contain any null
+     * values and the placement of nulls is left to the database.
+     * <p>
+     * The default implementation renders the standard
+     * {@code column ASC|DESC NULLS FIRST|LAST} syntax, which is understood by
+     * PostgreSQL.
+     *
+     * @param quotedColumnName the quoted name of the column to sort on
+     * @param descending if the rows shall be sorted in descending order
+     * @param nullOrder where null values shall be placed
+     * @return a non-null SQL fragment that sorts on the given column
+     */
+    default String getOrderByFragment(String quotedColumnName, boolean descending, NullOrder nullOrder) {
+        final String direction = quotedColumnName + (descending ? " DESC" : " ASC");
+        switch (nullOrder) {
+            case FIRST: return direction + " NULLS FIRST";
+            case LAST:  return direction + " NULLS LAST";
+            default:    return direction;
+        }
+    }
+
+    /**
+     * Prepares the given statement so that the rows of its result are
+     * fetched from the database in batches of about {@code fetchSize} rows
+     * rather than being read into memory all at once. This method is called
+     * before the statement is executed, and only if a fetch size has been
+     * requested for the stream. Implementations may change the state of the
+     * connection, for example the auto-commit mode, in which case the
+     * original state is restored by the caller when the result is closed.
+     * <p>
+     * The default implementation passes the fetch size on to
+     * {@link PreparedStatement#setFetchSize(int)}.
+     *
+     * @param connection the connection that the statement belongs to
+     * @param statement the statement to prepare
+     * @param fetchSize the requested number of rows to fetch at a time
+     * @throws SQLException if the statement could not be prepared
+     */
+    default void prepareForStreaming(Connection connection, PreparedStatement statement, int fetchSize) throws SQLException {
+        statement.setFetchSize(fetchSize);
+    }
+
 }
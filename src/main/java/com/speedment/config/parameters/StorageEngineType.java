@@ -17,12 +17,52 @@
 package com.speedment.config.parameters;
 
 import com.speedment.annotation.Api;
+import com.speedment.config.Schema;
+import com.speedment.config.Table;
 
 /**
+ * The storage engine that the streams of a table are served from, if a
+ * {@link com.speedment.component.StreamSupplierComponent StreamSupplierComponent}
+ * that supports it is installed. Otherwise, streams are always read from the
+ * database.
  *
  * @author pemi
  */
 @Api(version = "2.2")
 public enum StorageEngineType {
-    INHERIT, ON_HEAP;
+
+    /**
+     * The storage engine of the parent node is used.
+     */
+    INHERIT,
+    /**
+     * The rows of the table are held as entities on the Java heap.
+     */
+    ON_HEAP,
+    /**
+     * The rows of the table are held column by column outside of the Java
+     * heap, and entities are only created for the rows that are streamed.
+     */
+    OFF_HEAP,
+    /**
+     * The rows of the table are always read from the database.
+     */
+    NATIVE;
+
+    /**
+     * Returns the effective storage engine of the given table, resolving
+     * {@link #INHERIT} by the storage engine of its schema.
+     *
+     * @param table the table
+     * @return the effective storage engine of the table
+     */
+    public static StorageEngineType of(Table table) {
+        final StorageEngineType type = table.getStorageEngineType();
+        if (type != INHERIT) {
+            return type;
+        }
+        return table.ancestor(Schema.class)
+            .map(Schema::getStorageEngineType)
+            .orElse(INHERIT);
+    }
 }
\ No newline at end of file
@@ -48,4 +48,98 @@ public interface AsynchronousQueryResult<T> extends HasParallelStrategy, AutoClo
 
     void setRsMapper(Function<ResultSet, T> rsMapper);
 
+    /**
+     * Returns the number of rows that shall be fetched from the database at a
+     * time when the result is streamed, or {@code 0} if the default of the
+     * driver shall be used.
+     *
+     * @return the fetch size, or {@code 0} for the driver default
+     */
+    int getFetchSize();
+
+    /**
+     * Sets the number of rows that shall be fetched from the database at a
+     * time when the result is streamed. How the fetch size is applied is
+     * determined by the {@link com.speedment.config.parameters.DbmsType}. A
+     * value of {@code 0} means that the default of the driver shall be used.
+     *
+     * @param fetchSize the fetch size, or {@code 0} for the driver default
+     */
+    void setFetchSize(int fetchSize);
+
+    /**
+     * Returns the number of rows that a separate thread may read and map
+     * ahead of the consumer when the result is streamed, or {@code 0} if the
+     * rows shall be read by the consuming thread.
+     *
+     * @return the number of rows to read ahead, or {@code 0} for none
+     */
+    int getPrefetchSize();
+
+    /**
+     * Sets the number of rows that a separate thread may read and map ahead
+     * of the consumer when the result is streamed. A value of {@code 0} means
+     * that the rows shall be read by the consuming thread.
+     *
+     * @param prefetchSize the number of rows to read ahead, or {@code 0} for
+     * none
+     */
+    void setPrefetchSize(int prefetchSize);
+
+    /**
+     * Returns the number of seconds that the query may run before it is
+     * cancelled, or {@code 0} if there is no limit.
+     *
+     * @return the query timeout in seconds, or {@code 0} for none
+     */
+    int getQueryTimeout();
+
+    /**
+     * Sets the number of seconds that the query may run before it is
+     * cancelled. A value of {@code 0} means that there is no limit.
+     *
+     * @param queryTimeout the query timeout in seconds, or {@code 0} for none
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    void setQueryTimeout(int queryTimeout);
+
+    /**
+     * Returns if the query shall be cancelled when the result is closed while
+     * the database may still be producing rows for it.
+     *
+     * @return {@code true} if the query shall be cancelled on an early close
+     */
+    boolean isCancelOnClose();
+
+    /**
+     * Sets if the query shall be cancelled when the result is closed while
+     * the database may still be producing rows for it. This is only the case
+     * if the rows are streamed using a fetch size, not all rows have been
+     * read and the row limit of the query has not been reached.
+     *
+     * @param cancelOnClose {@code true} if the query shall be cancelled on an
+     * early close
+     * @see java.sql.Statement#cancel()
+     */
+    void setCancelOnClose(boolean cancelOnClose);
+
+    /**
+     * Returns the maximum number of rows that the query returns, or
+     * {@link Long#MAX_VALUE} if it is not limited.
+     *
+     * @return the maximum number of rows of the query
+     */
+    long getRowLimit();
+
+    /**
+     * Sets the maximum number of rows that the query returns, as rendered in
+     * its {@code LIMIT} clause. This does not change the query, but tells
+     * the result that the database has produced all rows once that many rows
+     * have been read.
+     *
+     * @param rowLimit the maximum number of rows of the query, or
+     * {@link Long#MAX_VALUE} if it is not limited
+     */
+    void setRowLimit(long rowLimit);
+
 }
@@ -24,6 +24,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -134,6 +135,42 @@ public interface DbmsHandler {
         final List<?> values, 
         final SqlFunction<ResultSet, T> rsMapper);
 
+    /**
+     * Eagerly executes a SQL query like
+     * {@link #executeQuery(String, List, SqlFunction)}, but with the given
+     * timeout instead of the {@link #getQueryTimeout() default timeout} of
+     * this handler. If the timeout is exceeded, the query is cancelled by
+     * the driver and an exception is thrown.
+     * <p>
+     * The default implementation does not support timeouts. It executes the
+     * query without a timeout if the given timeout is {@code 0} and throws an
+     * {@link UnsupportedOperationException} otherwise.
+     *
+     * @param <T>           the type of the objects in the stream to return
+     * @param sql           the non-null SQL command to execute
+     * @param values        non-null values to use for "?" parameters in the
+     *                      sql command
+     * @param rsMapper      the non-null mapper to use when iterating over the
+     *                      {@link ResultSet}
+     * @param queryTimeout  the timeout in seconds, or {@code 0} for no timeout
+     * @return              a stream of the mapped objects
+     * @throws UnsupportedOperationException  if a timeout is given but not
+     *                                        supported by this handler
+     */
+    default <T> Stream<T> executeQuery(
+        final String sql, 
+        final List<?> values, 
+        final SqlFunction<ResultSet, T> rsMapper,
+        final int queryTimeout) {
+        
+        if (queryTimeout != 0) {
+            throw new UnsupportedOperationException(
+                getClass().getName() + " does not support query timeouts."
+            );
+        }
+        return executeQuery(sql, values, rsMapper);
+    }
+
     /**
      * Lazily Executes a SQL query and subsequently maps each row in the
      * {@link ResultSet} using a provided mapper and return a stream of the 
@@ -154,6 +191,66 @@ public interface DbmsHandler {
         final List<?> values, 
         final Function<ResultSet, T> rsMapper);
 
+    /**
+     * Returns the number of seconds that queries executed by this handler
+     * may run before they are cancelled, or {@code 0} if there is no limit.
+     * The timeout may be overridden for individual streams by a
+     * {@link com.speedment.stream.StreamDecorator StreamDecorator}.
+     * <p>
+     * The default implementation returns {@code 0}.
+     *
+     * @return  the default query timeout in seconds, or {@code 0} for none
+     */
+    default int getQueryTimeout() {
+        return 0;
+    }
+
+    /**
+     * Sets the number of seconds that queries executed by this handler may
+     * run before they are cancelled. A value of {@code 0} means that there
+     * is no limit.
+     * <p>
+     * The default implementation does not support timeouts and throws an
+     * {@link UnsupportedOperationException} unless the given timeout is
+     * {@code 0}.
+     *
+     * @param queryTimeout  the default query timeout in seconds, or
+     *                      {@code 0} for none
+     * @throws UnsupportedOperationException  if a timeout is given but not
+     *                                        supported by this handler
+     */
+    default void setQueryTimeout(int queryTimeout) {
+        if (queryTimeout != 0) {
+            throw new UnsupportedOperationException(
+                getClass().getName() + " does not support query timeouts."
+            );
+        }
+    }
+
+    /**
+     * Eagerly asks the database how it would execute the given SQL query and
+     * returns the rows of the execution plan. Each row is rendered as its
+     * column values separated by tabs. The query itself is not executed.
+     *
+     * @param sql     the non-null SQL query to explain
+     * @param values  non-null values to use for "?" parameters in the sql
+     *                query
+     * @return        a stream of the rows of the execution plan
+     */
+    default Stream<String> explain(
+        final String sql, 
+        final List<?> values) {
+        
+        return executeQuery("EXPLAIN " + sql, values, rs -> {
+            final int columnCount = rs.getMetaData().getColumnCount();
+            final StringJoiner row = new StringJoiner("\t");
+            for (int i = 1; i <= columnCount; i++) {
+                row.add(String.valueOf(rs.getString(i)));
+            }
+            return row.toString();
+        });
+    }
+
     /**
      * Executes a SQL update command. Generated key(s) following an insert
      * command (if any) will be feed to the provided {code Consumer}.
@@ -0,0 +1,78 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.db;
+
+import com.speedment.annotation.Api;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Describes how a stream from a SQL manager would be executed. The plan
+ * shows the SQL query that would be sent to the database together with its
+ * parameter values, and which stream operations that are executed by the
+ * database respectively in the JVM.
+ * <p>
+ * The plan describes the stream as it would be iterated over, for example
+ * by {@code forEach()} or {@code collect()}. Some terminal operations, such
+ * as {@code count()}, may be executed using other queries.
+ *
+ * @author pemi
+ */
+@Api(version = "2.2")
+public interface QueryPlan {
+
+    /**
+     * Returns the SQL query that would be sent to the database.
+     *
+     * @return the SQL query that would be sent to the database
+     */
+    String getSql();
+
+    /**
+     * Returns the values that would be bound to the parameters of the SQL
+     * query.
+     *
+     * @return the values of the parameters of the SQL query
+     */
+    List<?> getValues();
+
+    /**
+     * Returns the names of the stream operations that have been rendered in
+     * the SQL query, in the order they appeared in the stream.
+     *
+     * @return the names of the operations executed by the database
+     */
+    List<String> getSqlActions();
+
+    /**
+     * Returns the names of the stream operations that remain to be executed
+     * in the JVM on the rows returned by the SQL query, in execution order.
+     *
+     * @return the names of the operations executed in the JVM
+     */
+    List<String> getJavaActions();
+
+    /**
+     * Returns the execution plan of the database for the SQL query, if it
+     * was requested when the plan was created. Each element corresponds to a
+     * row of the output of the database's {@code EXPLAIN} command.
+     *
+     * @return the execution plan of the database, if requested
+     */
+    Optional<List<String>> getDatabasePlan();
+
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.field.methods;
+
+import com.speedment.annotation.Api;
+import com.speedment.field.trait.FieldTrait;
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.internal.core.field.trait.FieldGetterImpl;
+import static com.speedment.util.StaticClassUtil.instanceNotAllowed;
+import static java.util.Objects.requireNonNull;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Functions that get the value of a field with a {@link Number} value as a
+ * primitive. When used in a {@code mapToInt}, {@code mapToLong} or
+ * {@code mapToDouble} operation of a Speedment stream, the column can be
+ * aggregated by the data source instead of by the stream, as in
+ * {@code stream().mapToLong(NumberGetters.asLong(Order.AMOUNT)).sum()}.
+ *
+ * @author pemi
+ */
+@Api(version = "2.2")
+public final class NumberGetters {
+
+    /**
+     * Returns a function that gets the value of the given field as an
+     * {@code int}.
+     *
+     * @param <ENTITY> the entity type
+     * @param <V> the field value type
+     * @param <F> the field type
+     * @param field the field to get
+     * @return a function that gets the value of the field as an {@code int}
+     */
+    public static <ENTITY, V extends Number, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V>> ToIntFunction<ENTITY> asInt(F field) {
+        return fieldGetter(field);
+    }
+
+    /**
+     * Returns a function that gets the value of the given field as a
+     * {@code long}.
+     *
+     * @param <ENTITY> the entity type
+     * @param <V> the field value type
+     * @param <F> the field type
+     * @param field the field to get
+     * @return a function that gets the value of the field as a {@code long}
+     */
+    public static <ENTITY, V extends Number, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V>> ToLongFunction<ENTITY> asLong(F field) {
+        return fieldGetter(field);
+    }
+
+    /**
+     * Returns a function that gets the value of the given field as a
+     * {@code double}.
+     *
+     * @param <ENTITY> the entity type
+     * @param <V> the field value type
+     * @param <F> the field type
+     * @param field the field to get
+     * @return a function that gets the value of the field as a
+     * {@code double}
+     */
+    public static <ENTITY, V extends Number, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V>> ToDoubleFunction<ENTITY> asDouble(F field) {
+        return fieldGetter(field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY, V, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V>> FieldGetterImpl<ENTITY, V> fieldGetter(F field) {
+        final Getter<ENTITY, V> getter = requireNonNull(field).getter();
+        if (getter instanceof FieldGetterImpl) {
+            return (FieldGetterImpl<ENTITY, V>) getter;
+        }
+        return new FieldGetterImpl<>(field, getter);
+    }
+
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private NumberGetters() {
+        instanceNotAllowed(getClass());
+    }
+}
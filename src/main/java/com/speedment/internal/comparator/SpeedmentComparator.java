@@ -17,6 +17,7 @@
 package com.speedment.internal.comparator;
 
 import com.speedment.field.trait.FieldTrait;
+import com.speedment.internal.comparator.impl.NullOrder;
 import java.util.Comparator;
 
 /**
@@ -41,4 +42,12 @@ public interface SpeedmentComparator<ENTITY, V> extends Comparator<ENTITY> {
      */
     boolean isReversed();
 
+    /**
+     * Returns how null values are ordered by this Comparator before it is
+     * (possibly) reversed.
+     *
+     * @return how null values are ordered
+     */
+    NullOrder getNullOrder();
+
 }
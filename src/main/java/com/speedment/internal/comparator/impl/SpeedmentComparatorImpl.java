@@ -51,6 +51,11 @@ public class SpeedmentComparatorImpl<ENTITY, V extends Comparable<? super V>> im
         return reversed;
     }
 
+    @Override
+    public NullOrder getNullOrder() {
+        return nullOrder;
+    }
+
     @Override
     public Comparator<ENTITY> reversed() {
         reversed = !reversed;
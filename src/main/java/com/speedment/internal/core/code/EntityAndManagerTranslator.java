@@ -75,7 +75,8 @@ public abstract class EntityAndManagerTranslator<T extends ClassOrInterface<T>>
     public final ClassType ENTITY = new ClassType("", "Impl"),
             BUILDER = new ClassType("Builder", "Impl"),
             CONFIG = new ClassType("Config", "Impl"),
-            MANAGER = new ClassType("Manager", "Impl");
+            MANAGER = new ClassType("Manager", "Impl"),
+            FLYWEIGHT = new ClassType("", "Flyweight");
 //            FIELD = new ClassType("Field", "Impl");
 
     public final Generic GENERIC_OF_PK = Generic.of().add(typeOfPK()),
@@ -22,6 +22,7 @@ import com.speedment.internal.codegen.base.Generator;
 import com.speedment.internal.codegen.base.Meta;
 import com.speedment.internal.codegen.java.JavaGenerator;
 import com.speedment.internal.codegen.lang.models.File;
+import com.speedment.internal.core.code.entity.EntityFlyweightTranslator;
 import com.speedment.internal.core.code.entity.EntityImplTranslator;
 import com.speedment.internal.core.code.manager.EntityManagerImplTranslator;
 import com.speedment.internal.core.code.entity.EntityTranslator;
@@ -87,6 +88,7 @@ public final class MainGenerator implements Consumer<Project> {
             .forEach(table -> {
                 translators.add(new EntityTranslator(speedment, gen, table));
                 translators.add(new EntityImplTranslator(speedment, gen, table));
+                translators.add(new EntityFlyweightTranslator(speedment, gen, table));
                 translators.add(new EntityManagerImplTranslator(speedment, gen, table));
             });
 
@@ -0,0 +1,180 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.code.entity;
+
+import com.speedment.Speedment;
+import com.speedment.config.Column;
+import com.speedment.config.Table;
+import com.speedment.config.mapper.TypeMapper;
+import com.speedment.exception.SpeedmentException;
+import com.speedment.internal.codegen.base.Generator;
+import com.speedment.internal.codegen.lang.models.Class;
+import com.speedment.internal.codegen.lang.models.Constructor;
+import com.speedment.internal.codegen.lang.models.Field;
+import com.speedment.internal.codegen.lang.models.File;
+import com.speedment.internal.codegen.lang.models.Generic;
+import com.speedment.internal.codegen.lang.models.Import;
+import com.speedment.internal.codegen.lang.models.Method;
+import com.speedment.internal.codegen.lang.models.Type;
+import com.speedment.internal.codegen.lang.models.values.ReferenceValue;
+import static com.speedment.internal.codegen.lang.models.constants.DefaultAnnotationUsage.OVERRIDE;
+import static com.speedment.internal.codegen.lang.models.constants.DefaultType.OPTIONAL;
+import static com.speedment.internal.codegen.util.Formatting.block;
+import com.speedment.internal.core.runtime.typemapping.JavaTypeMapping;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates a read-only flyweight implementation of an entity. A flyweight
+ * reads the values of its columns from the current row of a
+ * {@link ResultSet} each time a getter is called, so that a single instance
+ * can represent every row of a stream.
+ *
+ * @author pemi
+ */
+public final class EntityFlyweightTranslator extends EntityImplTranslator {
+
+    private static final String RESULT_SET_NAME = "resultSet";
+
+    public EntityFlyweightTranslator(Speedment speedment, Generator cg, Table configEntity) {
+        super(speedment, cg, configEntity);
+    }
+
+    @Override
+    protected String className() {
+        return FLYWEIGHT.getImplName();
+    }
+
+    @Override
+    protected void addGetter(File file, Class cl, Column c) {
+        file.add(Import.of(Type.of(SQLException.class)));
+        file.add(Import.of(Type.of(SpeedmentException.class)));
+
+        final TypeMapper<?, ?> mapper = c.getTypeMapper();
+        if (!mapper.isIdentityMapper()) {
+            final Type mapperType = Type.of(TypeMapper.class)
+                .add(Generic.of().add(Type.of(mapper.getDatabaseType())))
+                .add(Generic.of().add(Type.of(mapper.getJavaType())));
+
+            file.add(Import.of(Type.of(mapper.getClass())));
+            cl.add(Field.of(typeMapperName(c), mapperType)
+                .private_().static_().final_()
+                .set(new ReferenceValue("new " + mapper.getClass().getSimpleName() + "()"))
+            );
+        }
+
+        final JavaTypeMapping<?> mapping = getSpeedment().getJavaTypeMapperComponent()
+            .apply(dbms().getType(), mapper.getDatabaseType());
+        final String getterName = GETTER_METHOD_PREFIX + mapping.getResultSetMethodName(dbms());
+        final int ordinal = ordinal(c);
+
+        final List<java.lang.reflect.Method> resultSetMethods = Stream.of(ResultSet.class.getMethods())
+            .filter(m -> m.getName().equals(getterName))
+            .filter(m -> m.getParameterCount() == 1 && m.getParameterTypes()[0] == int.class)
+            .collect(Collectors.toList());
+
+        final Stream.Builder<String> streamBuilder = Stream.builder();
+        final String value;
+        if (resultSetMethods.isEmpty()) {
+            file.add(Import.of(Type.of(mapper.getDatabaseType())));
+            value = "(" + mapper.getDatabaseType().getSimpleName() + ") " + RESULT_SET_NAME + ".getObject(" + ordinal + ")";
+        } else if (c.isNullable() && resultSetMethods.get(0).getReturnType().isPrimitive()) {
+            // Check for null without boxing the primitive first
+            final String valueName = variableName(c) + "Value";
+            streamBuilder.add("final " + resultSetMethods.get(0).getReturnType().getName() + " " + valueName + " = " + RESULT_SET_NAME + "." + getterName + "(" + ordinal + ");");
+            value = RESULT_SET_NAME + ".wasNull() ? null : " + valueName;
+        } else {
+            value = RESULT_SET_NAME + "." + getterName + "(" + ordinal + ")";
+        }
+
+        final String javaValue = mapper.isIdentityMapper()
+            ? value
+            : typeMapperName(c) + ".toJavaType(" + value + ")";
+
+        final Type retType;
+        if (c.isNullable()) {
+            file.add(Import.of(Type.of(Optional.class)));
+            retType = OPTIONAL.add(Generic.of().add(Type.of(mapper.getJavaType())));
+            streamBuilder.add("return Optional.ofNullable(" + javaValue + ");");
+        } else {
+            retType = Type.of(mapper.getJavaType());
+            streamBuilder.add("return " + javaValue + ";");
+        }
+
+        cl.add(Method.of(GETTER_METHOD_PREFIX + typeName(c), retType)
+            .public_()
+            .add(OVERRIDE)
+            .add("try " + block(streamBuilder.build()))
+            .add("catch (" + SQLException.class.getSimpleName() + " sqle) " + block(
+                "throw new " + SpeedmentException.class.getSimpleName() + "(sqle);"
+            ))
+        );
+    }
+
+    @Override
+    protected Method setter(File file, Column c) {
+        return Method.of(BUILDER_METHOD_PREFIX + typeName(c), ENTITY.getType())
+            .public_().final_()
+            .add(OVERRIDE)
+            .add(fieldFor(c))
+            .add("throw new UnsupportedOperationException(\"A flyweight is read-only. Use copy() to get a modifiable entity.\");");
+    }
+
+    @Override
+    protected void addConstructors(File file, Class cl) {
+        file.add(Import.of(Type.of(ResultSet.class)));
+        cl
+            .add(Field.of(RESULT_SET_NAME, Type.of(ResultSet.class)).private_().final_())
+            .add(Constructor.of()
+                .add(Field.of(SPEEDMENT_NAME, Type.of(Speedment.class)))
+                .add(Field.of(RESULT_SET_NAME, Type.of(ResultSet.class)))
+                .add("super(" + SPEEDMENT_NAME + ");")
+                .add("this." + RESULT_SET_NAME + " = " + RESULT_SET_NAME + ";")
+            );
+    }
+
+    /**
+     * Returns the position of the given column in the rows that are read by
+     * the manager, starting with 1.
+     *
+     * @param c the column
+     * @return the position of the column
+     */
+    private int ordinal(Column c) {
+        requireNonNull(c);
+        return columns().collect(Collectors.toList()).indexOf(c) + 1;
+    }
+
+    private String typeMapperName(Column c) {
+        return variableName(c) + "TypeMapper";
+    }
+
+    @Override
+    protected String getJavadocRepresentText() {
+        return "A read-only flyweight implementation";
+    }
+
+    @Override
+    protected String getFileName() {
+        return FLYWEIGHT.getImplName();
+    }
+}
@@ -30,6 +30,7 @@ import static com.speedment.internal.codegen.lang.models.constants.DefaultAnnota
 import static com.speedment.internal.codegen.lang.models.constants.DefaultType.OPTIONAL;
 import static com.speedment.internal.codegen.lang.models.constants.DefaultType.STRING;
 import static com.speedment.internal.codegen.util.Formatting.indent;
+import com.speedment.config.Column;
 import com.speedment.config.Table;
 import com.speedment.internal.core.code.AbstractBaseEntity;
 import com.speedment.exception.SpeedmentException;
@@ -58,7 +59,7 @@ import static java.util.Objects.requireNonNull;
  *
  * @author pemi
  */
-public final class EntityImplTranslator extends EntityAndManagerTranslator<Class> {
+public class EntityImplTranslator extends EntityAndManagerTranslator<Class> {
 
     public static final String SPEEDMENT_NAME = "speedment";
     private static final String MANAGER_METHOD = "manager_";
@@ -73,37 +74,11 @@ public final class EntityImplTranslator extends EntityAndManagerTranslator<Class
         requireNonNull(file);
         final Map<Table, List<String>> fkStreamers = new HashMap<>();
 
-        final Class newClass = new ClassBuilder(ENTITY.getImplName())
+        final Class newClass = new ClassBuilder(className())
                 // Getters
-                .addColumnConsumer((cl, c) -> {
-
-                    final Type retType;
-                    final String getter;
-                    if (c.isNullable()) {
-                        retType = OPTIONAL.add(Generic.of().add(Type.of(c.getTypeMapper().getJavaType())));
-                        getter = "Optional.ofNullable(" + variableName(c) + ")";
-                    } else {
-                        retType = Type.of(c.getTypeMapper().getJavaType());
-                        getter = variableName(c);
-                    }
-                    cl
-                            .add(fieldFor(c).private_())
-                            .add(Method.of(GETTER_METHOD_PREFIX + typeName(c), retType)
-                                    .public_()
-                                    .add(OVERRIDE)
-                                    .add("return " + getter + ";"));
-
-                })
+                .addColumnConsumer((cl, c) -> addGetter(file, cl, c))
                 // Setters
-                .addColumnConsumer((cl, c) -> {
-                    cl
-                            .add(Method.of(BUILDER_METHOD_PREFIX + typeName(c), ENTITY.getImplType())
-                                    .public_().final_()
-                                    .add(OVERRIDE)
-                                    .add(fieldFor(c))
-                                    .add("this." + variableName(c) + " = " + variableName(c) + ";")
-                                    .add("return this;"));
-                })
+                .addColumnConsumer((cl, c) -> cl.add(setter(file, c)))
                 // Add streamers from back pointing FK:s
                 .addForeignKeyReferencesThisTableConsumer((i, fk) -> {
                     final FkHolder fu = new FkHolder(getSpeedment(), getCodeGenerator(), fk);
@@ -173,11 +148,7 @@ public final class EntityImplTranslator extends EntityAndManagerTranslator<Class
                 .final_()
                 .setSupertype(Type.of(AbstractBaseEntity.class).add(Generic.of().add(ENTITY.getType())))
                 .add(ENTITY.getType())
-                .add(Constructor.of().add(Field.of(SPEEDMENT_NAME, Type.of(Speedment.class)))
-                        .add("super(" + SPEEDMENT_NAME + ");")
-                )
-                .add(copyConstructor(ENTITY.getType(), CopyConstructorMode.BUILDER)) //            .add(Constructor.of().
-                ;
+                .call(cl -> addConstructors(file, cl));
 
         // Create aggregate streaming functions, if any
         fkStreamers.keySet().stream().forEach((referencingTable) -> {
@@ -213,6 +184,71 @@ public final class EntityImplTranslator extends EntityAndManagerTranslator<Class
 
     }
 
+    /**
+     * Returns the simple name of the generated class.
+     *
+     * @return the simple name of the generated class
+     */
+    protected String className() {
+        return ENTITY.getImplName();
+    }
+
+    /**
+     * Adds the getter of the given column, and any fields it needs, to the
+     * generated class.
+     *
+     * @param file the generated file
+     * @param cl the generated class
+     * @param c the column
+     */
+    protected void addGetter(File file, Class cl, Column c) {
+        final Type retType;
+        final String getter;
+        if (c.isNullable()) {
+            retType = OPTIONAL.add(Generic.of().add(Type.of(c.getTypeMapper().getJavaType())));
+            getter = "Optional.ofNullable(" + variableName(c) + ")";
+        } else {
+            retType = Type.of(c.getTypeMapper().getJavaType());
+            getter = variableName(c);
+        }
+        cl
+                .add(fieldFor(c).private_())
+                .add(Method.of(GETTER_METHOD_PREFIX + typeName(c), retType)
+                        .public_()
+                        .add(OVERRIDE)
+                        .add("return " + getter + ";"));
+    }
+
+    /**
+     * Returns the setter of the given column.
+     *
+     * @param file the generated file
+     * @param c the column
+     * @return the setter of the column
+     */
+    protected Method setter(File file, Column c) {
+        return Method.of(BUILDER_METHOD_PREFIX + typeName(c), ENTITY.getImplType())
+                .public_().final_()
+                .add(OVERRIDE)
+                .add(fieldFor(c))
+                .add("this." + variableName(c) + " = " + variableName(c) + ";")
+                .add("return this;");
+    }
+
+    /**
+     * Adds the constructors, and any fields they set, to the generated class.
+     *
+     * @param file the generated file
+     * @param cl the generated class
+     */
+    protected void addConstructors(File file, Class cl) {
+        cl
+                .add(Constructor.of().add(Field.of(SPEEDMENT_NAME, Type.of(Speedment.class)))
+                        .add("super(" + SPEEDMENT_NAME + ");")
+                )
+                .add(copyConstructor(ENTITY.getType(), CopyConstructorMode.BUILDER));
+    }
+
     private Method copy() {
         return Method.of("copy", ENTITY.getType()).public_().add(OVERRIDE)
                 .add("return new " + ENTITY.getImplName() + "(getSpeedment_(), this);");
@@ -237,7 +273,7 @@ public final class EntityImplTranslator extends EntityAndManagerTranslator<Class
             m.add("sj.add(\"" + variableName(c) + " = \"+Objects.toString(" + getter + "));");
         });
 
-        m.add("return \"" + ENTITY.getImplName() + " \"+sj.toString();");
+        m.add("return \"" + className() + " \"+sj.toString();");
 
         return m;
 
@@ -206,7 +206,9 @@ public final class EntityTranslator extends EntityAndManagerTranslator<Interface
                     "Finds and returns " + returns + "."
                     + "<p>\n"
                     + "N.B. The current implementation only supports lazy-loading of the referenced Entities. This means that if you "
-                    + "traverse N " + ENTITY.getName() + " entities and call this method for each one, there will be N SQL-queries executed."
+                    + "traverse N " + ENTITY.getName() + " entities and call this method for each one, there will be N SQL-queries executed. "
+                    + "Use {@link com.speedment.Manager#findForeign(java.util.stream.Stream, com.speedment.field.trait.FieldTrait) Manager.findForeign} "
+                    + "to find the referenced Entities of a stream with one SQL-query per batch of Entities."
                 ).add(RETURN.setText(returns)
                 ));
 
@@ -36,7 +36,9 @@ import static com.speedment.internal.core.code.DefaultJavaClassTranslator.SETTER
 import com.speedment.config.Column;
 import com.speedment.config.Dbms;
 import com.speedment.config.Table;
+import com.speedment.config.parameters.ColumnCompressionType;
 import com.speedment.internal.core.manager.sql.AbstractSqlManager;
+import com.speedment.internal.core.manager.sql.ValueDictionary;
 import com.speedment.exception.SpeedmentException;
 import com.speedment.component.JavaTypeMapperComponent;
 import com.speedment.config.mapper.TypeMapper;
@@ -49,6 +51,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -74,7 +77,19 @@ public final class EntityManagerImplTranslator extends EntityAndManagerTranslato
         return new ClassBuilder(MANAGER.getImplName())
             .addColumnConsumer((i, c) -> {
 
+                if (isDeduplicated(c)) {
+                    file.add(Import.of(Type.of(ValueDictionary.class)));
+                    i.add(Field.of(dictionaryName(c), Type.of(ValueDictionary.class).add(Generic.of().add(Type.of(c.getTypeMapper().getJavaType()))))
+                        .private_().final_()
+                        .set(new ReferenceValue("newValueDictionary(\"" + c.getName() + "\")"))
+                    );
+                }
+
                 final TypeMapper<?, ?> mapper = c.getTypeMapper();
+                if (mapper.isIdentityMapper()) {
+                    // Identity mappers are not invoked when entities are read
+                    return;
+                }
                 final java.lang.Class<?> javaType = mapper.getJavaType();
                 final java.lang.Class<?> dbType = mapper.getDatabaseType();
                 final Type mapperType = Type.of(TypeMapper.class).add(Generic.of().add(Type.of(dbType))).add(Generic.of().add(Type.of(javaType)));
@@ -92,11 +107,13 @@ public final class EntityManagerImplTranslator extends EntityAndManagerTranslato
                 .add(Generic.of().add(ENTITY.getType()))
             )
             .call(i -> file.add(Import.of(ENTITY.getImplType())))
+            .call(i -> file.add(Import.of(FLYWEIGHT.getImplType())))
             .add(Constructor.of()
                 .public_()
                 .add(Field.of(SPEEDMENT_VARIABLE_NAME, Type.of(Speedment.class)))
                 .add("super(" + SPEEDMENT_VARIABLE_NAME + ");")
-                .add("setSqlEntityMapper(this::defaultReadEntity);"))
+                .add("setSqlEntityMapper(this::defaultReadEntity);")
+                .add("setFlyweightFactory(resultSet -> new " + FLYWEIGHT.getImplName() + "(" + SPEEDMENT_VARIABLE_NAME + ", resultSet));"))
             .add(Method.of("getEntityClass", Type.of(java.lang.Class.class).add(GENERIC_OF_ENTITY)).public_().add(OVERRIDE)
                 .add("return " + ENTITY.getName() + ".class;"))
             .add(generateGet(file))
@@ -155,38 +172,33 @@ public final class EntityManagerImplTranslator extends EntityAndManagerTranslato
         columns().forEachOrdered(c -> {
 
             final JavaTypeMapping<?> mapping = mapperComponent.apply(dbms().getType(), c.getTypeMapper().getDatabaseType());
-            final StringBuilder sb = new StringBuilder()
-                .append("entity.set")
-                .append(typeName(c))
-                .append("(")
-                .append(typeMapperName(c))
-                .append(".toJavaType(");
-
             final String getterName = "get" + mapping.getResultSetMethodName(dbms());
+            final int ordinal = position.getAndIncrement();
 
             final boolean isResultSetMethod = Stream.of(ResultSet.class.getMethods())
                 .map(java.lang.reflect.Method::getName)
                 .anyMatch(getterName::equals);
 
-            final boolean isResultSetMethodReturnsPrimitive = Stream.of(ResultSet.class.getMethods())
+            final Optional<java.lang.Class<?>> primitiveType = Stream.of(ResultSet.class.getMethods())
                 .filter(m -> m.getName().equals(getterName))
-                .anyMatch(m -> m.getReturnType().isPrimitive());
-
-            if (isResultSetMethod && !(c.isNullable() && isResultSetMethodReturnsPrimitive)) {
-                sb
-                    .append("resultSet.")
-                    .append("get")
-                    .append(mapping.getResultSetMethodName(dbms()))
-                    .append("(").append(position.getAndIncrement()).append(")");
+                .<java.lang.Class<?>>map(java.lang.reflect.Method::getReturnType)
+                .filter(java.lang.Class::isPrimitive)
+                .findFirst();
+
+            final String setter = "entity." + SETTER_METHOD_PREFIX + typeName(c);
+
+            if (!isResultSetMethod) {
+                // Use the null safe getter of the AbstractSqlManager
+                streamBuilder.add(setter + "(" + readValue(c, getterName + "(resultSet, " + ordinal + ")") + ");");
+            } else if (c.isNullable() && primitiveType.isPresent()) {
+                // Read the primitive value and check for null afterwards,
+                // without boxing it first and without allocating a lambda
+                final String valueName = variableName(c) + "Value";
+                streamBuilder.add("final " + primitiveType.get().getName() + " " + valueName + " = resultSet." + getterName + "(" + ordinal + ");");
+                streamBuilder.add(setter + "(" + readValue(c, "resultSet.wasNull() ? null : " + valueName) + ");");
             } else {
-                sb
-                    .append("get")
-                    .append(mapping.getResultSetMethodName(dbms()))
-                    .append("(resultSet, ")
-                    .append(position.getAndIncrement()).append(")");
+                streamBuilder.add(setter + "(" + readValue(c, "resultSet." + getterName + "(" + ordinal + ")") + ");");
             }
-            sb.append("));");
-            streamBuilder.add(sb.toString());
         });
 
         method
@@ -274,4 +286,53 @@ public final class EntityManagerImplTranslator extends EntityAndManagerTranslato
     private String typeMapperName(Column c) {
         return variableName(c) + "TypeMapper";
     }
+
+    private String dictionaryName(Column c) {
+        return variableName(c) + "Dictionary";
+    }
+
+    /**
+     * Returns if the values of the given column are deduplicated when
+     * entities are read. Values of a primitive java type are never held by
+     * more than one entity, so they are not deduplicated.
+     *
+     * @param c the column
+     * @return if the values are deduplicated
+     */
+    private boolean isDeduplicated(Column c) {
+        return ColumnCompressionType.of(c) == ColumnCompressionType.DEDUPLICATION
+            && !c.getTypeMapper().getJavaType().isPrimitive();
+    }
+
+    /**
+     * Returns code that converts the given database value to the java type
+     * of the column, and replaces it with an equal value of the dictionary
+     * of the column if the column is deduplicated.
+     *
+     * @param c the column
+     * @param databaseValue code that reads the database value
+     * @return code that reads the value of the column
+     */
+    private String readValue(Column c, String databaseValue) {
+        final String javaValue = toJavaType(c, databaseValue);
+        if (isDeduplicated(c)) {
+            return dictionaryName(c) + ".intern(" + javaValue + ")";
+        }
+        return javaValue;
+    }
+
+    /**
+     * Returns code that converts the given database value to the java type
+     * of the column. No conversion is needed for identity mappers.
+     *
+     * @param c the column
+     * @param databaseValue code that evaluates to the database value
+     * @return code that evaluates to the java value
+     */
+    private String toJavaType(Column c, String databaseValue) {
+        if (c.getTypeMapper().isIdentityMapper()) {
+            return databaseValue;
+        }
+        return typeMapperName(c) + ".toJavaType(" + databaseValue + ")";
+    }
 }
@@ -19,6 +19,7 @@ package com.speedment.internal.core.config.dbms;
 import com.speedment.Speedment;
 import com.speedment.config.Dbms;
 import com.speedment.db.DbmsHandler;
+import com.speedment.internal.comparator.impl.NullOrder;
 import com.speedment.internal.core.db.MySqlDbmsHandler;
 import com.speedment.internal.core.manager.sql.MySqlSpeedmentPredicateView;
 import com.speedment.internal.core.manager.sql.SpeedmentPredicateView;
@@ -79,4 +80,9 @@ public final class MariaDbDbmsType extends AbstractDbmsType {
     public MySqlSpeedmentPredicateView getSpeedmentPredicateView() {
         return VIEW;
     }
+
+    @Override
+    public String getOrderByFragment(String quotedColumnName, boolean descending, NullOrder nullOrder) {
+        return MySqlDbmsType.orderByFragment(quotedColumnName, descending, nullOrder);
+    }
 }
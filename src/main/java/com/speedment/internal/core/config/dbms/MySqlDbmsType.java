@@ -19,11 +19,16 @@ package com.speedment.internal.core.config.dbms;
 import com.speedment.Speedment;
 import com.speedment.config.Dbms;
 import com.speedment.db.DbmsHandler;
+import com.speedment.internal.comparator.impl.NullOrder;
 import com.speedment.internal.core.db.MySqlDbmsHandler;
 import com.speedment.internal.core.manager.sql.MySqlSpeedmentPredicateView;
 import com.speedment.internal.core.manager.sql.SpeedmentPredicateView;
 
 import static com.speedment.internal.core.stream.OptionalUtil.unwrap;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.function.BiFunction;
@@ -39,6 +44,7 @@ import java.util.stream.Stream;
 public final class MySqlDbmsType extends AbstractDbmsType {
 
     private static final String QUOTE = "`";
+    private static final String USE_CURSOR_FETCH = "useCursorFetch";
     private static final BiFunction<Speedment, Dbms, DbmsHandler> DBMS_MAPPER = MySqlDbmsHandler::new; // JAVA8 bug: Cannot use method ref in this() or super()
     private static final String RESULTSET_TABLE_SCHEMA = "TABLE_SCHEMA";
     private static final String JDBC_CONNECTOR_NAME = "mysql";
@@ -79,4 +85,89 @@ public final class MySqlDbmsType extends AbstractDbmsType {
     public SpeedmentPredicateView getSpeedmentPredicateView() {
         return VIEW;
     }
+
+    @Override
+    public String getOrderByFragment(String quotedColumnName, boolean descending, NullOrder nullOrder) {
+        return orderByFragment(quotedColumnName, descending, nullOrder);
+    }
+
+    @Override
+    public void prepareForStreaming(Connection connection, PreparedStatement statement, int fetchSize) throws SQLException {
+        // The driver only honours a positive fetch size if the connection
+        // uses server side cursors. Otherwise, the whole result is buffered
+        // unless the fetch size is Integer.MIN_VALUE, which makes the driver
+        // stream the rows one by one.
+        if (usesCursorFetch(connection)) {
+            statement.setFetchSize(fetchSize);
+        } else {
+            statement.setFetchSize(Integer.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Returns if the given connection uses server side cursors. The setting
+     * of the driver is used if the connection exposes it, since the property
+     * may also have been given when the connection was opened rather than
+     * in the URL. Otherwise, the parameters of the URL of the connection are
+     * examined.
+     *
+     * @param connection the connection
+     * @return if server side cursors are used
+     * @throws SQLException if the URL of the connection could not be read
+     */
+    private static boolean usesCursorFetch(Connection connection) throws SQLException {
+        try {
+            final Method getter = connection.getClass().getMethod("getUseCursorFetch");
+            if (getter.getReturnType() == boolean.class) {
+                return (Boolean) getter.invoke(connection);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // The connection is not a MySQL connection that exposes its
+            // properties, for example a connection of a pool
+        }
+        return usesCursorFetch(connection.getMetaData().getURL());
+    }
+
+    /**
+     * Returns if the given URL sets the {@code useCursorFetch} property to
+     * {@code true}. The name of the property is not case sensitive, and the
+     * last occurrence of the property decides.
+     *
+     * @param url the URL of a connection, or {@code null}
+     * @return if server side cursors are used
+     */
+    static boolean usesCursorFetch(String url) {
+        if (url == null || url.indexOf('?') < 0) {
+            return false;
+        }
+        boolean result = false;
+        for (final String parameter : url.substring(url.indexOf('?') + 1).split("&")) {
+            final int separator = parameter.indexOf('=');
+            final String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            if (USE_CURSOR_FETCH.equalsIgnoreCase(name.trim())) {
+                final String value = separator < 0 ? "" : parameter.substring(separator + 1).trim();
+                result = "true".equalsIgnoreCase(value) || "yes".equalsIgnoreCase(value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an {@code ORDER BY} term for MySQL and MariaDB, which both
+     * consider nulls smaller than any other value and have no
+     * {@code NULLS FIRST/LAST} syntax.
+     *
+     * @param quotedColumnName the quoted name of the column to sort on
+     * @param descending if the column shall be sorted in descending order
+     * @param nullOrder where null values shall be placed
+     * @return the {@code ORDER BY} term
+     */
+    static String orderByFragment(String quotedColumnName, boolean descending, NullOrder nullOrder) {
+        final String direction = quotedColumnName + (descending ? " DESC" : " ASC");
+        // Sort on nullity first if the nulls would otherwise be misplaced
+        if ((nullOrder == NullOrder.FIRST && descending) || (nullOrder == NullOrder.LAST && !descending)) {
+            return quotedColumnName + " IS NULL" + (descending ? " DESC" : " ASC") + ", " + direction;
+        }
+        return direction;
+    }
 }
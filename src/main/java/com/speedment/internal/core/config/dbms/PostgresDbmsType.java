@@ -22,6 +22,10 @@ import com.speedment.db.DbmsHandler;
 import com.speedment.internal.core.db.PostgresDbmsHandler;
 import com.speedment.internal.core.manager.sql.PostgresSpeedmentPredicateView;
 import com.speedment.internal.core.manager.sql.SpeedmentPredicateView;
+import com.speedment.internal.core.manager.sql.SqlPredicateFragment;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.Collections;
 
 import java.util.Optional;
@@ -78,4 +82,26 @@ public final class PostgresDbmsType extends AbstractDbmsType {
     public SpeedmentPredicateView getSpeedmentPredicateView() {
         return VIEW;
     }
+
+    @Override
+    public SqlPredicateFragment getLimitOffsetFragment(long offset, long limit) {
+        if (limit == Long.MAX_VALUE) {
+            if (offset == 0) {
+                return SqlPredicateFragment.of("");
+            }
+            return SqlPredicateFragment.of(" OFFSET ?", offset);
+        }
+        if (offset == 0) {
+            return SqlPredicateFragment.of(" LIMIT ?", limit);
+        }
+        return SqlPredicateFragment.of(" LIMIT ? OFFSET ?").add(limit).add(offset);
+    }
+
+    @Override
+    public void prepareForStreaming(Connection connection, PreparedStatement statement, int fetchSize) throws SQLException {
+        // The driver only fetches rows using a cursor if the statement is
+        // executed within a transaction
+        connection.setAutoCommit(false);
+        statement.setFetchSize(fetchSize);
+    }
 }
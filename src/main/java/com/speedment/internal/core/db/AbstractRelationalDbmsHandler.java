@@ -78,6 +78,7 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
     private static final Boolean SHOW_METADATA = false;
 
     private final Speedment speedment;
+    private volatile int queryTimeout;
 
     public AbstractRelationalDbmsHandler(Speedment speedment, Dbms dbms) {
         this.speedment = requireNonNull(speedment);
@@ -422,10 +423,18 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
 
     @Override
     public <T> Stream<T> executeQuery(final String sql, final List<?> values, final SqlFunction<ResultSet, T> rsMapper) {
+        return executeQuery(sql, values, rsMapper, getQueryTimeout());
+    }
+
+    @Override
+    public <T> Stream<T> executeQuery(final String sql, final List<?> values, final SqlFunction<ResultSet, T> rsMapper, final int queryTimeout) {
         requireNonNull(sql);
         requireNonNull(values);
         requireNonNull(rsMapper);
         try (final Connection connection = getConnection(); final PreparedStatement ps = connection.prepareStatement(sql)) {
+            if (queryTimeout > 0) {
+                ps.setQueryTimeout(queryTimeout);
+            }
             int i = 1;
             for (final Object o : values) {
                 ps.setObject(i++, o);
@@ -450,11 +459,27 @@ public abstract class AbstractRelationalDbmsHandler implements DbmsHandler {
             final List<?> values,
         final Function<ResultSet, T> rsMapper
     ) {
-        return new AsynchronousQueryResultImpl<>(
+        final AsynchronousQueryResult<T> result = new AsynchronousQueryResultImpl<>(
                 Objects.requireNonNull(sql),
                 Objects.requireNonNull(values),
                 Objects.requireNonNull(rsMapper),
-            () -> getConnection());
+            () -> getConnection(),
+            getDbms().getType());
+        result.setQueryTimeout(getQueryTimeout());
+        return result;
+    }
+
+    @Override
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    @Override
+    public void setQueryTimeout(int queryTimeout) {
+        if (queryTimeout < 0) {
+            throw new IllegalArgumentException("The query timeout must not be negative, but was " + queryTimeout + ".");
+        }
+        this.queryTimeout = queryTimeout;
     }
 
     @Override
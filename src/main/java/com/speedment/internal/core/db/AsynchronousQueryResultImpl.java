@@ -21,16 +21,19 @@
  */
 package com.speedment.internal.core.db;
 
+import com.speedment.config.parameters.DbmsType;
 import com.speedment.db.AsynchronousQueryResult;
 import com.speedment.exception.SpeedmentException;
 import com.speedment.internal.logging.Logger;
 import com.speedment.internal.logging.LoggerManager;
+import com.speedment.internal.core.stream.PrefetchingIterator;
 import com.speedment.internal.core.stream.StreamUtil;
 import com.speedment.stream.ParallelStrategy;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.function.Function;
@@ -50,10 +53,20 @@ public final class AsynchronousQueryResultImpl<T> implements AsynchronousQueryRe
     private List<?> values;
     private Function<ResultSet, T> rsMapper;
     private final Supplier<Connection> connectionSupplier;
+    private final DbmsType dbmsType;
     private ParallelStrategy parallelStrategy;
+    private int fetchSize;
+    private int prefetchSize;
+    private int queryTimeout;
+    private boolean cancelOnClose;
+    private long rowLimit;
     private Connection connection;
+    private Boolean autoCommit;
     private PreparedStatement ps;
     private ResultSet rs;
+    private PrefetchingIterator<T> prefetcher;
+    private volatile boolean exhausted;
+    private volatile long rowsRead;
     private State state;
 
     public enum State {
@@ -64,13 +77,16 @@ public final class AsynchronousQueryResultImpl<T> implements AsynchronousQueryRe
         final String sql,
         final List<?> values,
         final Function<ResultSet, T> rsMapper,
-        Supplier<Connection> connectionSupplier
+        Supplier<Connection> connectionSupplier,
+        DbmsType dbmsType
     ) {
         setSql(sql); // requireNonNull in setter
         setValues(values);
         setRsMapper(rsMapper);
         this.connectionSupplier = requireNonNull(connectionSupplier);
+        this.dbmsType = requireNonNull(dbmsType);
         parallelStrategy = ParallelStrategy.DEFAULT;
+        rowLimit = Long.MAX_VALUE;
         setState(State.INIT);
         debug();
     }
@@ -81,6 +97,13 @@ public final class AsynchronousQueryResultImpl<T> implements AsynchronousQueryRe
         try {
             connection = connectionSupplier.get();
             ps = connection.prepareStatement(getSql());
+            if (queryTimeout > 0) {
+                ps.setQueryTimeout(queryTimeout);
+            }
+            if (fetchSize > 0) {
+                autoCommit = connection.getAutoCommit();
+                dbmsType.prepareForStreaming(connection, ps, fetchSize);
+            }
             int i = 1;
             for (final Object o : getValues()) {
                 ps.setObject(i++, o);
@@ -92,17 +115,70 @@ public final class AsynchronousQueryResultImpl<T> implements AsynchronousQueryRe
             throw new SpeedmentException(sqle);
         }
         setState(State.OPEN);
-        return StreamUtil.asStream(rs, getRsMapper(), parallelStrategy);
+        final Iterator<T> iterator = new ReadTrackingIterator(StreamUtil.asIterator(rs, getRsMapper()));
+        if (prefetchSize > 0) {
+            prefetcher = new PrefetchingIterator<>(iterator, prefetchSize);
+            return StreamUtil.asStream(prefetcher, parallelStrategy);
+        }
+        return StreamUtil.asStream(iterator, parallelStrategy);
     }
 
     @Override
     public void close() {
+        if (cancelOnClose && getState() == State.OPEN && isProducingRows()) {
+            // The stream was abandoned while the database may still be
+            // producing rows. Stop the query in the database, since many
+            // drivers would otherwise read the remaining rows when the
+            // ResultSet is closed. This also aborts any pending read of a
+            // prefetching thread.
+            cancelSilently(ps);
+        }
+        if (prefetcher != null) {
+            // The producer thread must not be reading from the ResultSet
+            // when it is closed
+            prefetcher.close();
+        }
         closeSilently(rs);
         closeSilently(ps);
+        restoreAutoCommit();
         closeSilently(connection);
         setState(State.CLOSED);
     }
 
+    /**
+     * Returns if the database may still be producing rows of the query. This
+     * is not the case if all rows or as many rows as the limit of the query
+     * have been read. Unless the rows are streamed using a fetch size, the
+     * driver has read the whole result before the statement returned it.
+     *
+     * @return if the database may still be producing rows
+     */
+    private boolean isProducingRows() {
+        return fetchSize > 0 && !exhausted && rowsRead < rowLimit;
+    }
+
+    private void cancelSilently(final PreparedStatement statement) {
+        try {
+            if (statement != null) {
+                statement.cancel();
+            }
+        } catch (SQLException sqle) {
+            LOGGER.error(sqle, "Error cancelling " + statement);
+            // Just log the error. No re-throw
+        }
+    }
+
+    private void restoreAutoCommit() {
+        try {
+            if (connection != null && autoCommit != null && connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException sqle) {
+            LOGGER.error(sqle, "Error restoring auto-commit of " + connection);
+            // Just log the error. No re-throw
+        }
+    }
+
     protected void closeSilently(final AutoCloseable closeable) {
         try {
             if (closeable != null) {
@@ -114,6 +190,68 @@ public final class AsynchronousQueryResultImpl<T> implements AsynchronousQueryRe
         }
     }
 
+    @Override
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("The fetch size must not be negative, but was " + fetchSize + ".");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    @Override
+    public void setPrefetchSize(int prefetchSize) {
+        if (prefetchSize < 0) {
+            throw new IllegalArgumentException("The prefetch size must not be negative, but was " + prefetchSize + ".");
+        }
+        this.prefetchSize = prefetchSize;
+    }
+
+    @Override
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    @Override
+    public void setQueryTimeout(int queryTimeout) {
+        if (queryTimeout < 0) {
+            throw new IllegalArgumentException("The query timeout must not be negative, but was " + queryTimeout + ".");
+        }
+        this.queryTimeout = queryTimeout;
+    }
+
+    @Override
+    public boolean isCancelOnClose() {
+        return cancelOnClose;
+    }
+
+    @Override
+    public void setCancelOnClose(boolean cancelOnClose) {
+        this.cancelOnClose = cancelOnClose;
+    }
+
+    @Override
+    public long getRowLimit() {
+        return rowLimit;
+    }
+
+    @Override
+    public void setRowLimit(long rowLimit) {
+        if (rowLimit < 0) {
+            throw new IllegalArgumentException("The row limit must not be negative, but was " + rowLimit + ".");
+        }
+        this.rowLimit = rowLimit;
+    }
+
     @Override
     public String toString() {
         return getState() + " \"" + getSql() + "\" <- " + getValues();
@@ -169,6 +307,34 @@ public final class AsynchronousQueryResultImpl<T> implements AsynchronousQueryRe
     public void setParallelStrategy(ParallelStrategy parallelStrategy) {
         this.parallelStrategy = parallelStrategy;
     }
-    
+
+    /**
+     * Keeps track of how many rows have been read and of whether all rows
+     * have been read.
+     */
+    private final class ReadTrackingIterator implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+
+        private ReadTrackingIterator(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean result = iterator.hasNext();
+            if (!result) {
+                exhausted = true;
+            }
+            return result;
+        }
+
+        @Override
+        public T next() {
+            final T next = iterator.next();
+            rowsRead++;
+            return next;
+        }
+    }
 
 }
@@ -60,7 +60,7 @@ public abstract class AbstractCombinedBasePredicate<ENTITY> extends AbstractBase
      */
     protected final <R extends AbstractCombinedBasePredicate<ENTITY>> R add(Predicate<? super ENTITY> predicate) {
         requireNonNull(predicate);
-        if (getClass().equals(predicate.getClass())) {
+        if (getClass().equals(predicate.getClass()) && !((AbstractCombinedBasePredicate<?>) predicate).isNegated()) {
             @SuppressWarnings("unchecked")
             final AbstractCombinedBasePredicate<ENTITY> cbp = getClass().cast(predicate);
             cbp.stream().forEachOrdered(predicates::add);
@@ -130,12 +130,15 @@ public abstract class AbstractCombinedBasePredicate<ENTITY> extends AbstractBase
         @Override
         public boolean test(ENTITY t) {
             requireNonNull(t);
-            return stream().allMatch(p -> p.test(t));
+            return stream().allMatch(p -> p.test(t)) ^ isNegated();
         }
 
         @Override
         public AndCombinedBasePredicate<ENTITY> and(Predicate<? super ENTITY> other) {
             requireNonNull(other);
+            if (isNegated()) {
+                return new AndCombinedBasePredicate<>(this, other);
+            }
             return add(other);
         }
 
@@ -155,7 +158,7 @@ public abstract class AbstractCombinedBasePredicate<ENTITY> extends AbstractBase
         @Override
         public boolean test(ENTITY t) {
             requireNonNull(t);
-            return stream().anyMatch(p -> p.test(t));
+            return stream().anyMatch(p -> p.test(t)) ^ isNegated();
         }
 
         @Override
@@ -167,6 +170,9 @@ public abstract class AbstractCombinedBasePredicate<ENTITY> extends AbstractBase
         @Override
         public OrCombinedBasePredicate<ENTITY> or(Predicate<? super ENTITY> other) {
             requireNonNull(other);
+            if (isNegated()) {
+                return new OrCombinedBasePredicate<>(this, other);
+            }
             return add(other);
         }
     }
@@ -64,6 +64,10 @@ public class BetweenPredicate<ENTITY, V extends Comparable<? super V>>
 
     @Override
     public boolean testField(V fieldValue) {
+        if (fieldValue == null) {
+            // Like the other comparisons, a null value is not in any range
+            return false;
+        }
         switch (operand2) {
             case START_EXCLUSIVE_END_EXCLUSIVE: {
                 return (operand0.compareTo(fieldValue) < 0 && operand1.compareTo(fieldValue) > 0);
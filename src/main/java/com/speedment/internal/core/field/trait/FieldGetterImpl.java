@@ -0,0 +1,73 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.field.trait;
+
+import com.speedment.field.methods.Getter;
+import com.speedment.field.predicate.HasFieldTrait;
+import com.speedment.field.trait.FieldTrait;
+import static java.util.Objects.requireNonNull;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link Getter} that knows what field it is reading. This allows stream
+ * operations that map entities using the getter to be expressed in terms of
+ * the underlying column. The primitive functions require the field value to
+ * be a {@link Number}.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ * @param <V> the field value type
+ */
+public final class FieldGetterImpl<ENTITY, V> implements Getter<ENTITY, V>,
+    ToIntFunction<ENTITY>, ToLongFunction<ENTITY>, ToDoubleFunction<ENTITY>, HasFieldTrait {
+
+    private final FieldTrait field;
+    private final Getter<ENTITY, V> getter;
+
+    public FieldGetterImpl(FieldTrait field, Getter<ENTITY, V> getter) {
+        this.field = requireNonNull(field);
+        this.getter = requireNonNull(getter);
+    }
+
+    @Override
+    public FieldTrait getField() {
+        return field;
+    }
+
+    @Override
+    public V apply(ENTITY entity) {
+        return getter.apply(entity);
+    }
+
+    @Override
+    public int applyAsInt(ENTITY entity) {
+        return ((Number) getter.apply(entity)).intValue();
+    }
+
+    @Override
+    public long applyAsLong(ENTITY entity) {
+        return ((Number) getter.apply(entity)).longValue();
+    }
+
+    @Override
+    public double applyAsDouble(ENTITY entity) {
+        return ((Number) getter.apply(entity)).doubleValue();
+    }
+
+}
@@ -40,7 +40,7 @@ public class ReferenceFieldTraitImpl<ENTITY, V> implements ReferenceFieldTrait<E
 
     public ReferenceFieldTraitImpl(FieldTrait field, Getter<ENTITY, V> getter, Setter<ENTITY, V> setter) {
         this.field = requireNonNull(field);
-        this.getter = requireNonNull(getter);
+        this.getter = new FieldGetterImpl<>(field, getter);
         this.setter = requireNonNull(setter);
     }
 
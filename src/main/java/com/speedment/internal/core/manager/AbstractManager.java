@@ -20,7 +20,11 @@ import com.speedment.Manager;
 import com.speedment.Speedment;
 import com.speedment.encoder.JsonEncoder;
 import com.speedment.field.ComparableField;
+import com.speedment.field.trait.FieldTrait;
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.field.trait.ReferenceForeignKeyFieldTrait;
 import com.speedment.internal.core.runtime.Lifecyclable;
+import com.speedment.internal.util.tuple.Tuple2;
 import com.speedment.stream.StreamDecorator;
 import java.util.stream.Stream;
 import static java.util.Objects.requireNonNull;
@@ -68,6 +72,15 @@ public abstract class AbstractManager<ENTITY> implements Manager<ENTITY> {
                 .findAny(getEntityClass(), field, value);
     }
 
+    @Override
+    public <V extends Comparable<? super V>, FK, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V> & ReferenceForeignKeyFieldTrait<ENTITY, FK>>
+        Stream<Tuple2<ENTITY, Optional<FK>>> findForeign(Stream<ENTITY> stream, F field, int batchSize) {
+        requireNonNull(stream);
+        requireNonNull(field);
+        return new ForeignKeyResolver<ENTITY, V, FK>(speedment, this, field.getColumnName(), field.getter())
+                .apply(stream, batchSize);
+    }
+
 //    @Override
 //    @SuppressWarnings("unchecked")
 //    public Optional<Object> find(ENTITY entity, Column column) {
@@ -0,0 +1,150 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import static com.speedment.util.StaticClassUtil.instanceNotAllowed;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Function;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Encodes the key values of the last entity of a page into a continuation
+ * token and decodes them again. Each value is encoded together with its type
+ * so that it can be decoded without knowing the keys. Only value types that
+ * can be recreated from their {@code toString()} representation are
+ * supported, so a token can never make the application instantiate anything
+ * else.
+ *
+ * @author pemi
+ */
+final class ContinuationTokenUtil {
+
+    private static final String SEPARATOR = ".";
+    private static final Map<Class<?>, String> TYPE_NAMES = new HashMap<>();
+    private static final Map<String, Function<String, Object>> PARSERS = new HashMap<>();
+
+    static {
+        register(String.class, s -> s);
+        register(Integer.class, Integer::valueOf);
+        register(Long.class, Long::valueOf);
+        register(Short.class, Short::valueOf);
+        register(Byte.class, Byte::valueOf);
+        register(Double.class, Double::valueOf);
+        register(Float.class, Float::valueOf);
+        register(Boolean.class, Boolean::valueOf);
+        register(BigInteger.class, BigInteger::new);
+        register(BigDecimal.class, BigDecimal::new);
+        register(Date.class, Date::valueOf);
+        register(Time.class, Time::valueOf);
+        register(Timestamp.class, Timestamp::valueOf);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(Instant.class, Instant::parse);
+    }
+
+    private static void register(Class<?> type, Function<String, Object> parser) {
+        TYPE_NAMES.put(type, type.getSimpleName());
+        PARSERS.put(type.getSimpleName(), parser);
+    }
+
+    /**
+     * Encodes the given values into a token.
+     *
+     * @param values the values to encode, none of which may be null
+     * @return a token with the values
+     * @throws IllegalArgumentException if a value can not be encoded
+     */
+    static String encode(List<?> values) {
+        return values.stream()
+            .map(ContinuationTokenUtil::encode)
+            .collect(joining(SEPARATOR));
+    }
+
+    /**
+     * Decodes the values of the given token.
+     *
+     * @param token the token to decode
+     * @param expectedSize the number of values that the token must have
+     * @return the values of the token
+     * @throws IllegalArgumentException if the token is invalid
+     */
+    static List<Object> decode(String token, int expectedSize) {
+        requireNonNull(token);
+        final String[] parts = token.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedSize) {
+            throw invalid(token);
+        }
+        final List<Object> result = new ArrayList<>(parts.length);
+        for (final String part : parts) {
+            final String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException iae) {
+                throw invalid(token);
+            }
+            final int colon = decoded.indexOf(':');
+            final Function<String, Object> parser = colon < 0 ? null : PARSERS.get(decoded.substring(0, colon));
+            if (parser == null) {
+                throw invalid(token);
+            }
+            try {
+                result.add(parser.apply(decoded.substring(colon + 1)));
+            } catch (RuntimeException re) {
+                throw invalid(token);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static String encode(Object value) {
+        requireNonNull(value, "A key value of a continuation token can not be null.");
+        final String typeName = TYPE_NAMES.get(value.getClass());
+        if (typeName == null) {
+            throw new IllegalArgumentException("Values of type " + value.getClass().getName() + " can not be encoded in a continuation token.");
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((typeName + ":" + value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static IllegalArgumentException invalid(String token) {
+        return new IllegalArgumentException("Invalid continuation token \"" + token + "\".");
+    }
+
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private ContinuationTokenUtil() {
+        instanceNotAllowed(getClass());
+    }
+}
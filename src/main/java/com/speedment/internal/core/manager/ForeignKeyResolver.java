@@ -0,0 +1,234 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import com.speedment.Manager;
+import com.speedment.Speedment;
+import com.speedment.config.Column;
+import com.speedment.config.ForeignKey;
+import com.speedment.config.ForeignKeyColumn;
+import com.speedment.config.Table;
+import com.speedment.exception.SpeedmentException;
+import com.speedment.field.ComparableField;
+import com.speedment.field.methods.Getter;
+import com.speedment.internal.core.field.ComparableFieldImpl;
+import com.speedment.internal.core.stream.StreamUtil;
+import com.speedment.internal.util.tuple.Tuple2;
+import com.speedment.internal.util.tuple.Tuples;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import static com.speedment.internal.core.stream.OptionalUtil.unwrap;
+
+/**
+ * Finds the entities that a foreign key column references for all the
+ * entities of a stream. The entities of the stream are read in batches, and
+ * the referenced entities of a batch are read with a single query that has
+ * an {@code IN} condition on the referenced column, rather than with one
+ * query per entity.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ * @param <V> the type of the foreign key column
+ * @param <FK> the type of the referenced entity
+ */
+public final class ForeignKeyResolver<ENTITY, V extends Comparable<? super V>, FK> {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final Getter<ENTITY, V> getter;
+    private final Manager<FK> foreignManager;
+    private final Column foreignColumn;
+    private final ComparableField<FK, V> foreignField;
+
+    /**
+     * Creates a resolver of the foreign key column with the given name.
+     *
+     * @param speedment the Speedment instance with the managers
+     * @param manager the manager of the entities with the foreign key
+     * @param columnName the name of the foreign key column
+     * @param getter of the value of the foreign key column
+     * @throws SpeedmentException if the column is not a foreign key or there
+     * is no manager for the referenced table
+     */
+    public ForeignKeyResolver(Speedment speedment, Manager<ENTITY> manager, String columnName, Getter<ENTITY, V> getter) {
+        requireNonNull(speedment);
+        requireNonNull(manager);
+        requireNonNull(columnName);
+        this.getter = requireNonNull(getter);
+
+        final ForeignKeyColumn fkc = foreignKeyColumn(manager.getTable(), columnName);
+        this.foreignManager = foreignManager(speedment, fkc);
+
+        // A field of the referenced column, so that the IN condition can be
+        // rendered in SQL just like the conditions of any other field
+        this.foreignColumn = fkc.getForeignColumn();
+        this.foreignField = new ComparableFieldImpl<>(
+            foreignColumn.getName(),
+            this::foreignValue,
+            (e, v) -> {
+                throw new UnsupportedOperationException("The referenced column can not be set.");
+            }
+        );
+    }
+
+    /**
+     * Returns a stream of the entities of the given stream, each paired with
+     * the entity that its foreign key column references. The second element
+     * of a pair is empty if the foreign key column is {@code null} or if no
+     * entity is referenced. The given stream is closed when the returned
+     * stream is closed.
+     *
+     * @param stream of entities with the foreign key column
+     * @param batchSize the number of entities to find referenced entities
+     * for with a single query
+     * @return a stream of the entities paired with the referenced entities
+     */
+    public Stream<Tuple2<ENTITY, Optional<FK>>> apply(Stream<ENTITY> stream, int batchSize) {
+        requireNonNull(stream);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive, but was " + batchSize + ".");
+        }
+        return StreamUtil.asStream(new BatchIterator(StreamUtil.unclosedIterator(stream), batchSize))
+            .onClose(stream::close);
+    }
+
+    /**
+     * Returns the foreign key column of the given table that has the given
+     * name.
+     *
+     * @param table of the column
+     * @param columnName the name of the column
+     * @return the foreign key column
+     * @throws SpeedmentException if there is no such foreign key column
+     */
+    public static ForeignKeyColumn foreignKeyColumn(Table table, String columnName) {
+        requireNonNull(table);
+        requireNonNull(columnName);
+        final Column column = table.streamOfColumns()
+            .filter(c -> columnName.equals(c.getName()))
+            .findAny()
+            .orElseThrow(() -> new SpeedmentException(
+                "There is no column " + columnName + " in " + table + "."
+            ));
+
+        return table.streamOfForeignKeys()
+            .filter(ForeignKey::isEnabled)
+            .flatMap(fk -> fk.streamOf(ForeignKeyColumn.class))
+            .filter(ForeignKeyColumn::isEnabled)
+            .filter(c -> column.equals(c.getColumn()))
+            .findFirst()
+            .orElseThrow(() -> new SpeedmentException(
+                "The column " + columnName + " in " + table + " is not a foreign key."
+            ));
+    }
+
+    /**
+     * Returns the manager of the table that the given foreign key column
+     * references.
+     *
+     * @param <FK> the type of the referenced entity
+     * @param speedment the Speedment instance with the managers
+     * @param fkc the foreign key column
+     * @return the manager of the referenced table
+     * @throws SpeedmentException if there is no manager for the table
+     */
+    public static <FK> Manager<FK> foreignManager(Speedment speedment, ForeignKeyColumn fkc) {
+        requireNonNull(speedment);
+        requireNonNull(fkc);
+        final Manager<FK> manager = speedment.getManagerComponent().findByTable(fkc.getForeignTable());
+        if (manager == null) {
+            throw new SpeedmentException("There is no manager for " + fkc.getForeignTable() + ".");
+        }
+        return manager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V foreignValue(FK foreignEntity) {
+        return (V) unwrap(foreignManager.get(foreignEntity, foreignColumn));
+    }
+
+    private Map<V, FK> findForeign(Set<V> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<V, FK> result = new HashMap<>();
+        try (final Stream<FK> foreign = foreignManager.stream().filter(foreignField.in(values))) {
+            foreign.forEachOrdered(fk -> result.putIfAbsent(foreignField.get(fk), fk));
+        }
+        return result;
+    }
+
+    private final class BatchIterator implements Iterator<Tuple2<ENTITY, Optional<FK>>> {
+
+        private final Iterator<ENTITY> source;
+        private final int batchSize;
+        private Iterator<Tuple2<ENTITY, Optional<FK>>> batch;
+
+        private BatchIterator(Iterator<ENTITY> source, int batchSize) {
+            this.source = source;
+            this.batchSize = batchSize;
+            this.batch = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!batch.hasNext() && source.hasNext()) {
+                batch = nextBatch();
+            }
+            return batch.hasNext();
+        }
+
+        @Override
+        public Tuple2<ENTITY, Optional<FK>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.next();
+        }
+
+        private Iterator<Tuple2<ENTITY, Optional<FK>>> nextBatch() {
+            final List<ENTITY> entities = new ArrayList<>(batchSize);
+            final Set<V> values = new HashSet<>();
+            while (entities.size() < batchSize && source.hasNext()) {
+                final ENTITY entity = source.next();
+                entities.add(entity);
+                final V value = getter.apply(entity);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+
+            final Map<V, FK> foreign = findForeign(values);
+            final List<Tuple2<ENTITY, Optional<FK>>> result = new ArrayList<>(entities.size());
+            for (final ENTITY entity : entities) {
+                final V value = getter.apply(entity);
+                result.add(Tuples.of(entity, Optional.ofNullable(value == null ? null : foreign.get(value))));
+            }
+            return result.iterator();
+        }
+    }
+}
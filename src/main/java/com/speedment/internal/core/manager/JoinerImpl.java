@@ -0,0 +1,87 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import com.speedment.internal.util.tuple.Tuple2;
+import com.speedment.stream.Joiner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Default implementation of the {@link Joiner} interface. The predicates are
+ * collected by the {@code Joiner} and handed to a function that creates the
+ * stream of joined entities, either with a SQL join or by finding the
+ * referenced entities of a filtered stream.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ * @param <FK> the type of the referenced entity
+ */
+public final class JoinerImpl<ENTITY, FK> implements Joiner<ENTITY, FK> {
+
+    private final BiFunction<List<Predicate<? super ENTITY>>, List<Predicate<? super FK>>, Stream<Tuple2<ENTITY, FK>>> streamer;
+    private final List<Predicate<? super ENTITY>> filters;
+    private final List<Predicate<? super FK>> foreignFilters;
+
+    /**
+     * Creates a {@code Joiner} that creates its streams with the given
+     * function, from the predicates of the entities and the predicates of the
+     * referenced entities.
+     *
+     * @param streamer that creates the stream of joined entities
+     */
+    public JoinerImpl(BiFunction<List<Predicate<? super ENTITY>>, List<Predicate<? super FK>>, Stream<Tuple2<ENTITY, FK>>> streamer) {
+        this(streamer, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private JoinerImpl(
+        BiFunction<List<Predicate<? super ENTITY>>, List<Predicate<? super FK>>, Stream<Tuple2<ENTITY, FK>>> streamer,
+        List<Predicate<? super ENTITY>> filters,
+        List<Predicate<? super FK>> foreignFilters
+    ) {
+        this.streamer = requireNonNull(streamer);
+        this.filters = filters;
+        this.foreignFilters = foreignFilters;
+    }
+
+    @Override
+    public Joiner<ENTITY, FK> filter(Predicate<? super ENTITY> predicate) {
+        requireNonNull(predicate);
+        final List<Predicate<? super ENTITY>> newFilters = new ArrayList<>(filters);
+        newFilters.add(predicate);
+        return new JoinerImpl<>(streamer, Collections.unmodifiableList(newFilters), foreignFilters);
+    }
+
+    @Override
+    public Joiner<ENTITY, FK> filterForeign(Predicate<? super FK> predicate) {
+        requireNonNull(predicate);
+        final List<Predicate<? super FK>> newForeignFilters = new ArrayList<>(foreignFilters);
+        newForeignFilters.add(predicate);
+        return new JoinerImpl<>(streamer, filters, Collections.unmodifiableList(newForeignFilters));
+    }
+
+    @Override
+    public Stream<Tuple2<ENTITY, FK>> stream() {
+        return streamer.apply(filters, foreignFilters);
+    }
+
+}
@@ -0,0 +1,244 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import com.speedment.Manager;
+import com.speedment.config.Column;
+import com.speedment.config.Index;
+import com.speedment.config.IndexColumn;
+import com.speedment.config.PrimaryKeyColumn;
+import com.speedment.config.Table;
+import com.speedment.field.ComparableField;
+import com.speedment.internal.core.stream.StreamUtil;
+import com.speedment.stream.Page;
+import com.speedment.stream.Pager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import java.util.stream.Stream;
+
+/**
+ * Default implementation of the {@link Pager} interface. A page is read by
+ * appending a filter on the keys of the previous page, a sort on the keys
+ * and a limit to a stream from the {@link Manager}, all of which are
+ * rendered in SQL by the stream optimizer.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+public final class PagerImpl<ENTITY> implements Pager<ENTITY> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final Manager<ENTITY> manager;
+    private final List<ComparableField<ENTITY, ?>> keys;
+    private final List<Predicate<? super ENTITY>> filters;
+    private final int pageSize;
+
+    public <V extends Comparable<? super V>> PagerImpl(Manager<ENTITY> manager, ComparableField<ENTITY, V> key) {
+        this(manager, Collections.singletonList(requireNonNull(key)), Collections.emptyList(), DEFAULT_PAGE_SIZE);
+    }
+
+    private PagerImpl(Manager<ENTITY> manager, List<ComparableField<ENTITY, ?>> keys, List<Predicate<? super ENTITY>> filters, int pageSize) {
+        this.manager = requireNonNull(manager);
+        this.keys = keys;
+        this.filters = filters;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public <V extends Comparable<? super V>> Pager<ENTITY> thenOrderBy(ComparableField<ENTITY, V> key) {
+        requireNonNull(key);
+        final List<ComparableField<ENTITY, ?>> newKeys = new ArrayList<>(keys);
+        newKeys.add(key);
+        return new PagerImpl<>(manager, Collections.unmodifiableList(newKeys), filters, pageSize);
+    }
+
+    @Override
+    public Pager<ENTITY> filter(Predicate<? super ENTITY> predicate) {
+        requireNonNull(predicate);
+        final List<Predicate<? super ENTITY>> newFilters = new ArrayList<>(filters);
+        newFilters.add(predicate);
+        return new PagerImpl<>(manager, keys, Collections.unmodifiableList(newFilters), pageSize);
+    }
+
+    @Override
+    public Pager<ENTITY> pageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be positive, but was " + pageSize + ".");
+        }
+        return new PagerImpl<>(manager, keys, filters, pageSize);
+    }
+
+    @Override
+    public Page<ENTITY> firstPage() {
+        return page(Optional.empty());
+    }
+
+    @Override
+    public Page<ENTITY> nextPage(String continuationToken) {
+        return page(Optional.of(ContinuationTokenUtil.decode(continuationToken, keys.size())));
+    }
+
+    @Override
+    public Stream<ENTITY> stream() {
+        final Iterator<Page<ENTITY>> pages = new Iterator<Page<ENTITY>>() {
+
+            private boolean started;
+            private Optional<String> continuationToken = Optional.empty();
+
+            @Override
+            public boolean hasNext() {
+                return !started || continuationToken.isPresent();
+            }
+
+            @Override
+            public Page<ENTITY> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Page<ENTITY> page = started ? nextPage(continuationToken.get()) : firstPage();
+                started = true;
+                continuationToken = page.getContinuationToken();
+                return page;
+            }
+        };
+        return StreamUtil.asStream(pages).flatMap(page -> page.getContent().stream());
+    }
+
+    private Page<ENTITY> page(Optional<List<Object>> after) {
+        validateKeys();
+        Stream<ENTITY> stream = manager.stream();
+        for (final Predicate<? super ENTITY> filter : filters) {
+            stream = stream.filter(filter);
+        }
+        if (after.isPresent()) {
+            stream = stream.filter(after(after.get()));
+        }
+        // The last sort is the most significant one
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            stream = stream.sorted(keys.get(i).comparator());
+        }
+        // Read one more entity to know if there is a next page
+        final List<ENTITY> content = stream.limit(pageSize + 1L).collect(toList());
+        if (content.size() <= pageSize) {
+            return new PageImpl<>(content, Optional.empty());
+        }
+        final List<ENTITY> pageContent = content.subList(0, pageSize);
+        final ENTITY last = pageContent.get(pageSize - 1);
+        final List<Object> values = keys.stream()
+            .map(key -> key.get(last))
+            .collect(toList());
+        return new PageImpl<>(new ArrayList<>(pageContent), Optional.of(ContinuationTokenUtil.encode(values)));
+    }
+
+    /**
+     * Returns a predicate that is true for the entities that come after the
+     * given key values. For the keys {@code (a, b)} and the values
+     * {@code (x, y)}, this is {@code a > x OR (a = x AND b > y)}.
+     *
+     * @param values the key values of the last entity of the previous page
+     * @return a predicate that is true for the entities after the values
+     */
+    private Predicate<ENTITY> after(List<Object> values) {
+        Predicate<ENTITY> result = null;
+        Predicate<ENTITY> equalSoFar = null;
+        for (int i = 0; i < keys.size(); i++) {
+            final Predicate<ENTITY> greater = greaterThan(keys.get(i), values.get(i));
+            final Predicate<ENTITY> term = equalSoFar == null ? greater : equalSoFar.and(greater);
+            result = result == null ? term : result.or(term);
+            final Predicate<ENTITY> equal = equal(keys.get(i), values.get(i));
+            equalSoFar = equalSoFar == null ? equal : equalSoFar.and(equal);
+        }
+        return result;
+    }
+
+    private void validateKeys() {
+        final Table table = manager.getTable();
+        for (final ComparableField<ENTITY, ?> key : keys) {
+            final Column column = table.findColumn(key.getColumnName());
+            if (!Boolean.FALSE.equals(column.isNullable())) {
+                throw new IllegalArgumentException("The key column " + column.getName() + " is nullable and can not be used for paging.");
+            }
+        }
+        final Set<String> keyColumns = keys.stream()
+            .map(ComparableField::getColumnName)
+            .collect(toSet());
+        final Set<String> primaryKeyColumns = table.streamOfPrimaryKeyColumns()
+            .map(PrimaryKeyColumn::getName)
+            .collect(toSet());
+        final boolean unique = (!primaryKeyColumns.isEmpty() && keyColumns.containsAll(primaryKeyColumns))
+            || table.streamOfIndexes()
+                .filter(index -> Boolean.TRUE.equals(index.isUnique()))
+                .map(PagerImpl::columnNames)
+                .anyMatch(indexColumns -> !indexColumns.isEmpty() && keyColumns.containsAll(indexColumns));
+        if (!unique) {
+            throw new IllegalArgumentException(
+                "The keys " + keyColumns + " do not identify an entity in " + table.getName() + " uniquely. "
+                + "The keys must include the primary key or a unique index."
+            );
+        }
+    }
+
+    private static Set<String> columnNames(Index index) {
+        return index.streamOf(IndexColumn.class)
+            .map(IndexColumn::getName)
+            .collect(toSet());
+    }
+
+    // The value type of a key is not known, so the key and the value are
+    // cast to the same type variable
+    @SuppressWarnings("unchecked")
+    private static <ENTITY, V extends Comparable<? super V>> Predicate<ENTITY> greaterThan(ComparableField<ENTITY, ?> key, Object value) {
+        return ((ComparableField<ENTITY, V>) key).greaterThan((V) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY, V extends Comparable<? super V>> Predicate<ENTITY> equal(ComparableField<ENTITY, ?> key, Object value) {
+        return ((ComparableField<ENTITY, V>) key).equal((V) value);
+    }
+
+    private static final class PageImpl<ENTITY> implements Page<ENTITY> {
+
+        private final List<ENTITY> content;
+        private final Optional<String> continuationToken;
+
+        private PageImpl(List<ENTITY> content, Optional<String> continuationToken) {
+            this.content = Collections.unmodifiableList(content);
+            this.continuationToken = continuationToken;
+        }
+
+        @Override
+        public List<ENTITY> getContent() {
+            return content;
+        }
+
+        @Override
+        public Optional<String> getContinuationToken() {
+            return continuationToken;
+        }
+    }
+
+}
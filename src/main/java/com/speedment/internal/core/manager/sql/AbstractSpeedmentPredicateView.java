@@ -25,13 +25,18 @@ import static com.speedment.field.predicate.PredicateType.NOT_EQUAL_IGNORE_CASE;
 import static com.speedment.field.predicate.PredicateType.NOT_IN;
 import static com.speedment.field.predicate.PredicateType.NOT_STARTS_WITH;
 import com.speedment.field.predicate.SpeedmentPredicate;
+import com.speedment.internal.core.field.predicate.AbstractCombinedBasePredicate;
 import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRaw;
 import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRawSet;
 import static com.speedment.internal.core.field.predicate.PredicateUtil.getSecondOperandAsRaw;
 import static com.speedment.internal.core.field.predicate.PredicateUtil.getThirdOperandAsInclusion;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import static java.util.stream.Collectors.joining;
 
 /**
@@ -53,6 +58,39 @@ public abstract class AbstractSpeedmentPredicateView implements SpeedmentPredica
         return render(requireNonNull(model));
     }
 
+    @Override
+    public SqlPredicateFragment transform(SpeedmentPredicate<?, ?> model, String tableAlias) {
+        requireNonNull(model);
+        requireNonNull(tableAlias);
+        return render(model, tableAlias + ".");
+    }
+
+    @Override
+    public SqlPredicateFragment transform(Predicate<?> model, Function<SpeedmentPredicate<?, ?>, SqlPredicateFragment> leafTransformer) {
+        requireNonNull(model);
+        requireNonNull(leafTransformer);
+        if (model instanceof SpeedmentPredicate) {
+            return leafTransformer.apply((SpeedmentPredicate<?, ?>) model);
+        }
+        if (model instanceof AbstractCombinedBasePredicate) {
+            final AbstractCombinedBasePredicate<?> combined = (AbstractCombinedBasePredicate<?>) model;
+            final String operator = combined.getType() == AbstractCombinedBasePredicate.Type.AND ? " AND " : " OR ";
+            final List<String> sqls = new ArrayList<>();
+            final SqlPredicateFragment result = of("");
+            combined.stream()
+                .map(p -> transform(p, leafTransformer))
+                .forEachOrdered(f -> {
+                    sqls.add(f.getSql());
+                    f.objects().forEachOrdered(result::add);
+                });
+            final String sql = "(" + String.join(operator, sqls) + ")";
+            return result.setSql(combined.isNegated() ? "(NOT" + sql + ")" : sql);
+        }
+        throw new UnsupportedOperationException(
+            "Unable to render " + model + " as SQL. Only field predicates and combinations of those can be rendered."
+        );
+    }
+
     public static SqlPredicateFragment of(String sql) {
         return SqlPredicateFragment.of(sql);
     }
@@ -91,9 +129,14 @@ public abstract class AbstractSpeedmentPredicateView implements SpeedmentPredica
     }
 
     protected SqlPredicateFragment render(SpeedmentPredicate<?,?> model) {
+        return render(model, "");
+    }
+
+    protected SqlPredicateFragment render(SpeedmentPredicate<?,?> model, String columnPrefix) {
         requireNonNull(model);
+        requireNonNull(columnPrefix);
         final PredicateType pt = model.getEffectivePredicateType();
-        final String cn = getOpeningFieldQuote() + model.getField().getColumnName() + getClosingFieldQuote();
+        final String cn = columnPrefix + getOpeningFieldQuote() + model.getField().getColumnName() + getClosingFieldQuote();
         switch (pt) {
             // Constants
             case ALWAYS_TRUE:
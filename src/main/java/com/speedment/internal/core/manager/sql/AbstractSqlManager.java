@@ -16,23 +16,38 @@
  */
 package com.speedment.internal.core.manager.sql;
 
+import com.speedment.Manager;
 import com.speedment.Speedment;
 import com.speedment.config.Column;
 import com.speedment.config.Dbms;
+import com.speedment.config.ForeignKeyColumn;
 import com.speedment.config.PrimaryKeyColumn;
 import com.speedment.config.Schema;
 import com.speedment.config.Table;
 import com.speedment.config.parameters.DbmsType;
 import com.speedment.internal.core.manager.AbstractManager;
+import com.speedment.internal.core.manager.ForeignKeyResolver;
+import com.speedment.internal.core.manager.JoinerImpl;
 import com.speedment.db.MetaResult;
 import com.speedment.internal.core.manager.metaresult.SqlMetaResultImpl;
 import com.speedment.db.AsynchronousQueryResult;
 import com.speedment.db.DbmsHandler;
+import com.speedment.db.QueryPlan;
 import com.speedment.db.SqlFunction;
 import com.speedment.exception.SpeedmentException;
 import com.speedment.config.mapper.TypeMapper;
+import com.speedment.internal.core.stream.builder.AbstractStreamBuilder;
 import com.speedment.internal.core.stream.builder.ReferenceStreamBuilder;
+import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
 import com.speedment.internal.core.stream.builder.pipeline.PipelineImpl;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminatorUtil;
+import com.speedment.field.trait.FieldTrait;
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.field.trait.ReferenceForeignKeyFieldTrait;
+import com.speedment.internal.util.tuple.Tuple2;
+import com.speedment.internal.util.tuple.Tuples;
+import com.speedment.stream.Joiner;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Array;
@@ -47,16 +62,22 @@ import java.sql.SQLException;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
 import static com.speedment.internal.core.stream.OptionalUtil.unwrap;
 import com.speedment.internal.util.Lazy;
 import com.speedment.stream.StreamDecorator;
@@ -76,26 +97,117 @@ import static java.util.Objects.requireNonNull;
  */
 public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY> implements SqlManager<ENTITY> {
 
+    private static final int SQL_STATEMENT_TEMPLATE_CACHE_MAX_SIZE = 1024;
+    private static final String JOIN_ALIAS = "a", FOREIGN_JOIN_ALIAS = "b";
+
     private SqlFunction<ResultSet, ENTITY> sqlEntityMapper;
+    private Function<ResultSet, ENTITY> flyweightFactory;
     private final Lazy<String> sqlColumnList;
     private final Lazy<String> sqlColumnListQuestionMarks;
+    private final Map<List<?>, SqlStatementTemplate> sqlStatementTemplateCache;
+    private final Map<String, ValueDictionary<?>> valueDictionaries;
 
     public AbstractSqlManager(Speedment speedment) {
         super(speedment);
         sqlColumnList = new Lazy<>();
         sqlColumnListQuestionMarks = new Lazy<>();
+        sqlStatementTemplateCache = new ConcurrentHashMap<>();
+        valueDictionaries = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Stream<ValueDictionary<?>> streamOfValueDictionaries() {
+        return valueDictionaries.values().stream();
+    }
+
+    /**
+     * Creates a dictionary that deduplicates the values of the given column
+     * when entities are read, and registers it with this manager. The
+     * generated managers create one for each column with the
+     * {@link com.speedment.config.parameters.ColumnCompressionType#DEDUPLICATION DEDUPLICATION}
+     * compression type.
+     *
+     * @param <T> the value type
+     * @param columnName the name of the column
+     * @return a new dictionary
+     */
+    protected <T> ValueDictionary<T> newValueDictionary(String columnName) {
+        final ValueDictionary<T> dictionary = new ValueDictionary<>(columnName, ValueDictionary.DEFAULT_MAX_SIZE);
+        valueDictionaries.put(columnName, dictionary);
+        return dictionary;
     }
 
     @Override
     public Stream<ENTITY> nativeStream(StreamDecorator decorator) {
-        final AsynchronousQueryResult<ENTITY> asynchronousQueryResult = decorator.apply(dbmsHandler().executeQueryAsync(sqlSelect(""), Collections.emptyList(), sqlEntityMapper.unWrap()));
+        final boolean flyweight = decorator.isFlyweight() && flyweightFactory != null;
+        final Function<ResultSet, ENTITY> rsMapper = flyweight
+            ? new FlyweightMapper<>(flyweightFactory)
+            : sqlEntityMapper.unWrap();
+        final AsynchronousQueryResult<ENTITY> asynchronousQueryResult = decorator.apply(dbmsHandler().executeQueryAsync(sqlSelect(""), Collections.emptyList(), rsMapper));
+        applyStreamSettings(asynchronousQueryResult, decorator);
+        if (flyweight) {
+            // A flyweight reads from the current row, so rows can not be read ahead
+            asynchronousQueryResult.setPrefetchSize(0);
+        }
         final SqlStreamTerminator<ENTITY> terminator = new SqlStreamTerminator<>(this, asynchronousQueryResult, decorator);
         final Supplier<BaseStream<?, ?>> initialSupplier = () -> decorator.apply(asynchronousQueryResult.stream());
         final Stream<ENTITY> result = decorator.apply(new ReferenceStreamBuilder<>(new PipelineImpl<>(initialSupplier), terminator));
-        result.onClose(asynchronousQueryResult::close); // Make sure we are closing the ResultSet, Statement and Connection later
+        result.onClose(terminator::close); // Make sure we are closing the ResultSet, Statement and Connection later
         return result;
     }
 
+    /**
+     * Applies the fetch size, read ahead, query timeout and cancellation
+     * settings of the given decorator to the given query. A query timeout of
+     * {@code 0} keeps the default timeout of the {@link DbmsHandler}.
+     *
+     * @param asynchronousQueryResult the query to configure
+     * @param decorator the decorator of the stream that reads the query
+     */
+    private static void applyStreamSettings(AsynchronousQueryResult<?> asynchronousQueryResult, StreamDecorator decorator) {
+        asynchronousQueryResult.setFetchSize(decorator.getFetchSize());
+        asynchronousQueryResult.setPrefetchSize(decorator.getPrefetchSize());
+        if (decorator.getQueryTimeout() > 0) {
+            asynchronousQueryResult.setQueryTimeout(decorator.getQueryTimeout());
+        }
+        asynchronousQueryResult.setCancelOnClose(decorator.isCancelOnClose());
+    }
+
+    @Override
+    public QueryPlan explain(Function<Stream<ENTITY>, ? extends BaseStream<?, ?>> streamBuilder, boolean includeDatabasePlan) {
+        requireNonNull(streamBuilder);
+        final AsynchronousQueryResult<ENTITY> asynchronousQueryResult = dbmsHandler().executeQueryAsync(sqlSelect(""), Collections.emptyList(), sqlEntityMapper.unWrap());
+        final SqlStreamTerminator<ENTITY> terminator = new SqlStreamTerminator<>(this, asynchronousQueryResult, StreamDecorator.IDENTITY);
+        final Supplier<BaseStream<?, ?>> initialSupplier = () -> {
+            throw new IllegalStateException("A stream that is explained can not be executed.");
+        };
+        final BaseStream<?, ?> stream = streamBuilder.apply(new ReferenceStreamBuilder<>(new PipelineImpl<>(initialSupplier), terminator));
+        if (!(stream instanceof AbstractStreamBuilder)) {
+            throw new IllegalArgumentException(
+                "Unable to explain " + stream + ". Only intermediate operations may be applied to the stream."
+            );
+        }
+        
+        final Pipeline pipeline = ((AbstractStreamBuilder<?, ?>) stream).getPipeline();
+        final List<Action<?, ?>> actions = pipeline.stream().collect(Collectors.toList());
+        terminator.optimize(pipeline);
+        final List<String> sqlActions = actions.stream()
+                .filter(a -> pipeline.stream().noneMatch(b -> a == b))
+                .map(Action::toString)
+                .collect(Collectors.toList());
+        final List<String> javaActions = pipeline.stream()
+                .map(Action::toString)
+                .collect(Collectors.toList());
+
+        final String sql = asynchronousQueryResult.getSql();
+        final List<?> values = asynchronousQueryResult.getValues();
+        final Optional<List<String>> databasePlan = includeDatabasePlan
+                ? Optional.of(dbmsHandler().explain(sql, values).collect(Collectors.toList()))
+                : Optional.empty();
+        
+        return new QueryPlanImpl(sql, values, sqlActions, javaActions, databasePlan);
+    }
+
     public <T> Stream<T> synchronousStreamOf(final String sql, final List<Object> values, SqlFunction<ResultSet, T> rsMapper) {
         //LOGGER.debug(sql + " <- " + values);
         requireNonNull(sql);
@@ -104,6 +216,141 @@ public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY>
         return dbmsHandler().executeQuery(sql, values, rsMapper);
     }
 
+    public <T> Stream<T> synchronousStreamOf(final String sql, final List<Object> values, SqlFunction<ResultSet, T> rsMapper, int queryTimeout) {
+        requireNonNull(sql);
+        requireNonNull(values);
+        requireNonNull(rsMapper);
+        return dbmsHandler().executeQuery(sql, values, rsMapper, queryTimeout);
+    }
+
+    @Override
+    public <V extends Comparable<? super V>, FK, F extends FieldTrait & ReferenceFieldTrait<ENTITY, V> & ReferenceForeignKeyFieldTrait<ENTITY, FK>>
+        Joiner<ENTITY, FK> join(F field) {
+        requireNonNull(field);
+        final ForeignKeyColumn fkc = ForeignKeyResolver.foreignKeyColumn(getTable(), field.getColumnName());
+        final Manager<FK> foreignManager = ForeignKeyResolver.foreignManager(speedment, fkc);
+        if (foreignManager instanceof AbstractSqlManager) {
+            final AbstractSqlManager<FK> foreignSqlManager = (AbstractSqlManager<FK>) foreignManager;
+            if (getDbms().equals(foreignSqlManager.getDbms())) {
+                return new JoinerImpl<>((filters, foreignFilters) -> sqlJoin(fkc, foreignSqlManager, filters, foreignFilters));
+            }
+        }
+        // The referenced table is not in the same database, so it can not be
+        // joined by a single query
+        return super.join(field);
+    }
+
+    /**
+     * Returns a stream of the entities of this table paired with the
+     * entities that they reference, read with a single query that joins the
+     * two tables. The conjuncts of the predicates that are built from fields
+     * are rendered in the where clause and the rest are tested on the
+     * entities. The query is executed when a terminal operation is invoked
+     * on the stream, using the same default settings as
+     * {@link #nativeStream(StreamDecorator)}.
+     * <p>
+     * The entities of this table are read with the entity mapper of this
+     * manager. The referenced entities are read with
+     * {@link #sqlEntityMapper(int)}, since the mapper of the referenced
+     * manager reads from the first columns of the result.
+     *
+     * @param <FK> the type of the referenced entity
+     * @param fkc the foreign key column to join on
+     * @param foreignManager the manager of the referenced table
+     * @param filters the predicates of the entities of this table
+     * @param foreignFilters the predicates of the referenced entities
+     * @return a stream of the joined entities
+     */
+    private <FK> Stream<Tuple2<ENTITY, FK>> sqlJoin(
+        ForeignKeyColumn fkc,
+        AbstractSqlManager<FK> foreignManager,
+        List<Predicate<? super ENTITY>> filters,
+        List<Predicate<? super FK>> foreignFilters
+    ) {
+        final List<String> conditions = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        final List<Predicate<? super ENTITY>> remaining = new ArrayList<>();
+        final List<Predicate<? super FK>> foreignRemaining = new ArrayList<>();
+        sqlConditions(filters, JOIN_ALIAS, conditions, values, remaining);
+        foreignManager.sqlConditions(foreignFilters, FOREIGN_JOIN_ALIAS, conditions, values, foreignRemaining);
+
+        final String sql = "select " + sqlColumnList(n -> JOIN_ALIAS + "." + n)
+            + "," + foreignManager.sqlColumnList(n -> FOREIGN_JOIN_ALIAS + "." + n)
+            + " from " + sqlTableReference() + " " + JOIN_ALIAS
+            + " inner join " + foreignManager.sqlTableReference() + " " + FOREIGN_JOIN_ALIAS
+            + " on " + JOIN_ALIAS + "." + quoteField(fkc.getColumn().getName())
+            + " = " + FOREIGN_JOIN_ALIAS + "." + quoteField(fkc.getForeignColumn().getName())
+            + (conditions.isEmpty() ? "" : " where " + conditions.stream().collect(Collectors.joining(" AND ")));
+
+        // The columns of the referenced table follow the columns of this table
+        final SqlFunction<ResultSet, FK> foreignMapper = foreignManager.sqlEntityMapper((int) getTable().streamOfColumns().count());
+        final SqlFunction<ResultSet, Tuple2<ENTITY, FK>> rowMapper = rs -> Tuples.of(sqlEntityMapper.apply(rs), foreignMapper.apply(rs));
+        final AsynchronousQueryResult<Tuple2<ENTITY, FK>> asynchronousQueryResult = dbmsHandler().executeQueryAsync(sql, values, rowMapper.unWrap());
+        applyStreamSettings(asynchronousQueryResult, StreamDecorator.IDENTITY);
+
+        // The query is not executed until the stream is traversed
+        Stream<Tuple2<ENTITY, FK>> result = StreamSupport.stream(
+            () -> asynchronousQueryResult.stream().spliterator(),
+            Spliterator.ORDERED,
+            false
+        ).onClose(asynchronousQueryResult::close);
+        if (!remaining.isEmpty()) {
+            result = result.filter(t -> remaining.stream().allMatch(p -> p.test(t.get0())));
+        }
+        if (!foreignRemaining.isEmpty()) {
+            result = result.filter(t -> foreignRemaining.stream().allMatch(p -> p.test(t.get1())));
+        }
+        return result;
+    }
+
+    /**
+     * Renders the conjuncts of the given predicates that are built from the
+     * fields of this table as conditions on the columns of the table with
+     * the given alias. The parameter values of the conditions are converted
+     * to their database types. The conjuncts that can not be rendered are
+     * added to the remaining predicates.
+     *
+     * @param predicates to render
+     * @param tableAlias the alias of this table in the query
+     * @param conditions to add the rendered conditions to
+     * @param values to add the parameter values of the conditions to
+     * @param remaining to add the conjuncts that can not be rendered to
+     */
+    void sqlConditions(
+        List<Predicate<? super ENTITY>> predicates,
+        String tableAlias,
+        List<String> conditions,
+        List<Object> values,
+        List<Predicate<? super ENTITY>> remaining
+    ) {
+        final SpeedmentPredicateView spv = getDbmsType().getSpeedmentPredicateView();
+        for (final Predicate<? super ENTITY> predicate : predicates) {
+            for (final Predicate<? super ENTITY> conjunct : StreamTerminatorUtil.conjuncts(predicate)) {
+                if (!StreamTerminatorUtil.isFieldPredicateTree(conjunct)) {
+                    remaining.add(conjunct);
+                    continue;
+                }
+                final SqlPredicateFragment fragment = spv.transform(conjunct, leaf -> {
+                    final SqlPredicateFragment leafFragment = spv.transform(leaf, tableAlias);
+                    @SuppressWarnings("unchecked")
+                    final TypeMapper<Object, Object> typeMapper = (TypeMapper<Object, Object>) findColumn(leaf.getField().getColumnName()).getTypeMapper();
+                    leafFragment.objects().map(typeMapper::toDatabaseType).forEachOrdered(values::add);
+                    return leafFragment;
+                });
+                conditions.add(fragment.getSql());
+            }
+        }
+    }
+
+    private Column findColumn(String columnName) {
+        return getTable().streamOfColumns()
+            .filter(c -> columnName.equals(c.getName()))
+            .findAny()
+            .orElseThrow(() -> new SpeedmentException(
+                "There is no column " + columnName + " in " + getTable() + "."
+            ));
+    }
+
     private final Supplier<String> columnListSupplier = () -> sqlColumnList(Function.identity());
     
     public String sqlColumnList() {
@@ -124,7 +371,7 @@ public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY>
         }
     }
 
-    private String sqlColumnList(Function<String, String> postMapper) {
+    String sqlColumnList(Function<String, String> postMapper) {
         requireNonNull(postMapper);
         return getTable().streamOfColumns()
                 .map(Column::getName)
@@ -146,6 +393,61 @@ public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY>
         return getTable().getRelativeName(Schema.class, this::quoteField);
     }
 
+    /**
+     * Returns the statement that has previously been rendered for the given
+     * query shape, if any.
+     *
+     * @param shape of the query
+     * @return the cached statement for the shape
+     */
+    Optional<SqlStatementTemplate> findSqlStatementTemplate(List<?> shape) {
+        return Optional.ofNullable(sqlStatementTemplateCache.get(requireNonNull(shape)));
+    }
+
+    /**
+     * Caches the given statement for the given query shape. Statements are
+     * only cached for immutable tables, since the rendered SQL would
+     * otherwise be stale once the table changes.
+     *
+     * @param shape of the query
+     * @param statement rendered for the shape
+     */
+    void putSqlStatementTemplate(List<?> shape, SqlStatementTemplate statement) {
+        requireNonNull(shape);
+        requireNonNull(statement);
+        if (getTable().isImmutable() && sqlStatementTemplateCache.size() < SQL_STATEMENT_TEMPLATE_CACHE_MAX_SIZE) {
+            sqlStatementTemplateCache.putIfAbsent(shape, statement);
+        }
+    }
+
+    /**
+     * Returns a mapper that reads an entity from the columns of a
+     * {@link ResultSet} that follow the given number of columns. The mapper
+     * is used by queries that read the columns of several tables. The values
+     * of the columns that have a {@link ValueDictionary} are deduplicated
+     * like the values read by the generated entity mapper.
+     *
+     * @param offset the number of columns before the columns of this table
+     * @return a mapper that reads an entity
+     */
+    SqlFunction<ResultSet, ENTITY> sqlEntityMapper(int offset) {
+        final List<Column> columns = getTable().streamOfColumns().collect(Collectors.toList());
+        final List<SqlFunction<ResultSet, Object>> readers = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            final SqlFunction<ResultSet, Object> reader = sqlColumnMapper(columns.get(i), offset + i + 1);
+            @SuppressWarnings("unchecked")
+            final ValueDictionary<Object> dictionary = (ValueDictionary<Object>) valueDictionaries.get(columns.get(i).getName());
+            readers.add(dictionary == null ? reader : reader.andThen(dictionary::intern));
+        }
+        return rs -> {
+            final ENTITY entity = newInstance();
+            for (int i = 0; i < columns.size(); i++) {
+                set(entity, columns.get(i), readers.get(i).apply(rs));
+            }
+            return entity;
+        };
+    }
+
     public String sqlSelect(String suffix) {
         requireNonNull(suffix);
         final String sql = "select " + sqlColumnList() + " from " + sqlTableReference() + suffix;
@@ -162,6 +464,19 @@ public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY>
         this.sqlEntityMapper = requireNonNull(sqlEntityMapper);
     }
 
+    /**
+     * Sets the factory that creates flyweight entities for the rows of a
+     * {@link ResultSet}. A flyweight returns the values of the current row of
+     * the {@link ResultSet} it was created for. If no factory is set, streams
+     * that ask for flyweights get ordinary entities.
+     *
+     * @param flyweightFactory that creates a flyweight for a ResultSet
+     * @see StreamDecorator#isFlyweight()
+     */
+    protected void setFlyweightFactory(Function<ResultSet, ENTITY> flyweightFactory) {
+        this.flyweightFactory = requireNonNull(flyweightFactory);
+    }
+
     @Override
     public ENTITY persist(ENTITY entity) throws SpeedmentException {
         return persistHelp(entity, Optional.empty());
@@ -208,7 +523,7 @@ public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY>
         return getDbms().getType();
     }
 
-    private String quoteField(final String s) {
+    String quoteField(final String s) {
         final DbmsType dbmsType = getDbms().getType();
         return dbmsType.getFieldEncloserStart() + s + dbmsType.getFieldEncloserEnd();
     }
@@ -217,6 +532,86 @@ public abstract class AbstractSqlManager<ENTITY> extends AbstractManager<ENTITY>
         return speedment.getDbmsHandlerComponent().get(getDbms());
     }
 
+    /**
+     * Returns a mapper that reads the value of the given column from the
+     * first column of a {@link ResultSet} and converts it to its Java type.
+     * The mapper is used by streams that select only a single column.
+     *
+     * @param column to read
+     * @return a mapper that reads the value of the column
+     */
+    SqlFunction<ResultSet, Object> sqlColumnMapper(Column column) {
+        return sqlColumnMapper(column, 1);
+    }
+
+    /**
+     * Returns a mapper that reads the value of the given column from the
+     * column of a {@link ResultSet} with the given ordinal position and
+     * converts it to its Java type.
+     *
+     * @param column to read
+     * @param ordinalPosition of the column in the {@link ResultSet}
+     * @return a mapper that reads the value of the column
+     */
+    SqlFunction<ResultSet, Object> sqlColumnMapper(Column column, int ordinalPosition) {
+        requireNonNull(column);
+        final String resultSetMethodName = speedment.getJavaTypeMapperComponent()
+                .apply(getDbmsType(), column.getTypeMapper().getDatabaseType())
+                .getResultSetMethodName(getDbms());
+        
+        final SqlFunction<ResultSet, Object> reader = columnReader(resultSetMethodName, ordinalPosition);
+        @SuppressWarnings("unchecked")
+        final TypeMapper<Object, Object> typeMapper = (TypeMapper<Object, Object>) column.getTypeMapper();
+        return reader.andThen(typeMapper::toJavaType);
+    }
+
+    private SqlFunction<ResultSet, Object> columnReader(String resultSetMethodName, int ordinalPosition) {
+        switch (resultSetMethodName) {
+            case "Boolean":
+                return rs -> getBoolean(rs, ordinalPosition);
+            case "Byte":
+                return rs -> getByte(rs, ordinalPosition);
+            case "Short":
+                return rs -> getShort(rs, ordinalPosition);
+            case "Int":
+                return rs -> getInt(rs, ordinalPosition);
+            case "Long":
+                return rs -> getLong(rs, ordinalPosition);
+            case "Float":
+                return rs -> getFloat(rs, ordinalPosition);
+            case "Double":
+                return rs -> getDouble(rs, ordinalPosition);
+            case "String":
+                return rs -> getString(rs, ordinalPosition);
+            case "Date":
+                return rs -> getDate(rs, ordinalPosition);
+            case "Time":
+                return rs -> getTime(rs, ordinalPosition);
+            case "Timestamp":
+                return rs -> getTimestamp(rs, ordinalPosition);
+            case "BigDecimal":
+                return rs -> getBigDecimal(rs, ordinalPosition);
+            case "Blob":
+                return rs -> getBlob(rs, ordinalPosition);
+            case "Clob":
+                return rs -> getClob(rs, ordinalPosition);
+            case "Array":
+                return rs -> getArray(rs, ordinalPosition);
+            case "Ref":
+                return rs -> getRef(rs, ordinalPosition);
+            case "URL":
+                return rs -> getURL(rs, ordinalPosition);
+            case "RowId":
+                return rs -> getRowId(rs, ordinalPosition);
+            case "NClob":
+                return rs -> getNClob(rs, ordinalPosition);
+            case "SQLXML":
+                return rs -> getSQLXML(rs, ordinalPosition);
+            default:
+                return rs -> getObject(rs, ordinalPosition);
+        }
+    }
+
     // Null safe RS getters, must have the same name as ResultSet getters
     protected Object getObject(final ResultSet resultSet, final String columnName) throws SQLException {
         return getNullableFrom(resultSet, rs -> rs.getObject(columnName));
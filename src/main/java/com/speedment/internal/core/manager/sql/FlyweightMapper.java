@@ -0,0 +1,48 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A mapper that returns the same flyweight entity for every row of a
+ * {@link ResultSet}. A flyweight is created the first time a row of a
+ * {@link ResultSet} is mapped, so that each partition of a stream gets a
+ * flyweight of its own.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+final class FlyweightMapper<ENTITY> implements Function<ResultSet, ENTITY> {
+
+    private final Function<ResultSet, ENTITY> flyweightFactory;
+    private final Map<ResultSet, ENTITY> flyweights;
+
+    FlyweightMapper(Function<ResultSet, ENTITY> flyweightFactory) {
+        this.flyweightFactory = requireNonNull(flyweightFactory);
+        this.flyweights = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public ENTITY apply(ResultSet resultSet) {
+        return flyweights.computeIfAbsent(resultSet, flyweightFactory);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.db.QueryPlan;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ *
+ * @author pemi
+ */
+public final class QueryPlanImpl implements QueryPlan {
+
+    private final String sql;
+    private final List<?> values;
+    private final List<String> sqlActions;
+    private final List<String> javaActions;
+    private final Optional<List<String>> databasePlan;
+
+    public QueryPlanImpl(String sql, List<?> values, List<String> sqlActions, List<String> javaActions, Optional<List<String>> databasePlan) {
+        this.sql = requireNonNull(sql);
+        this.values = unmodifiableList(new ArrayList<>(requireNonNull(values)));
+        this.sqlActions = unmodifiableList(new ArrayList<>(requireNonNull(sqlActions)));
+        this.javaActions = unmodifiableList(new ArrayList<>(requireNonNull(javaActions)));
+        this.databasePlan = requireNonNull(databasePlan).map(ArrayList::new).map(Collections::unmodifiableList);
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public List<?> getValues() {
+        return values;
+    }
+
+    @Override
+    public List<String> getSqlActions() {
+        return sqlActions;
+    }
+
+    @Override
+    public List<String> getJavaActions() {
+        return javaActions;
+    }
+
+    @Override
+    public Optional<List<String>> getDatabasePlan() {
+        return databasePlan;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("{sql=")
+            .append(sql)
+            .append(", values=")
+            .append(values)
+            .append(", sqlActions=")
+            .append(sqlActions)
+            .append(", javaActions=")
+            .append(javaActions)
+            .append(databasePlan.map(p -> ", databasePlan=" + p).orElse(""))
+            .append("}")
+            .toString();
+    }
+}
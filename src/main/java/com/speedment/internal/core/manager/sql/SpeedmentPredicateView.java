@@ -17,6 +17,8 @@
 package com.speedment.internal.core.manager.sql;
 
 import com.speedment.field.predicate.SpeedmentPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  *
@@ -26,6 +28,30 @@ public interface SpeedmentPredicateView {
 
     SqlPredicateFragment transform(SpeedmentPredicate<?, ?> model);
 
+    /**
+     * Renders a field predicate with the column name qualified by the given
+     * table alias, as is needed when several tables are joined.
+     *
+     * @param model the predicate to render
+     * @param tableAlias the alias of the table of the column
+     * @return the rendered fragment
+     */
+    SqlPredicateFragment transform(SpeedmentPredicate<?, ?> model, String tableAlias);
+
+    /**
+     * Renders a field predicate or an arbitrarily nested (and possibly
+     * negated) AND/OR combination of field predicates. Each field predicate
+     * in the tree is rendered by the provided leaf transformer, which may for
+     * example convert the values of the fragment to their database types.
+     *
+     * @param model the predicate to render
+     * @param leafTransformer that renders the field predicates of the tree
+     * @return the rendered fragment
+     * @throws UnsupportedOperationException if the tree contains a predicate
+     * that is neither a field predicate nor a combination
+     */
+    SqlPredicateFragment transform(Predicate<?> model, Function<SpeedmentPredicate<?, ?>, SqlPredicateFragment> leafTransformer);
+
     String getOpeningFieldQuote();
     
     String getClosingFieldQuote();
@@ -17,8 +17,12 @@
 package com.speedment.internal.core.manager.sql;
 
 import com.speedment.Manager;
+import com.speedment.db.QueryPlan;
 import com.speedment.db.SqlFunction;
 import java.sql.ResultSet;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
 
 /**
  *
@@ -31,4 +35,41 @@ public interface SqlManager<ENTITY> extends Manager<ENTITY> {
 
     void setSqlEntityMapper(SqlFunction<ResultSet, ENTITY> sqlEntityMapper);
 
+    /**
+     * Returns a plan that describes how the stream created by the provided
+     * function would be executed. The function is given a new stream from
+     * this manager and shall only apply intermediate operations to it. No
+     * query is sent to the database.
+     *
+     * @param streamBuilder that applies intermediate operations to a stream
+     * @return a plan that describes how the stream would be executed
+     */
+    default QueryPlan explain(Function<Stream<ENTITY>, ? extends BaseStream<?, ?>> streamBuilder) {
+        return explain(streamBuilder, false);
+    }
+
+    /**
+     * Returns a plan that describes how the stream created by the provided
+     * function would be executed. The function is given a new stream from
+     * this manager and shall only apply intermediate operations to it. If
+     * the database plan is included, the database is asked to explain the
+     * query, but the query itself is not executed.
+     *
+     * @param streamBuilder that applies intermediate operations to a stream
+     * @param includeDatabasePlan if the execution plan of the database shall
+     * be included in the plan
+     * @return a plan that describes how the stream would be executed
+     */
+    QueryPlan explain(Function<Stream<ENTITY>, ? extends BaseStream<?, ?>> streamBuilder, boolean includeDatabasePlan);
+
+    /**
+     * Returns the dictionaries that deduplicate the values of the columns
+     * with the {@link com.speedment.config.parameters.ColumnCompressionType#DEDUPLICATION DEDUPLICATION}
+     * compression type, with statistics of how many values each of them has
+     * shared.
+     *
+     * @return a stream of the dictionaries of this manager
+     */
+    Stream<ValueDictionary<?>> streamOfValueDictionaries();
+
 }
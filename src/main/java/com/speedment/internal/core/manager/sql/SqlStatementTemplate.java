@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.config.mapper.TypeMapper;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A rendered SQL statement together with its binding plan. The binding plan
+ * holds the {@link TypeMapper} of the column that each parameter of the
+ * statement is compared to, so that a statement can be reused by only
+ * binding new parameter values.
+ *
+ * @author pemi
+ */
+final class SqlStatementTemplate {
+
+    private final String sql;
+    private final List<TypeMapper<Object, Object>> typeMappers;
+
+    SqlStatementTemplate(String sql, List<TypeMapper<Object, Object>> typeMappers) {
+        this.sql = requireNonNull(sql);
+        this.typeMappers = new ArrayList<>(requireNonNull(typeMappers));
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Converts the given Java values to the database types of the columns
+     * they are bound to.
+     *
+     * @param operands the Java values of the parameters, in order
+     * @return a new mutable list of database values
+     */
+    public List<Object> bind(List<?> operands) {
+        requireNonNull(operands);
+        if (operands.size() != typeMappers.size()) {
+            throw new IllegalArgumentException(
+                "The statement " + sql + " takes " + typeMappers.size() + " parameters but " + operands.size() + " were given."
+            );
+        }
+        final List<Object> values = new ArrayList<>(operands.size());
+        for (int i = 0; i < operands.size(); i++) {
+            values.add(typeMappers.get(i).toDatabaseType(operands.get(i)));
+        }
+        return values;
+    }
+
+}
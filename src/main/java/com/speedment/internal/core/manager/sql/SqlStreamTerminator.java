@@ -1,173 +1,1098 @@
-/**
- *
- * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
- *
- * Licensed under the Apache License, Version 2.0 (the "License"); You may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at:
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.speedment.internal.core.manager.sql;
-
-import com.speedment.config.Column;
-import com.speedment.config.mapper.TypeMapper;
-import com.speedment.db.AsynchronousQueryResult;
-import com.speedment.internal.core.stream.builder.action.Action;
-import static com.speedment.internal.core.stream.builder.action.Property.SIZE;
-import static com.speedment.internal.core.stream.builder.action.Verb.PRESERVE;
-import com.speedment.internal.core.stream.builder.pipeline.DoublePipeline;
-import com.speedment.internal.core.stream.builder.pipeline.IntPipeline;
-import com.speedment.internal.core.stream.builder.pipeline.LongPipeline;
-import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
-import com.speedment.internal.core.stream.builder.pipeline.ReferencePipeline;
-import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminator;
-import java.util.Collections;
-import java.util.List;
-import java.util.function.LongSupplier;
-import java.util.function.Predicate;
-import static java.util.stream.Collectors.toList;
-import com.speedment.field.predicate.SpeedmentPredicate;
-import com.speedment.field.trait.FieldTrait;
-import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminatorUtil;
-import com.speedment.stream.StreamDecorator;
-import java.util.ArrayList;
-import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.joining;
-import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.joining;
-
-/**
- *
- * @author pemi
- * @param <ENTITY> the entity type
- */
-public final class SqlStreamTerminator<ENTITY> implements StreamTerminator {
-    
-    private final AbstractSqlManager<ENTITY> manager;
-    private final AsynchronousQueryResult<ENTITY> asynchronousQueryResult;
-    private final StreamDecorator decorator;
-    
-    public SqlStreamTerminator(AbstractSqlManager<ENTITY> manager, AsynchronousQueryResult<ENTITY> asynchronousQueryResult, StreamDecorator decorator) {
-        this.manager = requireNonNull(manager);
-        this.asynchronousQueryResult = requireNonNull(asynchronousQueryResult);
-        this.decorator = requireNonNull(decorator);
-    }
-    
-    @Override
-    public StreamDecorator getStreamDecorator() {
-        return decorator;
-    }
-    
-    @Override
-    public <P extends Pipeline> P optimize(P initialPipeline) {
-        requireNonNull(initialPipeline);
-        final List<SpeedmentPredicate<ENTITY, ?>> andPredicateBuilders = StreamTerminatorUtil.topLevelAndPredicates(initialPipeline);
-        
-        if (!andPredicateBuilders.isEmpty()) {
-            modifySource(andPredicateBuilders, asynchronousQueryResult);
-        }
-        
-        return getStreamDecorator().apply(initialPipeline);
-    }
-    
-    public void modifySource(final List<SpeedmentPredicate<ENTITY, ?>> predicateBuilders, AsynchronousQueryResult<ENTITY> qr) {
-        requireNonNull(predicateBuilders);
-        requireNonNull(qr);
-        if (predicateBuilders.isEmpty()) {
-            // Nothing to do...
-            return;
-        }
-        
-        final List<Column> columns = predicateBuilders
-                .stream()
-                .map(SpeedmentPredicate::getField)
-                .map(FieldTrait::getColumnName)
-                .map(this::findColumn)
-                .collect(toList());
-
-        
-        final SpeedmentPredicateView spv = manager.getDbmsType().getSpeedmentPredicateView();
-        final List<SqlPredicateFragment> fragments = predicateBuilders.stream()
-                .map(spv::transform)
-                .collect(toList());
-        
-        final String sql = manager.sqlSelect(" where "
-                + fragments.stream()
-                .map(SqlPredicateFragment::getSql)
-                .collect(joining(" AND "))
-        );
-
-//        @SuppressWarnings("rawtypes")
-//        final List<Object> values = fragments.stream()
-//            .flatMap(SqlPredicateFragment::objects)
-//            .collect(toList());
-        final List<Object> values = new ArrayList<>();
-        for (int i = 0; i < fragments.size(); i++) {
-            @SuppressWarnings("unchecked")
-            final TypeMapper<Object, Object> tm = (TypeMapper<Object, Object>) columns.get(i).getTypeMapper();
-            fragments.get(i).objects()
-                    .map(tm::toDatabaseType)
-                    .forEach(values::add);
-        }
-        
-        qr.setSql(sql);
-        qr.setValues(values);
-    }
-    
-    private Column findColumn(String name) {
-        return manager.getTable().streamOfColumns()
-                .filter(c -> name.equals(c.getName()))
-                .findAny().get();
-    }
-    
-    @Override
-    public long count(DoublePipeline pipeline) {
-        requireNonNull(pipeline);
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
-    }
-    
-    @Override
-    public <T> long count(IntPipeline pipeline) {
-        requireNonNull(pipeline);
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
-    }
-    
-    @Override
-    public long count(LongPipeline pipeline) {
-        requireNonNull(pipeline);
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
-    }
-    
-    @Override
-    public <T> long count(ReferencePipeline<T> pipeline) {
-        requireNonNull(pipeline);
-        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
-    }
-    
-    private static final Predicate<Action<?, ?>> CHECK_RETAIN_SIZE = action -> action.is(PRESERVE, SIZE);
-
-    /**
-     * Optimizer for count operations!
-     *
-     * @param pipeline
-     * @param fallbackSupplier
-     * @return the number of rows
-     */
-    private long countHelper(Pipeline pipeline, LongSupplier fallbackSupplier) {
-        requireNonNull(pipeline);
-        requireNonNull(fallbackSupplier);
-        if (pipeline.stream().allMatch(CHECK_RETAIN_SIZE)) {
-            final String sql = "select count(*) from " + manager.sqlTableReference();
-            return manager.synchronousStreamOf(sql, Collections.emptyList(), rs -> rs.getLong(1)).findAny().get();
-        }
-        return fallbackSupplier.getAsLong();
-    }
-    
-}
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.config.Column;
+import com.speedment.config.mapper.TypeMapper;
+import com.speedment.db.AsynchronousQueryResult;
+import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMaxSize;
+import com.speedment.internal.core.stream.builder.action.HasSkip;
+import static com.speedment.internal.core.stream.builder.action.Property.ORDER;
+import static com.speedment.internal.core.stream.builder.action.Property.SIDE_EFFECT;
+import static com.speedment.internal.core.stream.builder.action.Property.SIZE;
+import static com.speedment.internal.core.stream.builder.action.Verb.PRESERVE;
+import static com.speedment.internal.core.stream.builder.action.Verb.SET;
+import com.speedment.internal.core.stream.builder.action.doubles.DoubleLimitAction;
+import com.speedment.internal.core.stream.builder.action.ints.IntLimitAction;
+import com.speedment.internal.core.stream.builder.action.longs.LongLimitAction;
+import com.speedment.internal.core.stream.builder.action.reference.FilterAction;
+import com.speedment.internal.core.stream.builder.action.reference.LimitAction;
+import com.speedment.internal.core.stream.builder.action.reference.MapToDoubleAction;
+import com.speedment.internal.core.stream.builder.action.reference.MapToIntAction;
+import com.speedment.internal.core.stream.builder.action.reference.MapToLongAction;
+import com.speedment.internal.core.stream.builder.action.reference.SortedAction;
+import com.speedment.internal.core.stream.builder.pipeline.DoublePipeline;
+import com.speedment.internal.core.stream.builder.pipeline.IntPipeline;
+import com.speedment.internal.core.stream.builder.pipeline.LongPipeline;
+import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
+import com.speedment.internal.core.stream.builder.pipeline.ReferencePipeline;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminator;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import com.speedment.field.predicate.SpeedmentPredicate;
+import com.speedment.field.trait.FieldTrait;
+import com.speedment.internal.comparator.SpeedmentComparator;
+import com.speedment.internal.core.field.predicate.AbstractCombinedBasePredicate;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRaw;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRawSet;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getSecondOperandAsRaw;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getThirdOperandAsInclusion;
+import com.speedment.internal.comparator.impl.NullOrder;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminatorUtil;
+import com.speedment.stream.StreamDecorator;
+import java.util.ArrayList;
+import com.speedment.db.SqlFunction;
+import com.speedment.field.predicate.HasFieldTrait;
+import com.speedment.field.predicate.PredicateType;
+import com.speedment.internal.core.stream.SummaryStatisticsUtil;
+import com.speedment.internal.core.stream.builder.action.HasMapper;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.stream.Collectors.toSet;
+import java.util.stream.Stream;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+import com.speedment.config.PrimaryKeyColumn;
+import com.speedment.internal.core.stream.parallelstrategy.PartitionSpliterator;
+import java.util.Optional;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+public final class SqlStreamTerminator<ENTITY> implements StreamTerminator {
+
+    private enum StatementKind {
+        SELECT, CONDITIONS
+    }
+    
+    private final AbstractSqlManager<ENTITY> manager;
+    private final AsynchronousQueryResult<ENTITY> asynchronousQueryResult;
+    private final StreamDecorator decorator;
+    private final List<AsynchronousQueryResult<ENTITY>> partitionResults;
+    
+    public SqlStreamTerminator(AbstractSqlManager<ENTITY> manager, AsynchronousQueryResult<ENTITY> asynchronousQueryResult, StreamDecorator decorator) {
+        this.manager = requireNonNull(manager);
+        this.asynchronousQueryResult = requireNonNull(asynchronousQueryResult);
+        this.decorator = requireNonNull(decorator);
+        this.partitionResults = new ArrayList<>();
+    }
+
+    /**
+     * Closes the query result of the stream and the query results of any
+     * partitions it has been divided into.
+     */
+    public void close() {
+        asynchronousQueryResult.close();
+        partitionResults.forEach(AsynchronousQueryResult::close);
+    }
+    
+    @Override
+    public StreamDecorator getStreamDecorator() {
+        return decorator;
+    }
+    
+    /**
+     * Renders the initial filters, sorting, skip, limit and mapping of the
+     * pipeline in the query. The rendered filters are also kept in the
+     * pipeline, so that the elements of the stream are the same as if the
+     * Java predicates had been tested on all rows, even where the database
+     * compares values differently (for example by a case insensitive
+     * collation). They are only removed when a skip, limit or mapping is
+     * rendered as well, since those must be applied to the filtered rows.
+     *
+     * @param <P> the pipeline type
+     * @param initialPipeline to optimize
+     * @return the optimized pipeline
+     */
+    @Override
+    public <P extends Pipeline> P optimize(P initialPipeline) {
+        requireNonNull(initialPipeline);
+        final List<Predicate<? super ENTITY>> predicates = new ArrayList<>();
+        final int remainingFilterCount = StreamTerminatorUtil.consumeFilters(initialPipeline, StreamTerminatorUtil::isFieldPredicateTree, predicates);
+
+        final OffsetLimit offsetLimit = new OffsetLimit();
+        // Sorting may be done before any remaining filters are applied
+        final List<String> orderBy = consumeSorted(initialPipeline, remainingFilterCount);
+        Optional<Column> projection = Optional.empty();
+        if (remainingFilterCount == 0) {
+            // The initial filters are completely rendered in the where clause
+            consumeSkipAndLimit(initialPipeline, offsetLimit);
+            projection = consumeProjection(initialPipeline);
+        }
+
+        if (!predicates.isEmpty() || projection.isPresent() || !orderBy.isEmpty() || offsetLimit.isPresent()) {
+            modifySource(predicates, projection, orderBy, offsetLimit.offset, offsetLimit.limit, asynchronousQueryResult);
+        }
+        if (initialPipeline.isParallel() && orderBy.isEmpty() && !offsetLimit.isPresent()) {
+            partition(initialPipeline, predicates);
+        }
+        if (!offsetLimit.isPresent() && !projection.isPresent()) {
+            // Nothing depends on the rendered filters being removed
+            for (int i = predicates.size() - 1; i >= 0; i--) {
+                initialPipeline.addFirst(new FilterAction<>(predicates.get(i)));
+            }
+        }
+        
+        return getStreamDecorator().apply(initialPipeline);
+    }
+
+    /**
+     * Divides the rows of a parallel stream into ranges of the primary key
+     * that are read concurrently using separate connections, if the stream
+     * decorator asks for more than one partition. The ranges are computed
+     * from the smallest and largest key of the rows that are selected.
+     *
+     * @param pipeline to read from the partitions
+     * @param predicates rendered in the where clause of the query
+     */
+    private void partition(Pipeline pipeline, List<Predicate<? super ENTITY>> predicates) {
+        final int partitions = decorator.getPartitions();
+        if (partitions < 2) {
+            return;
+        }
+        final Optional<Column> column = partitionColumn();
+        if (!column.isPresent()) {
+            return;
+        }
+        final String quotedColumn = manager.quoteField(column.get().getName());
+        final SqlPredicateFragment where = where(predicates);
+        final String rangeSql = "select min(" + quotedColumn + "), max(" + quotedColumn + ") from " + manager.sqlTableReference() + where.getSql();
+        final Optional<long[]> range = manager.synchronousStreamOf(rangeSql, where.objects().collect(toList()), rs -> {
+            final long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, asynchronousQueryResult.getQueryTimeout()).filter(Objects::nonNull).findAny();
+        if (!range.isPresent()) {
+            // There are no rows to read
+            return;
+        }
+        final List<Long> bounds = partitionBounds(range.get()[0], range.get()[1], partitions);
+        if (bounds.isEmpty()) {
+            return;
+        }
+
+        final String sql = asynchronousQueryResult.getSql() + (predicates.isEmpty() ? " where " : " AND ");
+        final List<Supplier<Spliterator<ENTITY>>> spliterators = new ArrayList<>();
+        for (int i = 0; i <= bounds.size(); i++) {
+            final List<String> conditions = new ArrayList<>();
+            final List<Object> values = new ArrayList<>(asynchronousQueryResult.getValues());
+            if (i > 0) {
+                conditions.add(quotedColumn + " >= ?");
+                values.add(bounds.get(i - 1));
+            }
+            if (i < bounds.size()) {
+                conditions.add(quotedColumn + " < ?");
+                values.add(bounds.get(i));
+            }
+            final AsynchronousQueryResult<ENTITY> partition = decorator.apply(manager.dbmsHandler().executeQueryAsync(
+                sql + "(" + String.join(" AND ", conditions) + ")", values, asynchronousQueryResult.getRsMapper()
+            ));
+            partition.setFetchSize(asynchronousQueryResult.getFetchSize());
+            partition.setPrefetchSize(asynchronousQueryResult.getPrefetchSize());
+            partition.setQueryTimeout(asynchronousQueryResult.getQueryTimeout());
+            partition.setCancelOnClose(asynchronousQueryResult.isCancelOnClose());
+            partitionResults.add(partition);
+            spliterators.add(() -> partition.stream().spliterator());
+        }
+        pipeline.setInitialSupplier(() -> decorator.apply(StreamSupport.stream(new PartitionSpliterator<>(spliterators), true)));
+    }
+
+    private Optional<Column> partitionColumn() {
+        final List<PrimaryKeyColumn> primaryKeyColumns = manager.getTable().streamOfPrimaryKeyColumns().collect(toList());
+        if (primaryKeyColumns.size() != 1) {
+            return Optional.empty();
+        }
+        final Column column = primaryKeyColumns.get(0).getColumn();
+        if (!LONG_TYPES.contains(column.getTypeMapper().getDatabaseType())) {
+            return Optional.empty();
+        }
+        return Optional.of(column);
+    }
+
+    /**
+     * Returns the lower bounds of all partitions but the first when the
+     * range from min to max (inclusive) is divided into the given number of
+     * partitions of (almost) equal size. A range is never divided into more
+     * partitions than it has values.
+     *
+     * @param min the smallest value of the range
+     * @param max the largest value of the range
+     * @param partitions the number of partitions
+     * @return the lower bounds of the partitions but the first
+     */
+    static List<Long> partitionBounds(long min, long max, int partitions) {
+        final BigInteger start = BigInteger.valueOf(min);
+        final BigInteger span = BigInteger.valueOf(max).subtract(start).add(BigInteger.ONE);
+        final int count = span.min(BigInteger.valueOf(partitions)).intValue();
+        final List<Long> bounds = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            bounds.add(start.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))).longValue());
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the conjuncts of the initial filters of the pipeline, if all of
+     * them can be rendered in a where clause. Otherwise, an empty Optional is
+     * returned.
+     *
+     * @param pipeline to examine
+     * @param filterCount the number of initial filters in the pipeline
+     * @return the conjuncts of the initial filters
+     */
+    private Optional<List<Predicate<? super ENTITY>>> renderablePredicates(Pipeline pipeline, int filterCount) {
+        final List<Predicate<? super ENTITY>> predicates = new ArrayList<>();
+        for (int i = 0; i < filterCount; i++) {
+            final FilterAction<ENTITY> action = asFilterAction(pipeline.get(i));
+            for (final Predicate<? super ENTITY> conjunct : StreamTerminatorUtil.conjuncts(action.getPredicate())) {
+                if (!StreamTerminatorUtil.isFieldPredicateTree(conjunct)) {
+                    return Optional.empty();
+                }
+                predicates.add(conjunct);
+            }
+        }
+        return Optional.of(predicates);
+    }
+
+    /**
+     * Removes all consecutive sorted actions starting at the given index that
+     * sort on a single field and returns the corresponding {@code ORDER BY}
+     * terms. Since the sort of a stream is stable, a later sorted action takes
+     * precedence over an earlier one, so the terms are returned with the
+     * last action first.
+     *
+     * @param pipeline to consume actions from
+     * @param index of the first action that might be a sorted action
+     * @return the terms of the {@code ORDER BY} clause, most significant first
+     */
+    private List<String> consumeSorted(Pipeline pipeline, int index) {
+        final LinkedList<String> orderBy = new LinkedList<>();
+        while (index < pipeline.size()) {
+            final Optional<String> term = orderByTerm(pipeline.get(index));
+            if (!term.isPresent()) {
+                break;
+            }
+            orderBy.addFirst(term.get());
+            pipeline.remove(index);
+        }
+        return orderBy;
+    }
+
+    private Optional<String> orderByTerm(Action<?, ?> action) {
+        if (!(action instanceof SortedAction)) {
+            return Optional.empty();
+        }
+        final Optional<? extends Comparator<?>> comparator = ((SortedAction<?>) action).getComparator();
+        if (!comparator.isPresent() || !(comparator.get() instanceof SpeedmentComparator)) {
+            return Optional.empty();
+        }
+        final SpeedmentComparator<?, ?> speedmentComparator = (SpeedmentComparator<?, ?>) comparator.get();
+        final Column column = findColumn(speedmentComparator.getField().getColumnName());
+        final boolean reversed = speedmentComparator.isReversed();
+        final NullOrder nullOrder;
+        switch (speedmentComparator.getNullOrder()) {
+            case FIRST: {
+                nullOrder = reversed ? NullOrder.LAST : NullOrder.FIRST;
+                break;
+            }
+            case LAST: {
+                nullOrder = reversed ? NullOrder.FIRST : NullOrder.LAST;
+                break;
+            }
+            default: {
+                if (!Boolean.FALSE.equals(column.isNullable())) {
+                    // The comparator throws an exception on nulls, so the
+                    // sort must be done in the stream
+                    return Optional.empty();
+                }
+                nullOrder = NullOrder.NONE;
+            }
+        }
+        return Optional.of(manager.getDbmsType().getOrderByFragment(
+                manager.quoteField(column.getName()), reversed, nullOrder
+        ));
+    }
+
+    /**
+     * Removes all skip and limit actions from the beginning of the pipeline
+     * and folds them into the provided {@code OffsetLimit}. Actions that 
+     * preserve both order and size and that have no side effects (such as
+     * {@code map()}) can be passed, since a skip or limit may be moved in
+     * front of them without changing the result.
+     *
+     * @param pipeline to consume actions from
+     * @param offsetLimit to fold the consumed actions into
+     */
+    private void consumeSkipAndLimit(Pipeline pipeline, OffsetLimit offsetLimit) {
+        int index = 0;
+        while (index < pipeline.size()) {
+            final Action<?, ?> action = pipeline.get(index);
+            if (action instanceof HasSkip) {
+                offsetLimit.skip(((HasSkip) action).getSkip());
+                pipeline.remove(index);
+            } else if (action instanceof HasMaxSize) {
+                offsetLimit.limit(((HasMaxSize) action).getMaxSize());
+                pipeline.remove(index);
+            } else if (action.is(PRESERVE, ORDER) && action.is(PRESERVE, SIZE) && !action.is(SET, SIDE_EFFECT)) {
+                index++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces a first action of the pipeline that maps entities using the
+     * getter of a field, so that the stream can be fed by the values of
+     * that single column instead of complete entities. Mappings to primitive
+     * streams are replaced by an unboxing of the column value.
+     *
+     * @param pipeline to consume the mapping from
+     * @return the column to select, or an empty Optional if the pipeline
+     * does not start with such a mapping
+     */
+    private Optional<Column> consumeProjection(Pipeline pipeline) {
+        if (pipeline.isEmpty() || !(pipeline.getFirst() instanceof HasMapper)) {
+            return Optional.empty();
+        }
+        final Object mapper = ((HasMapper<?>) pipeline.getFirst()).getMapper();
+        if (!(mapper instanceof HasFieldTrait)) {
+            return Optional.empty();
+        }
+        final Column column = findColumn(((HasFieldTrait) mapper).getField().getColumnName());
+        final Action<?, ?> action = pipeline.removeFirst();
+        if (action instanceof MapToIntAction) {
+            pipeline.addFirst(new MapToIntAction<Object>(v -> ((Number) v).intValue()));
+        } else if (action instanceof MapToLongAction) {
+            pipeline.addFirst(new MapToLongAction<Object>(v -> ((Number) v).longValue()));
+        } else if (action instanceof MapToDoubleAction) {
+            pipeline.addFirst(new MapToDoubleAction<Object>(v -> ((Number) v).doubleValue()));
+        }
+        return Optional.of(column);
+    }
+
+    public void modifySource(final List<? extends Predicate<? super ENTITY>> predicateBuilders, AsynchronousQueryResult<ENTITY> qr) {
+        requireNonNull(predicateBuilders);
+        requireNonNull(qr);
+        if (predicateBuilders.isEmpty()) {
+            // Nothing to do...
+            return;
+        }
+        modifySource(predicateBuilders, Optional.empty(), Collections.emptyList(), 0, Long.MAX_VALUE, qr);
+    }
+
+    public void modifySource(final List<? extends Predicate<? super ENTITY>> predicateBuilders, Optional<Column> projection, List<String> orderBy, long offset, long limit, AsynchronousQueryResult<ENTITY> qr) {
+        requireNonNull(predicateBuilders);
+        requireNonNull(projection);
+        requireNonNull(orderBy);
+        requireNonNull(qr);
+        
+        final SqlPredicateFragment limitFragment = manager.getDbmsType().getLimitOffsetFragment(offset, limit);
+
+        final List<Object> shape = new ArrayList<>();
+        final List<Object> operands = new ArrayList<>();
+        shape.add(StatementKind.SELECT);
+        describe(predicateBuilders, shape, operands);
+        shape.add(projection.map(Column::getName).orElse(""));
+        shape.add(orderBy.size());
+        shape.addAll(orderBy);
+        shape.add(limitFragment.getSql());
+
+        final SqlStatementTemplate statement = sqlStatement(shape, predicateBuilders, operands, conditions -> {
+            final String where = conditions.isEmpty() ? "" : " where " + conditions;
+            final String orderByClause = orderBy.isEmpty() ? "" : " ORDER BY "
+                    + orderBy.stream().collect(joining(", "));
+            final String suffix = where + orderByClause + limitFragment.getSql();
+            return projection
+                    .map(c -> "select " + manager.quoteField(c.getName()) + " from " + manager.sqlTableReference() + suffix)
+                    .orElseGet(() -> manager.sqlSelect(suffix));
+        });
+
+        final List<Object> values = statement.bind(operands);
+        limitFragment.objects().forEach(values::add);
+        
+        qr.setSql(statement.getSql());
+        qr.setValues(values);
+        qr.setRowLimit(limit);
+        projection.ifPresent(c -> {
+            // The stream is fed by the column values instead of entities
+            @SuppressWarnings("unchecked")
+            final Function<ResultSet, ENTITY> rsMapper = (Function<ResultSet, ENTITY>) manager.sqlColumnMapper(c).unWrap();
+            qr.setRsMapper(rsMapper);
+        });
+    }
+
+    /**
+     * Renders the given predicates as a where clause. The values of the
+     * returned fragment are converted to their database types.
+     *
+     * @param predicateBuilders to render
+     * @return the where clause, or an empty fragment if there are no
+     * predicates
+     */
+    private SqlPredicateFragment where(final List<? extends Predicate<? super ENTITY>> predicateBuilders) {
+        final SqlPredicateFragment conditions = conditions(predicateBuilders);
+        if (!conditions.getSql().isEmpty()) {
+            conditions.setSql(" where " + conditions.getSql());
+        }
+        return conditions;
+    }
+
+    /**
+     * Renders the given predicates as conditions joined by {@code AND}. Each
+     * predicate is a field predicate or a combination of field predicates.
+     * The values of the returned fragment are converted to their database
+     * types.
+     *
+     * @param predicateBuilders to render
+     * @return the conditions, or an empty fragment if there are no predicates
+     */
+    private SqlPredicateFragment conditions(final List<? extends Predicate<? super ENTITY>> predicateBuilders) {
+        final List<Object> shape = new ArrayList<>();
+        final List<Object> operands = new ArrayList<>();
+        shape.add(StatementKind.CONDITIONS);
+        describe(predicateBuilders, shape, operands);
+        final SqlStatementTemplate statement = sqlStatement(shape, predicateBuilders, operands, UnaryOperator.identity());
+        return SqlPredicateFragment.of(statement.getSql(), statement.bind(operands));
+    }
+
+    /**
+     * Returns the statement for the given query shape. If no statement has
+     * been cached for the shape, the predicates are rendered and the
+     * statement is created from the rendered conditions using the provided
+     * function.
+     * <p>
+     * The operands, that are collected when the shape is described, are
+     * normally the parameter values of the rendered conditions. If the
+     * predicate view renders other values, the statement is not cached and
+     * the operands are replaced by the rendered values.
+     *
+     * @param shape of the query
+     * @param predicateBuilders to render if the shape is not cached
+     * @param operands the Java values of the parameters of the predicates
+     * @param sqlMapper that creates the statement from the rendered conditions
+     * @return the statement for the shape
+     */
+    private SqlStatementTemplate sqlStatement(List<Object> shape, List<? extends Predicate<? super ENTITY>> predicateBuilders, List<Object> operands, UnaryOperator<String> sqlMapper) {
+        final Optional<SqlStatementTemplate> cached = manager.findSqlStatementTemplate(shape);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        final SpeedmentPredicateView spv = manager.getDbmsType().getSpeedmentPredicateView();
+        final List<TypeMapper<Object, Object>> typeMappers = new ArrayList<>();
+        final List<SqlPredicateFragment> fragments = predicateBuilders.stream()
+                .map(p -> spv.transform(p, leaf -> {
+                    final SqlPredicateFragment fragment = spv.transform(leaf);
+                    @SuppressWarnings("unchecked")
+                    final TypeMapper<Object, Object> tm = (TypeMapper<Object, Object>) findColumn(leaf.getField().getColumnName()).getTypeMapper();
+                    fragment.objects().forEachOrdered(o -> typeMappers.add(tm));
+                    return fragment;
+                }))
+                .collect(toList());
+        
+        final String conditions = fragments.stream()
+                .map(SqlPredicateFragment::getSql)
+                .collect(joining(" AND "));
+        final List<Object> rendered = fragments.stream()
+                .flatMap(SqlPredicateFragment::objects)
+                .collect(toList());
+
+        final SqlStatementTemplate statement = new SqlStatementTemplate(sqlMapper.apply(conditions), typeMappers);
+        if (rendered.equals(operands)) {
+            manager.putSqlStatementTemplate(shape, statement);
+        } else {
+            operands.clear();
+            operands.addAll(rendered);
+        }
+        return statement;
+    }
+
+    /**
+     * Describes the shape of the given predicates and collects the Java
+     * values of their parameters in the order they are rendered. Two lists
+     * of predicates with equal shapes are rendered as the same SQL.
+     *
+     * @param predicates to describe
+     * @param shape to add the description to
+     * @param operands to add the parameter values to
+     */
+    private static void describe(List<? extends Predicate<?>> predicates, List<Object> shape, List<Object> operands) {
+        shape.add(predicates.size());
+        predicates.forEach(p -> describe(p, shape, operands));
+    }
+
+    private static void describe(Predicate<?> predicate, List<Object> shape, List<Object> operands) {
+        if (predicate instanceof AbstractCombinedBasePredicate) {
+            final AbstractCombinedBasePredicate<?> combined = (AbstractCombinedBasePredicate<?>) predicate;
+            shape.add(combined.getType());
+            shape.add(combined.isNegated());
+            shape.add(combined.size());
+            combined.stream().forEachOrdered(p -> describe(p, shape, operands));
+            return;
+        }
+        final SpeedmentPredicate<?, ?> leaf = (SpeedmentPredicate<?, ?>) predicate;
+        final PredicateType type = leaf.getEffectivePredicateType();
+        shape.add(type);
+        shape.add(leaf.getField().getColumnName());
+        switch (type) {
+            case ALWAYS_TRUE:
+            case ALWAYS_FALSE:
+            case IS_NULL:
+            case IS_NOT_NULL:
+            case IS_EMPTY:
+            case IS_NOT_EMPTY: {
+                break;
+            }
+            case BETWEEN:
+            case NOT_BETWEEN: {
+                shape.add(getThirdOperandAsInclusion(leaf));
+                operands.add(getFirstOperandAsRaw(leaf));
+                operands.add(getSecondOperandAsRaw(leaf));
+                break;
+            }
+            case IN:
+            case NOT_IN: {
+                final Set<?> set = getFirstOperandAsRawSet(leaf);
+                shape.add(set.size());
+                operands.addAll(set);
+                break;
+            }
+            default: {
+                operands.add(getFirstOperandAsRaw(leaf));
+            }
+        }
+    }
+    
+    private Column findColumn(String name) {
+        return manager.getTable().streamOfColumns()
+                .filter(c -> name.equals(c.getName()))
+                .findAny().get();
+    }
+    
+    @Override
+    public long count(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+    }
+    
+    @Override
+    public <T> long count(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+    }
+    
+    @Override
+    public long count(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+    }
+    
+    @Override
+    public <T> long count(ReferencePipeline<T> pipeline) {
+        requireNonNull(pipeline);
+        return countHelper(pipeline, () -> StreamTerminator.super.count(pipeline));
+    }
+    
+    @Override
+    public <T> Optional<T> findFirst(ReferencePipeline<T> pipeline) {
+        requireNonNull(pipeline);
+        // Only one element is needed, so the database may stop after it
+        pipeline.add(new LimitAction<>(1));
+        return StreamTerminator.super.findFirst(pipeline);
+    }
+
+    @Override
+    public <T> Optional<T> findAny(ReferencePipeline<T> pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new LimitAction<>(1));
+        return StreamTerminator.super.findAny(pipeline);
+    }
+
+    @Override
+    public OptionalInt findFirst(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new IntLimitAction(1));
+        return StreamTerminator.super.findFirst(pipeline);
+    }
+
+    @Override
+    public OptionalInt findAny(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new IntLimitAction(1));
+        return StreamTerminator.super.findAny(pipeline);
+    }
+
+    @Override
+    public OptionalLong findFirst(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new LongLimitAction(1));
+        return StreamTerminator.super.findFirst(pipeline);
+    }
+
+    @Override
+    public OptionalLong findAny(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new LongLimitAction(1));
+        return StreamTerminator.super.findAny(pipeline);
+    }
+
+    @Override
+    public OptionalDouble findFirst(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new DoubleLimitAction(1));
+        return StreamTerminator.super.findFirst(pipeline);
+    }
+
+    @Override
+    public OptionalDouble findAny(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        pipeline.add(new DoubleLimitAction(1));
+        return StreamTerminator.super.findAny(pipeline);
+    }
+
+    @Override
+    public <T> boolean anyMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        requireNonNull(pipeline);
+        requireNonNull(predicate);
+        return exists(pipeline, predicate, false).orElseGet(() -> StreamTerminator.super.anyMatch(pipeline, predicate));
+    }
+
+    @Override
+    public <T> boolean noneMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        requireNonNull(pipeline);
+        requireNonNull(predicate);
+        return exists(pipeline, predicate, false).map(b -> !b).orElseGet(() -> StreamTerminator.super.noneMatch(pipeline, predicate));
+    }
+
+    @Override
+    public <T> boolean allMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        requireNonNull(pipeline);
+        requireNonNull(predicate);
+        return exists(pipeline, predicate, true).map(b -> !b).orElseGet(() -> StreamTerminator.super.allMatch(pipeline, predicate));
+    }
+
+    /**
+     * Returns if there is a row that matches the given pipeline and that
+     * matches (or, if {@code mismatch} is set, does not match) the given
+     * predicate. The database is asked for a single row only. If the pipeline
+     * or the predicate cannot be rendered completely in a where clause, an
+     * empty Optional is returned.
+     * <p>
+     * A row where the predicate evaluates to unknown, for example because a
+     * column is null, is considered to not match the predicate.
+     *
+     * @param pipeline the pipeline, consisting of filters only
+     * @param predicate to match
+     * @param mismatch if rows that do not match the predicate shall be found
+     * @return if there is such a row, or an empty Optional if the database
+     * cannot be asked
+     */
+    private Optional<Boolean> exists(Pipeline pipeline, Predicate<?> predicate, boolean mismatch) {
+        final int filterCount = StreamTerminatorUtil.initialFilterCount(pipeline);
+        if (pipeline.size() != filterCount || !StreamTerminatorUtil.isFieldPredicateTree(predicate)) {
+            return Optional.empty();
+        }
+        final Optional<List<Predicate<? super ENTITY>>> renderable = renderablePredicates(pipeline, filterCount);
+        if (!renderable.isPresent()) {
+            return Optional.empty();
+        }
+        final List<Predicate<? super ENTITY>> predicates = renderable.get();
+        @SuppressWarnings("unchecked")
+        final List<Predicate<? super ENTITY>> matching = Collections.singletonList((Predicate<? super ENTITY>) predicate);
+
+        final SqlPredicateFragment where;
+        if (mismatch) {
+            where = where(predicates);
+            final SqlPredicateFragment notMatching = conditions(matching);
+            if (!notMatching.getSql().isEmpty()) {
+                where.setSql(where.getSql() + (where.getSql().isEmpty() ? " where " : " AND ")
+                    + "((" + notMatching.getSql() + ") IS NOT TRUE)");
+                notMatching.objects().forEach(where::add);
+            }
+        } else {
+            final List<Predicate<? super ENTITY>> all = new ArrayList<>(predicates);
+            all.addAll(matching);
+            where = where(all);
+        }
+
+        final SqlPredicateFragment limitFragment = manager.getDbmsType().getLimitOffsetFragment(0, 1);
+        final String sql = "select 1 from " + manager.sqlTableReference() + where.getSql() + limitFragment.getSql();
+        final List<Object> values = new ArrayList<>();
+        where.objects().forEach(values::add);
+        limitFragment.objects().forEach(values::add);
+        return Optional.of(manager.synchronousStreamOf(sql, values, rs -> rs.getInt(1), asynchronousQueryResult.getQueryTimeout()).findAny().isPresent());
+    }
+
+    @Override
+    public int sum(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, INT_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> sumAsLong(rs.getBigDecimal(1)), SUM).intValue();
+        }
+        return StreamTerminator.super.sum(pipeline);
+    }
+
+    @Override
+    public long sum(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, LONG_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> sumAsLong(rs.getBigDecimal(1)), SUM);
+        }
+        return StreamTerminator.super.sum(pipeline);
+    }
+
+    @Override
+    public double sum(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, DOUBLE_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> rs.getDouble(1), SUM);
+        }
+        return StreamTerminator.super.sum(pipeline);
+    }
+
+    @Override
+    public OptionalInt min(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        return intExtreme(pipeline, MIN).orElseGet(() -> StreamTerminator.super.min(pipeline));
+    }
+
+    @Override
+    public OptionalLong min(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        return longExtreme(pipeline, MIN).orElseGet(() -> StreamTerminator.super.min(pipeline));
+    }
+
+    @Override
+    public OptionalDouble min(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        return doubleExtreme(pipeline, MIN).orElseGet(() -> StreamTerminator.super.min(pipeline));
+    }
+
+    @Override
+    public OptionalInt max(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        return intExtreme(pipeline, MAX).orElseGet(() -> StreamTerminator.super.max(pipeline));
+    }
+
+    @Override
+    public OptionalLong max(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        return longExtreme(pipeline, MAX).orElseGet(() -> StreamTerminator.super.max(pipeline));
+    }
+
+    @Override
+    public OptionalDouble max(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        return doubleExtreme(pipeline, MAX).orElseGet(() -> StreamTerminator.super.max(pipeline));
+    }
+
+    @Override
+    public OptionalDouble average(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        return integralAverage(pipeline, INT_TYPES).orElseGet(() -> StreamTerminator.super.average(pipeline));
+    }
+
+    @Override
+    public OptionalDouble average(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        return integralAverage(pipeline, LONG_TYPES).orElseGet(() -> StreamTerminator.super.average(pipeline));
+    }
+
+    @Override
+    public OptionalDouble average(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, DOUBLE_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> {
+                final long count = rs.getLong(2);
+                return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(rs.getDouble(1) / count);
+            }, SUM, COUNT);
+        }
+        return StreamTerminator.super.average(pipeline);
+    }
+
+    @Override
+    public IntSummaryStatistics summaryStatistics(IntPipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, INT_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> SummaryStatisticsUtil.intSummaryStatistics(
+                rs.getLong(1), exactSum(rs.getBigDecimal(2)), rs.getInt(3), rs.getInt(4)
+            ), COUNT, SUM, MIN, MAX);
+        }
+        return StreamTerminator.super.summaryStatistics(pipeline);
+    }
+
+    @Override
+    public LongSummaryStatistics summaryStatistics(LongPipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, LONG_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> SummaryStatisticsUtil.longSummaryStatistics(
+                rs.getLong(1), exactSum(rs.getBigDecimal(2)), rs.getLong(3), rs.getLong(4)
+            ), COUNT, SUM, MIN, MAX);
+        }
+        return StreamTerminator.super.summaryStatistics(pipeline);
+    }
+
+    @Override
+    public DoubleSummaryStatistics summaryStatistics(DoublePipeline pipeline) {
+        requireNonNull(pipeline);
+        final Optional<Aggregate> aggregate = aggregate(pipeline, DOUBLE_TYPES);
+        if (aggregate.isPresent()) {
+            return aggregate.get().select(rs -> SummaryStatisticsUtil.doubleSummaryStatistics(
+                rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4)
+            ), COUNT, SUM, MIN, MAX);
+        }
+        return StreamTerminator.super.summaryStatistics(pipeline);
+    }
+
+    private Optional<OptionalInt> intExtreme(IntPipeline pipeline, String function) {
+        return aggregate(pipeline, INT_TYPES).map(a -> a.select(rs -> {
+            final int value = rs.getInt(1);
+            return rs.wasNull() ? OptionalInt.empty() : OptionalInt.of(value);
+        }, function));
+    }
+
+    private Optional<OptionalLong> longExtreme(LongPipeline pipeline, String function) {
+        return aggregate(pipeline, LONG_TYPES).map(a -> a.select(rs -> {
+            final long value = rs.getLong(1);
+            return rs.wasNull() ? OptionalLong.empty() : OptionalLong.of(value);
+        }, function));
+    }
+
+    private Optional<OptionalDouble> doubleExtreme(DoublePipeline pipeline, String function) {
+        return aggregate(pipeline, DOUBLE_TYPES).map(a -> a.select(rs -> {
+            final double value = rs.getDouble(1);
+            return rs.wasNull() ? OptionalDouble.empty() : OptionalDouble.of(value);
+        }, function));
+    }
+
+    private Optional<OptionalDouble> integralAverage(Pipeline pipeline, Set<Class<?>> allowedTypes) {
+        // The sum is computed exactly by the database, but the average shall
+        // be computed from a wrapped long sum just like the stream does it
+        return aggregate(pipeline, allowedTypes).map(a -> a.select(rs -> {
+            final long count = rs.getLong(2);
+            return count == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sumAsLong(rs.getBigDecimal(1)) / count);
+        }, SUM, COUNT));
+    }
+
+    /**
+     * Returns the aggregate that corresponds to the given pipeline, if the
+     * pipeline only consists of filters that can be rendered completely in a
+     * where clause followed by a mapping to the values of a column using a
+     * field getter such as {@code NumberGetters.asLong(Order.AMOUNT)}.
+     * <p>
+     * Since the stream would throw a {@code NullPointerException} for null
+     * values, nullable columns are only aggregated if they are also filtered
+     * using {@code isNotNull()}. The column must have one of the given Java
+     * types and an identity type mapper, so that the database aggregates the
+     * same values as the stream would.
+     *
+     * @param pipeline to analyze
+     * @param allowedTypes the Java types that may be aggregated
+     * @return the aggregate, or an empty Optional if the pipeline must be
+     * evaluated by the stream
+     */
+    private Optional<Aggregate> aggregate(Pipeline pipeline, Set<Class<?>> allowedTypes) {
+        final int filterCount = StreamTerminatorUtil.initialFilterCount(pipeline);
+        if (pipeline.size() != filterCount + 1 || !(pipeline.getLast() instanceof HasMapper)) {
+            return Optional.empty();
+        }
+        final Optional<List<Predicate<? super ENTITY>>> renderable = renderablePredicates(pipeline, filterCount);
+        if (!renderable.isPresent()) {
+            return Optional.empty();
+        }
+        final Object mapper = ((HasMapper<?>) pipeline.getLast()).getMapper();
+        if (!(mapper instanceof HasFieldTrait)) {
+            return Optional.empty();
+        }
+        final Column column = findColumn(((HasFieldTrait) mapper).getField().getColumnName());
+        final TypeMapper<?, ?> typeMapper = column.getTypeMapper();
+        if (!typeMapper.isIdentityMapper() || !allowedTypes.contains(typeMapper.getJavaType())) {
+            return Optional.empty();
+        }
+        final List<Predicate<? super ENTITY>> predicates = renderable.get();
+        if (!Boolean.FALSE.equals(column.isNullable()) && predicates.stream().noneMatch(p -> isNotNull(p, column))) {
+            return Optional.empty();
+        }
+        return Optional.of(new Aggregate(manager.quoteField(column.getName()), where(predicates)));
+    }
+
+    private static boolean isNotNull(Predicate<?> predicate, Column column) {
+        if (!(predicate instanceof SpeedmentPredicate)) {
+            return false;
+        }
+        final SpeedmentPredicate<?, ?> speedmentPredicate = (SpeedmentPredicate<?, ?>) predicate;
+        return speedmentPredicate.getEffectivePredicateType() == PredicateType.IS_NOT_NULL
+            && column.getName().equals(speedmentPredicate.getField().getColumnName());
+    }
+
+    private static long sumAsLong(BigDecimal sum) {
+        // A sum that does not fit in a long wraps around just like it would
+        // in the stream
+        return exactSum(sum).longValue();
+    }
+
+    private static BigInteger exactSum(BigDecimal sum) {
+        // The sum of no rows is null
+        return sum == null ? BigInteger.ZERO : sum.toBigInteger();
+    }
+
+    private static final String SUM = "SUM", MIN = "MIN", MAX = "MAX", COUNT = "COUNT";
+
+    private static final Set<Class<?>> INT_TYPES = unmodifiableSet(Stream.of(
+        Byte.class, Short.class, Integer.class
+    ).collect(toSet()));
+
+    private static final Set<Class<?>> LONG_TYPES = unmodifiableSet(Stream.of(
+        Byte.class, Short.class, Integer.class, Long.class
+    ).collect(toSet()));
+
+    private static final Set<Class<?>> DOUBLE_TYPES = unmodifiableSet(Stream.of(
+        Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class
+    ).collect(toSet()));
+
+    /**
+     * An aggregation of a single column over the rows that match a where
+     * clause.
+     */
+    private final class Aggregate {
+
+        private final String quotedColumnName;
+        private final SqlPredicateFragment where;
+
+        private Aggregate(String quotedColumnName, SqlPredicateFragment where) {
+            this.quotedColumnName = requireNonNull(quotedColumnName);
+            this.where = requireNonNull(where);
+        }
+
+        private <T> T select(SqlFunction<ResultSet, T> rsMapper, String... functions) {
+            final String sql = "select "
+                + Stream.of(functions).map(f -> f + "(" + quotedColumnName + ")").collect(joining(","))
+                + " from " + manager.sqlTableReference()
+                + where.getSql();
+            return manager.synchronousStreamOf(sql, where.objects().collect(toList()), rsMapper, asynchronousQueryResult.getQueryTimeout()).findAny().get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> FilterAction<ENTITY> asFilterAction(Action<?, ?> action) {
+        return (FilterAction<ENTITY>) action;
+    }
+
+    private static final Predicate<Action<?, ?>> CHECK_RETAIN_SIZE = action -> action.is(PRESERVE, SIZE);
+
+    /**
+     * Optimizer for count operations!
+     * <p>
+     * If the pipeline starts with filters that can be rendered completely in
+     * a where clause and the remaining actions either retain the size of the
+     * stream or are skip and limit actions, the rows are counted by the
+     * database using the same where clause. Skip and limit are then applied
+     * to the count.
+     *
+     * @param pipeline
+     * @param fallbackSupplier
+     * @return the number of rows
+     */
+    private long countHelper(Pipeline pipeline, LongSupplier fallbackSupplier) {
+        requireNonNull(pipeline);
+        requireNonNull(fallbackSupplier);
+        final int filterCount = StreamTerminatorUtil.initialFilterCount(pipeline);
+        final Optional<List<Predicate<? super ENTITY>>> predicates = renderablePredicates(pipeline, filterCount);
+        if (!predicates.isPresent()) {
+            return fallbackSupplier.getAsLong();
+        }
+        final OffsetLimit offsetLimit = new OffsetLimit();
+        for (final Action<?, ?> action : pipeline.stream().skip(filterCount).collect(toList())) {
+            if (action instanceof HasSkip) {
+                offsetLimit.skip(((HasSkip) action).getSkip());
+            } else if (action instanceof HasMaxSize) {
+                offsetLimit.limit(((HasMaxSize) action).getMaxSize());
+            } else if (!CHECK_RETAIN_SIZE.test(action)) {
+                return fallbackSupplier.getAsLong();
+            }
+        }
+        final SqlPredicateFragment where = where(predicates.get());
+        final String sql = "select count(*) from " + manager.sqlTableReference() + where.getSql();
+        final long count = manager.synchronousStreamOf(sql, where.objects().collect(toList()), rs -> rs.getLong(1), asynchronousQueryResult.getQueryTimeout()).findAny().get();
+        return offsetLimit.apply(count);
+    }
+
+    /**
+     * Holds the number of rows to skip and the maximum number of rows to
+     * return from the database.
+     */
+    private static final class OffsetLimit {
+
+        private long offset;
+        private long limit = Long.MAX_VALUE;
+
+        private void skip(long n) {
+            offset = saturatedAdd(offset, n);
+            if (limit != Long.MAX_VALUE) {
+                limit = Math.max(0, limit - n);
+            }
+        }
+
+        private void limit(long maxSize) {
+            limit = Math.min(limit, maxSize);
+        }
+
+        private boolean isPresent() {
+            return offset != 0 || limit != Long.MAX_VALUE;
+        }
+
+        private long apply(long count) {
+            return Math.min(limit, Math.max(0, count - offset));
+        }
+
+        private static long saturatedAdd(long a, long b) {
+            final long result = a + b;
+            return result < 0 ? Long.MAX_VALUE : result;
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded dictionary of the values of a column with the
+ * {@link com.speedment.config.parameters.ColumnCompressionType#DEDUPLICATION DEDUPLICATION}
+ * compression type. Each value that is read from the database is replaced by
+ * an equal value that is already held by the dictionary, so that entities
+ * with equal values share one instance of it.
+ * <p>
+ * The dictionary is safe to use from several threads. Once it holds its
+ * maximum number of values, new values are no longer added, but the values
+ * that are already held are still shared.
+ *
+ * @author pemi
+ * @param <T> the value type
+ */
+public final class ValueDictionary<T> {
+
+    /**
+     * The default maximum number of values of a dictionary.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    private final String columnName;
+    private final int maxSize;
+    private final Map<T, T> values;
+    private final LongAdder reads;
+    private final LongAdder deduplicated;
+
+    /**
+     * Creates a new dictionary for the given column.
+     *
+     * @param columnName the name of the column
+     * @param maxSize the maximum number of values held
+     */
+    public ValueDictionary(String columnName, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The maximum size can not be negative, but was " + maxSize + ".");
+        }
+        this.columnName = requireNonNull(columnName);
+        this.maxSize = maxSize;
+        this.values = new ConcurrentHashMap<>();
+        this.reads = new LongAdder();
+        this.deduplicated = new LongAdder();
+    }
+
+    /**
+     * Returns the value held by this dictionary that is equal to the given
+     * value. If there is no such value, the given value is added to the
+     * dictionary, if it is not full, and returned.
+     *
+     * @param value the value, or {@code null}
+     * @return an equal value, or {@code null} if the value was {@code null}
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        reads.increment();
+        final T held = values.get(value);
+        if (held != null) {
+            if (held != value) {
+                deduplicated.increment();
+            }
+            return held;
+        }
+        if (values.size() < maxSize) {
+            final T previous = values.putIfAbsent(value, value);
+            if (previous != null) {
+                deduplicated.increment();
+                return previous;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the name of the column of this dictionary.
+     *
+     * @return the name of the column
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Returns the maximum number of values held by this dictionary.
+     *
+     * @return the maximum number of values
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of distinct values held by this dictionary.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the number of non-null values that have been interned.
+     *
+     * @return the number of values read
+     */
+    public long getReads() {
+        return reads.sum();
+    }
+
+    /**
+     * Returns the number of values that have been replaced by an equal value
+     * of this dictionary. Each of them is an instance that is no longer held
+     * by an entity.
+     *
+     * @return the number of values replaced
+     */
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Removes all the values of this dictionary and resets its statistics.
+     */
+    public void clear() {
+        values.clear();
+        reads.reset();
+        deduplicated.reset();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()
+            + "{columnName=" + columnName
+            + ", size=" + size()
+            + ", maxSize=" + maxSize
+            + ", reads=" + getReads()
+            + ", deduplicated=" + getDeduplicated()
+            + "}";
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.exception.SpeedmentException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A growable buffer of bytes that is allocated outside of the Java heap.
+ * Values are written and read at absolute positions, so that a buffer that
+ * is no longer written to may be read by several threads.
+ *
+ * @author pemi
+ */
+final class OffHeapBuffer {
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private ByteBuffer buffer;
+
+    OffHeapBuffer(int initialCapacity) {
+        this.buffer = allocate(initialCapacity);
+    }
+
+    /**
+     * Returns the underlying buffer, after making sure that it can hold the
+     * given number of bytes. The returned buffer is replaced by a larger one
+     * if more bytes are needed later.
+     *
+     * @param capacity the number of bytes the buffer must hold
+     * @return the underlying buffer
+     */
+    ByteBuffer ensureCapacity(long capacity) {
+        if (capacity > buffer.capacity()) {
+            if (capacity > MAX_CAPACITY) {
+                throw new SpeedmentException("An off heap column can not hold more than " + MAX_CAPACITY + " bytes.");
+            }
+            final ByteBuffer larger = allocate((int) Math.min(MAX_CAPACITY, Math.max(capacity, 2L * buffer.capacity())));
+            final ByteBuffer old = buffer.duplicate();
+            old.clear();
+            larger.put(old);
+            buffer = larger;
+        }
+        return buffer;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.exception.SpeedmentException;
+import com.speedment.field.predicate.PredicateType;
+import com.speedment.internal.core.field.predicate.impl.SpeedmentPredicateImpl;
+import com.speedment.internal.core.field.predicate.impl.comparable.BaseComparablePredicate;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The values of a column of a table, held in the order of the rows. The
+ * values of {@code Integer}, {@code Long}, {@code Double} and {@code String}
+ * columns are held outside of the Java heap, and the values of other columns
+ * in a list on the heap.
+ * <p>
+ * Field predicates are evaluated against the values of a column without
+ * creating any entities. Comparisons with a constant of the column type are
+ * evaluated on the primitive values, and other predicates on the boxed
+ * values.
+ *
+ * @author pemi
+ */
+abstract class OffHeapColumn {
+
+    static final int INITIAL_ROWS = 1024;
+
+    private final OffHeapBuffer nulls;
+    private int size;
+
+    private OffHeapColumn() {
+        this.nulls = new OffHeapBuffer(INITIAL_ROWS / 8);
+    }
+
+    /**
+     * Creates an empty column for values of the given Java type.
+     *
+     * @param javaType the type of the values
+     * @return an empty column
+     */
+    static OffHeapColumn of(Class<?> javaType) {
+        if (javaType == Integer.class) {
+            return new IntColumn();
+        } else if (javaType == Long.class) {
+            return new LongColumn();
+        } else if (javaType == Double.class) {
+            return new DoubleColumn();
+        } else if (javaType == String.class) {
+            return new StringColumn();
+        } else {
+            return new ObjectColumn();
+        }
+    }
+
+    /**
+     * Adds the value of the next row.
+     *
+     * @param value the value, or {@code null}
+     */
+    final void add(Object value) {
+        final int row = size;
+        final ByteBuffer bits = nulls.ensureCapacity(row / 8 + 1);
+        if (value == null) {
+            bits.put(row >>> 3, (byte) (bits.get(row >>> 3) | (1 << (row & 7))));
+        } else if (!accepts(value)) {
+            throw new SpeedmentException("The value " + value + " of " + value.getClass() + " can not be held in " + getClass().getSimpleName() + ".");
+        }
+        store(row, value);
+        size++;
+    }
+
+    final int size() {
+        return size;
+    }
+
+    final boolean isNull(int row) {
+        return (nulls.buffer().get(row >>> 3) & (1 << (row & 7))) != 0;
+    }
+
+    final Object get(int row) {
+        return isNull(row) ? null : value(row);
+    }
+
+    /**
+     * Returns a predicate of row numbers that is true for the rows where the
+     * given field predicate is true for the value of this column.
+     *
+     * @param leaf the field predicate
+     * @return a predicate of row numbers
+     */
+    @SuppressWarnings("unchecked")
+    final IntPredicate predicate(SpeedmentPredicateImpl<?, ?> leaf) {
+        final SpeedmentPredicateImpl<?, Object> p = (SpeedmentPredicateImpl<?, Object>) leaf;
+        final boolean negated = p.isNegated();
+        if (p instanceof BaseComparablePredicate) {
+            final Object operand = ((BaseComparablePredicate<?, ?>) p).getFirstOperand();
+            if (operand != null && accepts(operand)) {
+                final IntUnaryOperator compareTo = compareTo(p.getPredicateType(), operand);
+                final IntPredicate comparison = compareTo == null ? null : comparison(p.getPredicateType(), compareTo);
+                if (comparison != null) {
+                    // The comparisons are false for null values
+                    final boolean nullResult = p.testField(null) ^ negated;
+                    return row -> isNull(row) ? nullResult : comparison.test(row) ^ negated;
+                }
+            }
+        }
+        return row -> p.testField(get(row)) ^ negated;
+    }
+
+    /**
+     * Returns if the given non-null value can be held in this column.
+     *
+     * @param value the value
+     * @return if the value can be held
+     */
+    abstract boolean accepts(Object value);
+
+    /**
+     * Stores the value of the given row. The value is {@code null} if the
+     * row is null.
+     *
+     * @param row the row
+     * @param value the value, or {@code null}
+     */
+    abstract void store(int row, Object value);
+
+    /**
+     * Returns the value of the given row, which is not null.
+     *
+     * @param row the row
+     * @return the value
+     */
+    abstract Object value(int row);
+
+    /**
+     * Returns a function that compares the value of a row, which is not null,
+     * with the given operand, if that is supported for the given predicate
+     * type. Otherwise, {@code null} is returned.
+     *
+     * @param type the predicate type
+     * @param operand the operand of the predicate
+     * @return a function from a row to the sign of the comparison, or
+     * {@code null}
+     */
+    IntUnaryOperator compareTo(PredicateType type, Object operand) {
+        return null;
+    }
+
+    private static IntPredicate comparison(PredicateType type, IntUnaryOperator compareTo) {
+        switch (type) {
+            case EQUAL:
+                return row -> compareTo.applyAsInt(row) == 0;
+            case NOT_EQUAL:
+                return row -> compareTo.applyAsInt(row) != 0;
+            case GREATER_THAN:
+                return row -> compareTo.applyAsInt(row) > 0;
+            case GREATER_OR_EQUAL:
+                return row -> compareTo.applyAsInt(row) >= 0;
+            case LESS_THAN:
+                return row -> compareTo.applyAsInt(row) < 0;
+            case LESS_OR_EQUAL:
+                return row -> compareTo.applyAsInt(row) <= 0;
+            default:
+                return null;
+        }
+    }
+
+    private static final class IntColumn extends OffHeapColumn {
+
+        private final OffHeapBuffer values = new OffHeapBuffer(INITIAL_ROWS * Integer.BYTES);
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Integer;
+        }
+
+        @Override
+        void store(int row, Object value) {
+            values.ensureCapacity((row + 1L) * Integer.BYTES).putInt(row * Integer.BYTES, value == null ? 0 : (Integer) value);
+        }
+
+        @Override
+        Object value(int row) {
+            return values.buffer().getInt(row * Integer.BYTES);
+        }
+
+        @Override
+        IntUnaryOperator compareTo(PredicateType type, Object operand) {
+            final ByteBuffer buffer = values.buffer();
+            final int op = (Integer) operand;
+            return row -> Integer.compare(buffer.getInt(row * Integer.BYTES), op);
+        }
+    }
+
+    private static final class LongColumn extends OffHeapColumn {
+
+        private final OffHeapBuffer values = new OffHeapBuffer(INITIAL_ROWS * Long.BYTES);
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Long;
+        }
+
+        @Override
+        void store(int row, Object value) {
+            values.ensureCapacity((row + 1L) * Long.BYTES).putLong(row * Long.BYTES, value == null ? 0L : (Long) value);
+        }
+
+        @Override
+        Object value(int row) {
+            return values.buffer().getLong(row * Long.BYTES);
+        }
+
+        @Override
+        IntUnaryOperator compareTo(PredicateType type, Object operand) {
+            final ByteBuffer buffer = values.buffer();
+            final long op = (Long) operand;
+            return row -> Long.compare(buffer.getLong(row * Long.BYTES), op);
+        }
+    }
+
+    private static final class DoubleColumn extends OffHeapColumn {
+
+        private final OffHeapBuffer values = new OffHeapBuffer(INITIAL_ROWS * Double.BYTES);
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Double;
+        }
+
+        @Override
+        void store(int row, Object value) {
+            values.ensureCapacity((row + 1L) * Double.BYTES).putDouble(row * Double.BYTES, value == null ? 0d : (Double) value);
+        }
+
+        @Override
+        Object value(int row) {
+            return values.buffer().getDouble(row * Double.BYTES);
+        }
+
+        @Override
+        IntUnaryOperator compareTo(PredicateType type, Object operand) {
+            final ByteBuffer buffer = values.buffer();
+            final double op = (Double) operand;
+            // Double.compare orders like Double.compareTo, unlike the < operator
+            return row -> Double.compare(buffer.getDouble(row * Double.BYTES), op);
+        }
+    }
+
+    /**
+     * The values are held as UTF-8 bytes after each other, and the end of
+     * the bytes of each row is held in a separate buffer.
+     */
+    private static final class StringColumn extends OffHeapColumn {
+
+        private final OffHeapBuffer ends = new OffHeapBuffer(INITIAL_ROWS * Integer.BYTES);
+        private final OffHeapBuffer bytes = new OffHeapBuffer(INITIAL_ROWS * 16);
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof String;
+        }
+
+        @Override
+        void store(int row, Object value) {
+            int end = start(row);
+            if (value != null) {
+                final byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+                final ByteBuffer buffer = bytes.ensureCapacity((long) end + utf8.length);
+                for (final byte b : utf8) {
+                    buffer.put(end++, b);
+                }
+            }
+            ends.ensureCapacity((row + 1L) * Integer.BYTES).putInt(row * Integer.BYTES, end);
+        }
+
+        @Override
+        Object value(int row) {
+            final ByteBuffer buffer = bytes.buffer();
+            final int start = start(row);
+            final byte[] utf8 = new byte[end(row) - start];
+            for (int i = 0; i < utf8.length; i++) {
+                utf8[i] = buffer.get(start + i);
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        IntUnaryOperator compareTo(PredicateType type, Object operand) {
+            if (type != PredicateType.EQUAL && type != PredicateType.NOT_EQUAL) {
+                // The order of UTF-8 bytes is not the order of String
+                return null;
+            }
+            final ByteBuffer buffer = bytes.buffer();
+            final byte[] utf8 = ((String) operand).getBytes(StandardCharsets.UTF_8);
+            return row -> {
+                final int start = start(row);
+                if (end(row) - start != utf8.length) {
+                    return 1;
+                }
+                for (int i = 0; i < utf8.length; i++) {
+                    if (buffer.get(start + i) != utf8[i]) {
+                        return 1;
+                    }
+                }
+                return 0;
+            };
+        }
+
+        private int start(int row) {
+            return row == 0 ? 0 : end(row - 1);
+        }
+
+        private int end(int row) {
+            return ends.buffer().getInt(row * Integer.BYTES);
+        }
+    }
+
+    private static final class ObjectColumn extends OffHeapColumn {
+
+        private final List<Object> values = new ArrayList<>(INITIAL_ROWS);
+
+        @Override
+        boolean accepts(Object value) {
+            return true;
+        }
+
+        @Override
+        void store(int row, Object value) {
+            values.add(value);
+        }
+
+        @Override
+        Object value(int row) {
+            return values.get(row);
+        }
+    }
+}
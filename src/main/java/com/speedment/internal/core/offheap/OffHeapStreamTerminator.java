@@ -0,0 +1,105 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
+import com.speedment.internal.core.stream.builder.pipeline.ReferencePipeline;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminator;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminatorUtil;
+import com.speedment.stream.StreamDecorator;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A {@link StreamTerminator} for the streams of an {@link OffHeapTable}.
+ * The field predicates of the initial filters of a pipeline are evaluated
+ * against the columns of the table, so that entities are only created for
+ * the rows that pass them.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+final class OffHeapStreamTerminator<ENTITY> implements StreamTerminator {
+
+    private final OffHeapTable<ENTITY> table;
+    private final StreamDecorator decorator;
+
+    OffHeapStreamTerminator(OffHeapTable<ENTITY> table, StreamDecorator decorator) {
+        this.table = requireNonNull(table);
+        this.decorator = requireNonNull(decorator);
+    }
+
+    @Override
+    public StreamDecorator getStreamDecorator() {
+        return decorator;
+    }
+
+    @Override
+    public <P extends Pipeline> P optimize(P initialPipeline) {
+        requireNonNull(initialPipeline);
+        final IntPredicate rowFilter = consumeFilters(initialPipeline);
+        if (rowFilter != null) {
+            initialPipeline.setInitialSupplier(() -> table.entities(rowFilter));
+        }
+        return getStreamDecorator().apply(initialPipeline);
+    }
+
+    @Override
+    public <T> long count(ReferencePipeline<T> pipeline) {
+        requireNonNull(pipeline);
+        final IntPredicate rowFilter = consumeFilters(pipeline);
+        if (pipeline.isEmpty()) {
+            // Only the rows need to be counted, not the entities
+            return rowFilter == null ? table.size() : table.rows(rowFilter).count();
+        }
+        if (rowFilter != null) {
+            pipeline.setInitialSupplier(() -> table.entities(rowFilter));
+        }
+        return getStreamDecorator().apply(pipeline).getAsReferenceStream().count();
+    }
+
+    /**
+     * Removes the conjuncts of the initial filters of the pipeline that can
+     * be evaluated against the columns and returns a predicate of row
+     * numbers that evaluates them, or {@code null} if there is none.
+     *
+     * @param pipeline to consume filters from
+     * @return a predicate of row numbers, or {@code null}
+     */
+    private IntPredicate consumeFilters(Pipeline pipeline) {
+        final List<Predicate<? super ENTITY>> predicates = new ArrayList<>();
+        StreamTerminatorUtil.<ENTITY>consumeFilters(pipeline, table::canEvaluate, predicates);
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        final IntPredicate[] parts = predicates.stream().map(table::rowPredicate).toArray(IntPredicate[]::new);
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        return row -> {
+            for (final IntPredicate part : parts) {
+                if (!part.test(row)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+}
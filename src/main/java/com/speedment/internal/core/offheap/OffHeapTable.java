@@ -0,0 +1,198 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.Manager;
+import com.speedment.config.Column;
+import com.speedment.internal.core.field.predicate.AbstractCombinedBasePredicate;
+import com.speedment.internal.core.field.predicate.impl.SpeedmentPredicateImpl;
+import com.speedment.internal.core.stream.builder.ReferenceStreamBuilder;
+import com.speedment.internal.core.stream.builder.pipeline.PipelineImpl;
+import com.speedment.stream.StreamDecorator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The rows of a table held column by column outside of the Java heap. An
+ * entity is only created for a row when the row has passed the field
+ * predicates of the initial filters of a stream, which are evaluated
+ * directly against the columns.
+ * <p>
+ * The entities that are created are new objects, so they may be modified
+ * without affecting the table.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+public final class OffHeapTable<ENTITY> {
+
+    private final Manager<ENTITY> manager;
+    private final Column[] columns;
+    private final OffHeapColumn[] values;
+    private final Map<String, OffHeapColumn> valuesByName;
+    private int size;
+
+    private OffHeapTable(Manager<ENTITY> manager) {
+        this.manager = requireNonNull(manager);
+        final List<Column> columnList = manager.getTable().streamOfColumns().collect(toList());
+        this.columns = columnList.toArray(new Column[columnList.size()]);
+        this.values = new OffHeapColumn[columns.length];
+        this.valuesByName = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = OffHeapColumn.of(columns[i].getTypeMapper().getJavaType());
+            valuesByName.put(columns[i].getName(), values[i]);
+        }
+    }
+
+    /**
+     * Reads the entities of the given stream into a new table. The stream is
+     * closed once it has been read.
+     *
+     * @param <ENTITY> the entity type
+     * @param manager the manager of the entities
+     * @param entities the entities to hold
+     * @return a table with the entities
+     */
+    public static <ENTITY> OffHeapTable<ENTITY> of(Manager<ENTITY> manager, Stream<ENTITY> entities) {
+        requireNonNull(entities);
+        final OffHeapTable<ENTITY> table = new OffHeapTable<>(manager);
+        try (final Stream<ENTITY> s = entities) {
+            s.forEachOrdered(table::add);
+        }
+        return table;
+    }
+
+    /**
+     * Returns the number of rows of this table.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a stream of the entities of this table.
+     *
+     * @param decorator decorates the stream before building it
+     * @return a stream of the entities
+     */
+    public Stream<ENTITY> stream(StreamDecorator decorator) {
+        requireNonNull(decorator);
+        final OffHeapStreamTerminator<ENTITY> terminator = new OffHeapStreamTerminator<>(this, decorator);
+        return decorator.apply(new ReferenceStreamBuilder<>(new PipelineImpl<>(() -> entities(null)), terminator));
+    }
+
+    /**
+     * Returns a stream of the entities of the rows that match the given
+     * predicate of row numbers.
+     *
+     * @param rowFilter the predicate, or {@code null} for all rows
+     * @return a stream of the entities
+     */
+    Stream<ENTITY> entities(IntPredicate rowFilter) {
+        return rows(rowFilter).mapToObj(this::entity);
+    }
+
+    /**
+     * Returns a stream of the row numbers that match the given predicate.
+     *
+     * @param rowFilter the predicate, or {@code null} for all rows
+     * @return a stream of the row numbers
+     */
+    IntStream rows(IntPredicate rowFilter) {
+        final IntStream rows = IntStream.range(0, size);
+        return rowFilter == null ? rows : rows.filter(rowFilter);
+    }
+
+    /**
+     * Returns if the given predicate can be evaluated against the columns of
+     * this table, which it can if it is a field predicate on a column of the
+     * table or an AND/OR combination of such predicates.
+     *
+     * @param predicate the predicate
+     * @return if the predicate can be evaluated against the columns
+     */
+    boolean canEvaluate(Predicate<?> predicate) {
+        if (predicate instanceof SpeedmentPredicateImpl) {
+            return valuesByName.containsKey(((SpeedmentPredicateImpl<?, ?>) predicate).getField().getColumnName());
+        }
+        if (predicate instanceof AbstractCombinedBasePredicate) {
+            return ((AbstractCombinedBasePredicate<?>) predicate).stream().allMatch(this::canEvaluate);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a predicate of row numbers that is true for the rows where the
+     * given predicate is true. The predicate must be one that
+     * {@link #canEvaluate(Predicate) can be evaluated}.
+     *
+     * @param predicate the predicate
+     * @return a predicate of row numbers
+     */
+    IntPredicate rowPredicate(Predicate<?> predicate) {
+        if (predicate instanceof SpeedmentPredicateImpl) {
+            final SpeedmentPredicateImpl<?, ?> leaf = (SpeedmentPredicateImpl<?, ?>) predicate;
+            return valuesByName.get(leaf.getField().getColumnName()).predicate(leaf);
+        }
+        final AbstractCombinedBasePredicate<?> combined = (AbstractCombinedBasePredicate<?>) predicate;
+        final IntPredicate[] parts = combined.stream().map(this::rowPredicate).toArray(IntPredicate[]::new);
+        final boolean negated = combined.isNegated();
+        if (combined.getType() == AbstractCombinedBasePredicate.Type.AND) {
+            return row -> {
+                for (final IntPredicate part : parts) {
+                    if (!part.test(row)) {
+                        return negated;
+                    }
+                }
+                return !negated;
+            };
+        } else {
+            return row -> {
+                for (final IntPredicate part : parts) {
+                    if (part.test(row)) {
+                        return !negated;
+                    }
+                }
+                return negated;
+            };
+        }
+    }
+
+    private void add(ENTITY entity) {
+        for (int i = 0; i < columns.length; i++) {
+            values[i].add(manager.get(entity, columns[i]));
+        }
+        size++;
+    }
+
+    private ENTITY entity(int row) {
+        final ENTITY entity = manager.newInstance();
+        for (int i = 0; i < columns.length; i++) {
+            manager.set(entity, columns[i], values[i].get(row));
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.internal.core.field.predicate.impl.SpeedmentPredicateImpl;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bitmap index of a column of an {@link OnHeapTable} with few distinct
+ * values, like a status, a type or a flag. There is one bitmap for each
+ * distinct value, including {@code null}, with the rows where the column has
+ * that value. A field predicate on the column is evaluated by testing it once
+ * for each distinct value and combining the bitmaps of the values where it is
+ * true, so any field predicate can be evaluated with the same result as
+ * testing it on each entity.
+ *
+ * @author pemi
+ */
+final class BitmapIndex {
+
+    /**
+     * The largest number of distinct values of a column that is indexed with
+     * bitmaps.
+     */
+    static final int MAX_CARDINALITY = 256;
+
+    private final Map<Object, BitSet> rowsByValue;
+
+    private BitmapIndex(Map<Object, BitSet> rowsByValue) {
+        this.rowsByValue = rowsByValue;
+    }
+
+    /**
+     * Creates a bitmap index of the given values, where the value of each row
+     * is at the position of the row. If the values have more than
+     * {@link #MAX_CARDINALITY} distinct values, an empty Optional is
+     * returned.
+     *
+     * @param values the values of the column
+     * @return a bitmap index of the values, or an empty Optional
+     */
+    static Optional<BitmapIndex> of(List<?> values) {
+        final Map<Object, BitSet> rowsByValue = new HashMap<>();
+        for (int row = 0; row < values.size(); row++) {
+            final BitSet rows = rowsByValue.computeIfAbsent(values.get(row), v -> new BitSet());
+            if (rowsByValue.size() > MAX_CARDINALITY) {
+                return Optional.empty();
+            }
+            rows.set(row);
+        }
+        return Optional.of(new BitmapIndex(rowsByValue));
+    }
+
+    /**
+     * Returns the rows where the given field predicate is true.
+     *
+     * @param predicate the field predicate on the indexed column
+     * @return a new bitmap of the rows where the predicate is true
+     */
+    @SuppressWarnings("unchecked")
+    BitSet rows(SpeedmentPredicateImpl<?, ?> predicate) {
+        final SpeedmentPredicateImpl<?, Object> leaf = (SpeedmentPredicateImpl<?, Object>) predicate;
+        final BitSet result = new BitSet();
+        rowsByValue.forEach((value, rows) -> {
+            if (leaf.testField(value) ^ leaf.isNegated()) {
+                result.or(rows);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.field.Inclusion;
+import com.speedment.field.predicate.SpeedmentPredicate;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRaw;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRawSet;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getSecondOperandAsRaw;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getThirdOperandAsInclusion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An index of the values of a column of an {@link OnHeapTable}. The rows
+ * with each value are found with a hash lookup, and the rows with the values
+ * in a range with a lookup in a sorted map. Rows where the column is
+ * {@code null} are not indexed, so only predicates that are false for
+ * {@code null} values can be evaluated with the index.
+ *
+ * @author pemi
+ */
+final class ColumnIndex {
+
+    private final Map<Object, int[]> rowsByValue;
+    private final NavigableMap<Object, int[]> sortedRowsByValue;
+    private final Class<?> valueClass;
+
+    /**
+     * Creates an index of the given values, where the value of each row is
+     * at the position of the row.
+     *
+     * @param values the values of the column
+     */
+    ColumnIndex(List<?> values) {
+        final Map<Object, List<Integer>> rows = new HashMap<>();
+        Class<?> commonClass = null;
+        boolean sameClass = true;
+        for (int row = 0; row < values.size(); row++) {
+            final Object value = values.get(row);
+            if (value != null) {
+                if (commonClass == null) {
+                    commonClass = value.getClass();
+                } else if (commonClass != value.getClass()) {
+                    sameClass = false;
+                }
+                rows.computeIfAbsent(value, v -> new ArrayList<>(1)).add(row);
+            }
+        }
+        this.rowsByValue = new HashMap<>(rows.size() * 2);
+        rows.forEach((value, list) -> rowsByValue.put(value, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        // Values of different classes can not be compared with each other
+        if (sameClass && commonClass != null && Comparable.class.isAssignableFrom(commonClass)) {
+            // Values that are not equal may compare as equal, like 1.0 and
+            // 1.00, so the rows of such values are merged in the sorted map
+            final NavigableMap<Object, int[]> sorted = new TreeMap<>();
+            rowsByValue.forEach((value, r) -> sorted.merge(value, r, (a, b) -> union(Arrays.asList(a, b))));
+            this.sortedRowsByValue = sorted;
+            this.valueClass = commonClass;
+        } else {
+            this.sortedRowsByValue = null;
+            this.valueClass = commonClass;
+        }
+    }
+
+    /**
+     * Returns if the rows where the given field predicate is true can be
+     * found with this index.
+     *
+     * @param predicate the field predicate on the indexed column
+     * @return if the rows can be found with this index
+     */
+    boolean supports(SpeedmentPredicate<?, ?> predicate) {
+        if (predicate.isNegated()) {
+            // A negated predicate is true for null values
+            return false;
+        }
+        switch (predicate.getPredicateType()) {
+            case EQUAL:
+                return getFirstOperandAsRaw(predicate) != null;
+            case IN:
+                return !getFirstOperandAsRawSet(predicate).contains(null);
+            case GREATER_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_OR_EQUAL:
+                return isComparable(getFirstOperandAsRaw(predicate));
+            case BETWEEN:
+                return isComparable(getFirstOperandAsRaw(predicate))
+                    && isComparable(getSecondOperandAsRaw(predicate));
+            case STARTS_WITH:
+                return valueClass == String.class && isComparable(getFirstOperandAsRaw(predicate));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the rows where the given field predicate is true, in ascending
+     * order. The predicate must be {@link #supports(SpeedmentPredicate)
+     * supported}.
+     *
+     * @param predicate the field predicate on the indexed column
+     * @return the rows where the predicate is true
+     */
+    int[] rows(SpeedmentPredicate<?, ?> predicate) {
+        final Object operand = getFirstOperandAsRaw(predicate);
+        switch (predicate.getPredicateType()) {
+            case EQUAL: {
+                final int[] rows = rowsByValue.get(operand);
+                return rows == null ? new int[0] : rows;
+            }
+            case IN: {
+                final Set<?> operands = getFirstOperandAsRawSet(predicate);
+                final List<int[]> rows = new ArrayList<>(operands.size());
+                for (final Object value : operands) {
+                    final int[] r = rowsByValue.get(value);
+                    if (r != null) {
+                        rows.add(r);
+                    }
+                }
+                return union(rows);
+            }
+            case GREATER_THAN:
+                return union(sortedRowsByValue.tailMap(operand, false).values());
+            case GREATER_OR_EQUAL:
+                return union(sortedRowsByValue.tailMap(operand, true).values());
+            case LESS_THAN:
+                return union(sortedRowsByValue.headMap(operand, false).values());
+            case LESS_OR_EQUAL:
+                return union(sortedRowsByValue.headMap(operand, true).values());
+            case BETWEEN: {
+                final Object end = getSecondOperandAsRaw(predicate);
+                final Inclusion inclusion = getThirdOperandAsInclusion(predicate);
+                if (compare(operand, end) > 0) {
+                    return new int[0];
+                }
+                return union(sortedRowsByValue.subMap(operand, inclusion.isStartInclusive(), end, inclusion.isEndInclusive()).values());
+            }
+            case STARTS_WITH: {
+                final String prefix = (String) operand;
+                final List<int[]> rows = new ArrayList<>();
+                for (final Map.Entry<Object, int[]> entry : sortedRowsByValue.tailMap(prefix, true).entrySet()) {
+                    if (!((String) entry.getKey()).startsWith(prefix)) {
+                        break;
+                    }
+                    rows.add(entry.getValue());
+                }
+                return union(rows);
+            }
+            default:
+                throw new UnsupportedOperationException(predicate.getPredicateType() + " is not supported by an index.");
+        }
+    }
+
+    private boolean isComparable(Object operand) {
+        return sortedRowsByValue != null && operand != null && operand.getClass() == valueClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static int[] union(Collection<int[]> rows) {
+        if (rows.size() == 1) {
+            return rows.iterator().next();
+        }
+        int size = 0;
+        for (final int[] r : rows) {
+            size += r.length;
+        }
+        final int[] result = new int[size];
+        int position = 0;
+        for (final int[] r : rows) {
+            System.arraycopy(r, 0, result, position, r.length);
+            position += r.length;
+        }
+        // The rows are streamed in the order of the table
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.reference.FilterAction;
+import com.speedment.internal.core.stream.builder.action.reference.MapAction;
+import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
+import com.speedment.internal.core.stream.builder.pipeline.ReferencePipeline;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminator;
+import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminatorUtil;
+import com.speedment.stream.StreamDecorator;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Predicate;
+
+/**
+ * A {@link StreamTerminator} for the streams of an {@link OnHeapTable}. The
+ * predicates of the initial filters of a pipeline that the indexes of the
+ * table can evaluate are removed from the pipeline, and only the entities
+ * that the indexes find for them are streamed.
+ * <p>
+ * The entities held by the table are copied by a map action that is
+ * inserted after the remaining initial filters that only read fields. If
+ * nothing else sees the entities, as when they are only counted, they are
+ * not copied at all.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+final class OnHeapStreamTerminator<ENTITY> implements StreamTerminator {
+
+    private final OnHeapTable<ENTITY> table;
+    private final StreamDecorator decorator;
+
+    OnHeapStreamTerminator(OnHeapTable<ENTITY> table, StreamDecorator decorator) {
+        this.table = requireNonNull(table);
+        this.decorator = requireNonNull(decorator);
+    }
+
+    @Override
+    public StreamDecorator getStreamDecorator() {
+        return decorator;
+    }
+
+    @Override
+    public <P extends Pipeline> P optimize(P initialPipeline) {
+        requireNonNull(initialPipeline);
+        return optimize(initialPipeline, true);
+    }
+
+    @Override
+    public <T> long count(ReferencePipeline<T> pipeline) {
+        requireNonNull(pipeline);
+        return optimize(pipeline, false).getAsReferenceStream().count();
+    }
+
+    @Override
+    public <T> boolean anyMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        requireNonNull(pipeline);
+        requireNonNull(predicate);
+        return optimize(pipeline, !StreamTerminatorUtil.isFieldPredicateTree(predicate)).getAsReferenceStream().anyMatch(predicate);
+    }
+
+    @Override
+    public <T> boolean allMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        requireNonNull(pipeline);
+        requireNonNull(predicate);
+        return optimize(pipeline, !StreamTerminatorUtil.isFieldPredicateTree(predicate)).getAsReferenceStream().allMatch(predicate);
+    }
+
+    @Override
+    public <T> boolean noneMatch(ReferencePipeline<T> pipeline, Predicate<? super T> predicate) {
+        requireNonNull(pipeline);
+        requireNonNull(predicate);
+        return optimize(pipeline, !StreamTerminatorUtil.isFieldPredicateTree(predicate)).getAsReferenceStream().noneMatch(predicate);
+    }
+
+    /**
+     * Evaluates the initial filters of the pipeline with the indexes of the
+     * table where possible and inserts a copy of the entities after the
+     * remaining initial filters that only read fields.
+     *
+     * @param <P> the pipeline type
+     * @param initialPipeline to optimize
+     * @param terminalSeesEntities if the terminal operation may see the
+     * entities that pass the pipeline
+     * @return the optimized pipeline
+     */
+    private <P extends Pipeline> P optimize(P initialPipeline, boolean terminalSeesEntities) {
+        final List<Predicate<? super ENTITY>> predicates = new ArrayList<>();
+        StreamTerminatorUtil.<ENTITY>consumeFilters(initialPipeline, table::canUseIndex, predicates);
+        if (!predicates.isEmpty()) {
+            initialPipeline.setInitialSupplier(() -> table.lookup(predicates));
+        }
+
+        int fieldFilterCount = 0;
+        while (fieldFilterCount < initialPipeline.size() && isFieldFilter(initialPipeline.get(fieldFilterCount))) {
+            fieldFilterCount++;
+        }
+        if (terminalSeesEntities || fieldFilterCount < initialPipeline.size()) {
+            initialPipeline.add(fieldFilterCount, new MapAction<ENTITY, ENTITY>(table::copy));
+        }
+        return getStreamDecorator().apply(initialPipeline);
+    }
+
+    private static boolean isFieldFilter(Action<?, ?> action) {
+        return action instanceof FilterAction
+            && StreamTerminatorUtil.isFieldPredicateTree(((FilterAction<?>) action).getPredicate());
+    }
+}
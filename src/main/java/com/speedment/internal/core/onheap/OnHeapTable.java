@@ -0,0 +1,255 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.Manager;
+import com.speedment.config.Column;
+import com.speedment.config.Index;
+import com.speedment.config.IndexColumn;
+import com.speedment.config.aspects.Enableable;
+import com.speedment.config.aspects.Ordinable;
+import com.speedment.field.predicate.SpeedmentPredicate;
+import com.speedment.internal.core.field.predicate.AbstractCombinedBasePredicate;
+import com.speedment.internal.core.field.predicate.impl.SpeedmentPredicateImpl;
+import com.speedment.internal.core.stream.builder.ReferenceStreamBuilder;
+import com.speedment.internal.core.stream.builder.pipeline.PipelineImpl;
+import com.speedment.stream.StreamDecorator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The entities of a table held on the Java heap, with an index of the first
+ * column of each enabled {@link Index} of the table. The initial filters of
+ * a stream are evaluated with an index if they have a field predicate that
+ * an index supports, like equality, a range or a prefix of the indexed
+ * column.
+ * <p>
+ * The columns of the enabled indexes that have few distinct values are also
+ * indexed with bitmaps. Initial filters with any combination of field
+ * predicates on such columns, with {@code and}, {@code or} and
+ * {@code negate}, are evaluated as operations on the bitmaps before any
+ * entity is read, so the time of a stream depends on the number of entities
+ * found rather than on the size of the table.
+ * <p>
+ * The streams return copies of the entities, so an entity that is modified
+ * by the caller does not change the table or the entities of other streams.
+ * An entity is only copied once it has passed the initial filters of the
+ * stream that only read its fields.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ */
+public final class OnHeapTable<ENTITY> {
+
+    private final Manager<ENTITY> manager;
+    private final Column[] columns;
+    private final List<ENTITY> entities;
+    private final Map<String, ColumnIndex> indexes;
+    private final Map<String, BitmapIndex> bitmaps;
+
+    private OnHeapTable(Manager<ENTITY> manager, List<ENTITY> entities, Map<String, ColumnIndex> indexes, Map<String, BitmapIndex> bitmaps) {
+        this.manager = manager;
+        final List<Column> columnList = manager.getTable().streamOfColumns().collect(toList());
+        this.columns = columnList.toArray(new Column[columnList.size()]);
+        this.entities = Collections.unmodifiableList(entities);
+        this.indexes = indexes;
+        this.bitmaps = bitmaps;
+    }
+
+    /**
+     * Reads the entities of the given stream into a new table and indexes
+     * them. The stream is closed once it has been read.
+     *
+     * @param <ENTITY> the entity type
+     * @param manager the manager of the entities
+     * @param entities the entities to hold
+     * @return a table with the entities
+     */
+    public static <ENTITY> OnHeapTable<ENTITY> of(Manager<ENTITY> manager, Stream<ENTITY> entities) {
+        requireNonNull(manager);
+        requireNonNull(entities);
+        final List<ENTITY> list;
+        try (final Stream<ENTITY> s = entities) {
+            list = s.collect(toList());
+        }
+
+        final Map<String, ColumnIndex> indexes = new HashMap<>();
+        final Map<String, BitmapIndex> bitmaps = new HashMap<>();
+        final Map<String, List<Object>> valuesByName = new HashMap<>();
+        final Function<Column, List<Object>> values = column -> valuesByName.computeIfAbsent(column.getName(), name -> {
+            final List<Object> v = new ArrayList<>(list.size());
+            list.forEach(entity -> v.add(manager.get(entity, column)));
+            return v;
+        });
+
+        manager.getTable().streamOfIndexes()
+            .filter(Index::isEnabled)
+            .forEachOrdered(index -> {
+                firstColumn(index)
+                    .filter(column -> !indexes.containsKey(column.getName()))
+                    .ifPresent(column -> indexes.put(column.getName(), new ColumnIndex(values.apply(column))));
+
+                index.streamOf(IndexColumn.class)
+                    .filter(Enableable::isEnabled)
+                    .map(IndexColumn::getColumn)
+                    .filter(column -> !bitmaps.containsKey(column.getName()))
+                    .forEachOrdered(column -> BitmapIndex.of(values.apply(column))
+                        .ifPresent(bitmap -> bitmaps.put(column.getName(), bitmap))
+                    );
+            });
+
+        return new OnHeapTable<>(manager, list, indexes, bitmaps);
+    }
+
+    /**
+     * Returns the number of entities of this table.
+     *
+     * @return the number of entities
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * Returns a stream of copies of the entities of this table.
+     *
+     * @param decorator decorates the stream before building it
+     * @return a stream of the entities
+     */
+    public Stream<ENTITY> stream(StreamDecorator decorator) {
+        requireNonNull(decorator);
+        final OnHeapStreamTerminator<ENTITY> terminator = new OnHeapStreamTerminator<>(this, decorator);
+        return decorator.apply(new ReferenceStreamBuilder<>(new PipelineImpl<>(entities::stream), terminator));
+    }
+
+    /**
+     * Returns if the entities where the given predicate is true can be found
+     * with the indexes of this table.
+     *
+     * @param predicate the predicate
+     * @return if the indexes can be used
+     */
+    boolean canUseIndex(Predicate<?> predicate) {
+        if (predicate instanceof SpeedmentPredicate) {
+            return hasIndex((SpeedmentPredicate<?, ?>) predicate)
+                || (predicate instanceof SpeedmentPredicateImpl && hasBitmap((SpeedmentPredicate<?, ?>) predicate));
+        }
+        if (predicate instanceof AbstractCombinedBasePredicate) {
+            return ((AbstractCombinedBasePredicate<?>) predicate).stream().allMatch(this::canUseIndex);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a stream of the entities where all the given predicates are
+     * true, found with the indexes of this table. The predicates must be
+     * ones that {@link #canUseIndex(Predicate) can use the indexes}. The
+     * entities are the ones held by this table, not copies.
+     *
+     * @param predicates the predicates
+     * @return a stream of the entities
+     */
+    Stream<ENTITY> lookup(List<? extends Predicate<?>> predicates) {
+        if (predicates.size() == 1 && predicates.get(0) instanceof SpeedmentPredicate) {
+            final SpeedmentPredicate<?, ?> leaf = (SpeedmentPredicate<?, ?>) predicates.get(0);
+            if (hasIndex(leaf)) {
+                final int[] rows = indexes.get(leaf.getField().getColumnName()).rows(leaf);
+                return IntStream.of(rows).mapToObj(entities::get);
+            }
+        }
+
+        final BitSet rows = new BitSet(entities.size());
+        rows.set(0, entities.size());
+        for (final Predicate<?> predicate : predicates) {
+            rows.and(rows(predicate));
+        }
+        return rows.stream().mapToObj(entities::get);
+    }
+
+    /**
+     * Returns a new entity with the same field values as the given entity.
+     *
+     * @param entity the entity to copy
+     * @return a copy of the entity
+     */
+    ENTITY copy(ENTITY entity) {
+        final ENTITY copy = manager.newInstance();
+        for (final Column column : columns) {
+            manager.set(copy, column, manager.get(entity, column));
+        }
+        return copy;
+    }
+
+    private BitSet rows(Predicate<?> predicate) {
+        if (predicate instanceof SpeedmentPredicate) {
+            final SpeedmentPredicate<?, ?> leaf = (SpeedmentPredicate<?, ?>) predicate;
+            if (hasIndex(leaf)) {
+                final BitSet rows = new BitSet(entities.size());
+                for (final int row : indexes.get(leaf.getField().getColumnName()).rows(leaf)) {
+                    rows.set(row);
+                }
+                return rows;
+            }
+            return bitmaps.get(leaf.getField().getColumnName()).rows((SpeedmentPredicateImpl<?, ?>) leaf);
+        }
+
+        final AbstractCombinedBasePredicate<?> combined = (AbstractCombinedBasePredicate<?>) predicate;
+        final boolean and = combined.getType() == AbstractCombinedBasePredicate.Type.AND;
+        final BitSet rows = new BitSet(entities.size());
+        if (and) {
+            rows.set(0, entities.size());
+        }
+        combined.stream().forEachOrdered(part -> {
+            if (and) {
+                rows.and(rows(part));
+            } else {
+                rows.or(rows(part));
+            }
+        });
+        if (combined.isNegated()) {
+            rows.flip(0, entities.size());
+        }
+        return rows;
+    }
+
+    private boolean hasIndex(SpeedmentPredicate<?, ?> leaf) {
+        final ColumnIndex index = indexes.get(leaf.getField().getColumnName());
+        return index != null && index.supports(leaf);
+    }
+
+    private boolean hasBitmap(SpeedmentPredicate<?, ?> leaf) {
+        return bitmaps.containsKey(leaf.getField().getColumnName());
+    }
+
+    private static Optional<Column> firstColumn(Index index) {
+        return index.streamOf(IndexColumn.class)
+            .filter(Enableable::isEnabled)
+            .min(Ordinable.COMPARATOR)
+            .map(IndexColumn::getColumn);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.platform.component.impl;
+
+import com.speedment.Manager;
+import com.speedment.Speedment;
+import com.speedment.config.parameters.StorageEngineType;
+import com.speedment.internal.core.offheap.OffHeapTable;
+import com.speedment.stream.StreamDecorator;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A {@link com.speedment.component.StreamSupplierComponent} that holds the
+ * rows of the tables with the {@link StorageEngineType#OFF_HEAP OFF_HEAP}
+ * storage engine column by column outside of the Java heap, in addition to
+ * the tables with the {@link StorageEngineType#ON_HEAP ON_HEAP} storage
+ * engine that are held as entities. Large tables held off heap do not add
+ * to the work of the garbage collector, and entities are only created for
+ * the rows that pass the field predicates of the initial filters of a
+ * stream.
+ * <p>
+ * The component is installed with
+ * {@code .with(OffHeapStreamSupplierComponentImpl::new)}.
+ *
+ * @author pemi
+ */
+public class OffHeapStreamSupplierComponentImpl extends OnHeapStreamSupplierComponentImpl {
+
+    private final Map<Class<?>, OffHeapTable<?>> tables;
+
+    /**
+     * Creates a component that reads the tables once, when it is started.
+     *
+     * @param speedment the Speedment instance
+     */
+    public OffHeapStreamSupplierComponentImpl(Speedment speedment) {
+        this(speedment, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a component that reads the tables when it is started, and then
+     * again with the given interval between the reads of each table.
+     *
+     * @param speedment the Speedment instance
+     * @param refreshInterval the interval between reads, or {@code 0} to
+     * read the tables only once
+     * @param refreshUnit the unit of the interval
+     */
+    public OffHeapStreamSupplierComponentImpl(Speedment speedment, long refreshInterval, TimeUnit refreshUnit) {
+        super(speedment, refreshInterval, refreshUnit);
+        this.tables = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public OffHeapStreamSupplierComponentImpl stop() {
+        super.stop();
+        tables.clear();
+        return this;
+    }
+
+    @Override
+    public <ENTITY> Stream<ENTITY> stream(Class<ENTITY> entityClass, StreamDecorator decorator) {
+        requireNonNull(entityClass);
+        requireNonNull(decorator);
+        @SuppressWarnings("unchecked")
+        final OffHeapTable<ENTITY> table = (OffHeapTable<ENTITY>) tables.get(entityClass);
+        if (table == null) {
+            return super.stream(entityClass, decorator);
+        }
+        return table.stream(decorator);
+    }
+
+    /**
+     * Returns if the rows of the entities of the given class are held off
+     * heap.
+     *
+     * @param entityClass the entity class
+     * @return if the rows are held off heap
+     */
+    public boolean isOffHeap(Class<?> entityClass) {
+        return tables.containsKey(requireNonNull(entityClass));
+    }
+
+    @Override
+    protected boolean isHeld(StorageEngineType storageEngineType) {
+        return storageEngineType == StorageEngineType.OFF_HEAP || super.isHeld(storageEngineType);
+    }
+
+    @Override
+    protected <ENTITY> void load(Manager<ENTITY> manager) {
+        if (StorageEngineType.of(manager.getTable()) == StorageEngineType.OFF_HEAP) {
+            tables.put(manager.getEntityClass(), OffHeapTable.of(manager, manager.nativeStream(StreamDecorator.IDENTITY)));
+        } else {
+            super.load(manager);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.platform.component.impl;
+
+import com.speedment.Manager;
+import com.speedment.Speedment;
+import com.speedment.config.parameters.StorageEngineType;
+import com.speedment.exception.SpeedmentException;
+import com.speedment.internal.core.onheap.OnHeapTable;
+import com.speedment.internal.logging.Logger;
+import com.speedment.internal.logging.LoggerManager;
+import com.speedment.stream.StreamDecorator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+
+/**
+ * A {@link com.speedment.component.StreamSupplierComponent} that holds the
+ * entities of the tables with the {@link StorageEngineType#ON_HEAP ON_HEAP}
+ * storage engine in memory. The tables are read in parallel when the
+ * component is started, and are optionally read again at a fixed interval.
+ * Streams over other tables are read from the database.
+ * <p>
+ * The first column of each enabled index of a table is indexed in memory, so
+ * that the initial filters of a stream that compare an indexed column to a
+ * value, a range or a prefix are evaluated without a scan of the table.
+ * <p>
+ * The streams return copies of the entities that are held, so modifying an
+ * entity does not change the entities of other streams. Changes made to the
+ * database are seen after the next refresh.
+ * <p>
+ * The component is installed with
+ * {@code .with(OnHeapStreamSupplierComponentImpl::new)}.
+ *
+ * @author pemi
+ */
+public class OnHeapStreamSupplierComponentImpl extends NativeStreamSupplierComponentImpl {
+
+    private final static Logger LOGGER = LoggerManager.getLogger(OnHeapStreamSupplierComponentImpl.class);
+
+    private final long refreshInterval;
+    private final TimeUnit refreshUnit;
+    private final Map<Class<?>, OnHeapTable<?>> entities;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a component that reads the tables once, when it is started.
+     *
+     * @param speedment the Speedment instance
+     */
+    public OnHeapStreamSupplierComponentImpl(Speedment speedment) {
+        this(speedment, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a component that reads the tables when it is started, and then
+     * again with the given interval between the reads of each table.
+     *
+     * @param speedment the Speedment instance
+     * @param refreshInterval the interval between reads, or {@code 0} to
+     * read the tables only once
+     * @param refreshUnit the unit of the interval
+     */
+    public OnHeapStreamSupplierComponentImpl(Speedment speedment, long refreshInterval, TimeUnit refreshUnit) {
+        super(speedment);
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("The refresh interval can not be negative, but was " + refreshInterval + ".");
+        }
+        this.refreshInterval = refreshInterval;
+        this.refreshUnit = requireNonNull(refreshUnit);
+        this.entities = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public OnHeapStreamSupplierComponentImpl start() {
+        final List<Manager<?>> managers = getSpeedment().getManagerComponent().stream()
+            .filter(m -> isHeld(StorageEngineType.of(m.getTable())))
+            .collect(toList());
+
+        if (!managers.isEmpty()) {
+            executor = Executors.newScheduledThreadPool(
+                Math.min(managers.size(), Runtime.getRuntime().availableProcessors()),
+                r -> {
+                    final Thread thread = new Thread(r, getTitle());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+
+            final List<Future<?>> loads = new ArrayList<>();
+            managers.forEach(m -> loads.add(executor.submit(() -> load(m))));
+            for (final Future<?> load : loads) {
+                try {
+                    load.get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    executor.shutdownNow();
+                    throw new SpeedmentException("Unable to read the tables into memory.", ex);
+                }
+            }
+
+            if (refreshInterval > 0) {
+                managers.forEach(m -> executor.scheduleWithFixedDelay(() -> refresh(m), refreshInterval, refreshInterval, refreshUnit));
+            }
+        }
+        super.start();
+        return this;
+    }
+
+    @Override
+    public OnHeapStreamSupplierComponentImpl stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        entities.clear();
+        super.stop();
+        return this;
+    }
+
+    @Override
+    public <ENTITY> Stream<ENTITY> stream(Class<ENTITY> entityClass, StreamDecorator decorator) {
+        requireNonNull(entityClass);
+        requireNonNull(decorator);
+        @SuppressWarnings("unchecked")
+        final OnHeapTable<ENTITY> table = (OnHeapTable<ENTITY>) entities.get(entityClass);
+        if (table == null) {
+            return super.stream(entityClass, decorator);
+        }
+        return table.stream(decorator);
+    }
+
+    /**
+     * Returns if the entities of the given class are held in memory.
+     *
+     * @param entityClass the entity class
+     * @return if the entities are held in memory
+     */
+    public boolean isOnHeap(Class<?> entityClass) {
+        return entities.containsKey(requireNonNull(entityClass));
+    }
+
+    /**
+     * Returns if the tables with the given storage engine are held in memory
+     * by this component.
+     *
+     * @param storageEngineType the effective storage engine of a table
+     * @return if the tables are held in memory
+     */
+    protected boolean isHeld(StorageEngineType storageEngineType) {
+        return storageEngineType == StorageEngineType.ON_HEAP;
+    }
+
+    /**
+     * Reads the entities of the table of the given manager from the database
+     * and replaces the entities that are held for the table.
+     *
+     * @param <ENTITY> the entity type
+     * @param manager the manager of the table
+     */
+    protected <ENTITY> void load(Manager<ENTITY> manager) {
+        entities.put(manager.getEntityClass(), OnHeapTable.of(manager, manager.nativeStream(StreamDecorator.IDENTITY)));
+    }
+
+    private void refresh(Manager<?> manager) {
+        try {
+            load(manager);
+        } catch (RuntimeException ex) {
+            // Keep serving the entities of the last read
+            LOGGER.error(ex, "Unable to refresh the entities of " + manager.getTable().getName());
+        }
+    }
+}
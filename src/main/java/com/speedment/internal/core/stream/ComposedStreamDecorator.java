@@ -22,6 +22,7 @@ import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
 import com.speedment.stream.StreamDecorator;
 import java.util.Arrays;
 import java.util.List;
+import static java.util.Objects.requireNonNull;
 import java.util.stream.Stream;
 import com.speedment.stream.HasParallelStrategy;
 
@@ -39,8 +40,10 @@ public final class ComposedStreamDecorator implements StreamDecorator {
 
     @Override
     public StreamDecorator and(StreamDecorator other) {
-        decorators.add(other);
-        return this;
+        // The decorators are shared constants, so a new one is composed
+        final StreamDecorator[] composed = decorators.toArray(new StreamDecorator[decorators.size() + 1]);
+        composed[decorators.size()] = requireNonNull(other);
+        return new ComposedStreamDecorator(composed);
     }
 
     @Override
@@ -97,4 +100,50 @@ public final class ComposedStreamDecorator implements StreamDecorator {
         
     }
 
+    @Override
+    public int getPartitions() {
+        return decorators.stream()
+            .mapToInt(StreamDecorator::getPartitions)
+            .max()
+            .orElse(1);
+    }
+
+    @Override
+    public int getFetchSize() {
+        return decorators.stream()
+            .mapToInt(StreamDecorator::getFetchSize)
+            .max()
+            .orElse(0);
+    }
+
+    @Override
+    public int getQueryTimeout() {
+        // The shortest timeout wins
+        return decorators.stream()
+            .mapToInt(StreamDecorator::getQueryTimeout)
+            .filter(t -> t > 0)
+            .min()
+            .orElse(0);
+    }
+
+    @Override
+    public int getPrefetchSize() {
+        return decorators.stream()
+            .mapToInt(StreamDecorator::getPrefetchSize)
+            .max()
+            .orElse(0);
+    }
+
+    @Override
+    public boolean isFlyweight() {
+        return decorators.stream()
+            .anyMatch(StreamDecorator::isFlyweight);
+    }
+
+    @Override
+    public boolean isCancelOnClose() {
+        return decorators.stream()
+            .anyMatch(StreamDecorator::isCancelOnClose);
+    }
+
 }
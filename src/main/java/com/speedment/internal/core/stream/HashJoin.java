@@ -0,0 +1,334 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.internal.util.tuple.Tuple2;
+import com.speedment.internal.util.tuple.Tuples;
+import static com.speedment.util.StaticClassUtil.instanceNotAllowed;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Joins the elements of two streams on equal keys in memory. The elements
+ * of the build stream are read once into a hash table and the elements of
+ * the probe stream are then looked up in the table as they are streamed.
+ * The build stream should therefore be the smaller one, like the stream of
+ * a lookup table.
+ * <p>
+ * A hash join can join the streams of tables that can not be joined in SQL,
+ * for example because they are in different databases. As in SQL,
+ * {@code null} keys are never equal to any other key.
+ *
+ * @author pemi
+ */
+public final class HashJoin {
+
+    /**
+     * Returns a stream of the elements of the probe stream, each paired with
+     * every element of the build stream that has an equal key, in the order
+     * of the build stream. Elements with no match are not included. The build stream is read and closed by this
+     * method and the probe stream is closed when the returned stream is
+     * closed.
+     *
+     * @param <P> the type of the probe elements
+     * @param <B> the type of the build elements
+     * @param <K> the type of the keys
+     * @param probe the stream to look up elements of
+     * @param probeKey the key of a probe element
+     * @param build the stream to read into the hash table
+     * @param buildKey the key of a build element
+     * @return a stream of the joined elements
+     */
+    public static <P, B, K> Stream<Tuple2<P, B>> innerJoin(
+        Stream<P> probe, Function<? super P, ? extends K> probeKey,
+        Stream<B> build, Function<? super B, ? extends K> buildKey
+    ) {
+        requireNonNull(probe);
+        requireNonNull(probeKey);
+        final HashTable<B> table = HashTable.of(build, buildKey);
+        return probe.flatMap(p -> table.matches(table.head(probeKey.apply(p))).map(b -> Tuples.of(p, b)));
+    }
+
+    /**
+     * Returns a stream of the elements of the probe stream, each paired with
+     * every element of the build stream that has an equal key, in the order
+     * of the build stream. Elements with no match are paired with an empty {@code Optional}. The build stream is
+     * read and closed by this method and the probe stream is closed when the
+     * returned stream is closed.
+     *
+     * @param <P> the type of the probe elements
+     * @param <B> the type of the build elements
+     * @param <K> the type of the keys
+     * @param probe the stream to look up elements of
+     * @param probeKey the key of a probe element
+     * @param build the stream to read into the hash table
+     * @param buildKey the key of a build element
+     * @return a stream of the joined elements
+     */
+    public static <P, B, K> Stream<Tuple2<P, Optional<B>>> leftJoin(
+        Stream<P> probe, Function<? super P, ? extends K> probeKey,
+        Stream<B> build, Function<? super B, ? extends K> buildKey
+    ) {
+        requireNonNull(probe);
+        requireNonNull(probeKey);
+        final HashTable<B> table = HashTable.of(build, buildKey);
+        return probe.flatMap(p -> {
+            final int head = table.head(probeKey.apply(p));
+            return head == HashTable.NONE
+                ? Stream.of(Tuples.of(p, Optional.empty()))
+                : table.matches(head).map(b -> Tuples.of(p, Optional.of(b)));
+        });
+    }
+
+    /**
+     * Returns a stream of the entities of the probe stream, each paired with
+     * every entity of the build stream where the given fields are equal.
+     *
+     * @param <P> the type of the probe entities
+     * @param <B> the type of the build entities
+     * @param <V> the type of the fields
+     * @param probe the stream to look up entities of
+     * @param probeField the field to join on in the probe entities
+     * @param build the stream to read into the hash table
+     * @param buildField the field to join on in the build entities
+     * @return a stream of the joined entities
+     * @see #innerJoin(Stream, Function, Stream, Function)
+     */
+    public static <P, B, V> Stream<Tuple2<P, B>> innerJoin(
+        Stream<P> probe, ReferenceFieldTrait<P, V> probeField,
+        Stream<B> build, ReferenceFieldTrait<B, V> buildField
+    ) {
+        return innerJoin(probe, probeField.getter(), build, buildField.getter());
+    }
+
+    /**
+     * Returns a stream of the entities of the probe stream, each paired with
+     * every entity of the build stream where the given fields are equal, or
+     * with an empty {@code Optional} if there is no such entity.
+     *
+     * @param <P> the type of the probe entities
+     * @param <B> the type of the build entities
+     * @param <V> the type of the fields
+     * @param probe the stream to look up entities of
+     * @param probeField the field to join on in the probe entities
+     * @param build the stream to read into the hash table
+     * @param buildField the field to join on in the build entities
+     * @return a stream of the joined entities
+     * @see #leftJoin(Stream, Function, Stream, Function)
+     */
+    public static <P, B, V> Stream<Tuple2<P, Optional<B>>> leftJoin(
+        Stream<P> probe, ReferenceFieldTrait<P, V> probeField,
+        Stream<B> build, ReferenceFieldTrait<B, V> buildField
+    ) {
+        return leftJoin(probe, probeField.getter(), build, buildField.getter());
+    }
+
+    /**
+     * A hash table from keys to the build elements with the key. The elements
+     * with the same key are chained by their positions in the list of
+     * elements, so the table holds no objects per element. A chain starts
+     * with the element that was added last. As long as all
+     * keys are integral values of the same class, they are held in an open
+     * addressing table of primitive longs, and otherwise in a {@link HashMap}.
+     *
+     * @param <B> the type of the build elements
+     */
+    static final class HashTable<B> {
+
+        static final int NONE = -1;
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final List<B> values = new ArrayList<>();
+        private int[] next = new int[INITIAL_CAPACITY];
+
+        private Class<?> integralKeyClass;
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] heads = new int[INITIAL_CAPACITY]; // The position + 1 of the first element, or 0 if the slot is free
+        private int size;
+
+        private Map<Object, Integer> map;
+
+        static <B> HashTable<B> of(Stream<B> build, Function<? super B, ?> buildKey) {
+            requireNonNull(build);
+            requireNonNull(buildKey);
+            final HashTable<B> table = new HashTable<>();
+            try (final Stream<B> s = build) {
+                s.forEachOrdered(b -> table.add(buildKey.apply(b), b));
+            }
+            return table;
+        }
+
+        void add(Object key, B value) {
+            if (key == null) {
+                return;
+            }
+            final int position = values.size();
+            values.add(value);
+            if (position == next.length) {
+                next = Arrays.copyOf(next, position * 2);
+            }
+            if (map == null) {
+                if (integralKeyClass == null && isIntegral(key)) {
+                    integralKeyClass = key.getClass();
+                }
+                if (key.getClass() == integralKeyClass) {
+                    addLong(((Number) key).longValue(), position);
+                    return;
+                }
+                toMap();
+            }
+            final Integer head = map.put(key, position);
+            next[position] = head == null ? NONE : head;
+        }
+
+        /**
+         * Returns the elements of the chain that starts at the given position,
+         * in the order they were added.
+         *
+         * @param head the position of the first element of the chain, as
+         *             returned by {@link #head(Object)}, or {@code NONE}
+         * @return the elements with the key of the chain
+         */
+        Stream<B> matches(int head) {
+            if (head == NONE) {
+                return Stream.empty();
+            }
+            if (next[head] == NONE) {
+                return Stream.of(values.get(head));
+            }
+            final List<B> result = new ArrayList<>();
+            for (int i = head; i != NONE; i = next[i]) {
+                result.add(values.get(i));
+            }
+            Collections.reverse(result);
+            return result.stream();
+        }
+
+        /**
+         * Returns the position of the first element of the chain of the
+         * given key.
+         *
+         * @param key the key to look up
+         * @return the position of the chain, or {@code NONE} if no element
+         *         has the key
+         */
+        int head(Object key) {
+            if (key == null) {
+                return NONE;
+            }
+            if (map != null) {
+                final Integer head = map.get(key);
+                return head == null ? NONE : head;
+            }
+            if (key.getClass() != integralKeyClass) {
+                return NONE;
+            }
+            final long k = ((Number) key).longValue();
+            for (int slot = slot(k); heads[slot] != 0; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == k) {
+                    return heads[slot] - 1;
+                }
+            }
+            return NONE;
+        }
+
+        private void addLong(long key, int position) {
+            if (2 * (size + 1) > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int slot = slot(key);
+            while (heads[slot] != 0) {
+                if (keys[slot] == key) {
+                    next[position] = heads[slot] - 1;
+                    heads[slot] = position + 1;
+                    return;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = key;
+            heads[slot] = position + 1;
+            next[position] = NONE;
+            size++;
+        }
+
+        private void rehash(int capacity) {
+            final long[] oldKeys = keys;
+            final int[] oldHeads = heads;
+            keys = new long[capacity];
+            heads = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldHeads[i] != 0) {
+                    int slot = slot(oldKeys[i]);
+                    while (heads[slot] != 0) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    heads[slot] = oldHeads[i];
+                }
+            }
+        }
+
+        private int slot(long key) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+        }
+
+        private void toMap() {
+            map = new HashMap<>(Math.max(INITIAL_CAPACITY, size * 2));
+            for (int i = 0; i < keys.length; i++) {
+                if (heads[i] != 0) {
+                    map.put(box(keys[i]), heads[i] - 1);
+                }
+            }
+            keys = null;
+            heads = null;
+        }
+
+        private Object box(long key) {
+            if (integralKeyClass == Integer.class) {
+                return (int) key;
+            } else if (integralKeyClass == Short.class) {
+                return (short) key;
+            } else if (integralKeyClass == Byte.class) {
+                return (byte) key;
+            } else {
+                return key;
+            }
+        }
+
+        private static boolean isIntegral(Object key) {
+            final Class<?> c = key.getClass();
+            return c == Long.class || c == Integer.class || c == Short.class || c == Byte.class;
+        }
+    }
+
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private HashJoin() {
+        instanceNotAllowed(getClass());
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import com.speedment.exception.SpeedmentException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link Iterator} that reads the elements of another {@link Iterator} in
+ * a separate producer thread. The elements are handed over to the consumer
+ * through a bounded ring buffer, so that the producer can read ahead of the
+ * consumer but never more than the capacity of the buffer. The buffer has
+ * exactly one producer and one consumer at a time and does not use any locks.
+ * <p>
+ * The iterator must be closed when the consumer is done with it, so that the
+ * producer thread is stopped before the source is released. Exceptions that
+ * are thrown by the source are rethrown to the consumer once the elements
+ * that were read before the exception have been consumed.
+ *
+ * @author pemi
+ * @param <T> the type of elements returned by this Iterator
+ */
+public final class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final Object NULL = new Object();
+
+    private final Object[] buffer;
+    private final int mask;
+    private final AtomicLong head; // The index of the next element to consume
+    private final AtomicLong tail; // The index of the next element to produce
+    private final Thread producer;
+    private volatile Thread waitingConsumer;
+    private volatile boolean producerWaiting;
+    private volatile boolean done;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+    private boolean hasNext;
+    private T next;
+
+    /**
+     * Creates an {@link Iterator} that reads the given source in a separate
+     * thread, at most {@code bufferSize} elements ahead of the consumer. The
+     * producer thread is started immediately.
+     *
+     * @param source the iterator to read from
+     * @param bufferSize the minimum number of elements that can be buffered
+     */
+    public PrefetchingIterator(Iterator<? extends T> source, int bufferSize) {
+        requireNonNull(source);
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be positive, but was " + bufferSize + ".");
+        }
+        if (bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("The buffer size must not exceed " + (1 << 30) + ", but was " + bufferSize + ".");
+        }
+        final int capacity = Integer.highestOneBit(bufferSize) == bufferSize ? bufferSize : Integer.highestOneBit(bufferSize) << 1;
+        this.buffer = new Object[capacity];
+        this.mask = capacity - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+        this.producer = new Thread(() -> produce(source), "speedment-prefetch-" + THREAD_COUNTER.incrementAndGet());
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private void produce(Iterator<? extends T> source) {
+        try {
+            while (!closed && source.hasNext()) {
+                final T element = source.next();
+                final long t = tail.get();
+                while (t - head.get() == buffer.length) {
+                    if (closed) {
+                        return;
+                    }
+                    producerWaiting = true;
+                    if (t - head.get() == buffer.length && !closed) {
+                        LockSupport.park(this);
+                    }
+                    producerWaiting = false;
+                }
+                buffer[(int) t & mask] = element == null ? NULL : element;
+                tail.set(t + 1);
+                wakeUp(waitingConsumer);
+            }
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            done = true;
+            wakeUp(waitingConsumer);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (hasNext) {
+            return true;
+        }
+        final long h = head.get();
+        while (tail.get() == h) {
+            if (done) {
+                if (tail.get() != h) {
+                    break;
+                }
+                final Throwable t = failure;
+                if (t != null && !closed) {
+                    failure = null;
+                    if (t instanceof RuntimeException) {
+                        throw (RuntimeException) t;
+                    }
+                    if (t instanceof Error) {
+                        throw (Error) t;
+                    }
+                    throw new SpeedmentException(t);
+                }
+                return false;
+            }
+            if (closed) {
+                return false;
+            }
+            waitingConsumer = Thread.currentThread();
+            if (tail.get() == h && !done) {
+                LockSupport.park(this);
+            }
+            waitingConsumer = null;
+        }
+        final int index = (int) h & mask;
+        final Object element = buffer[index];
+        buffer[index] = null;
+        head.set(h + 1);
+        if (producerWaiting) {
+            wakeUp(producer);
+        }
+        @SuppressWarnings("unchecked")
+        final T result = element == NULL ? null : (T) element;
+        next = result;
+        hasNext = true;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T result = next;
+        next = null;
+        hasNext = false;
+        return result;
+    }
+
+    /**
+     * Returns if the producer thread has stopped reading from the source,
+     * either because the source has no more elements, because it threw an
+     * exception or because this iterator was closed.
+     *
+     * @return {@code true} if the producer thread has stopped
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Stops the producer thread and waits for it to terminate. If the
+     * producer is blocked reading from the source, this method does not
+     * return until the source returns. Elements that have not been consumed
+     * are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        wakeUp(producer);
+        if (Thread.currentThread() != producer) {
+            boolean interrupted = false;
+            while (producer.isAlive()) {
+                try {
+                    producer.join();
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void wakeUp(Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+}
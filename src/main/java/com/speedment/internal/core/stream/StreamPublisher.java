@@ -0,0 +1,178 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import com.speedment.stream.Publisher;
+import com.speedment.stream.Subscriber;
+import com.speedment.stream.Subscription;
+import java.util.Iterator;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Publisher} that publishes the elements of a {@link Stream}. Each
+ * {@link Subscriber} gets a {@link Stream} of its own, that is not created
+ * until the first element is requested. Elements are pulled from the
+ * {@link Stream} only as they are requested, on the thread that calls
+ * {@link Subscription#request(long)}. The {@link Stream} is closed when all
+ * elements have been published, when it fails or when the subscription is
+ * cancelled.
+ *
+ * @author pemi
+ * @param <T> the type of elements published
+ */
+public final class StreamPublisher<T> implements Publisher<T> {
+
+    private final Supplier<? extends Stream<T>> streamSupplier;
+
+    public StreamPublisher(Supplier<? extends Stream<T>> streamSupplier) {
+        this.streamSupplier = requireNonNull(streamSupplier);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        requireNonNull(subscriber);
+        subscriber.onSubscribe(new StreamSubscription<>(streamSupplier, subscriber));
+    }
+
+    private static final class StreamSubscription<T> implements Subscription {
+
+        private final Supplier<? extends Stream<T>> streamSupplier;
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger work; // Makes sure that only one thread publishes at a time
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException illegalRequest;
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+        private boolean done;
+
+        private StreamSubscription(Supplier<? extends Stream<T>> streamSupplier, Subscriber<? super T> subscriber) {
+            this.streamSupplier = streamSupplier;
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.work = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                illegalRequest = new IllegalArgumentException("The number of requested elements must be positive, but was " + n + ".");
+            } else {
+                long current, next;
+                do {
+                    current = demand.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                    next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!demand.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            // If another thread (or an outer call on this thread) is already
+            // publishing, it will see the new state before it returns
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                publish();
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void publish() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (illegalRequest != null) {
+                finish();
+                subscriber.onError(illegalRequest);
+                return;
+            }
+            long requested = demand.get();
+            while (requested != 0) {
+                long published = 0;
+                while (published != requested) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    final boolean hasNext;
+                    final T element;
+                    try {
+                        if (iterator == null) {
+                            stream = streamSupplier.get();
+                            iterator = StreamUtil.unclosedIterator(stream);
+                        }
+                        hasNext = iterator.hasNext();
+                        element = hasNext ? iterator.next() : null;
+                    } catch (RuntimeException | Error e) {
+                        finish();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (!hasNext) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    try {
+                        subscriber.onNext(element);
+                    } catch (RuntimeException | Error e) {
+                        // A subscriber that throws is considered to have cancelled
+                        finish();
+                        throw e;
+                    }
+                    published++;
+                }
+                // An unbounded demand is never decreased
+                requested = requested == Long.MAX_VALUE ? Long.MAX_VALUE : demand.addAndGet(-published);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            iterator = null;
+            if (stream != null) {
+                final Stream<T> s = stream;
+                stream = null;
+                s.close();
+            }
+        }
+    }
+
+}
@@ -22,6 +22,7 @@
 package com.speedment.internal.core.stream;
 
 import com.speedment.exception.SpeedmentException;
+import com.speedment.internal.core.stream.builder.ReferenceStreamBuilder;
 import com.speedment.stream.ParallelStrategy;
 import static com.speedment.util.StaticClassUtil.instanceNotAllowed;
 import java.sql.ResultSet;
@@ -74,10 +75,39 @@ public final class StreamUtil {
     }
     
     public static <T> Stream<T> asStream(ResultSet resultSet, Function<ResultSet, T> mapper, ParallelStrategy parallelStrategy) {
+        return asStream(asIterator(resultSet, mapper), parallelStrategy);
+    }
+
+    public static <T> Stream<T> asStream(Iterator<T> iterator, ParallelStrategy parallelStrategy) {
+        requireNonNull(iterator);
+        requireNonNull(parallelStrategy);
+        // The rows have an encounter order (that might be given by an ORDER BY clause)
+        return StreamSupport.stream(parallelStrategy.spliteratorUnknownSize(iterator, Spliterator.ORDERED + Spliterator.IMMUTABLE + Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns an iterator over the elements of the given stream. Unlike
+     * {@link Stream#iterator()}, this may be called on the streams of
+     * Speedment, which must then be closed by the caller once the iterator
+     * is no longer used.
+     *
+     * @param <T> the element type
+     * @param stream to iterate over
+     * @return an iterator over the elements of the stream
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Iterator<T> unclosedIterator(Stream<T> stream) {
+        requireNonNull(stream);
+        if (stream instanceof ReferenceStreamBuilder) {
+            return ((ReferenceStreamBuilder<T>) stream).unclosedIterator();
+        }
+        return stream.iterator();
+    }
+
+    public static <T> Iterator<T> asIterator(ResultSet resultSet, Function<ResultSet, T> mapper) {
         requireNonNull(resultSet);
         requireNonNull(mapper);
-        final Iterator<T> iterator = new ResultSetIterator<>(resultSet, mapper);
-        return StreamSupport.stream(parallelStrategy.spliteratorUnknownSize(iterator, Spliterator.IMMUTABLE + Spliterator.NONNULL), false);
+        return new ResultSetIterator<>(resultSet, mapper);
     }
 
     private static class ResultSetIterator<T> implements Iterator<T> {
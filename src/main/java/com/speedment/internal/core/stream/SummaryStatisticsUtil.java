@@ -0,0 +1,192 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import static com.speedment.util.StaticClassUtil.instanceNotAllowed;
+import java.math.BigInteger;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+
+/**
+ * Utility methods for creating summary statistics from aggregates that have
+ * been computed elsewhere, for example by a database.
+ * <p>
+ * Since the summary statistics classes can only be populated by accepting
+ * values, the statistics are recreated by accepting the minimum and the
+ * maximum value and then filling up with values in between that sum up to
+ * the total. Equal values are accepted by repeatedly combining statistics
+ * with themselves, so only a logarithmic number of operations is needed.
+ *
+ * @author pemi
+ */
+public final class SummaryStatisticsUtil {
+
+    /**
+     * Creates and returns a new IntSummaryStatistics with the given aggregate
+     * values.
+     *
+     * @param count the number of values
+     * @param sum the exact sum of the values
+     * @param min the smallest value (ignored if count is 0)
+     * @param max the largest value (ignored if count is 0)
+     * @return the summary statistics
+     */
+    public static IntSummaryStatistics intSummaryStatistics(long count, BigInteger sum, int min, int max) {
+        final IntSummaryStatistics result = new IntSummaryStatistics();
+        if (count > 0) {
+            result.accept(min);
+            if (count > 1) {
+                result.accept(max);
+                final long remaining = count - 2;
+                if (remaining > 0) {
+                    final BigInteger[] qr = sum
+                        .subtract(BigInteger.valueOf(min))
+                        .subtract(BigInteger.valueOf(max))
+                        .divideAndRemainder(BigInteger.valueOf(remaining));
+                    final int quotient = floor(qr).intValue();
+                    final long larger = floorRemainder(qr, remaining);
+                    result.combine(repeat(quotient + 1, larger, new IntSummaryStatistics()));
+                    result.combine(repeat(quotient, remaining - larger, new IntSummaryStatistics()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates and returns a new LongSummaryStatistics with the given
+     * aggregate values.
+     *
+     * @param count the number of values
+     * @param sum the exact sum of the values
+     * @param min the smallest value (ignored if count is 0)
+     * @param max the largest value (ignored if count is 0)
+     * @return the summary statistics
+     */
+    public static LongSummaryStatistics longSummaryStatistics(long count, BigInteger sum, long min, long max) {
+        final LongSummaryStatistics result = new LongSummaryStatistics();
+        if (count > 0) {
+            result.accept(min);
+            if (count > 1) {
+                result.accept(max);
+                final long remaining = count - 2;
+                if (remaining > 0) {
+                    final BigInteger[] qr = sum
+                        .subtract(BigInteger.valueOf(min))
+                        .subtract(BigInteger.valueOf(max))
+                        .divideAndRemainder(BigInteger.valueOf(remaining));
+                    final long quotient = floor(qr).longValue();
+                    final long larger = floorRemainder(qr, remaining);
+                    result.combine(repeat(quotient + 1, larger, new LongSummaryStatistics()));
+                    result.combine(repeat(quotient, remaining - larger, new LongSummaryStatistics()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates and returns a new DoubleSummaryStatistics with the given
+     * aggregate values.
+     *
+     * @param count the number of values
+     * @param sum the sum of the values
+     * @param min the smallest value (ignored if count is 0)
+     * @param max the largest value (ignored if count is 0)
+     * @return the summary statistics
+     */
+    public static DoubleSummaryStatistics doubleSummaryStatistics(long count, double sum, double min, double max) {
+        final DoubleSummaryStatistics result = new DoubleSummaryStatistics();
+        if (count > 0) {
+            result.accept(min);
+            if (count > 1) {
+                result.accept(max);
+                final long remaining = count - 2;
+                if (remaining > 0) {
+                    final double mean = Math.min(max, Math.max(min, (sum - min - max) / remaining));
+                    result.combine(repeat(mean, remaining, new DoubleSummaryStatistics()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static IntSummaryStatistics repeat(int value, long times, IntSummaryStatistics result) {
+        IntSummaryStatistics power = new IntSummaryStatistics();
+        power.accept(value);
+        for (long n = times; n > 0; n >>>= 1) {
+            if ((n & 1) == 1) {
+                result.combine(power);
+            }
+            final IntSummaryStatistics doubled = new IntSummaryStatistics();
+            doubled.combine(power);
+            doubled.combine(power);
+            power = doubled;
+        }
+        return result;
+    }
+
+    private static LongSummaryStatistics repeat(long value, long times, LongSummaryStatistics result) {
+        LongSummaryStatistics power = new LongSummaryStatistics();
+        power.accept(value);
+        for (long n = times; n > 0; n >>>= 1) {
+            if ((n & 1) == 1) {
+                result.combine(power);
+            }
+            final LongSummaryStatistics doubled = new LongSummaryStatistics();
+            doubled.combine(power);
+            doubled.combine(power);
+            power = doubled;
+        }
+        return result;
+    }
+
+    private static DoubleSummaryStatistics repeat(double value, long times, DoubleSummaryStatistics result) {
+        DoubleSummaryStatistics power = new DoubleSummaryStatistics();
+        power.accept(value);
+        for (long n = times; n > 0; n >>>= 1) {
+            if ((n & 1) == 1) {
+                result.combine(power);
+            }
+            final DoubleSummaryStatistics doubled = new DoubleSummaryStatistics();
+            doubled.combine(power);
+            doubled.combine(power);
+            power = doubled;
+        }
+        return result;
+    }
+
+    private static BigInteger floor(BigInteger[] quotientAndRemainder) {
+        // BigInteger division truncates towards zero
+        return quotientAndRemainder[1].signum() < 0
+            ? quotientAndRemainder[0].subtract(BigInteger.ONE)
+            : quotientAndRemainder[0];
+    }
+
+    private static long floorRemainder(BigInteger[] quotientAndRemainder, long divisor) {
+        final long remainder = quotientAndRemainder[1].longValue();
+        return remainder < 0 ? remainder + divisor : remainder;
+    }
+
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private SummaryStatisticsUtil() {
+        instanceNotAllowed(getClass());
+    }
+}
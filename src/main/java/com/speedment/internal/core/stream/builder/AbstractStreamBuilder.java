@@ -18,6 +18,7 @@ package com.speedment.internal.core.stream.builder;
 
 import com.speedment.exception.SpeedmentException;
 import com.speedment.internal.core.stream.autoclose.AbstractAutoClosingStream;
+import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
 import com.speedment.internal.core.stream.builder.pipeline.PipelineImpl;
 import com.speedment.internal.core.stream.builder.streamterminator.StreamTerminator;
 import com.speedment.internal.core.stream.builder.action.Action;
@@ -117,6 +118,16 @@ public abstract class AbstractStreamBuilder<T extends AbstractStreamBuilder<T, P
         return pipeline.isOrdered();
     }
 
+    /**
+     * Returns the pipeline of the actions that have been added to this stream
+     * so far.
+     *
+     * @return the pipeline of this stream
+     */
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
     protected P pipeline() {
         @SuppressWarnings("unchecked")
         final P result = (P) pipeline;
@@ -431,4 +431,21 @@ public final class ReferenceStreamBuilder<T> extends AbstractStreamBuilder<Refer
         //return streamTerminator.spliterator(pipeline());
     }
 
+    /**
+     * Returns an {@link Iterator} over the elements of this stream. This is a
+     * terminal operation that is used by components that take over the
+     * responsibility of closing the stream, like a
+     * {@link com.speedment.stream.Publisher}.
+     * <p>
+     * N.B. This method may short-circuit operations in the Stream pipeline.
+     * <p>
+     * If you call this method, you <em>must</em> ensure to call the stream's
+     * {@link #close() } method or else resources may not be released properly.
+     *
+     * @return an iterator over the elements of this stream
+     */
+    public Iterator<T> unclosedIterator() {
+        return streamTerminator.iterator(pipeline());
+    }
+
 }
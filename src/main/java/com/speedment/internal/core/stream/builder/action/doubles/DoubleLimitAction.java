@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.doubles;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMaxSize;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.LIMIT;
 import java.util.stream.DoubleStream;
 
@@ -24,10 +25,18 @@ import java.util.stream.DoubleStream;
  *
  * @author pemi
  */
-public final class DoubleLimitAction extends Action<DoubleStream, DoubleStream> {
+public final class DoubleLimitAction extends Action<DoubleStream, DoubleStream> implements HasMaxSize {
+
+    private final long maxSize;
 
     public DoubleLimitAction(long maxSize) {
         super(s -> s.limit(maxSize), DoubleStream.class, LIMIT);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize;
     }
 
 }
@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.doubles;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasSkip;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.SKIP;
 import java.util.stream.DoubleStream;
 
@@ -24,10 +25,18 @@ import java.util.stream.DoubleStream;
  *
  * @author pemi
  */
-public final class DoubleSkipAction extends Action<DoubleStream, DoubleStream> {
+public final class DoubleSkipAction extends Action<DoubleStream, DoubleStream> implements HasSkip {
+
+    private final long skip;
 
     public DoubleSkipAction(long n) {
         super(s -> s.skip(n), DoubleStream.class, SKIP);
+        this.skip = n;
+    }
+
+    @Override
+    public long getSkip() {
+        return skip;
     }
 
 }
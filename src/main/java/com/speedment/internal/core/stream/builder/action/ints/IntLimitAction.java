@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.ints;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMaxSize;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.LIMIT;
 import java.util.stream.IntStream;
 
@@ -24,10 +25,18 @@ import java.util.stream.IntStream;
  *
  * @author pemi
  */
-public final class IntLimitAction extends Action<IntStream, IntStream> {
+public final class IntLimitAction extends Action<IntStream, IntStream> implements HasMaxSize {
+
+    private final long maxSize;
 
     public IntLimitAction(long maxSize) {
         super(s -> s.limit(maxSize), IntStream.class, LIMIT);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize;
     }
 
 }
@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.longs;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMaxSize;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.LIMIT;
 import java.util.stream.LongStream;
 
@@ -24,10 +25,18 @@ import java.util.stream.LongStream;
  *
  * @author pemi
  */
-public final class LongLimitAction extends Action<LongStream, LongStream> {
+public final class LongLimitAction extends Action<LongStream, LongStream> implements HasMaxSize {
+
+    private final long maxSize;
 
     public LongLimitAction(long maxSize) {
         super(s -> s.limit(maxSize), LongStream.class, LIMIT);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize;
     }
 
 }
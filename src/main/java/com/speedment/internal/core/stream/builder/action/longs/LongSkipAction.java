@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.longs;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasSkip;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.SKIP;
 import java.util.stream.LongStream;
 
@@ -24,10 +25,18 @@ import java.util.stream.LongStream;
  *
  * @author pemi
  */
-public final class LongSkipAction extends Action<LongStream, LongStream> {
+public final class LongSkipAction extends Action<LongStream, LongStream> implements HasSkip {
+
+    private final long skip;
 
     public LongSkipAction(long n) {
         super(s -> s.skip(n), LongStream.class, SKIP);
+        this.skip = n;
+    }
+
+    @Override
+    public long getSkip() {
+        return skip;
     }
 
 }
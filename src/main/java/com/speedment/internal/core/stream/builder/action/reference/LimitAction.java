@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.reference;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMaxSize;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.LIMIT;
 import java.util.stream.Stream;
 
@@ -25,10 +26,18 @@ import java.util.stream.Stream;
  * @author pemi
  * @param <T> the type of the stream elements
  */
-public final class LimitAction<T> extends Action<Stream<T>, Stream<T>> {
+public final class LimitAction<T> extends Action<Stream<T>, Stream<T>> implements HasMaxSize {
+
+    private final long maxSize;
 
     public LimitAction(long maxSize) {
         super(s -> s.limit(maxSize), Stream.class, LIMIT);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize;
     }
 
 }
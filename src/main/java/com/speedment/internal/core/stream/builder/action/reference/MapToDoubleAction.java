@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.reference;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMapper;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.MAP_TO;
 import static java.util.Objects.requireNonNull;
 import java.util.function.ToDoubleFunction;
@@ -28,10 +29,18 @@ import java.util.stream.Stream;
  * @author pemi
  * @param <T> the input type of the stream elements
  */
-public final class MapToDoubleAction<T> extends Action<Stream<T>, DoubleStream> {
+public final class MapToDoubleAction<T> extends Action<Stream<T>, DoubleStream> implements HasMapper<ToDoubleFunction<? super T>> {
+
+    private final ToDoubleFunction<? super T> mapper;
 
     public MapToDoubleAction(ToDoubleFunction<? super T> mapper) {
         super(s -> s.mapToDouble(requireNonNull(mapper)), DoubleStream.class, MAP_TO);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public ToDoubleFunction<? super T> getMapper() {
+        return mapper;
     }
 
 }
@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.reference;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMapper;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.MAP_TO;
 import static java.util.Objects.requireNonNull;
 import java.util.function.ToIntFunction;
@@ -28,10 +29,18 @@ import java.util.stream.Stream;
  * @author pemi
  * @param <T> the input type of the stream elements
  */
-public final class MapToIntAction<T> extends Action<Stream<T>, IntStream> {
+public final class MapToIntAction<T> extends Action<Stream<T>, IntStream> implements HasMapper<ToIntFunction<? super T>> {
+
+    private final ToIntFunction<? super T> mapper;
 
     public MapToIntAction(ToIntFunction<? super T> mapper) {
         super(s -> s.mapToInt(requireNonNull(mapper)), IntStream.class, MAP_TO);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public ToIntFunction<? super T> getMapper() {
+        return mapper;
     }
 
 }
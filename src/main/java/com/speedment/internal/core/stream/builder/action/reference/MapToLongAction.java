@@ -17,6 +17,7 @@
 package com.speedment.internal.core.stream.builder.action.reference;
 
 import com.speedment.internal.core.stream.builder.action.Action;
+import com.speedment.internal.core.stream.builder.action.HasMapper;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.MAP_TO;
 import static java.util.Objects.requireNonNull;
 import java.util.function.ToLongFunction;
@@ -28,10 +29,18 @@ import java.util.stream.Stream;
  * @author pemi
  * @param <T> the input type of the stream elements
  */
-public final class MapToLongAction<T> extends Action<Stream<T>, LongStream> {
+public final class MapToLongAction<T> extends Action<Stream<T>, LongStream> implements HasMapper<ToLongFunction<? super T>> {
+
+    private final ToLongFunction<? super T> mapper;
 
     public MapToLongAction(ToLongFunction<? super T> mapper) {
         super(s -> s.mapToLong(requireNonNull(mapper)), LongStream.class, MAP_TO);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public ToLongFunction<? super T> getMapper() {
+        return mapper;
     }
 
 }
@@ -20,6 +20,7 @@ import com.speedment.internal.core.stream.builder.action.Action;
 import static com.speedment.internal.core.stream.builder.action.StandardBasicAction.SORTED;
 import java.util.Comparator;
 import static java.util.Objects.requireNonNull;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
@@ -29,12 +30,26 @@ import java.util.stream.Stream;
  */
 public final class SortedAction<T> extends Action<Stream<T>, Stream<T>> {
 
+    private final Comparator<? super T> comparator;
+
     public SortedAction() {
         super(s -> s.sorted(), Stream.class, SORTED);
+        this.comparator = null;
     }
 
     public SortedAction(Comparator<? super T> comparator) {
         super(s -> s.sorted(requireNonNull(comparator)), Stream.class, SORTED);
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the comparator used for sorting, or an empty Optional if the
+     * elements are sorted in their natural order.
+     *
+     * @return the comparator used for sorting
+     */
+    public Optional<Comparator<? super T>> getComparator() {
+        return Optional.ofNullable(comparator);
     }
 
 }
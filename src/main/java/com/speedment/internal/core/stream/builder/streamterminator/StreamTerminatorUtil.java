@@ -23,6 +23,7 @@ import com.speedment.internal.core.stream.builder.action.reference.FilterAction;
 import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
 import com.speedment.internal.util.Cast;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
@@ -52,11 +53,15 @@ public class StreamTerminatorUtil {
         return andPredicateBuilders;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static <ENTITY> List<SpeedmentPredicate<?, ?>> andPredicates(FilterAction<ENTITY> action) {
         requireNonNull(action);
+        return andPredicates(action.getPredicate());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <ENTITY> List<SpeedmentPredicate<?, ?>> andPredicates(Predicate<? super ENTITY> predicate) {
+        requireNonNull(predicate);
         final List<SpeedmentPredicate<?, ?>> andPredicateBuilders = new ArrayList<>();
-        final Predicate<? super ENTITY> predicate = action.getPredicate();
 
         final Optional<SpeedmentPredicate> oPredicateBuilder = Cast.cast(predicate, SpeedmentPredicate.class);
         if (oPredicateBuilder.isPresent()) {
@@ -64,7 +69,7 @@ public class StreamTerminatorUtil {
         } else {
 
             final Optional<AbstractCombinedBasePredicate.AndCombinedBasePredicate> oAndCombinedBasePredicate = Cast.cast(predicate, AbstractCombinedBasePredicate.AndCombinedBasePredicate.class);
-            if (oAndCombinedBasePredicate.isPresent()) {
+            if (oAndCombinedBasePredicate.isPresent() && !oAndCombinedBasePredicate.get().isNegated()) {
 
                 final AbstractCombinedBasePredicate.AndCombinedBasePredicate<ENTITY> andCombinedBasePredicate = (AbstractCombinedBasePredicate.AndCombinedBasePredicate<ENTITY>) oAndCombinedBasePredicate.get();
                 andCombinedBasePredicate.stream()
@@ -77,6 +82,134 @@ public class StreamTerminatorUtil {
         return andPredicateBuilders;
     }
 
+    /**
+     * Returns the number of initial consecutive {@link FilterAction FilterActions}
+     * in the provided pipeline.
+     *
+     * @param pipeline to examine
+     * @return the number of initial consecutive FilterActions
+     */
+    public static int initialFilterCount(Pipeline pipeline) {
+        requireNonNull(pipeline);
+        int count = 0;
+        for (final Action<?, ?> action : pipeline) {
+            if (action instanceof FilterAction) {
+                count++;
+            } else {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns if the provided predicate is a {@link SpeedmentPredicate} or an
+     * arbitrarily nested (and possibly negated) AND/OR combination of
+     * {@link SpeedmentPredicate SpeedmentPredicates}. Such a predicate can be
+     * rendered completely by a
+     * {@link com.speedment.internal.core.manager.sql.SpeedmentPredicateView}.
+     *
+     * @param predicate to examine
+     * @return if the predicate only consists of field predicates
+     */
+    public static boolean isFieldPredicateTree(Predicate<?> predicate) {
+        requireNonNull(predicate);
+        if (predicate instanceof SpeedmentPredicate) {
+            return true;
+        }
+        if (predicate instanceof AbstractCombinedBasePredicate) {
+            return ((AbstractCombinedBasePredicate<?>) predicate).stream()
+                .allMatch(StreamTerminatorUtil::isFieldPredicateTree);
+        }
+        return false;
+    }
+
+    /**
+     * Splits the provided predicate into the predicates that must all be
+     * true for the predicate to be true. A non-negated AND combination is
+     * split into its (recursively split) parts. Any other predicate is
+     * returned as the only conjunct.
+     *
+     * @param <ENTITY> the entity type
+     * @param predicate to split
+     * @return the conjuncts of the predicate
+     */
+    public static <ENTITY> List<Predicate<? super ENTITY>> conjuncts(Predicate<? super ENTITY> predicate) {
+        requireNonNull(predicate);
+        final List<Predicate<? super ENTITY>> result = new ArrayList<>();
+        addConjuncts(predicate, result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ENTITY> void addConjuncts(Predicate<? super ENTITY> predicate, List<Predicate<? super ENTITY>> result) {
+        if (predicate instanceof AbstractCombinedBasePredicate.AndCombinedBasePredicate
+            && !((AbstractCombinedBasePredicate<?>) predicate).isNegated()) {
+            ((AbstractCombinedBasePredicate<ENTITY>) predicate).stream()
+                .forEachOrdered(p -> addConjuncts(p, result));
+        } else {
+            result.add(predicate);
+        }
+    }
+
+    /**
+     * Moves the parts of the initial filters of the pipeline that match the
+     * provided predicate to the provided list. Each filter is split into its
+     * conjuncts. A filter where all conjuncts are moved is removed from the
+     * pipeline, and a filter where only some conjuncts are moved is replaced
+     * by a filter that tests the remaining conjuncts.
+     *
+     * @param <ENTITY> the entity type
+     * @param pipeline to consume filters from
+     * @param consumable if a conjunct shall be moved
+     * @param predicates to add the moved conjuncts to
+     * @return the number of filters that remain in the beginning of the
+     * pipeline
+     */
+    @SuppressWarnings("unchecked")
+    public static <ENTITY> int consumeFilters(Pipeline pipeline, Predicate<? super Predicate<? super ENTITY>> consumable, List<Predicate<? super ENTITY>> predicates) {
+        requireNonNull(pipeline);
+        requireNonNull(consumable);
+        requireNonNull(predicates);
+        final int filterCount = initialFilterCount(pipeline);
+        final LinkedList<Action<?, ?>> remainingFilters = new LinkedList<>();
+        for (int i = 0; i < filterCount; i++) {
+            final FilterAction<ENTITY> action = (FilterAction<ENTITY>) pipeline.removeFirst();
+            final List<Predicate<? super ENTITY>> conjuncts = conjuncts(action.getPredicate());
+            final List<Predicate<? super ENTITY>> remaining = new ArrayList<>();
+            for (final Predicate<? super ENTITY> conjunct : conjuncts) {
+                if (consumable.test(conjunct)) {
+                    predicates.add(conjunct);
+                } else {
+                    remaining.add(conjunct);
+                }
+            }
+            if (remaining.size() == conjuncts.size()) {
+                remainingFilters.add(action);
+            } else if (!remaining.isEmpty()) {
+                remainingFilters.add(new FilterAction<>(allOf(remaining)));
+            }
+        }
+        remainingFilters.descendingIterator().forEachRemaining(pipeline::addFirst);
+        return remainingFilters.size();
+    }
+
+    private static <ENTITY> Predicate<ENTITY> allOf(List<Predicate<? super ENTITY>> predicates) {
+        if (predicates.size() == 1) {
+            @SuppressWarnings("unchecked")
+            final Predicate<ENTITY> predicate = (Predicate<ENTITY>) predicates.get(0);
+            return predicate;
+        }
+        return entity -> {
+            for (final Predicate<? super ENTITY> predicate : predicates) {
+                if (!predicate.test(entity)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
     private StreamTerminatorUtil() {
     }
 
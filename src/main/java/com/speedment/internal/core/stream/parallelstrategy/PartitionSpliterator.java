@@ -0,0 +1,111 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream.parallelstrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Spliterator} over a number of partitions, that each is read by a
+ * {@link Spliterator} of its own. A partition is not opened until it is
+ * traversed, so partitions that are handed out by {@link #trySplit()} can be
+ * opened and traversed concurrently. When only one partition remains, it is
+ * split using its own {@link Spliterator}.
+ *
+ * @author pemi
+ * @param <T> the type of elements returned by this Spliterator
+ */
+public final class PartitionSpliterator<T> implements Spliterator<T> {
+
+    private final List<Supplier<Spliterator<T>>> partitions;
+    private int index;
+    private final int fence;
+    private Spliterator<T> current;
+
+    /**
+     * Creates a {@link Spliterator} over the provided partitions.
+     *
+     * @param partitions suppliers that open the partitions
+     */
+    public PartitionSpliterator(List<Supplier<Spliterator<T>>> partitions) {
+        this(new ArrayList<>(requireNonNull(partitions)), 0, partitions.size());
+    }
+
+    private PartitionSpliterator(List<Supplier<Spliterator<T>>> partitions, int index, int fence) {
+        this.partitions = partitions;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (fence - index >= 2) {
+            final int mid = (index + fence) >>> 1;
+            final Spliterator<T> prefix = new PartitionSpliterator<>(partitions, index, mid);
+            index = mid;
+            return prefix;
+        }
+        if (current == null && index < fence) {
+            current = partitions.get(index++).get();
+        }
+        return current == null ? null : current.trySplit();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        requireNonNull(action);
+        while (true) {
+            if (current == null) {
+                if (index >= fence) {
+                    return false;
+                }
+                current = partitions.get(index++).get();
+            }
+            if (current.tryAdvance(action)) {
+                return true;
+            }
+            current = null;
+        }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        requireNonNull(action);
+        if (current != null) {
+            current.forEachRemaining(action);
+            current = null;
+        }
+        while (index < fence) {
+            partitions.get(index++).get().forEachRemaining(action);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.IMMUTABLE;
+    }
+
+}
@@ -0,0 +1,72 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.stream;
+
+import com.speedment.annotation.Api;
+import com.speedment.internal.util.tuple.Tuple2;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Joins the entities of a table with the entities that a foreign key column
+ * references. A SQL manager reads both entities of each pair from a single
+ * query, like
+ * {@code SELECT ... FROM a INNER JOIN b ON a.fk = b.pk WHERE ...}, instead
+ * of running one query per entity to find the referenced entity.
+ * <p>
+ * Entities whose foreign key column is {@code null}, or does not reference
+ * any entity, are not included. A {@code Joiner} is immutable.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ * @param <FK> the type of the referenced entity
+ * @since 2.2
+ */
+@Api(version = "2.2")
+public interface Joiner<ENTITY, FK> {
+
+    /**
+     * Returns a {@code Joiner} that only includes the entities that match the
+     * given predicate, in addition to any previous predicates. For the
+     * predicate to be evaluated by the database, it should be built from the
+     * fields of the entity.
+     *
+     * @param predicate the predicate
+     * @return a {@code Joiner} with the given predicate added
+     */
+    Joiner<ENTITY, FK> filter(Predicate<? super ENTITY> predicate);
+
+    /**
+     * Returns a {@code Joiner} that only includes the referenced entities that
+     * match the given predicate, in addition to any previous predicates. For
+     * the predicate to be evaluated by the database, it should be built from
+     * the fields of the referenced entity.
+     *
+     * @param predicate the predicate
+     * @return a {@code Joiner} with the given predicate added
+     */
+    Joiner<ENTITY, FK> filterForeign(Predicate<? super FK> predicate);
+
+    /**
+     * Returns a {@link Stream} of the entities paired with the entities that
+     * they reference. The stream must be closed when it is no longer used.
+     *
+     * @return a stream of the joined entities
+     */
+    Stream<Tuple2<ENTITY, FK>> stream();
+
+}
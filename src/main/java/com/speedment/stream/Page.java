@@ -0,0 +1,53 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.stream;
+
+import com.speedment.annotation.Api;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A page of entities that has been read by a {@link Pager}.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ * @since 2.2
+ */
+@Api(version = "2.2")
+public interface Page<ENTITY> {
+
+    /**
+     * Returns the entities of this page, in the order of the keys of the
+     * {@link Pager}.
+     *
+     * @return the entities of this page
+     */
+    List<ENTITY> getContent();
+
+    /**
+     * Returns a token that can be passed to {@link Pager#nextPage(String)}
+     * to read the page after this one, or an empty {@code Optional} if this
+     * is the last page. The token is an URL safe string that does not depend
+     * on any state in the application, so it may be handed out to clients
+     * and used again later on.
+     *
+     * @return the continuation token, or an empty {@code Optional} if this is
+     * the last page
+     */
+    Optional<String> getContinuationToken();
+
+}
@@ -0,0 +1,103 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.stream;
+
+import com.speedment.annotation.Api;
+import com.speedment.field.ComparableField;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Reads the entities of a table in pages, using keyset pagination. Instead
+ * of skipping the rows of the previous pages with {@code OFFSET}, each page
+ * is read with a condition on the keys of the last entity of the previous
+ * page, like {@code WHERE (k) > (?) ORDER BY k LIMIT n}. Reading a page
+ * therefore takes the same time regardless of how deep into the table it
+ * is, given that there is an index on the keys.
+ * <p>
+ * The entities are sorted in ascending order on the keys, the first key
+ * being the most significant. The keys must identify an entity uniquely, so
+ * they must include all the columns of the primary key or of a unique index.
+ * None of the key columns may be nullable.
+ * <p>
+ * A {@code Pager} is immutable. Each page is read using a stream of its own,
+ * so no connection is held between the pages.
+ *
+ * @author pemi
+ * @param <ENTITY> the entity type
+ * @since 2.2
+ */
+@Api(version = "2.2")
+public interface Pager<ENTITY> {
+
+    /**
+     * Returns a {@code Pager} that also sorts the entities on the given key,
+     * when they are equal on all the previous keys.
+     *
+     * @param <V> the key type
+     * @param key the next key
+     * @return a {@code Pager} with the given key added
+     */
+    <V extends Comparable<? super V>> Pager<ENTITY> thenOrderBy(ComparableField<ENTITY, V> key);
+
+    /**
+     * Returns a {@code Pager} that only reads the entities that match the
+     * given predicate, in addition to any previous predicates. For the
+     * predicate to be evaluated by the database, it should be built from the
+     * fields of the entity.
+     *
+     * @param predicate the predicate
+     * @return a {@code Pager} with the given predicate added
+     */
+    Pager<ENTITY> filter(Predicate<? super ENTITY> predicate);
+
+    /**
+     * Returns a {@code Pager} that reads at most the given number of entities
+     * per page.
+     *
+     * @param pageSize the maximum number of entities per page
+     * @return a {@code Pager} with the given page size
+     */
+    Pager<ENTITY> pageSize(int pageSize);
+
+    /**
+     * Reads the first page.
+     *
+     * @return the first page
+     */
+    Page<ENTITY> firstPage();
+
+    /**
+     * Reads the page after the page that the given continuation token was
+     * returned with. The token must have been returned by a {@code Pager}
+     * with the same keys.
+     *
+     * @param continuationToken the token of the previous page
+     * @return the next page
+     * @throws IllegalArgumentException if the token is invalid
+     */
+    Page<ENTITY> nextPage(String continuationToken);
+
+    /**
+     * Returns a {@link Stream} over the entities of all pages. The pages are
+     * read as the stream is consumed.
+     *
+     * @return a stream over the entities of all pages
+     */
+    Stream<ENTITY> stream();
+
+}
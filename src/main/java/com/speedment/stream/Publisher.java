@@ -0,0 +1,46 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.stream;
+
+import com.speedment.annotation.Api;
+
+/**
+ * A provider of a potentially unbounded number of elements that are
+ * published to a {@link Subscriber} according to the demand signalled by
+ * the {@link Subscriber}. The interface has the same methods and contract as
+ * the {@code Publisher} of the Reactive Streams specification, so that it
+ * can be adapted to any Reactive Streams library with a method reference.
+ *
+ * @author pemi
+ * @param <T> the type of elements published
+ * @since 2.2
+ */
+@Api(version = "2.2")
+@FunctionalInterface
+public interface Publisher<T> {
+
+    /**
+     * Requests this {@code Publisher} to start publishing elements to the
+     * given {@link Subscriber}. Elements are not published until they are
+     * requested through the {@link Subscription} that is passed to
+     * {@link Subscriber#onSubscribe(Subscription)}.
+     *
+     * @param subscriber the subscriber that will consume the elements
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+
+}
@@ -88,6 +88,104 @@ public interface StreamDecorator {
         return hasParallelStrategy;
     }
 
+    /**
+     * Returns the number of partitions that a parallel {@link Stream} from a
+     * SQL database shall be read in. If more than one partition is used, the
+     * rows are divided into ranges of the primary key that are read
+     * concurrently using separate connections. Partitioning is only used for
+     * tables with a single integer primary key column and for streams that
+     * do not render {@code ORDER BY}, {@code LIMIT} or {@code OFFSET} in SQL.
+     * Partitioned streams have no encounter order.
+     *
+     * @return the number of partitions to read a parallel stream in
+     */
+    default int getPartitions() {
+        return 1;
+    }
+
+    /**
+     * Returns the number of rows that shall be fetched from the database at a
+     * time when a {@link Stream} from a SQL database is read, or {@code 0} if
+     * the default of the driver shall be used. Many drivers read the whole
+     * result into memory by default. How a fetch size is applied is up to
+     * the {@link com.speedment.config.parameters.DbmsType DbmsType}; MySQL
+     * streams the rows one by one unless server side cursors are enabled, and
+     * PostgreSQL reads the rows using a cursor within a transaction.
+     *
+     * @return the fetch size, or {@code 0} for the driver default
+     */
+    default int getFetchSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of rows that a separate thread may read and map
+     * ahead of the consumer of a {@link Stream} from a SQL database, or
+     * {@code 0} if the rows shall be read by the consuming thread. Reading
+     * ahead lets the time spent waiting for the database overlap with the
+     * processing of rows that have already been read. If the consumer falls
+     * behind, the reading thread waits until there is room for more rows.
+     *
+     * @return the number of rows to read ahead, or {@code 0} for none
+     */
+    default int getPrefetchSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of seconds that the queries of a {@link Stream} from
+     * a SQL database may run before they are cancelled, or {@code 0} if the
+     * default timeout of the {@link com.speedment.db.DbmsHandler DbmsHandler}
+     * shall be used.
+     *
+     * @return the query timeout in seconds, or {@code 0} for the default
+     */
+    default int getQueryTimeout() {
+        return 0;
+    }
+
+    /**
+     * Returns {@code true} if the entities of a {@link Stream} from a SQL
+     * database shall be flyweights, if the manager of the entities supports
+     * it. A flyweight is a read-only view of the current row of the
+     * {@link java.sql.ResultSet} that reads the values of the columns when
+     * they are requested. The same flyweight is returned for every row, so
+     * the values of an entity change when the stream advances to the next
+     * row.
+     * <p>
+     * Flyweights avoid creating an entity for each row and are intended for
+     * sequential streams that consume each entity before the next one is
+     * read, such as {@code forEach}, {@code count} or {@code reduce}. They
+     * must not be collected, sorted in Java or used in parallel streams. Use
+     * {@link com.speedment.Entity#copy() copy()} to retain an entity. Rows
+     * are never read ahead of the consumer of a flyweight stream.
+     *
+     * @return {@code true} if the entities shall be flyweights
+     */
+    default boolean isFlyweight() {
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the queries of a {@link Stream} from a SQL
+     * database shall be cancelled when the stream is closed while the
+     * database may still be producing rows. This is only the case for
+     * streams that are read using a fetch size and that are closed before
+     * all rows, or as many rows as a {@code LIMIT} that is rendered in SQL,
+     * have been read. Without a cancel, drivers such as MySQL read all the
+     * remaining rows of a streamed result when it is closed.
+     * <p>
+     * A cancel is not free; it needs a separate round trip to the database
+     * and some drivers open a new connection for it. It should only be used
+     * for streams that are often closed long before their end.
+     *
+     * @return {@code true} if abandoned queries shall be cancelled
+     * @see #getFetchSize()
+     */
+    default boolean isCancelOnClose() {
+        return false;
+    }
+
     /**
      * A {@link StreamDecorator} that modifies the stream according to the
      * {@link ParallelStrategy#COMPUTE_INTENSITY_MEDIUM COMPUTE_INTENSITY_MEDIUM}
@@ -115,6 +213,115 @@ public interface StreamDecorator {
 
     final static StreamDecorator COMPUTE_INTENSITY_EXTREAM = of(ParallelStrategy.COMPUTE_INTENSITY_EXTREME);
 
+    /**
+     * A {@link StreamDecorator} that streams read-only flyweight entities.
+     *
+     * @see #isFlyweight()
+     */
+    final static StreamDecorator FLYWEIGHT = new StreamDecorator() {
+        @Override
+        public boolean isFlyweight() {
+            return true;
+        }
+    };
+
+    /**
+     * A {@link StreamDecorator} that cancels the queries of streams that are
+     * closed while the database may still be producing rows.
+     *
+     * @see #isCancelOnClose()
+     */
+    final static StreamDecorator CANCEL_ON_CLOSE = new StreamDecorator() {
+        @Override
+        public boolean isCancelOnClose() {
+            return true;
+        }
+    };
+
+    /**
+     * Returns a {@link StreamDecorator} that reads parallel streams in the
+     * given number of partitions.
+     *
+     * @param partitions the number of partitions
+     * @return a {@link StreamDecorator} that reads parallel streams in the
+     * given number of partitions
+     * @see #getPartitions()
+     */
+    static StreamDecorator partitioned(final int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("The number of partitions must be positive, but was " + partitions + ".");
+        }
+        return new StreamDecorator() {
+            @Override
+            public int getPartitions() {
+                return partitions;
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link StreamDecorator} that reads streams from the database
+     * in batches of the given number of rows instead of reading the whole
+     * result at once.
+     *
+     * @param fetchSize the number of rows to fetch at a time
+     * @return a {@link StreamDecorator} that reads streams in batches of the
+     * given number of rows
+     * @see #getFetchSize()
+     */
+    static StreamDecorator streaming(final int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("The fetch size must be positive, but was " + fetchSize + ".");
+        }
+        return new StreamDecorator() {
+            @Override
+            public int getFetchSize() {
+                return fetchSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link StreamDecorator} that reads the rows of streams from
+     * the database in a separate thread, at most the given number of rows
+     * ahead of the consumer.
+     *
+     * @param prefetchSize the maximum number of rows to read ahead
+     * @return a {@link StreamDecorator} that reads rows ahead of the consumer
+     * @see #getPrefetchSize()
+     */
+    static StreamDecorator prefetching(final int prefetchSize) {
+        if (prefetchSize < 1) {
+            throw new IllegalArgumentException("The prefetch size must be positive, but was " + prefetchSize + ".");
+        }
+        return new StreamDecorator() {
+            @Override
+            public int getPrefetchSize() {
+                return prefetchSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link StreamDecorator} that cancels the queries of streams
+     * that run for longer than the given number of seconds.
+     *
+     * @param seconds the query timeout in seconds
+     * @return a {@link StreamDecorator} with the given query timeout
+     * @see #getQueryTimeout()
+     */
+    static StreamDecorator timeout(final int seconds) {
+        if (seconds < 1) {
+            throw new IllegalArgumentException("The query timeout must be positive, but was " + seconds + ".");
+        }
+        return new StreamDecorator() {
+            @Override
+            public int getQueryTimeout() {
+                return seconds;
+            }
+        };
+    }
+
     static StreamDecorator of(final ParallelStrategy parallelStrategy) {
         return new StreamDecorator() {
             @Override
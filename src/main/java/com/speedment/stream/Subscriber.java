@@ -0,0 +1,64 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.stream;
+
+import com.speedment.annotation.Api;
+
+/**
+ * A consumer of the elements published by a {@link Publisher}. The interface
+ * has the same methods and contract as the {@code Subscriber} of the
+ * Reactive Streams specification. The methods are never invoked
+ * concurrently for the same subscription.
+ *
+ * @author pemi
+ * @param <T> the type of elements consumed
+ * @since 2.2
+ */
+@Api(version = "2.2")
+public interface Subscriber<T> {
+
+    /**
+     * Invoked once, before any other method, with the {@link Subscription}
+     * that is used to request elements or to cancel.
+     *
+     * @param subscription the subscription
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Invoked with the next element, at most as many times as elements have
+     * been requested.
+     *
+     * @param element the next element
+     */
+    void onNext(T element);
+
+    /**
+     * Invoked if the publishing failed. No other method is invoked
+     * thereafter.
+     *
+     * @param throwable the reason for the failure
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Invoked when all elements have been published. No other method is
+     * invoked thereafter.
+     */
+    void onComplete();
+
+}
@@ -0,0 +1,51 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.stream;
+
+import com.speedment.annotation.Api;
+
+/**
+ * The link between a {@link Publisher} and a {@link Subscriber}, through
+ * which the {@link Subscriber} signals demand. The interface has the same
+ * methods and contract as the {@code Subscription} of the Reactive Streams
+ * specification.
+ *
+ * @author pemi
+ * @since 2.2
+ */
+@Api(version = "2.2")
+public interface Subscription {
+
+    /**
+     * Requests {@code n} more elements. Demand is cumulative, and a demand of
+     * {@code Long.MAX_VALUE} or more is treated as unbounded. If {@code n} is
+     * not positive, the subscriber is signalled an
+     * {@link IllegalArgumentException} through
+     * {@link Subscriber#onError(Throwable)}.
+     *
+     * @param n the number of elements requested
+     */
+    void request(long n);
+
+    /**
+     * Requests the {@link Publisher} to stop publishing elements and to
+     * release any resources that it holds. Elements may still be published
+     * for a short while after this method has returned.
+     */
+    void cancel();
+
+}
@@ -0,0 +1,101 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.code.model.java.entity;
+
+import com.speedment.config.Column;
+import com.speedment.internal.codegen.base.Generator;
+import com.speedment.internal.codegen.java.JavaGenerator;
+import com.speedment.internal.codegen.lang.controller.AutoImports;
+import com.speedment.internal.codegen.lang.models.File;
+import com.speedment.internal.core.code.entity.EntityFlyweightTranslator;
+import com.speedment.internal.core.code.entity.EntityImplTranslator;
+import com.speedment.internal.core.code.model.java.SimpleModelTest;
+import com.speedment.internal.core.config.mapper.identity.IntegerIdentityMapper;
+import com.speedment.internal.core.config.mapper.identity.StringIdentityMapper;
+import com.speedment.internal.core.config.mapper.string.StringToLocaleMapper;
+import com.speedment.config.Table;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class EntityFlyweightTranslatorTest extends SimpleModelTest {
+
+    private static final String READ_ONLY = "throw new UnsupportedOperationException(\"A flyweight is read-only. Use copy() to get a modifiable entity.\");";
+
+    private String code;
+
+    @Before
+    public void generate() {
+        column.setTypeMapper(StringIdentityMapper.class);
+        column.setNullable(false);
+        addColumn("age", IntegerIdentityMapper.class, true);
+        addColumn("locale", StringToLocaleMapper.class, true);
+        code = render(table -> new EntityFlyweightTranslator(speedment, new JavaGenerator(), table).get());
+    }
+
+    @Test
+    public void testClass() {
+        assertTrue(code.contains("public final class UserFlyweight extends AbstractBaseEntity<User> implements User {"));
+        assertTrue(code.contains("private final ResultSet resultSet;"));
+        assertTrue(code.contains("UserFlyweight(Speedment speedment, ResultSet resultSet) {"));
+    }
+
+    @Test
+    public void testGettersReadCurrentRow() {
+        assertTrue(code.contains("return resultSet.getString(1);"));
+        assertTrue(code.contains("final int ageValue = resultSet.getInt(2);"));
+        assertTrue(code.contains("return Optional.ofNullable(resultSet.wasNull() ? null : ageValue);"));
+        assertTrue(code.contains("return Optional.ofNullable(localeTypeMapper.toJavaType(resultSet.getString(3)));"));
+    }
+
+    @Test
+    public void testSettersThrow() {
+        assertTrue(code.contains("public final User setFirstName(String firstName) {\n\t\t" + READ_ONLY));
+        assertTrue(code.contains("public final User setAge(Integer age) {\n\t\t" + READ_ONLY));
+        assertTrue(code.contains("public final User setLocale(Locale locale) {\n\t\t" + READ_ONLY));
+        assertEquals(3, code.split(Pattern.quote(READ_ONLY), -1).length - 1);
+    }
+
+    @Test
+    public void testCopyReturnsModifiableEntity() {
+        assertTrue(code.contains("public User copy() {\n\t\treturn new UserImpl(getSpeedment_(), this);"));
+        // The entity implementation has the copy constructor that is used
+        final String impl = render(table -> new EntityImplTranslator(speedment, new JavaGenerator(), table).get());
+        assertTrue(impl.contains("public UserImpl(Speedment speedment, final User user) {"));
+    }
+
+    private String render(Function<Table, File> translator) {
+        final Generator cg = new JavaGenerator();
+        final File file = translator.apply(table);
+        file.call(new AutoImports(cg.getDependencyMgr()));
+        return cg.on(file).get();
+    }
+
+    private void addColumn(String name, Class<?> typeMapper, boolean nullable) {
+        final Column added = table.addNewColumn();
+        added.setName(name);
+        added.setTypeMapper(typeMapper);
+        added.setNullable(nullable);
+    }
+}
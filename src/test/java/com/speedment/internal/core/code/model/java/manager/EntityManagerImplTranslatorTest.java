@@ -0,0 +1,101 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.code.model.java.manager;
+
+import com.speedment.config.Column;
+import com.speedment.internal.codegen.base.Generator;
+import com.speedment.internal.codegen.java.JavaGenerator;
+import com.speedment.internal.codegen.lang.controller.AutoImports;
+import com.speedment.internal.codegen.lang.models.File;
+import com.speedment.internal.core.code.manager.EntityManagerImplTranslator;
+import com.speedment.internal.core.code.model.java.SimpleModelTest;
+import com.speedment.internal.core.config.mapper.identity.IntegerIdentityMapper;
+import com.speedment.internal.core.config.mapper.identity.LongIdentityMapper;
+import com.speedment.internal.core.config.mapper.identity.StringIdentityMapper;
+import com.speedment.internal.core.config.mapper.string.StringToLocaleMapper;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class EntityManagerImplTranslatorTest extends SimpleModelTest {
+
+    private String code;
+
+    @Before
+    public void generate() {
+        column.setTypeMapper(StringIdentityMapper.class);
+        column.setNullable(false);
+        addColumn("age", IntegerIdentityMapper.class, true);
+        addColumn("logins", LongIdentityMapper.class, false);
+        addColumn("locale", StringToLocaleMapper.class, true);
+
+        final Generator cg = new JavaGenerator();
+        final File file = new EntityManagerImplTranslator(speedment, cg, table).get();
+        file.call(new AutoImports(cg.getDependencyMgr()));
+        code = cg.on(file).get();
+    }
+
+    @Test
+    public void testColumnsAreReadByOrdinal() {
+        final String readEntity = readEntity();
+        assertTrue(readEntity.contains("entity.setFirstName(resultSet.getString(1));"));
+        assertTrue(readEntity.contains("entity.setLogins(resultSet.getLong(3));"));
+        assertFalse(readEntity.contains("\"first_name\""));
+    }
+
+    @Test
+    public void testNullablePrimitiveIsCheckedWithWasNull() {
+        final String readEntity = readEntity();
+        assertTrue(readEntity.contains("final int ageValue = resultSet.getInt(2);"));
+        assertTrue(readEntity.contains("entity.setAge(resultSet.wasNull() ? null : ageValue);"));
+        assertFalse(readEntity.contains("->"));
+        assertFalse(readEntity.contains("::"));
+    }
+
+    @Test
+    public void testOnlyOtherTypeMappersAreUsed() {
+        assertTrue(code.contains("private final TypeMapper<String, Locale> localeTypeMapper = new StringToLocaleMapper();"));
+        assertTrue(readEntity().contains("entity.setLocale(localeTypeMapper.toJavaType(resultSet.getString(4)));"));
+        assertFalse(code.contains("firstNameTypeMapper"));
+        assertFalse(code.contains("ageTypeMapper"));
+        assertFalse(code.contains("loginsTypeMapper"));
+        assertFalse(code.contains("IdentityMapper"));
+    }
+
+    @Test
+    public void testFlyweightFactoryIsRegistered() {
+        assertTrue(code.contains("setFlyweightFactory(resultSet -> new UserFlyweight(speedment, resultSet));"));
+    }
+
+    private String readEntity() {
+        final int start = code.indexOf("protected User defaultReadEntity(ResultSet resultSet) {");
+        assertTrue(start >= 0);
+        return code.substring(start, code.indexOf("return entity;", start));
+    }
+
+    private void addColumn(String name, Class<?> typeMapper, boolean nullable) {
+        final Column added = table.addNewColumn();
+        added.setName(name);
+        added.setTypeMapper(typeMapper);
+        added.setNullable(nullable);
+    }
+}
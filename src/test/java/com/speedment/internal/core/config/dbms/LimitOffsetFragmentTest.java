@@ -0,0 +1,66 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.config.dbms;
+
+import com.speedment.config.parameters.DbmsType;
+import com.speedment.internal.core.manager.sql.SqlPredicateFragment;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class LimitOffsetFragmentTest {
+
+    private final DbmsType mySql = new MySqlDbmsType();
+    private final DbmsType postgres = new PostgresDbmsType();
+
+    @Test
+    public void testNoLimitNoOffset() {
+        assertFragment("", Collections.emptyList(), mySql.getLimitOffsetFragment(0, Long.MAX_VALUE));
+        assertFragment("", Collections.emptyList(), postgres.getLimitOffsetFragment(0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testLimitOnly() {
+        assertFragment(" LIMIT ?", Arrays.asList(50L), mySql.getLimitOffsetFragment(0, 50));
+        assertFragment(" LIMIT ?", Arrays.asList(50L), postgres.getLimitOffsetFragment(0, 50));
+    }
+
+    @Test
+    public void testOffsetOnly() {
+        assertFragment(" LIMIT ? OFFSET ?", Arrays.asList(Long.MAX_VALUE, 1000L), mySql.getLimitOffsetFragment(1000, Long.MAX_VALUE));
+        assertFragment(" OFFSET ?", Arrays.asList(1000L), postgres.getLimitOffsetFragment(1000, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testLimitAndOffset() {
+        assertFragment(" LIMIT ? OFFSET ?", Arrays.asList(50L, 1000L), mySql.getLimitOffsetFragment(1000, 50));
+        assertFragment(" LIMIT ? OFFSET ?", Arrays.asList(50L, 1000L), postgres.getLimitOffsetFragment(1000, 50));
+    }
+
+    private void assertFragment(String expectedSql, List<Object> expectedValues, SqlPredicateFragment fragment) {
+        assertEquals(expectedSql, fragment.getSql());
+        assertEquals(expectedValues, fragment.objects().collect(toList()));
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.config.dbms;
+
+import com.speedment.config.parameters.DbmsType;
+import static com.speedment.internal.comparator.impl.NullOrder.FIRST;
+import static com.speedment.internal.comparator.impl.NullOrder.LAST;
+import static com.speedment.internal.comparator.impl.NullOrder.NONE;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OrderByFragmentTest {
+
+    private final DbmsType mySql = new MySqlDbmsType();
+    private final DbmsType mariaDb = new MariaDbDbmsType();
+    private final DbmsType postgres = new PostgresDbmsType();
+
+    @Test
+    public void testNotNullable() {
+        assertEquals("`id` ASC", mySql.getOrderByFragment("`id`", false, NONE));
+        assertEquals("`id` DESC", mySql.getOrderByFragment("`id`", true, NONE));
+        assertEquals("\"id\" ASC", postgres.getOrderByFragment("\"id\"", false, NONE));
+        assertEquals("\"id\" DESC", postgres.getOrderByFragment("\"id\"", true, NONE));
+    }
+
+    @Test
+    public void testNullsFirst() {
+        assertEquals("`age` ASC", mySql.getOrderByFragment("`age`", false, FIRST));
+        assertEquals("`age` IS NULL DESC, `age` DESC", mySql.getOrderByFragment("`age`", true, FIRST));
+        assertEquals("\"age\" ASC NULLS FIRST", postgres.getOrderByFragment("\"age\"", false, FIRST));
+        assertEquals("\"age\" DESC NULLS FIRST", postgres.getOrderByFragment("\"age\"", true, FIRST));
+    }
+
+    @Test
+    public void testNullsLast() {
+        assertEquals("`age` IS NULL ASC, `age` ASC", mySql.getOrderByFragment("`age`", false, LAST));
+        assertEquals("`age` DESC", mySql.getOrderByFragment("`age`", true, LAST));
+        assertEquals("\"age\" ASC NULLS LAST", postgres.getOrderByFragment("\"age\"", false, LAST));
+        assertEquals("\"age\" DESC NULLS LAST", postgres.getOrderByFragment("\"age\"", true, LAST));
+    }
+
+    @Test
+    public void testMariaDbSortsLikeMySql() {
+        assertEquals("`id` DESC", mariaDb.getOrderByFragment("`id`", true, NONE));
+        assertEquals("`age` IS NULL DESC, `age` DESC", mariaDb.getOrderByFragment("`age`", true, FIRST));
+        assertEquals("`age` IS NULL ASC, `age` ASC", mariaDb.getOrderByFragment("`age`", false, LAST));
+        assertEquals("`age` ASC", mariaDb.getOrderByFragment("`age`", false, FIRST));
+    }
+
+}
@@ -0,0 +1,168 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.config.dbms;
+
+import com.speedment.config.parameters.DbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.StreamDecorator;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class PrepareForStreamingTest {
+
+    private FakeDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> Arrays.asList(
+            new Person(1, "Ada", 36, null).toRow(),
+            new Person(2, "Bob", 25, 1).toRow()
+        ));
+    }
+
+    @Test
+    public void testMySqlStreamsRowByRow() throws SQLException {
+        prepare(new MySqlDbmsType(), 100);
+        assertEquals(Integer.MIN_VALUE, database.getLastQuery().getFetchSize());
+        assertTrue(database.isAutoCommit());
+    }
+
+    @Test
+    public void testMySqlWithCursorFetch() throws SQLException {
+        database.setUrl("jdbc:mysql://localhost:3306/?useUnicode=true&useCursorFetch=true");
+        prepare(new MySqlDbmsType(), 100);
+        assertEquals(100, database.getLastQuery().getFetchSize());
+        assertTrue(database.isAutoCommit());
+    }
+
+    @Test
+    public void testMySqlCursorFetchIsNotCaseSensitive() throws SQLException {
+        database.setUrl("jdbc:mysql://localhost:3306/?USECURSORFETCH=True");
+        prepare(new MySqlDbmsType(), 100);
+        assertEquals(100, database.getLastQuery().getFetchSize());
+    }
+
+    @Test
+    public void testMySqlLastCursorFetchParameterDecides() throws SQLException {
+        database.setUrl("jdbc:mysql://localhost:3306/?useCursorFetch=true&useUnicode=true&useCursorFetch=false");
+        prepare(new MySqlDbmsType(), 100);
+        assertEquals(Integer.MIN_VALUE, database.getLastQuery().getFetchSize());
+    }
+
+    @Test
+    public void testMySqlIgnoresOtherParameters() throws SQLException {
+        database.setUrl("jdbc:mysql://localhost:3306/?xuseCursorFetch=true&comment=useCursorFetch=true");
+        prepare(new MySqlDbmsType(), 100);
+        assertEquals(Integer.MIN_VALUE, database.getLastQuery().getFetchSize());
+    }
+
+    @Test
+    public void testMySqlAsksDriverForCursorFetch() throws SQLException {
+        // The property may have been given when the connection was opened
+        final Connection connection = withUseCursorFetch(database.getConnection(), true);
+        new MySqlDbmsType().prepareForStreaming(connection, connection.prepareStatement("select 1"), 100);
+        assertEquals(100, database.getLastQuery().getFetchSize());
+
+        database.setUrl("jdbc:mysql://localhost:3306/?useCursorFetch=true");
+        final Connection overridden = withUseCursorFetch(database.getConnection(), false);
+        new MySqlDbmsType().prepareForStreaming(overridden, overridden.prepareStatement("select 1"), 100);
+        assertEquals(Integer.MIN_VALUE, database.getLastQuery().getFetchSize());
+    }
+
+    @Test
+    public void testMariaDb() throws SQLException {
+        prepare(new MariaDbDbmsType(), 100);
+        assertEquals(100, database.getLastQuery().getFetchSize());
+        assertTrue(database.isAutoCommit());
+    }
+
+    @Test
+    public void testPostgresUsesTransaction() throws SQLException {
+        prepare(new PostgresDbmsType(), 100);
+        assertEquals(100, database.getLastQuery().getFetchSize());
+        assertFalse(database.isAutoCommit());
+    }
+
+    @Test
+    public void testStreamingDecoratorRestoresAutoCommit() {
+        final PersonManager manager = PersonManager.create(new PostgresDbmsType(), database);
+        try (final Stream<Person> stream = manager.stream(StreamDecorator.streaming(50))) {
+            // The rows are read within a transaction
+            assertEquals(2, stream.peek(p -> assertFalse(database.isAutoCommit())).collect(toList()).size());
+        }
+        assertEquals(50, database.getLastQuery().getFetchSize());
+        assertTrue(database.isAutoCommit());
+    }
+
+    @Test
+    public void testNoFetchSizeWithoutDecorator() {
+        final PersonManager manager = PersonManager.create(new PostgresDbmsType(), database);
+        try (final Stream<Person> stream = manager.stream()) {
+            assertEquals(2, stream.collect(toList()).size());
+        }
+        assertEquals(0, database.getLastQuery().getFetchSize());
+        assertTrue(database.isAutoCommit());
+    }
+
+    private void prepare(DbmsType dbmsType, int fetchSize) throws SQLException {
+        final Connection connection = database.getConnection();
+        dbmsType.prepareForStreaming(connection, connection.prepareStatement("select 1"), fetchSize);
+    }
+
+    /**
+     * Returns a connection that exposes the given {@code useCursorFetch}
+     * setting like a MySQL connection does.
+     */
+    private static Connection withUseCursorFetch(Connection connection, boolean useCursorFetch) {
+        return (Connection) Proxy.newProxyInstance(
+            PrepareForStreamingTest.class.getClassLoader(),
+            new Class<?>[]{CursorFetchConnection.class},
+            (proxy, method, args) -> {
+                if ("getUseCursorFetch".equals(method.getName())) {
+                    return useCursorFetch;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        );
+    }
+
+    public interface CursorFetchConnection extends Connection {
+
+        boolean getUseCursorFetch();
+    }
+}
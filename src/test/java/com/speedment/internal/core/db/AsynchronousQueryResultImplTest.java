@@ -0,0 +1,182 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.db;
+
+import com.speedment.db.SqlFunction;
+import com.speedment.internal.core.config.dbms.PostgresDbmsType;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.StreamDecorator;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class AsynchronousQueryResultImplTest {
+
+    private static final StreamDecorator STREAMING_CANCEL = StreamDecorator.streaming(10).and(StreamDecorator.CANCEL_ON_CLOSE);
+
+    private FakeDatabase database;
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> IntStream.rangeClosed(1, 100)
+            .mapToObj(i -> new Person(i, "P" + i, i, null).toRow())
+            .collect(toList())
+        );
+        manager = PersonManager.create(new PostgresDbmsType(), database);
+    }
+
+    @Test
+    public void testEarlyCloseOfLimitedStreamIsNotCancelled() {
+        // The database returns the only row of the LIMIT 1 query
+        database.setResponder(q -> Collections.singletonList(new Person(3, "P3", 3, null).toRow()));
+        try (final Stream<Person> stream = manager.stream(STREAMING_CANCEL)) {
+            assertEquals(3, (int) stream.filter(Person.AGE.greaterThan(2)).findFirst().get().getId());
+        }
+        final FakeDatabase.Query query = database.getLastQuery();
+        assertTrue(query.getSql().endsWith(" LIMIT ?"));
+        assertEquals(1, query.getRowsRead());
+        assertFalse(query.isCancelled());
+        assertTrue(query.isClosed());
+    }
+
+    @Test
+    public void testEarlyCloseOfLimitedStreamBeforeLimitIsCancelled() {
+        try (final Stream<Person> stream = manager.stream(STREAMING_CANCEL)) {
+            assertTrue(stream.limit(50).anyMatch(p -> p.getId() == 2));
+        }
+        final FakeDatabase.Query query = database.getLastQuery();
+        assertTrue(query.getSql().endsWith(" LIMIT ?"));
+        assertTrue(query.isCancelled());
+    }
+
+    @Test
+    public void testEarlyCloseIsCancelled() {
+        try (final Stream<Person> stream = manager.stream(STREAMING_CANCEL)) {
+            assertTrue(stream.anyMatch(p -> p.getId() == 2));
+        }
+        final FakeDatabase.Query query = database.getLastQuery();
+        assertTrue(query.isCancelled());
+        assertTrue(query.isClosed());
+    }
+
+    @Test
+    public void testEarlyCloseOfPrefetchingStreamStopsProducer() {
+        try (final Stream<Person> stream = manager.stream(STREAMING_CANCEL.and(StreamDecorator.prefetching(4)))) {
+            assertTrue(stream.anyMatch(p -> p.getId() == 2));
+        }
+        final FakeDatabase.Query query = database.getLastQuery();
+        final Thread producer = query.getReader();
+        assertNotSame(Thread.currentThread(), producer);
+        assertFalse(producer.isAlive());
+        assertTrue(query.isCancelled());
+        assertTrue(query.isClosed());
+        assertTrue(query.getRowsRead() < 100);
+        assertEquals(0, database.getOpenConnectionCount());
+    }
+
+    @Test
+    public void testEarlyCloseOfPrefetchingResultReleasesConnection() {
+        final AsynchronousQueryResultImpl<Integer> result = result("select `id` from `person`");
+        result.setFetchSize(10);
+        result.setPrefetchSize(4);
+        assertEquals(1, (int) result.stream().findFirst().get());
+        final Thread producer = database.getLastQuery().getReader();
+        assertNotSame(Thread.currentThread(), producer);
+        assertEquals(1, database.getOpenConnectionCount());
+        result.close();
+        assertFalse(producer.isAlive());
+        assertTrue(database.getLastQuery().isClosed());
+        assertEquals(0, database.getOpenConnectionCount());
+        assertEquals(AsynchronousQueryResultImpl.State.CLOSED, result.getState());
+    }
+
+    @Test
+    public void testCancelIsOptIn() {
+        try (final Stream<Person> stream = manager.stream(StreamDecorator.streaming(10))) {
+            assertTrue(stream.anyMatch(p -> p.getId() == 2));
+        }
+        assertFalse(database.getLastQuery().isCancelled());
+        assertTrue(database.getLastQuery().isClosed());
+    }
+
+    @Test
+    public void testBufferedResultIsNotCancelled() {
+        // Without a fetch size, the driver has read all rows already
+        try (final Stream<Person> stream = manager.stream(StreamDecorator.CANCEL_ON_CLOSE)) {
+            assertTrue(stream.anyMatch(p -> p.getId() == 2));
+        }
+        assertFalse(database.getLastQuery().isCancelled());
+    }
+
+    @Test
+    public void testExhaustedResultIsNotCancelled() {
+        try (final Stream<Person> stream = manager.stream(STREAMING_CANCEL)) {
+            assertEquals(100, stream.collect(toList()).size());
+        }
+        assertFalse(database.getLastQuery().isCancelled());
+        assertTrue(database.getLastQuery().isClosed());
+    }
+
+    @Test
+    public void testUnreadResultIsNotCancelled() {
+        final AsynchronousQueryResultImpl<Integer> result = result("select 1");
+        result.setCancelOnClose(true);
+        result.setFetchSize(10);
+        result.close();
+        assertTrue(database.getQueries().isEmpty());
+        assertEquals(AsynchronousQueryResultImpl.State.CLOSED, result.getState());
+    }
+
+    @Test
+    public void testRowLimit() {
+        final AsynchronousQueryResultImpl<Integer> result = result("select `id` from `person` LIMIT 2");
+        result.setCancelOnClose(true);
+        result.setFetchSize(10);
+        result.setRowLimit(2);
+        final List<Integer> ids = result.stream().limit(2).collect(toList());
+        result.close();
+        assertEquals(2, ids.size());
+        assertFalse(database.getLastQuery().isCancelled());
+        assertEquals(2, result.getRowLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRowLimit() {
+        result("select 1").setRowLimit(-1);
+    }
+
+    private AsynchronousQueryResultImpl<Integer> result(String sql) {
+        final SqlFunction<ResultSet, Integer> rsMapper = rs -> rs.getInt(1);
+        return new AsynchronousQueryResultImpl<>(sql, Collections.emptyList(), rsMapper.unWrap(), database::getConnection, new PostgresDbmsType());
+    }
+}
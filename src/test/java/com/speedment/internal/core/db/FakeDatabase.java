@@ -0,0 +1,356 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.db;
+
+import com.speedment.Speedment;
+import com.speedment.config.Dbms;
+import com.speedment.db.DbmsHandler;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Function;
+
+/**
+ * A database that records the queries that are sent to it and that answers
+ * them with rows from a responder. The JDBC objects are proxies that only
+ * implement the methods that Speedment uses to read rows.
+ *
+ * @author pemi
+ */
+public final class FakeDatabase {
+
+    private final List<Query> queries;
+    private final AtomicInteger connectionCount;
+    private final AtomicInteger openConnectionCount;
+    private Function<Query, List<Object[]>> responder;
+    private String url;
+    private boolean autoCommit;
+
+    public FakeDatabase() {
+        this.queries = Collections.synchronizedList(new ArrayList<>());
+        this.connectionCount = new AtomicInteger();
+        this.openConnectionCount = new AtomicInteger();
+        this.responder = q -> Collections.emptyList();
+        this.url = "jdbc:fake://localhost/db";
+        this.autoCommit = true;
+    }
+
+    /**
+     * Sets the function that returns the rows of a query. It is called when
+     * the query is executed, so the parameter values have been set.
+     *
+     * @param responder that returns the rows of a query
+     */
+    public void setResponder(Function<Query, List<Object[]>> responder) {
+        this.responder = requireNonNull(responder);
+    }
+
+    public void setUrl(String url) {
+        this.url = requireNonNull(url);
+    }
+
+    public boolean isAutoCommit() {
+        return autoCommit;
+    }
+
+    public List<Query> getQueries() {
+        synchronized (queries) {
+            return new ArrayList<>(queries);
+        }
+    }
+
+    public Query getLastQuery() {
+        final List<Query> all = getQueries();
+        return all.get(all.size() - 1);
+    }
+
+    public void clear() {
+        queries.clear();
+    }
+
+    /**
+     * Returns the number of connections that have been opened.
+     *
+     * @return the number of connections opened
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Returns the number of connections that have been opened but not yet
+     * closed.
+     *
+     * @return the number of open connections
+     */
+    public int getOpenConnectionCount() {
+        return openConnectionCount.get();
+    }
+
+    /**
+     * Returns a handler of the given database that reads from this fake
+     * database.
+     *
+     * @param speedment the Speedment instance
+     * @param dbms the database
+     * @return a handler that reads from this database
+     */
+    public DbmsHandler handler(Speedment speedment, Dbms dbms) {
+        return new AbstractRelationalDbmsHandler(speedment, dbms) {
+            @Override
+            public Connection getConnection() {
+                return FakeDatabase.this.getConnection();
+            }
+        };
+    }
+
+    public Connection getConnection() {
+        final int connection = connectionCount.incrementAndGet();
+        final AtomicBoolean closed = new AtomicBoolean();
+        openConnectionCount.incrementAndGet();
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement": {
+                    final Query query = new Query((String) args[0], connection);
+                    queries.add(query);
+                    return query.statement();
+                }
+                case "getAutoCommit": return autoCommit;
+                case "setAutoCommit": {
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                }
+                case "getMetaData": return proxy(DatabaseMetaData.class, (p, m, a) -> {
+                    if ("getURL".equals(m.getName())) {
+                        return url;
+                    }
+                    throw new UnsupportedOperationException(m.getName());
+                });
+                case "close": {
+                    if (closed.compareAndSet(false, true)) {
+                        openConnectionCount.decrementAndGet();
+                    }
+                    return null;
+                }
+                default: return objectMethod(proxy, method.getName(), args);
+            }
+        });
+    }
+
+    /**
+     * A query that has been prepared by the database.
+     */
+    public final class Query {
+
+        private final String sql;
+        private final int connection;
+        private final List<Object> values;
+        private volatile int queryTimeout;
+        private volatile int fetchSize;
+        private volatile int rowsRead;
+        private volatile Thread reader;
+        private volatile boolean executed;
+        private volatile boolean cancelled;
+        private volatile boolean closed;
+
+        private Query(String sql, int connection) {
+            this.sql = sql;
+            this.connection = connection;
+            this.values = Collections.synchronizedList(new ArrayList<>());
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Returns the number of the connection that prepared this query.
+         * The connections are numbered from 1 in the order they are opened.
+         *
+         * @return the number of the connection
+         */
+        public int getConnection() {
+            return connection;
+        }
+
+        public List<Object> getValues() {
+            synchronized (values) {
+                return new ArrayList<>(values);
+            }
+        }
+
+        public int getQueryTimeout() {
+            return queryTimeout;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        /**
+         * Returns the thread that last read a row of this query, or
+         * {@code null} if no row has been read.
+         *
+         * @return the thread that last read a row
+         */
+        public Thread getReader() {
+            return reader;
+        }
+
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " <- " + getValues();
+        }
+
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setObject": {
+                        final int index = (Integer) args[0];
+                        while (values.size() < index) {
+                            values.add(null);
+                        }
+                        values.set(index - 1, args[1]);
+                        return null;
+                    }
+                    case "setQueryTimeout": {
+                        queryTimeout = (Integer) args[0];
+                        return null;
+                    }
+                    case "setFetchSize": {
+                        fetchSize = (Integer) args[0];
+                        return null;
+                    }
+                    case "getFetchSize": return fetchSize;
+                    case "executeQuery": {
+                        executed = true;
+                        return resultSet(responder.apply(this));
+                    }
+                    case "cancel": {
+                        cancelled = true;
+                        return null;
+                    }
+                    case "close": {
+                        closed = true;
+                        return null;
+                    }
+                    default: return objectMethod(proxy, method.getName(), args);
+                }
+            });
+        }
+
+        private ResultSet resultSet(List<Object[]> rows) {
+            final int columnCount = rows.isEmpty() ? 0 : rows.get(0).length;
+            final int[] row = {-1};
+            final Object[] last = {null};
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                final String name = method.getName();
+                switch (name) {
+                    case "next": {
+                        reader = Thread.currentThread();
+                        if (cancelled || row[0] + 1 >= rows.size()) {
+                            row[0] = rows.size();
+                            return false;
+                        }
+                        row[0]++;
+                        rowsRead++;
+                        return true;
+                    }
+                    case "wasNull": return last[0] == null;
+                    case "close": return null;
+                    case "getMetaData": return proxy(ResultSetMetaData.class, (p, m, a) -> {
+                        if ("getColumnCount".equals(m.getName())) {
+                            return columnCount;
+                        }
+                        throw new UnsupportedOperationException(m.getName());
+                    });
+                    default: {
+                        if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof Integer) {
+                            last[0] = rows.get(row[0])[(Integer) args[0] - 1];
+                            return convert(last[0], method.getReturnType());
+                        }
+                        return objectMethod(proxy, name, args);
+                    }
+                }
+            });
+        }
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type == int.class) {
+            return value == null ? 0 : ((Number) value).intValue();
+        } else if (type == long.class) {
+            return value == null ? 0L : ((Number) value).longValue();
+        } else if (type == double.class) {
+            return value == null ? 0d : ((Number) value).doubleValue();
+        } else if (type == float.class) {
+            return value == null ? 0f : ((Number) value).floatValue();
+        } else if (type == short.class) {
+            return value == null ? (short) 0 : ((Number) value).shortValue();
+        } else if (type == byte.class) {
+            return value == null ? (byte) 0 : ((Number) value).byteValue();
+        } else if (type == boolean.class) {
+            return value == null ? false : (Boolean) value;
+        } else if (type == String.class) {
+            return value == null ? null : value.toString();
+        } else if (type == BigDecimal.class) {
+            return value == null || value instanceof BigDecimal ? value : new BigDecimal(value.toString());
+        }
+        return value;
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        switch (name) {
+            case "equals": return proxy == args[0];
+            case "hashCode": return System.identityHashCode(proxy);
+            case "toString": return FakeDatabase.class.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            default: throw new UnsupportedOperationException(name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> iface, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[]{iface}, handler);
+    }
+}
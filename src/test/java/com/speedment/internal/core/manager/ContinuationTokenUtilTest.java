@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class ContinuationTokenUtilTest {
+
+    @Test
+    public void testRoundTrip() {
+        final List<Object> values = Arrays.asList(
+            42, 4_000_000_000L, "a.b:c/d", "", new BigDecimal("1.50"),
+            Timestamp.valueOf("2015-12-01 10:11:12.123456789"), LocalDate.of(2015, 12, 1)
+        );
+        final String token = ContinuationTokenUtil.encode(values);
+        assertTrue(token, token.matches("[A-Za-z0-9_.-]+"));
+        assertEquals(values, ContinuationTokenUtil.decode(token, values.size()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        ContinuationTokenUtil.encode(Arrays.asList(new Object()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongSize() {
+        ContinuationTokenUtil.decode(ContinuationTokenUtil.encode(Arrays.asList(1, 2)), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        // "Integer:x"
+        ContinuationTokenUtil.decode("SW50ZWdlcjp4", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() {
+        // "Object:x"
+        ContinuationTokenUtil.decode("T2JqZWN0Ong", 1);
+    }
+
+}
@@ -0,0 +1,178 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.internal.util.tuple.Tuple2;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class ForeignKeyResolverTest {
+
+    private static final String SQL = "select `id`,`name`,`age`,`boss` from `hr`.`person` where ";
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 52, null),
+        new Person(2, "Bob", 41, 1),
+        new Person(3, "Cy", 33, 1),
+        new Person(4, "Dee", 25, 2),
+        new Person(5, "Eve", 29, 9)
+    );
+
+    private FakeDatabase database;
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> PERSONS.stream()
+            .filter(p -> q.getValues().contains(p.getId()))
+            .map(Person::toRow)
+            .collect(Collectors.toList())
+        );
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+    }
+
+    @Test
+    public void testOneQueryPerBatch() {
+        final List<Tuple2<Person, Optional<Person>>> result = findForeign(PERSONS.stream(), 2);
+        assertEquals(PERSONS, result.stream().map(Tuple2::get0).collect(Collectors.toList()));
+        assertEquals(
+            Arrays.asList(Optional.empty(), Optional.of(PERSONS.get(0)), Optional.of(PERSONS.get(0)), Optional.of(PERSONS.get(1)), Optional.empty()),
+            result.stream().map(Tuple2::get1).collect(Collectors.toList())
+        );
+
+        // The batches are [1, 2], [3, 4] and [5]
+        final List<FakeDatabase.Query> queries = database.getQueries();
+        assertEquals(3, queries.size());
+        assertQuery(queries.get(0), 1);
+        assertQuery(queries.get(1), 1, 2);
+        assertQuery(queries.get(2), 9);
+    }
+
+    @Test
+    public void testBatchOfExactSize() {
+        findForeign(PERSONS.subList(1, 5).stream(), 2);
+        final List<FakeDatabase.Query> queries = database.getQueries();
+        assertEquals(2, queries.size());
+        assertQuery(queries.get(0), 1);
+        assertQuery(queries.get(1), 2, 9);
+    }
+
+    @Test
+    public void testSingleBatch() {
+        findForeign(PERSONS.stream(), 500);
+        final List<FakeDatabase.Query> queries = database.getQueries();
+        assertEquals(1, queries.size());
+        assertQuery(queries.get(0), 1, 2, 9);
+    }
+
+    @Test
+    public void testBatchOfOne() {
+        final List<Tuple2<Person, Optional<Person>>> result = findForeign(PERSONS.stream(), 1);
+        assertEquals(5, result.size());
+        // There is no query for the null foreign key of the first entity
+        assertEquals(4, database.getQueries().size());
+    }
+
+    @Test
+    public void testNullForeignKeys() {
+        final List<Tuple2<Person, Optional<Person>>> result = findForeign(Stream.of(PERSONS.get(0), new Person(6, "Fay", 30, null)), 2);
+        assertEquals(Arrays.asList(Optional.empty(), Optional.empty()), result.stream().map(Tuple2::get1).collect(Collectors.toList()));
+        assertTrue(database.getQueries().isEmpty());
+    }
+
+    @Test
+    public void testMissingReferencedEntity() {
+        final List<Tuple2<Person, Optional<Person>>> result = findForeign(Stream.of(PERSONS.get(4)), 2);
+        assertEquals(1, result.size());
+        assertEquals(PERSONS.get(4), result.get(0).get0());
+        assertEquals(Optional.empty(), result.get(0).get1());
+        assertQuery(database.getLastQuery(), 9);
+    }
+
+    @Test
+    public void testEmptyStream() {
+        assertTrue(findForeign(Stream.empty(), 2).isEmpty());
+        assertTrue(database.getQueries().isEmpty());
+    }
+
+    @Test
+    public void testBatchesAreReadLazily() {
+        try (final Stream<Tuple2<Person, Optional<Person>>> stream = manager.findForeign(PERSONS.stream(), Person.BOSS, 2)) {
+            assertEquals(PERSONS.get(0), stream.findFirst().get().get0());
+        }
+        assertEquals(1, database.getQueries().size());
+    }
+
+    @Test
+    public void testClosesSourceStream() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<Person> source = PERSONS.stream().onClose(() -> closed.set(true));
+        try (final Stream<Tuple2<Person, Optional<Person>>> stream = manager.findForeign(source, Person.BOSS, 2)) {
+            stream.limit(1).forEach(t -> {});
+            assertFalse(closed.get());
+        }
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testClosesReferencedStreams() {
+        findForeign(PERSONS.stream(), 2);
+        assertTrue(database.getQueries().stream().allMatch(FakeDatabase.Query::isClosed));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchSizeMustBePositive() {
+        manager.findForeign(PERSONS.stream(), Person.BOSS, 0);
+    }
+
+    private List<Tuple2<Person, Optional<Person>>> findForeign(Stream<Person> stream, int batchSize) {
+        try (final Stream<Tuple2<Person, Optional<Person>>> result = manager.findForeign(stream, Person.BOSS, batchSize)) {
+            return result.collect(Collectors.toList());
+        }
+    }
+
+    private static void assertQuery(FakeDatabase.Query query, Integer... values) {
+        // A single value is rendered as an equality
+        final String condition = values.length == 1
+            ? "(`id` = ?)"
+            : "(`id` IN (" + Collections.nCopies(values.length, "?").stream().collect(Collectors.joining(",")) + "))";
+        assertEquals(SQL + condition, query.getSql());
+        final List<Object> actual = new ArrayList<>(query.getValues());
+        actual.sort(null);
+        assertEquals(Arrays.asList((Object[]) values), actual);
+    }
+}
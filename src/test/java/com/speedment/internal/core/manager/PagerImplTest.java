@@ -0,0 +1,180 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager;
+
+import com.speedment.config.Index;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.Page;
+import com.speedment.stream.Pager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class PagerImplTest {
+
+    private static final String SELECT = "select `id`,`name`,`age`,`boss` from `hr`.`person`";
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 25, null),
+        new Person(2, "Bob", 33, 1),
+        new Person(3, "Cy", 33, 1),
+        new Person(4, "Dee", 41, 2),
+        new Person(5, "Eve", 52, 2)
+    );
+
+    private FakeDatabase database;
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+    }
+
+    @Test
+    public void testFirstPage() {
+        respond(PERSONS.subList(0, 3));
+        final Page<Person> page = manager.pager(Person.ID).pageSize(2).firstPage();
+        assertEquals(PERSONS.subList(0, 2), page.getContent());
+        assertTrue(page.getContinuationToken().isPresent());
+        assertEquals(SELECT + " ORDER BY `id` ASC LIMIT ?", database.getLastQuery().getSql());
+        // One more entity than the page size is read
+        assertEquals(Arrays.asList(3L), database.getLastQuery().getValues());
+    }
+
+    @Test
+    public void testNextPage() {
+        respond(PERSONS.subList(0, 3), PERSONS.subList(2, 5));
+        final Pager<Person> pager = manager.pager(Person.ID).pageSize(2);
+        final String token = pager.firstPage().getContinuationToken().get();
+        assertEquals(Arrays.asList(2), ContinuationTokenUtil.decode(token, 1));
+
+        final Page<Person> page = pager.nextPage(token);
+        assertEquals(PERSONS.subList(2, 4), page.getContent());
+        assertEquals(SELECT + " where (`id` > ?) ORDER BY `id` ASC LIMIT ?", database.getLastQuery().getSql());
+        assertEquals(Arrays.asList(2, 3L), database.getLastQuery().getValues());
+        assertEquals(Arrays.asList(4), ContinuationTokenUtil.decode(page.getContinuationToken().get(), 1));
+    }
+
+    @Test
+    public void testLastPage() {
+        respond(PERSONS.subList(3, 5));
+        final Page<Person> page = manager.pager(Person.ID).pageSize(2).nextPage(ContinuationTokenUtil.encode(Collections.singletonList(3)));
+        assertEquals(PERSONS.subList(3, 5), page.getContent());
+        assertEquals(Optional.empty(), page.getContinuationToken());
+    }
+
+    @Test
+    public void testEmptyPage() {
+        respond(Collections.emptyList());
+        final Page<Person> page = manager.pager(Person.ID).firstPage();
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(Optional.empty(), page.getContinuationToken());
+    }
+
+    @Test
+    public void testMultiColumnKeys() {
+        manager.getTable().findColumn("age").setNullable(false);
+        respond(PERSONS.subList(0, 3), PERSONS.subList(2, 5));
+        final Pager<Person> pager = manager.pager(Person.AGE).thenOrderBy(Person.ID).pageSize(2);
+        final String token = pager.firstPage().getContinuationToken().get();
+        assertEquals(SELECT + " ORDER BY `age` ASC, `id` ASC LIMIT ?", database.getLastQuery().getSql());
+        assertEquals(Arrays.asList(33, 2), ContinuationTokenUtil.decode(token, 2));
+
+        pager.nextPage(token);
+        // age > 33 OR (age = 33 AND id > 2)
+        assertEquals(
+            SELECT + " where ((`age` > ?) OR ((`age` = ?) AND (`id` > ?))) ORDER BY `age` ASC, `id` ASC LIMIT ?",
+            database.getLastQuery().getSql()
+        );
+        assertEquals(Arrays.asList(33, 33, 2, 3L), database.getLastQuery().getValues());
+    }
+
+    @Test
+    public void testFilter() {
+        respond(PERSONS.subList(1, 3));
+        manager.pager(Person.ID).filter(Person.AGE.greaterThan(30)).pageSize(2).nextPage(ContinuationTokenUtil.encode(Collections.singletonList(1)));
+        assertEquals(SELECT + " where (`age` > ?) AND (`id` > ?) ORDER BY `id` ASC LIMIT ?", database.getLastQuery().getSql());
+        assertEquals(Arrays.asList(30, 1, 3L), database.getLastQuery().getValues());
+    }
+
+    @Test
+    public void testStream() {
+        respond(PERSONS.subList(0, 3), PERSONS.subList(2, 5), PERSONS.subList(4, 5));
+        assertEquals(PERSONS, manager.pager(Person.ID).pageSize(2).stream().collect(Collectors.toList()));
+        assertEquals(3, database.getQueries().size());
+    }
+
+    @Test
+    public void testUniqueIndex() {
+        manager.getTable().findColumn("age").setNullable(false);
+        final Index index = manager.getTable().addNewIndex();
+        index.setName("age_index");
+        index.setUnique(true);
+        index.addNewIndexColumn().setName("age");
+        respond(Collections.emptyList());
+        assertTrue(manager.pager(Person.AGE).firstPage().getContent().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullableKey() {
+        manager.pager(Person.AGE).thenOrderBy(Person.ID).firstPage();
+    }
+
+    @Test
+    public void testNonUniqueKey() {
+        manager.getTable().findColumn("age").setNullable(false);
+        try {
+            manager.pager(Person.AGE).firstPage();
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("uniquely"));
+            assertTrue(database.getQueries().isEmpty());
+            return;
+        }
+        assertFalse("A key that is not unique was accepted", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTokenOfOtherKeys() {
+        manager.pager(Person.ID).nextPage(ContinuationTokenUtil.encode(Arrays.asList(1, 2)));
+    }
+
+    /**
+     * Answers the queries with the given rows, in order.
+     */
+    @SafeVarargs
+    private final void respond(List<Person>... pages) {
+        database.setResponder(q -> pages[database.getQueries().size() - 1].stream()
+            .map(Person::toRow)
+            .collect(Collectors.toList())
+        );
+    }
+}
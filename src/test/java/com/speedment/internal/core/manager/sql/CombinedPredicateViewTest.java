@@ -0,0 +1,70 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.field.Entity;
+import com.speedment.internal.field.EntityImpl;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import static com.speedment.internal.field.Entity.ID;
+import static com.speedment.internal.field.Entity.NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class CombinedPredicateViewTest {
+
+    private final SpeedmentPredicateView view = new MySqlDbmsType().getSpeedmentPredicateView();
+
+    @Test
+    public void testAnd() {
+        final SqlPredicateFragment fragment = transform(ID.equal(1).and(NAME.equal("a")));
+        assertEquals("((`id` = ?) AND (`name` = ?))", fragment.getSql());
+        assertEquals(Arrays.asList(1, "a"), Arrays.asList(fragment.objects().toArray()));
+    }
+
+    @Test
+    public void testNestedOr() {
+        final SqlPredicateFragment fragment = transform(ID.equal(1).or(ID.equal(2)).and(NAME.equal("a")));
+        assertEquals("(((`id` = ?) OR (`id` = ?)) AND (`name` = ?))", fragment.getSql());
+        assertEquals(Arrays.asList(1, 2, "a"), Arrays.asList(fragment.objects().toArray()));
+    }
+
+    @Test
+    public void testNegated() {
+        final SqlPredicateFragment fragment = transform(ID.equal(1).or(NAME.equal("a")).negate());
+        assertEquals("(NOT((`id` = ?) OR (`name` = ?)))", fragment.getSql());
+    }
+
+    @Test
+    public void testNegatedCombinationIsNotFlattened() {
+        final Predicate<Entity> predicate = ID.equal(1).and(NAME.equal("a")).negate().and(ID.equal(2));
+        assertEquals("((NOT((`id` = ?) AND (`name` = ?))) AND (`id` = ?))", transform(predicate).getSql());
+        assertTrue(predicate.test(new EntityImpl(2, "b")));
+        assertFalse(predicate.test(new EntityImpl(1, "a")));
+    }
+
+    private SqlPredicateFragment transform(Predicate<Entity> predicate) {
+        return view.transform(predicate, view::transform);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.db.QueryPlan;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import static com.speedment.field.methods.NumberGetters.asInt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class ExplainTest {
+
+    private FakeDatabase database;
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+    }
+
+    @Test
+    public void testEverythingPushedDown() {
+        final QueryPlan plan = manager.explain(s -> s.filter(Person.AGE.greaterThan(30)).sorted(Person.ID.comparator()).limit(10));
+        assertEquals("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?) ORDER BY `id` ASC LIMIT ?", plan.getSql());
+        assertEquals(Arrays.asList(30, 10L), plan.getValues());
+        assertEquals(Arrays.asList("Filter", "Sorted", "Limit"), plan.getSqlActions());
+        assertEquals(Collections.emptyList(), plan.getJavaActions());
+        assertEquals(Optional.empty(), plan.getDatabasePlan());
+        assertTrue(database.getQueries().isEmpty());
+    }
+
+    @Test
+    public void testRenderedFiltersAreCheckedInJava() {
+        final QueryPlan plan = manager.explain(s -> s.filter(Person.AGE.greaterThan(30)).filter(p -> p.getName() != null).map(Person::getName));
+        assertEquals("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?)", plan.getSql());
+        assertEquals(Arrays.asList(30), plan.getValues());
+        assertEquals(Arrays.asList("Filter"), plan.getSqlActions());
+        assertEquals(Arrays.asList("Filter", "Filter", "Map"), plan.getJavaActions());
+    }
+
+    @Test
+    public void testProjection() {
+        final QueryPlan plan = manager.explain(s -> s.filter(Person.AGE.greaterThan(30)).mapToInt(asInt(Person.ID)));
+        assertEquals("select `id` from `hr`.`person` where (`age` > ?)", plan.getSql());
+        assertEquals(Arrays.asList("Filter", "MapToInt"), plan.getSqlActions());
+        // The column value is unboxed in Java
+        assertEquals(Arrays.asList("MapToInt"), plan.getJavaActions());
+    }
+
+    @Test
+    public void testNothingPushedDown() {
+        final QueryPlan plan = manager.explain(s -> s.filter(p -> p.getAge() != null).sorted(Person.NAME.comparator()).distinct());
+        assertEquals("select `id`,`name`,`age`,`boss` from `hr`.`person`", plan.getSql());
+        assertEquals(Collections.emptyList(), plan.getValues());
+        assertEquals(Collections.emptyList(), plan.getSqlActions());
+        assertEquals(Arrays.asList("Filter", "Sorted", "Distinct"), plan.getJavaActions());
+        assertEquals(
+            "{sql=select `id`,`name`,`age`,`boss` from `hr`.`person`, values=[], sqlActions=[], javaActions=[Filter, Sorted, Distinct]}",
+            plan.toString()
+        );
+    }
+
+    @Test
+    public void testDatabasePlan() {
+        database.setResponder(q -> Arrays.asList(
+            new Object[]{1, "SIMPLE", "person", "range"},
+            new Object[]{2, "SIMPLE", null, "ALL"}
+        ));
+        final QueryPlan plan = manager.explain(s -> s.filter(Person.NAME.equal("Ada")).skip(1), true);
+        assertEquals("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`name` = ?) LIMIT ? OFFSET ?", plan.getSql());
+        assertEquals(Optional.of(Arrays.asList("1\tSIMPLE\tperson\trange", "2\tSIMPLE\tnull\tALL")), plan.getDatabasePlan());
+        final FakeDatabase.Query query = database.getLastQuery();
+        assertEquals("EXPLAIN " + plan.getSql(), query.getSql());
+        assertEquals(Arrays.asList("Ada", Long.MAX_VALUE, 1L), query.getValues());
+        assertEquals(1, database.getQueries().size());
+    }
+}
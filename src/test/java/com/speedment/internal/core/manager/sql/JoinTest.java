@@ -0,0 +1,184 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.util.tuple.Tuple2;
+import com.speedment.stream.Joiner;
+import com.speedment.stream.StreamDecorator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class JoinTest {
+
+    private static final String SQL = "select a.`id`,a.`name`,a.`age`,a.`boss`,b.`id`,b.`name`,b.`age`,b.`boss`"
+        + " from `hr`.`person` a inner join `hr`.`person` b on a.`boss` = b.`id`";
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 52, null),
+        new Person(2, "Bob", 41, 1),
+        new Person(3, "Cy", 33, 1),
+        new Person(4, "Dee", 25, 2),
+        new Person(5, "Eve", 29, 9)
+    );
+
+    private FakeDatabase database;
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        // The rows of the inner join, without the where clause
+        database.setResponder(q -> PERSONS.stream()
+            .flatMap(a -> PERSONS.stream()
+                .filter(b -> b.getId().equals(a.getBoss()))
+                .map(b -> Stream.of(a.toRow(), b.toRow()).flatMap(Arrays::stream).toArray())
+            )
+            .collect(Collectors.toList())
+        );
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+    }
+
+    @Test
+    public void testJoin() {
+        final List<Tuple2<Person, Person>> result = join(manager.join(Person.BOSS).stream());
+        assertEquals(SQL, database.getLastQuery().getSql());
+        assertEquals(Collections.emptyList(), database.getLastQuery().getValues());
+        assertEquals(1, database.getQueries().size());
+
+        // Entities without a referenced entity are not included
+        assertEquals(Arrays.asList(PERSONS.get(1), PERSONS.get(2), PERSONS.get(3)), result.stream().map(Tuple2::get0).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(PERSONS.get(0), PERSONS.get(0), PERSONS.get(1)), result.stream().map(Tuple2::get1).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFiltersOnBothSides() {
+        join(manager.join(Person.BOSS)
+            .filter(Person.AGE.greaterThan(30))
+            .filterForeign(Person.NAME.equal("Ada"))
+            .stream()
+        );
+        assertEquals(SQL + " where (a.`age` > ?) AND (b.`name` = ?)", database.getLastQuery().getSql());
+        assertEquals(Arrays.asList(30, "Ada"), database.getLastQuery().getValues());
+    }
+
+    @Test
+    public void testConjunctsAreRendered() {
+        join(manager.join(Person.BOSS)
+            .filter(Person.AGE.greaterThan(30).and(Person.NAME.startsWith("B")))
+            .filterForeign(Person.ID.in(1, 2))
+            .stream()
+        );
+        assertEquals(
+            SQL + " where (a.`age` > ?) AND (a.`name` LIKE BINARY CONCAT(? ,'%')) AND (b.`id` IN (?,?))",
+            database.getLastQuery().getSql()
+        );
+        assertEquals(Arrays.asList(30, "B", 1, 2), database.getLastQuery().getValues());
+    }
+
+    @Test
+    public void testOtherPredicatesAreTestedInJava() {
+        final List<Tuple2<Person, Person>> result = join(manager.join(Person.BOSS)
+            .filter(p -> p.getAge() < 40)
+            .filterForeign(p -> p.getName().startsWith("A"))
+            .stream()
+        );
+        assertEquals(SQL, database.getLastQuery().getSql());
+        assertEquals(1, result.size());
+        assertEquals(PERSONS.get(2), result.get(0).get0());
+        assertEquals(PERSONS.get(0), result.get(0).get1());
+    }
+
+    @Test
+    public void testMixedPredicates() {
+        final List<Tuple2<Person, Person>> result = join(manager.join(Person.BOSS)
+            .filter(Person.AGE.greaterThan(20).and(p -> p.getName().length() > 2))
+            .stream()
+        );
+        assertEquals(SQL + " where (a.`age` > ?)", database.getLastQuery().getSql());
+        assertEquals(Arrays.asList(20), database.getLastQuery().getValues());
+        // Only the predicate that is not rendered is tested in Java
+        assertEquals(Arrays.asList(PERSONS.get(1), PERSONS.get(3)), result.stream().map(Tuple2::get0).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testJoinerIsImmutable() {
+        final Joiner<Person, Person> joiner = manager.join(Person.BOSS);
+        joiner.filter(Person.AGE.greaterThan(30));
+        join(joiner.stream());
+        assertEquals(SQL, database.getLastQuery().getSql());
+    }
+
+    @Test
+    public void testClosesQuery() {
+        join(manager.join(Person.BOSS).stream());
+        assertTrue(database.getLastQuery().isClosed());
+    }
+
+    @Test
+    public void testQueryIsExecutedByTerminalOperation() {
+        final Stream<Tuple2<Person, Person>> stream = manager.join(Person.BOSS).stream()
+            .filter(t -> t.get0().getAge() > 30);
+        assertTrue(database.getQueries().isEmpty());
+        assertEquals(2, join(stream).size());
+        assertEquals(1, database.getQueries().size());
+    }
+
+    @Test
+    public void testClosingUnusedStreamExecutesNoQuery() {
+        manager.join(Person.BOSS).stream().close();
+        assertTrue(database.getQueries().isEmpty());
+    }
+
+    @Test
+    public void testDefaultQueryTimeout() {
+        manager.dbmsHandler().setQueryTimeout(7);
+        join(manager.join(Person.BOSS).stream());
+        assertEquals(7, database.getLastQuery().getQueryTimeout());
+        assertEquals(StreamDecorator.IDENTITY.getFetchSize(), database.getLastQuery().getFetchSize());
+    }
+
+    @Test
+    public void testReferencedValuesAreDeduplicated() {
+        final ValueDictionary<String> dictionary = manager.newValueDictionary("name");
+        final String ada = dictionary.intern(new String("Ada"));
+        final List<Tuple2<Person, Person>> result = join(manager.join(Person.BOSS).stream());
+        // The names of the referenced entities are read through the dictionary
+        assertSame(ada, result.get(0).get1().getName());
+        assertSame(ada, result.get(1).get1().getName());
+        assertEquals(4, dictionary.getReads());
+    }
+
+    private static List<Tuple2<Person, Person>> join(Stream<Tuple2<Person, Person>> stream) {
+        try (final Stream<Tuple2<Person, Person>> s = stream) {
+            return s.collect(Collectors.toList());
+        }
+    }
+}
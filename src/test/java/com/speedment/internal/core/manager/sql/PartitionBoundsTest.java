@@ -0,0 +1,47 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class PartitionBoundsTest {
+
+    @Test
+    public void testEvenRange() {
+        assertEquals(Arrays.asList(3L, 6L), SqlStreamTerminator.partitionBounds(0, 9, 3));
+        assertEquals(Arrays.asList(25L, 50L, 75L), SqlStreamTerminator.partitionBounds(0, 99, 4));
+    }
+
+    @Test
+    public void testSmallRange() {
+        assertEquals(Collections.singletonList(6L), SqlStreamTerminator.partitionBounds(5, 6, 4));
+        assertEquals(Collections.emptyList(), SqlStreamTerminator.partitionBounds(7, 7, 4));
+    }
+
+    @Test
+    public void testFullRange() {
+        assertEquals(Arrays.asList(0L), SqlStreamTerminator.partitionBounds(Long.MIN_VALUE, Long.MAX_VALUE, 2));
+    }
+
+}
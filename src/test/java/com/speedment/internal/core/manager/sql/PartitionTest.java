@@ -0,0 +1,204 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.config.Column;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.config.mapper.identity.StringIdentityMapper;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.stream.StreamDecorator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class PartitionTest {
+
+    private static final String SELECT = "select `id`,`name`,`age`,`boss` from `hr`.`person`";
+    private static final String RANGE = "select min(`id`), max(`id`) from `hr`.`person`";
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 36, null),
+        new Person(2, "Bob", 25, 1),
+        new Person(3, "Cid", 41, 1),
+        new Person(4, "Dee", 52, 2),
+        new Person(5, "Eve", 30, 2)
+    );
+
+    private FakeDatabase database;
+    private PersonManager manager;
+    private List<Person> persons;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        persons = PERSONS;
+        database.setResponder(this::respond);
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+    }
+
+    @Test
+    public void testKeyRangeIsSplit() {
+        assertEquals(PERSONS, read(() -> manager.stream(StreamDecorator.partitioned(3)).parallel()));
+
+        final List<FakeDatabase.Query> queries = database.getQueries();
+        assertEquals(4, queries.size());
+        assertQuery(queries.get(0), RANGE);
+        assertPartitions(
+            SELECT + " where (`id` < ?) [2]",
+            SELECT + " where (`id` >= ? AND `id` < ?) [2, 4]",
+            SELECT + " where (`id` >= ?) [4]"
+        );
+    }
+
+    @Test
+    public void testEachPartitionHasItsOwnConnection() {
+        read(() -> manager.stream(StreamDecorator.partitioned(3)).parallel());
+
+        final List<FakeDatabase.Query> partitions = database.getQueries().subList(1, 4);
+        final Set<Integer> connections = partitions.stream().map(FakeDatabase.Query::getConnection).collect(toSet());
+        assertEquals(3, connections.size());
+        assertTrue(partitions.stream().allMatch(FakeDatabase.Query::isExecuted));
+        assertTrue(partitions.stream().allMatch(FakeDatabase.Query::isClosed));
+        assertEquals(0, database.getOpenConnectionCount());
+    }
+
+    @Test
+    public void testPartitionsAreFiltered() {
+        assertEquals(Arrays.asList(PERSONS.get(0), PERSONS.get(2), PERSONS.get(3)),
+            read(() -> manager.stream(StreamDecorator.partitioned(2)).parallel().filter(Person.AGE.greaterThan(30)))
+        );
+
+        final List<FakeDatabase.Query> queries = database.getQueries();
+        assertEquals(3, queries.size());
+        assertQuery(queries.get(0), RANGE + " where (`age` > ?)", 30);
+        assertPartitions(
+            SELECT + " where (`age` > ?) AND (`id` < ?) [30, 3]",
+            SELECT + " where (`age` > ?) AND (`id` >= ?) [30, 3]"
+        );
+    }
+
+    @Test
+    public void testEmptyTableIsNotSplit() {
+        persons = Collections.emptyList();
+        assertEquals(Collections.emptyList(), read(() -> manager.stream(StreamDecorator.partitioned(3)).parallel()));
+        assertQueries(RANGE, SELECT);
+    }
+
+    @Test
+    public void testSingleRowIsNotSplit() {
+        persons = PERSONS.subList(2, 3);
+        assertEquals(persons, read(() -> manager.stream(StreamDecorator.partitioned(3)).parallel()));
+        assertQueries(RANGE, SELECT);
+    }
+
+    @Test
+    public void testSequentialStreamIsNotSplit() {
+        assertEquals(PERSONS, read(() -> manager.stream(StreamDecorator.partitioned(3))));
+        assertQueries(SELECT);
+    }
+
+    @Test
+    public void testNonNumericKeyIsNotSplit() {
+        column("id").setTypeMapper(new StringIdentityMapper());
+        assertEquals(PERSONS, read(() -> manager.stream(StreamDecorator.partitioned(3)).parallel()));
+        assertQueries(SELECT);
+    }
+
+    @Test
+    public void testCompositeKeyIsNotSplit() {
+        manager.getTable().addNewPrimaryKeyColumn().setName("name");
+        assertEquals(PERSONS, read(() -> manager.stream(StreamDecorator.partitioned(3)).parallel()));
+        assertQueries(SELECT);
+    }
+
+    private List<Object[]> respond(FakeDatabase.Query query) {
+        final String sql = query.getSql();
+        if (sql.startsWith("select min(")) {
+            // The minimum and maximum of no rows are null
+            return Collections.singletonList(persons.isEmpty()
+                ? new Object[]{null, null}
+                : new Object[]{persons.get(0).getId(), persons.get(persons.size() - 1).getId()}
+            );
+        }
+        // The where clause is not evaluated, apart from the key range
+        final List<Object> values = query.getValues();
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        if (sql.endsWith("`id` < ?)")) {
+            to = (Long) values.get(values.size() - 1);
+            if (sql.endsWith("(`id` >= ? AND `id` < ?)")) {
+                from = (Long) values.get(values.size() - 2);
+            }
+        } else if (sql.endsWith("(`id` >= ?)")) {
+            from = (Long) values.get(values.size() - 1);
+        }
+        final long lower = from;
+        final long upper = to;
+        return persons.stream()
+            .filter(p -> p.getId() >= lower && p.getId() < upper)
+            .map(Person::toRow)
+            .collect(toList());
+    }
+
+    private static List<Person> read(Supplier<Stream<Person>> supplier) {
+        try (final Stream<Person> stream = supplier.get()) {
+            return stream.sorted(Comparator.comparing(Person::getId)).collect(toList());
+        }
+    }
+
+    private Column column(String name) {
+        return manager.getTable().streamOfColumns()
+            .filter(c -> name.equals(c.getName()))
+            .findAny()
+            .get();
+    }
+
+    private void assertQueries(String... sqls) {
+        assertEquals(Arrays.asList(sqls), database.getQueries().stream().map(FakeDatabase.Query::getSql).collect(toList()));
+    }
+
+    private void assertPartitions(String... queries) {
+        // The partitions may be executed in any order
+        assertEquals(
+            new HashSet<>(Arrays.asList(queries)),
+            database.getQueries().stream()
+                .skip(1)
+                .map(q -> q.getSql() + " " + q.getValues())
+                .collect(toSet())
+        );
+    }
+
+    private static void assertQuery(FakeDatabase.Query query, String sql, Object... values) {
+        assertEquals(sql, query.getSql());
+        assertEquals(Arrays.asList(values), query.getValues());
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.field.ComparableField;
+import com.speedment.field.ComparableForeignKeyField;
+import com.speedment.field.StringField;
+import com.speedment.internal.core.field.ComparableFieldImpl;
+import com.speedment.internal.core.field.ComparableForeignKeyFieldImpl;
+import com.speedment.internal.core.field.StringFieldImpl;
+import java.util.Objects;
+
+/**
+ * An entity of the {@code person} table that is read by
+ * {@link PersonManager}. The {@code boss} column references the {@code id}
+ * column of the same table.
+ *
+ * @author pemi
+ */
+public final class Person {
+
+    public final static ComparableField<Person, Integer> ID = new ComparableFieldImpl<>("id", Person::getId, Person::setId);
+    public final static StringField<Person> NAME = new StringFieldImpl<>("name", Person::getName, Person::setName);
+    public final static ComparableField<Person, Integer> AGE = new ComparableFieldImpl<>("age", Person::getAge, Person::setAge);
+    public final static ComparableForeignKeyField<Person, Integer, Person> BOSS = new ComparableForeignKeyFieldImpl<>("boss", Person::getBoss, Person::setBoss, p -> {
+        throw new UnsupportedOperationException("Use a manager to find the boss.");
+    });
+
+    private Integer id;
+    private String name;
+    private Integer age;
+    private Integer boss;
+
+    public Person() {
+    }
+
+    public Person(Integer id, String name, Integer age, Integer boss) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.boss = boss;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Person setId(Integer id) {
+        this.id = id;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Person setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public Person setAge(Integer age) {
+        this.age = age;
+        return this;
+    }
+
+    public Integer getBoss() {
+        return boss;
+    }
+
+    public Person setBoss(Integer boss) {
+        this.boss = boss;
+        return this;
+    }
+
+    /**
+     * Returns the columns of this entity in the order they are selected.
+     *
+     * @return the column values
+     */
+    public Object[] toRow() {
+        return new Object[]{id, name, age, boss};
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Person)) {
+            return false;
+        }
+        final Person other = (Person) obj;
+        return Objects.equals(id, other.id)
+            && Objects.equals(name, other.name)
+            && Objects.equals(age, other.age)
+            && Objects.equals(boss, other.boss);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, age, boss);
+    }
+
+    @Override
+    public String toString() {
+        return Person.class.getSimpleName() + " { id: " + id + ", name: \"" + name + "\", age: " + age + ", boss: " + boss + "}";
+    }
+}
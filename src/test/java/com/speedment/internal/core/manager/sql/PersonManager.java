@@ -0,0 +1,186 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.Speedment;
+import com.speedment.config.Column;
+import com.speedment.config.Dbms;
+import com.speedment.config.ForeignKey;
+import com.speedment.config.ForeignKeyColumn;
+import com.speedment.config.PrimaryKeyColumn;
+import com.speedment.config.Project;
+import com.speedment.config.Schema;
+import com.speedment.config.Table;
+import com.speedment.config.mapper.TypeMapper;
+import com.speedment.config.parameters.DbmsType;
+import com.speedment.db.DbmsHandler;
+import com.speedment.internal.core.config.immutable.ImmutableProject;
+import com.speedment.internal.core.config.mapper.identity.IntegerIdentityMapper;
+import com.speedment.internal.core.config.mapper.identity.StringIdentityMapper;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.platform.SpeedmentFactory;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A manager of the {@code person} table that reads from a
+ * {@link FakeDatabase}, so that the queries that the manager renders can be
+ * inspected.
+ *
+ * @author pemi
+ */
+public final class PersonManager extends AbstractSqlManager<Person> {
+
+    private final DbmsHandler dbmsHandler;
+    private final AtomicInteger newInstances = new AtomicInteger();
+
+    private PersonManager(Speedment speedment, FakeDatabase database) {
+        super(speedment);
+        this.dbmsHandler = requireNonNull(database).handler(speedment, getDbms());
+        setSqlEntityMapper(rs -> new Person()
+            .setId(getInt(rs, 1))
+            .setName(getString(rs, 2))
+            .setAge(getInt(rs, 3))
+            .setBoss(getInt(rs, 4))
+        );
+    }
+
+    /**
+     * Creates a manager of a mutable {@code person} table in a database of
+     * the given type and registers it with a new Speedment instance.
+     *
+     * @param dbmsType the type of the database
+     * @param database to read from
+     * @return the manager
+     */
+    public static PersonManager create(DbmsType dbmsType, FakeDatabase database) {
+        return create(dbmsType, database, false);
+    }
+
+    /**
+     * Creates a manager of a {@code person} table in a database of the given
+     * type and registers it with a new Speedment instance.
+     *
+     * @param dbmsType the type of the database
+     * @param database to read from
+     * @param immutable if the table shall be immutable
+     * @return the manager
+     */
+    public static PersonManager create(DbmsType dbmsType, FakeDatabase database, boolean immutable) {
+        final Speedment speedment = SpeedmentFactory.newSpeedmentInstance();
+        final Project project = Project.newProject(speedment);
+        final Dbms dbms = project.addNewDbms();
+        dbms.setName("db");
+        dbms.setType(dbmsType);
+        final Schema schema = dbms.addNewSchema();
+        schema.setName("hr");
+        final Table table = schema.addNewTable();
+        table.setName("person");
+        addColumn(table, "id", IntegerIdentityMapper.class, false);
+        addColumn(table, "name", StringIdentityMapper.class, true);
+        addColumn(table, "age", IntegerIdentityMapper.class, true);
+        addColumn(table, "boss", IntegerIdentityMapper.class, true);
+        final PrimaryKeyColumn pk = table.addNewPrimaryKeyColumn();
+        pk.setName("id");
+        final ForeignKey fk = table.addNewForeignKey();
+        fk.setName("person_boss");
+        final ForeignKeyColumn fkc = fk.addNewForeignKeyColumn();
+        fkc.setName("boss");
+        fkc.setForeignTableName("person");
+        fkc.setForeignColumnName("id");
+        speedment.getProjectComponent().setProject(immutable ? new ImmutableProject(project) : project);
+
+        final PersonManager manager = new PersonManager(speedment, database);
+        speedment.getManagerComponent().put(manager);
+        return manager;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void addColumn(Table table, String name, Class<? extends TypeMapper> typeMapper, boolean nullable) {
+        final Column column = table.addNewColumn();
+        column.setName(name);
+        column.setTypeMapper(typeMapper);
+        column.setNullable(nullable);
+    }
+
+    /**
+     * Returns the Speedment instance that the manager is registered with.
+     *
+     * @return the Speedment instance
+     */
+    public Speedment getSpeedment() {
+        return speedment;
+    }
+
+    @Override
+    public Table getTable() {
+        return speedment.getProjectComponent().getProject().findTableByName("db.hr.person");
+    }
+
+    @Override
+    public Class<Person> getEntityClass() {
+        return Person.class;
+    }
+
+    @Override
+    public Person newInstance() {
+        newInstances.incrementAndGet();
+        return new Person();
+    }
+
+    /**
+     * Returns the number of entities that have been created with
+     * {@link #newInstance()}.
+     *
+     * @return the number of entities
+     */
+    public int getNewInstanceCount() {
+        return newInstances.get();
+    }
+
+    @Override
+    public Object primaryKeyFor(Person entity) {
+        return entity.getId();
+    }
+
+    @Override
+    public Object get(Person entity, Column column) {
+        switch (column.getName()) {
+            case "id": return entity.getId();
+            case "name": return entity.getName();
+            case "age": return entity.getAge();
+            case "boss": return entity.getBoss();
+            default: throw new IllegalArgumentException("Unknown column " + column.getName());
+        }
+    }
+
+    @Override
+    public void set(Person entity, Column column, Object value) {
+        switch (column.getName()) {
+            case "id": entity.setId((Integer) value); break;
+            case "name": entity.setName((String) value); break;
+            case "age": entity.setAge((Integer) value); break;
+            case "boss": entity.setBoss((Integer) value); break;
+            default: throw new IllegalArgumentException("Unknown column " + column.getName());
+        }
+    }
+
+    @Override
+    protected DbmsHandler dbmsHandler() {
+        return dbmsHandler;
+    }
+}
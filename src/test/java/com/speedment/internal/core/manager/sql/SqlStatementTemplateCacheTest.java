@@ -0,0 +1,199 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.config.parameters.DbmsType;
+import com.speedment.field.predicate.PredicateType;
+import com.speedment.field.predicate.SpeedmentPredicate;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import static com.speedment.internal.core.field.predicate.PredicateUtil.getFirstOperandAsRaw;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class SqlStatementTemplateCacheTest {
+
+    private FakeDatabase database;
+    private CountingPredicateView view;
+    private PersonManager manager;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> q.getSql().startsWith("select count(*)")
+            ? Collections.singletonList(new Object[]{0L})
+            : Collections.emptyList()
+        );
+        view = new CountingPredicateView();
+        manager = PersonManager.create(dbmsType(view), database, true);
+    }
+
+    @Test
+    public void testSameShapeIsRenderedOnce() {
+        read(Person.AGE.greaterThan(30));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?)", 30);
+        read(Person.AGE.greaterThan(40));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?)", 40);
+        assertEquals(1, view.renders);
+    }
+
+    @Test
+    public void testNestedShapeIsRenderedOnce() {
+        read(Person.AGE.between(20, 30).or(Person.NAME.in("a", "b")).and(Person.ID.notEqual(1)));
+        read(Person.AGE.between(30, 40).or(Person.NAME.in("c", "d")).and(Person.ID.notEqual(2)));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where ((`age` >= ? AND `age` < ?) OR (`name` IN (?,?))) AND (NOT (`id` = ?))", 30, 40, "c", "d", 2);
+        assertEquals(3, view.renders);
+    }
+
+    @Test
+    public void testDifferentShapesAreRenderedAgain() {
+        read(Person.AGE.greaterThan(30));
+        read(Person.AGE.lessThan(30));
+        assertEquals(2, view.renders);
+        read(Person.ID.lessThan(30));
+        assertEquals(3, view.renders);
+        read(Person.AGE.greaterThan(30).negate());
+        assertEquals(4, view.renders);
+        read(Person.NAME.in("a", "b"));
+        read(Person.NAME.in("a", "b", "c"));
+        assertEquals(6, view.renders);
+        read(Person.NAME.in("c", "d"));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`name` IN (?,?))", "c", "d");
+        assertEquals(6, view.renders);
+    }
+
+    @Test
+    public void testLimitIsPartOfTheShape() {
+        manager.stream().filter(Person.AGE.greaterThan(30)).limit(5).forEach(p -> {});
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?) LIMIT ?", 30, 5L);
+        manager.stream().filter(Person.AGE.greaterThan(40)).limit(7).forEach(p -> {});
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?) LIMIT ?", 40, 7L);
+        assertEquals(1, view.renders);
+        read(Person.AGE.greaterThan(30));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?)", 30);
+        assertEquals(2, view.renders);
+    }
+
+    @Test
+    public void testConditionsAreCachedSeparately() {
+        manager.stream().filter(Person.AGE.greaterThan(30)).count();
+        manager.stream().filter(Person.AGE.greaterThan(40)).count();
+        assertQuery("select count(*) from `hr`.`person` where (`age` > ?)", 40);
+        assertEquals(1, view.renders);
+        read(Person.AGE.greaterThan(30));
+        assertEquals(2, view.renders);
+    }
+
+    @Test
+    public void testRenderedValuesThatDifferAreNotCached() {
+        // The view renders the operand of startsWith with a wildcard
+        read(Person.NAME.startsWith("A"));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`name` LIKE ?)", "A%");
+        read(Person.NAME.startsWith("B"));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`name` LIKE ?)", "B%");
+        assertEquals(2, view.renders);
+    }
+
+    @Test
+    public void testMutableTableIsNotCached() {
+        final PersonManager mutableManager = PersonManager.create(dbmsType(view), database, false);
+        mutableManager.stream().filter(Person.AGE.greaterThan(30)).forEach(p -> {});
+        mutableManager.stream().filter(Person.AGE.greaterThan(40)).forEach(p -> {});
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?)", 40);
+        assertEquals(2, view.renders);
+    }
+
+    private void read(Predicate<Person> predicate) {
+        manager.stream().filter(predicate).collect(toList());
+    }
+
+    private void assertQuery(String sql, Object... values) {
+        final FakeDatabase.Query query = database.getLastQuery();
+        assertEquals(sql, query.getSql());
+        assertEquals(Arrays.asList(values), query.getValues());
+    }
+
+    private static DbmsType dbmsType(SpeedmentPredicateView view) {
+        final DbmsType mySql = new MySqlDbmsType();
+        return (DbmsType) Proxy.newProxyInstance(DbmsType.class.getClassLoader(), new Class<?>[]{DbmsType.class}, (proxy, method, args) -> {
+            if ("getSpeedmentPredicateView".equals(method.getName())) {
+                return view;
+            }
+            try {
+                return method.invoke(mySql, args);
+            } catch (InvocationTargetException ite) {
+                throw ite.getCause();
+            }
+        });
+    }
+
+    /**
+     * A MySQL predicate view that counts the rendered field predicates and
+     * that renders {@code startsWith} as a {@code LIKE} with the wildcard in
+     * the parameter value.
+     */
+    private static final class CountingPredicateView implements SpeedmentPredicateView {
+
+        private final SpeedmentPredicateView mySql = new MySqlDbmsType().getSpeedmentPredicateView();
+        private int renders;
+
+        @Override
+        public SqlPredicateFragment transform(SpeedmentPredicate<?, ?> model) {
+            renders++;
+            if (model.getEffectivePredicateType() == PredicateType.STARTS_WITH) {
+                return SqlPredicateFragment.of(
+                    "(" + getOpeningFieldQuote() + model.getField().getColumnName() + getClosingFieldQuote() + " LIKE ?)",
+                    getFirstOperandAsRaw(model) + "%"
+                );
+            }
+            return mySql.transform(model);
+        }
+
+        @Override
+        public SqlPredicateFragment transform(SpeedmentPredicate<?, ?> model, String tableAlias) {
+            renders++;
+            return mySql.transform(model, tableAlias);
+        }
+
+        @Override
+        public SqlPredicateFragment transform(Predicate<?> model, Function<SpeedmentPredicate<?, ?>, SqlPredicateFragment> leafTransformer) {
+            return mySql.transform(model, leafTransformer);
+        }
+
+        @Override
+        public String getOpeningFieldQuote() {
+            return mySql.getOpeningFieldQuote();
+        }
+
+        @Override
+        public String getClosingFieldQuote() {
+            return mySql.getClosingFieldQuote();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import com.speedment.config.mapper.TypeMapper;
+import com.speedment.db.AsynchronousQueryResult;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.stream.builder.AbstractStreamBuilder;
+import com.speedment.internal.core.stream.builder.ReferenceStreamBuilder;
+import com.speedment.internal.core.stream.builder.pipeline.Pipeline;
+import com.speedment.internal.core.stream.builder.pipeline.PipelineImpl;
+import com.speedment.stream.StreamDecorator;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+import static com.speedment.field.methods.NumberGetters.asDouble;
+import static com.speedment.field.methods.NumberGetters.asInt;
+import static com.speedment.field.methods.NumberGetters.asLong;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class SqlStreamTerminatorTest {
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 36, null),
+        new Person(2, "Bob", 25, 1),
+        new Person(3, "Cid", null, 1),
+        new Person(4, null, 41, 2),
+        new Person(5, "Eve", 30, 2)
+    );
+
+    private static final String SELECT = "select `id`,`name`,`age`,`boss` from `hr`.`person`";
+
+    private FakeDatabase database;
+    private PersonManager manager;
+    private AsynchronousQueryResult<Person> result;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> q.getSql().startsWith("select count(*)")
+            ? Collections.singletonList(new Object[]{2L})
+            : PERSONS.stream().map(Person::toRow).collect(toList())
+        );
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+    }
+
+    @Test
+    public void testCountFiltered() {
+        assertEquals(2, manager.stream().filter(Person.AGE.greaterThan(30)).count());
+        assertQuery("select count(*) from `hr`.`person` where (`age` > ?)", 30);
+    }
+
+    @Test
+    public void testCountAll() {
+        assertEquals(2, manager.stream().count());
+        assertQuery("select count(*) from `hr`.`person`");
+    }
+
+    @Test
+    public void testCountFoldsSkipAndLimit() {
+        // The database counts 2 rows
+        assertEquals(1, manager.stream().filter(Person.AGE.greaterThan(30)).skip(1).limit(5).count());
+        assertQuery("select count(*) from `hr`.`person` where (`age` > ?)", 30);
+        assertEquals(0, manager.stream().filter(Person.AGE.greaterThan(30)).limit(3).skip(2).count());
+        assertEquals(1, manager.stream().filter(Person.AGE.greaterThan(30)).limit(1).count());
+        assertEquals(0, manager.stream().skip(5).count());
+    }
+
+    @Test
+    public void testCountPassesSizePreservingActions() {
+        assertEquals(1, manager.stream().filter(Person.NAME.startsWith("A")).map(Person::getName).skip(1).mapToInt(String::length).count());
+        assertQuery("select count(*) from `hr`.`person` where (`name` LIKE BINARY CONCAT(? ,'%'))", "A");
+    }
+
+    @Test
+    public void testCountOfNestedPredicates() {
+        assertEquals(2, manager.stream().filter(Person.AGE.lessThan(30).or(Person.NAME.equal("Eve"))).count());
+        assertQuery("select count(*) from `hr`.`person` where ((`age` < ?) OR (`name` = ?))", 30, "Eve");
+    }
+
+    @Test
+    public void testCountWithJavaPredicateReadsRows() {
+        assertEquals(3, manager.stream().filter(p -> p.getBoss() != null).limit(3).count());
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person`");
+    }
+
+    @Test
+    public void testCountAfterFilterThatChangesSizeReadsRows() {
+        assertEquals(4, manager.stream().filter(Person.ID.lessThan(5)).distinct().count());
+        assertEquals(1, database.getQueries().size());
+        assertEquals(false, database.getLastQuery().getSql().startsWith("select count(*)"));
+    }
+
+    @Test
+    public void testFindFirstAsksForOneRow() {
+        database.setResponder(q -> Collections.singletonList(PERSONS.get(0).toRow()));
+        assertEquals(PERSONS.get(0), manager.stream().filter(Person.AGE.greaterThan(30)).findFirst().get());
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`age` > ?) LIMIT ?", 30, 1L);
+    }
+
+    @Test
+    public void testFindAnyAsksForOneRow() {
+        database.setResponder(q -> Collections.singletonList(PERSONS.get(1).toRow()));
+        assertEquals(PERSONS.get(1), manager.stream().skip(1).findAny().get());
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` LIMIT ? OFFSET ?", 1L, 1L);
+    }
+
+    @Test
+    public void testFindFirstOfEmptyResult() {
+        database.setResponder(q -> Collections.emptyList());
+        assertEquals(false, manager.stream().filter(Person.NAME.equal("Zed")).findFirst().isPresent());
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person` where (`name` = ?) LIMIT ?", "Zed", 1L);
+    }
+
+    @Test
+    public void testAnyMatchSelectsOne() {
+        database.setResponder(q -> Collections.singletonList(new Object[]{1}));
+        assertEquals(true, manager.stream().filter(Person.NAME.isNotNull()).anyMatch(Person.AGE.greaterThan(40)));
+        assertQuery("select 1 from `hr`.`person` where (`name` IS NOT NULL) AND (`age` > ?) LIMIT ?", 40, 1L);
+    }
+
+    @Test
+    public void testNoneMatchSelectsOne() {
+        database.setResponder(q -> Collections.singletonList(new Object[]{1}));
+        assertEquals(false, manager.stream().noneMatch(Person.AGE.greaterThan(40)));
+        assertQuery("select 1 from `hr`.`person` where (`age` > ?) LIMIT ?", 40, 1L);
+    }
+
+    @Test
+    public void testAllMatchSelectsOneMismatch() {
+        database.setResponder(q -> Collections.emptyList());
+        assertEquals(true, manager.stream().filter(Person.NAME.isNotNull()).allMatch(Person.AGE.greaterThan(20)));
+        assertQuery("select 1 from `hr`.`person` where (`name` IS NOT NULL) AND (((`age` > ?)) IS NOT TRUE) LIMIT ?", 20, 1L);
+
+        database.setResponder(q -> Collections.singletonList(new Object[]{1}));
+        assertEquals(false, manager.stream().allMatch(Person.AGE.greaterThan(20).or(Person.NAME.equal("Cid"))));
+        assertQuery("select 1 from `hr`.`person` where ((((`age` > ?) OR (`name` = ?))) IS NOT TRUE) LIMIT ?", 20, "Cid", 1L);
+    }
+
+    @Test
+    public void testMatchWithJavaPredicateReadsRows() {
+        assertEquals(true, manager.stream().anyMatch(p -> p.getName() == null));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person`");
+        assertEquals(false, manager.stream().filter(p -> p.getAge() != null).allMatch(Person.AGE.greaterThan(30)));
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person`");
+    }
+
+    @Test
+    public void testMapSelectsColumn() {
+        database.setResponder(q -> column(q, "name"));
+        assertEquals(Arrays.asList("Ada", "Bob", "Cid", null, "Eve"),
+            manager.stream().filter(Person.AGE.greaterThan(20)).map(Person.NAME.getter()).collect(toList())
+        );
+        assertQuery("select `name` from `hr`.`person` where (`age` > ?)", 20);
+    }
+
+    @Test
+    public void testMapToIntSelectsColumn() {
+        // The database returns the two first rows
+        database.setResponder(q -> column(q, "id").subList(0, 2));
+        assertEquals(Arrays.asList(1, 2),
+            manager.stream().sorted(Person.ID.comparator()).limit(2).mapToInt(asInt(Person.ID)).boxed().collect(toList())
+        );
+        assertQuery("select `id` from `hr`.`person` ORDER BY `id` ASC LIMIT ?", 2L);
+    }
+
+    @Test
+    public void testMapToLongAndDoubleSelectColumn() {
+        database.setResponder(q -> column(q, "id"));
+        assertEquals(15L, manager.stream().filter(Person.ID.lessThan(10)).mapToLong(asLong(Person.ID)).map(l -> l).sum());
+        assertQuery("select `id` from `hr`.`person` where (`id` < ?)", 10);
+        assertEquals(3d, manager.stream().mapToDouble(asDouble(Person.ID)).map(d -> d).average().getAsDouble(), 0);
+        assertQuery("select `id` from `hr`.`person`");
+    }
+
+    @Test
+    public void testSumIsAggregated() {
+        database.setResponder(q -> Collections.singletonList(new Object[]{new BigDecimal(6)}));
+        assertEquals(6L, manager.stream().filter(Person.ID.lessThan(4)).mapToLong(asLong(Person.ID)).sum());
+        assertQuery("select SUM(`id`) from `hr`.`person` where (`id` < ?)", 4);
+        assertEquals(6, manager.stream().mapToInt(asInt(Person.ID)).sum());
+        assertQuery("select SUM(`id`) from `hr`.`person`");
+        assertEquals(6d, manager.stream().mapToDouble(asDouble(Person.ID)).sum(), 0);
+        assertQuery("select SUM(`id`) from `hr`.`person`");
+    }
+
+    @Test
+    public void testSumOfNoRowsIsZero() {
+        // The sum of no rows is null
+        database.setResponder(q -> Collections.singletonList(new Object[]{null}));
+        assertEquals(0, manager.stream().filter(Person.ID.greaterThan(10)).mapToInt(asInt(Person.ID)).sum());
+        assertEquals(0L, manager.stream().filter(Person.ID.greaterThan(10)).mapToLong(asLong(Person.ID)).sum());
+        assertQuery("select SUM(`id`) from `hr`.`person` where (`id` > ?)", 10);
+    }
+
+    @Test
+    public void testMinAndMaxAreAggregated() {
+        database.setResponder(q -> Collections.singletonList(new Object[]{q.getSql().startsWith("select MIN") ? 1 : 5}));
+        assertEquals(OptionalInt.of(1), manager.stream().mapToInt(asInt(Person.ID)).min());
+        assertQuery("select MIN(`id`) from `hr`.`person`");
+        assertEquals(OptionalLong.of(5), manager.stream().filter(Person.NAME.isNotNull()).mapToLong(asLong(Person.ID)).max());
+        assertQuery("select MAX(`id`) from `hr`.`person` where (`name` IS NOT NULL)");
+
+        database.setResponder(q -> Collections.singletonList(new Object[]{null}));
+        assertEquals(OptionalInt.empty(), manager.stream().mapToInt(asInt(Person.ID)).max());
+    }
+
+    @Test
+    public void testSummaryStatisticsIsOneQuery() {
+        database.setResponder(q -> Collections.singletonList(new Object[]{5L, new BigDecimal(15), 1, 5}));
+        final IntSummaryStatistics statistics = manager.stream().mapToInt(asInt(Person.ID)).summaryStatistics();
+        assertQuery("select COUNT(`id`),SUM(`id`),MIN(`id`),MAX(`id`) from `hr`.`person`");
+        assertEquals(5, statistics.getCount());
+        assertEquals(15, statistics.getSum());
+        assertEquals(1, statistics.getMin());
+        assertEquals(5, statistics.getMax());
+    }
+
+    @Test
+    public void testAverageIsAggregated() {
+        database.setResponder(q -> Collections.singletonList(new Object[]{new BigDecimal(15), 5L}));
+        assertEquals(OptionalDouble.of(3), manager.stream().mapToLong(asLong(Person.ID)).average());
+        assertQuery("select SUM(`id`),COUNT(`id`) from `hr`.`person`");
+    }
+
+    @Test
+    public void testNullableColumnIsAggregatedInJava() {
+        database.setResponder(q -> q.getSql().startsWith("select SUM")
+            ? Collections.singletonList(new Object[]{new BigDecimal(132)})
+            : Arrays.asList(new Object[]{36}, new Object[]{41})
+        );
+        // The stream would throw a NullPointerException for a null age
+        assertEquals(77, manager.stream().filter(Person.AGE.greaterThan(30)).mapToInt(asInt(Person.AGE)).sum());
+        assertQuery("select `age` from `hr`.`person` where (`age` > ?)", 30);
+        assertEquals(132, manager.stream().filter(Person.AGE.isNotNull()).mapToInt(asInt(Person.AGE)).sum());
+        assertQuery("select SUM(`age`) from `hr`.`person` where (`age` IS NOT NULL)");
+    }
+
+    @Test
+    public void testColumnWithTypeMapperIsAggregatedInJava() {
+        manager.getTable().streamOfColumns()
+            .filter(c -> "id".equals(c.getName()))
+            .forEach(c -> c.setTypeMapper(new OffsetMapper()));
+        database.setResponder(q -> column(q, "id"));
+        // The database would sum the values without the offset
+        assertEquals(515L, manager.stream().mapToLong(asLong(Person.ID)).sum());
+        assertQuery("select `id` from `hr`.`person`");
+    }
+
+    @Test
+    public void testMapWithLambdaSelectsEntities() {
+        assertEquals(5, manager.stream().map(Person::getName).collect(toList()).size());
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person`");
+    }
+
+    @Test
+    public void testMapAfterJavaFilterSelectsEntities() {
+        assertEquals(Arrays.asList("Bob", "Cid", null, "Eve"),
+            manager.stream().filter(p -> p.getBoss() != null).map(Person.NAME.getter()).collect(toList())
+        );
+        assertQuery("select `id`,`name`,`age`,`boss` from `hr`.`person`");
+    }
+
+    @Test
+    public void testSkipAndLimitAreRendered() {
+        final Pipeline pipeline = optimize(s -> s.skip(2).limit(3));
+        assertEquals(SELECT + " LIMIT ? OFFSET ?", result.getSql());
+        assertEquals(Arrays.asList(3L, 2L), result.getValues());
+        assertEquals(Collections.emptyList(), actions(pipeline));
+        assertEquals(3, result.getRowLimit());
+    }
+
+    @Test
+    public void testLimitBeforeSkipIsRendered() {
+        optimize(s -> s.limit(5).skip(2));
+        assertEquals(SELECT + " LIMIT ? OFFSET ?", result.getSql());
+        assertEquals(Arrays.asList(3L, 2L), result.getValues());
+        assertEquals(3, result.getRowLimit());
+
+        // A skip past the limit leaves no rows
+        optimize(s -> s.limit(2).skip(3));
+        assertEquals(Arrays.asList(0L, 3L), result.getValues());
+        assertEquals(0, result.getRowLimit());
+    }
+
+    @Test
+    public void testLimitIsRenderedAfterFieldFilter() {
+        final Pipeline pipeline = optimize(s -> s.filter(Person.AGE.greaterThan(30)).limit(3));
+        assertEquals(SELECT + " where (`age` > ?) LIMIT ?", result.getSql());
+        assertEquals(Arrays.asList(30, 3L), result.getValues());
+        // The filter must not be applied to the limited rows again
+        assertEquals(Collections.emptyList(), actions(pipeline));
+        assertEquals(3, result.getRowLimit());
+    }
+
+    @Test
+    public void testSkipIsRenderedPastMap() {
+        final Pipeline pipeline = optimize(s -> s.map(Person::getName).skip(1));
+        assertEquals(SELECT + " LIMIT ? OFFSET ?", result.getSql());
+        assertEquals(Arrays.asList(Long.MAX_VALUE, 1L), result.getValues());
+        assertEquals(Arrays.asList("MapAction"), actions(pipeline));
+    }
+
+    @Test
+    public void testLimitIsNotRenderedAfterJavaFilter() {
+        final Pipeline pipeline = optimize(s -> s.filter(p -> p.getBoss() != null).limit(2));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("FilterAction", "LimitAction"), actions(pipeline));
+        assertEquals(Long.MAX_VALUE, result.getRowLimit());
+
+        // Rows matching the rendered filter are still tested in Java
+        optimize(s -> s.filter(Person.AGE.greaterThan(30).and(p -> p.getBoss() != null)).limit(2));
+        assertEquals(SELECT + " where (`age` > ?)", result.getSql());
+        assertEquals(Long.MAX_VALUE, result.getRowLimit());
+    }
+
+    @Test
+    public void testLimitIsNotRenderedAfterJavaSort() {
+        final Pipeline pipeline = optimize(s -> s.sorted(Comparator.comparing(Person::getName)).limit(2));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("SortedAction", "LimitAction"), actions(pipeline));
+        assertEquals(Long.MAX_VALUE, result.getRowLimit());
+    }
+
+    @Test
+    public void testLimitIsNotRenderedPastDistinct() {
+        final Pipeline pipeline = optimize(s -> s.distinct().limit(2));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("DistinctAction", "LimitAction"), actions(pipeline));
+    }
+
+    @Test
+    public void testSortedOnFieldIsRendered() {
+        final Pipeline pipeline = optimize(s -> s.sorted(Person.ID.comparator()));
+        assertEquals(SELECT + " ORDER BY `id` ASC", result.getSql());
+        assertEquals(Collections.emptyList(), actions(pipeline));
+    }
+
+    @Test
+    public void testReversedSortIsRendered() {
+        optimize(s -> s.sorted(Person.ID.comparator().reversed()));
+        assertEquals(SELECT + " ORDER BY `id` DESC", result.getSql());
+        // Reversing the order also moves the nulls to the other end
+        final Pipeline pipeline = optimize(s -> s.sorted(Person.AGE.comparatorNullFieldsLast().reversed()));
+        assertEquals(SELECT + " ORDER BY `age` IS NULL DESC, `age` DESC", result.getSql());
+        assertEquals(Collections.emptyList(), actions(pipeline));
+    }
+
+    @Test
+    public void testConsecutiveSortsAreRendered() {
+        // The last sort is the most significant, since sorting is stable
+        final Pipeline pipeline = optimize(s -> s.sorted(Person.ID.comparator()).sorted(Person.AGE.comparatorNullFieldsFirst()));
+        assertEquals(SELECT + " ORDER BY `age` ASC, `id` ASC", result.getSql());
+        assertEquals(Collections.emptyList(), actions(pipeline));
+    }
+
+    @Test
+    public void testSortIsRenderedBeforeJavaFilter() {
+        final Pipeline pipeline = optimize(s -> s.filter(p -> p.getBoss() != null).sorted(Person.ID.comparator()));
+        assertEquals(SELECT + " ORDER BY `id` ASC", result.getSql());
+        assertEquals(Arrays.asList("FilterAction"), actions(pipeline));
+    }
+
+    @Test
+    public void testComposedComparatorIsSortedInJava() {
+        final Pipeline pipeline = optimize(s -> s.sorted(Person.AGE.comparatorNullFieldsFirst().thenComparing(Person.ID.comparator())));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("SortedAction"), actions(pipeline));
+
+        assertEquals(Arrays.asList(3, 2, 5, 1, 4), manager.stream()
+            .sorted(Person.AGE.comparatorNullFieldsFirst().thenComparing(Person.ID.comparator()))
+            .map(Person::getId)
+            .collect(toList())
+        );
+    }
+
+    @Test
+    public void testOtherComparatorsAreSortedInJava() {
+        Pipeline pipeline = optimize(s -> s.sorted(Comparator.comparing(Person::getId)));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("SortedAction"), actions(pipeline));
+
+        // The comparator would throw an exception on a null age
+        pipeline = optimize(s -> s.sorted(Person.AGE.comparator()));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("SortedAction"), actions(pipeline));
+
+        // Equal ids are ordered by the first sort, so neither is rendered
+        pipeline = optimize(s -> s.sorted(Comparator.comparing(Person::getId)).sorted(Person.ID.comparator()));
+        assertEquals(SELECT, result.getSql());
+        assertEquals(Arrays.asList("SortedAction", "SortedAction"), actions(pipeline));
+    }
+
+    private static List<Object[]> column(FakeDatabase.Query query, String columnName) {
+        final int index = Arrays.asList("id", "name", "age", "boss").indexOf(columnName);
+        assertEquals("select `" + columnName + "` from", query.getSql().substring(0, 14 + columnName.length()));
+        return PERSONS.stream().map(p -> new Object[]{p.toRow()[index]}).collect(toList());
+    }
+
+    /**
+     * Optimizes the pipeline of the stream built by the given function
+     * without executing it. The query is kept in {@link #result}.
+     *
+     * @param streamBuilder that applies intermediate operations
+     * @return the pipeline that remains to be executed in Java
+     */
+    private Pipeline optimize(Function<Stream<Person>, ? extends BaseStream<?, ?>> streamBuilder) {
+        result = manager.dbmsHandler().executeQueryAsync(manager.sqlSelect(""), Collections.emptyList(), manager.getSqlEntityMapper().unWrap());
+        final SqlStreamTerminator<Person> terminator = new SqlStreamTerminator<>(manager, result, StreamDecorator.IDENTITY);
+        final BaseStream<?, ?> stream = streamBuilder.apply(new ReferenceStreamBuilder<>(new PipelineImpl<>(Stream::empty), terminator));
+        final Pipeline pipeline = ((AbstractStreamBuilder<?, ?>) stream).getPipeline();
+        terminator.optimize(pipeline);
+        return pipeline;
+    }
+
+    private static List<String> actions(Pipeline pipeline) {
+        return pipeline.stream().map(a -> a.getClass().getSimpleName()).collect(toList());
+    }
+
+    private void assertQuery(String sql, Object... values) {
+        final FakeDatabase.Query query = database.getLastQuery();
+        assertEquals(sql, query.getSql());
+        assertEquals(Arrays.asList(values), query.getValues());
+    }
+
+    /**
+     * A type mapper that adds 100 to the values read from the database.
+     */
+    public static final class OffsetMapper implements TypeMapper<Integer, Integer> {
+
+        @Override
+        public Class<Integer> getJavaType() {
+            return Integer.class;
+        }
+
+        @Override
+        public Class<Integer> getDatabaseType() {
+            return Integer.class;
+        }
+
+        @Override
+        public Integer toJavaType(Integer value) {
+            return value == null ? null : value + 100;
+        }
+
+        @Override
+        public Integer toDatabaseType(Integer value) {
+            return value == null ? null : value - 100;
+        }
+
+        @Override
+        public boolean isIdentityMapper() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.manager.sql;
+
+import java.math.BigDecimal;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class ValueDictionaryTest {
+
+    @Test
+    public void testIntern() {
+        final ValueDictionary<BigDecimal> dictionary = new ValueDictionary<>("amount", 16);
+        final BigDecimal first = new BigDecimal("1.50");
+        assertSame(first, dictionary.intern(first));
+        assertSame(first, dictionary.intern(new BigDecimal("1.50")));
+        assertSame(first, dictionary.intern(first));
+        assertNull(dictionary.intern(null));
+        assertEquals(1, dictionary.size());
+        assertEquals(3, dictionary.getReads());
+        assertEquals(1, dictionary.getDeduplicated());
+    }
+
+    @Test
+    public void testFull() {
+        final ValueDictionary<String> dictionary = new ValueDictionary<>("country", 1);
+        final String first = dictionary.intern(new String("SE"));
+        assertSame(first, dictionary.intern(new String("SE")));
+        final String other = new String("US");
+        assertSame(other, dictionary.intern(other));
+        assertNotSame(other, dictionary.intern(new String("US")));
+        assertEquals(1, dictionary.size());
+    }
+
+}
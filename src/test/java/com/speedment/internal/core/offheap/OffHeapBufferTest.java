@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.exception.SpeedmentException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OffHeapBufferTest {
+
+    @Test
+    public void testInitialBuffer() {
+        final ByteBuffer buffer = new OffHeapBuffer(16).buffer();
+        assertEquals(16, buffer.capacity());
+        assertTrue(buffer.isDirect());
+        assertEquals(ByteOrder.nativeOrder(), buffer.order());
+    }
+
+    @Test
+    public void testEnoughCapacity() {
+        final OffHeapBuffer buffer = new OffHeapBuffer(16);
+        final ByteBuffer initial = buffer.buffer();
+        assertSame(initial, buffer.ensureCapacity(0));
+        assertSame(initial, buffer.ensureCapacity(16));
+        assertSame(initial, buffer.buffer());
+    }
+
+    @Test
+    public void testGrowthDoublesCapacity() {
+        final OffHeapBuffer buffer = new OffHeapBuffer(16);
+        assertEquals(32, buffer.ensureCapacity(17).capacity());
+        assertEquals(64, buffer.ensureCapacity(33).capacity());
+        // A larger capacity than the double is allocated as requested
+        assertEquals(1000, buffer.ensureCapacity(1000).capacity());
+        assertSame(buffer.buffer(), buffer.ensureCapacity(1000));
+    }
+
+    @Test
+    public void testGrowthKeepsValues() {
+        final OffHeapBuffer buffer = new OffHeapBuffer(Integer.BYTES);
+        for (int i = 0; i < 1000; i++) {
+            buffer.ensureCapacity((i + 1L) * Integer.BYTES).putInt(i * Integer.BYTES, i * 31 - 7);
+        }
+        final ByteBuffer grown = buffer.buffer();
+        assertTrue(grown.capacity() >= 1000 * Integer.BYTES);
+        assertEquals(ByteOrder.nativeOrder(), grown.order());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * 31 - 7, grown.getInt(i * Integer.BYTES));
+        }
+    }
+
+    @Test
+    public void testGrowthKeepsValuesAfterRelativeReads() {
+        final OffHeapBuffer buffer = new OffHeapBuffer(4);
+        buffer.buffer().put(0, (byte) 1).put(3, (byte) 4);
+        // The whole buffer is copied even if its position has moved
+        buffer.buffer().position(2).limit(3);
+        final ByteBuffer grown = buffer.ensureCapacity(5);
+        assertEquals(1, grown.get(0));
+        assertEquals(4, grown.get(3));
+    }
+
+    @Test(expected = SpeedmentException.class)
+    public void testMaxCapacity() {
+        new OffHeapBuffer(16).ensureCapacity(Integer.MAX_VALUE);
+    }
+}
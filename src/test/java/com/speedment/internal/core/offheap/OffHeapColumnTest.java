@@ -0,0 +1,244 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.exception.SpeedmentException;
+import com.speedment.field.ComparableField;
+import com.speedment.field.Inclusion;
+import com.speedment.field.StringField;
+import com.speedment.field.trait.ComparableFieldTrait;
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.internal.core.field.ComparableFieldImpl;
+import com.speedment.internal.core.field.StringFieldImpl;
+import com.speedment.internal.core.field.predicate.impl.SpeedmentPredicateImpl;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OffHeapColumnTest {
+
+    // More rows than the initial capacity of the buffers of a column
+    private static final int ROWS = 3 * OffHeapColumn.INITIAL_ROWS + 5;
+
+    private static final ComparableField<Value, Integer> INT = new ComparableFieldImpl<>("int", v -> (Integer) v.get(), Value::set);
+    private static final ComparableField<Value, Long> LONG = new ComparableFieldImpl<>("long", v -> (Long) v.get(), Value::set);
+    private static final ComparableField<Value, Double> DOUBLE = new ComparableFieldImpl<>("double", v -> (Double) v.get(), Value::set);
+    private static final ComparableField<Value, BigDecimal> DECIMAL = new ComparableFieldImpl<>("decimal", v -> (BigDecimal) v.get(), Value::set);
+    private static final StringField<Value> STRING = new StringFieldImpl<>("string", v -> (String) v.get(), Value::set);
+
+    private static final String[] STRINGS = {"", "a", "A", "ab", "abc", "b", "é", "É", "eé", "日本", "日本語", "😀", "a\u0000b", "zz"};
+
+    @Test
+    public void testIntColumn() {
+        final List<Integer> values = values(r -> r.nextInt(10) - 5, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+        final OffHeapColumn column = column(Integer.class, values);
+        assertValues(column, values);
+        for (final Integer[] operands : new Integer[][]{{0, 3}, {-5, 4}, {3, -2}, {Integer.MIN_VALUE, Integer.MAX_VALUE}, {100, 200}}) {
+            assertEquivalent(column, values, () -> comparable(INT, operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testLongColumn() {
+        final List<Long> values = values(r -> (long) r.nextInt(10) - 5, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40);
+        final OffHeapColumn column = column(Long.class, values);
+        assertValues(column, values);
+        for (final Long[] operands : new Long[][]{{0L, 3L}, {-5L, 4L}, {Long.MIN_VALUE, Long.MAX_VALUE}, {1L << 40, 1L << 41}}) {
+            assertEquivalent(column, values, () -> comparable(LONG, operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testDoubleColumn() {
+        final List<Double> values = values(r -> (r.nextInt(10) - 5) / 2d, Double.NaN, -0d, 0d, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.MIN_VALUE);
+        final OffHeapColumn column = column(Double.class, values);
+        assertValues(column, values);
+        for (final Double[] operands : new Double[][]{{0d, 1.5d}, {-0d, 0d}, {0d, -0d}, {Double.NaN, 1d}, {-1d, Double.NaN}, {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}, {0.25, 0.75}}) {
+            assertEquivalent(column, values, () -> comparable(DOUBLE, operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testStringColumn() {
+        final List<String> values = values(r -> STRINGS[r.nextInt(STRINGS.length)], STRINGS);
+        final OffHeapColumn column = column(String.class, values);
+        assertValues(column, values);
+        for (final String[] operands : new String[][]{{"a", "b"}, {"", "zz"}, {"é", "É"}, {"日本", "日本語"}, {"😀", "a\u0000b"}, {"e", "x"}}) {
+            assertEquivalent(column, values, () -> string(operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testObjectColumn() {
+        final List<BigDecimal> values = values(r -> BigDecimal.valueOf(r.nextInt(10) - 5, r.nextInt(2)), new BigDecimal("1.0"), new BigDecimal("1.00"));
+        final OffHeapColumn column = column(BigDecimal.class, values);
+        assertValues(column, values);
+        for (final BigDecimal[] operands : new BigDecimal[][]{{BigDecimal.ONE, BigDecimal.TEN}, {new BigDecimal("1.00"), new BigDecimal("2.0")}, {new BigDecimal("-0.5"), BigDecimal.ZERO}}) {
+            assertEquivalent(column, values, () -> comparable(DECIMAL, operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testNulls() {
+        final List<Integer> values = Arrays.asList(null, 1, null, null, 2, null, null, null, null, 3);
+        final OffHeapColumn column = column(Integer.class, values);
+        assertEquals(Arrays.asList(true, false, true, true, false, true, true, true, true, false), IntStream.range(0, values.size()).mapToObj(column::isNull).collect(Collectors.toList()));
+        assertValues(column, values);
+    }
+
+    @Test
+    public void testAllNulls() {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            values.add(null);
+        }
+        final OffHeapColumn column = column(String.class, values);
+        assertValues(column, values);
+        assertEquivalent(column, values, () -> string("", "a"));
+    }
+
+    @Test(expected = SpeedmentException.class)
+    public void testWrongType() {
+        OffHeapColumn.of(Integer.class).add(1L);
+    }
+
+    @SafeVarargs
+    private static <V> List<V> values(Function<Random, V> function, V... special) {
+        final Random random = new Random(4711);
+        final List<V> values = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            if (random.nextInt(5) == 0) {
+                values.add(null);
+            } else if (random.nextInt(10) == 0) {
+                values.add(special[random.nextInt(special.length)]);
+            } else {
+                values.add(function.apply(random));
+            }
+        }
+        return values;
+    }
+
+    private static OffHeapColumn column(Class<?> type, List<?> values) {
+        final OffHeapColumn column = OffHeapColumn.of(type);
+        values.forEach(column::add);
+        return column;
+    }
+
+    private static void assertValues(OffHeapColumn column, List<?> values) {
+        assertEquals(values.size(), column.size());
+        for (int row = 0; row < values.size(); row++) {
+            assertEquals(values.get(row) == null, column.isNull(row));
+            assertEquals(values.get(row), column.get(row));
+        }
+    }
+
+    /**
+     * Asserts that each of the predicates of the supplier, and each of them
+     * negated, is true for the same rows of the column as when the predicate
+     * is tested on each value.
+     */
+    private static void assertEquivalent(OffHeapColumn column, List<?> values, Supplier<List<SpeedmentPredicateImpl<Value, ?>>> predicates) {
+        final List<SpeedmentPredicateImpl<Value, ?>> plain = predicates.get();
+        final List<SpeedmentPredicateImpl<Value, ?>> negated = predicates.get();
+        negated.forEach(SpeedmentPredicateImpl::negate);
+        for (final List<SpeedmentPredicateImpl<Value, ?>> list : Arrays.asList(plain, negated)) {
+            for (final SpeedmentPredicateImpl<Value, ?> predicate : list) {
+                final IntPredicate rowPredicate = column.predicate(predicate);
+                final List<Integer> expected = IntStream.range(0, values.size())
+                    .filter(row -> predicate.test(new Value(values.get(row))))
+                    .boxed()
+                    .collect(Collectors.toList());
+                final List<Integer> actual = IntStream.range(0, values.size())
+                    .filter(rowPredicate)
+                    .boxed()
+                    .collect(Collectors.toList());
+                assertEquals(predicate.getPredicateType() + (predicate.isNegated() ? " negated" : ""), expected, actual);
+            }
+        }
+    }
+
+    private static <V extends Comparable<? super V>, F extends ReferenceFieldTrait<Value, V> & ComparableFieldTrait<Value, V>>
+        List<SpeedmentPredicateImpl<Value, ?>> comparable(F field, V a, V b) {
+        final List<SpeedmentPredicateImpl<Value, ?>> predicates = new ArrayList<>();
+        predicates.add(leaf(field.equal(a)));
+        predicates.add(leaf(field.notEqual(a)));
+        predicates.add(leaf(field.lessThan(a)));
+        predicates.add(leaf(field.lessOrEqual(a)));
+        predicates.add(leaf(field.greaterThan(a)));
+        predicates.add(leaf(field.greaterOrEqual(a)));
+        for (final Inclusion inclusion : Inclusion.values()) {
+            predicates.add(leaf(field.between(a, b, inclusion)));
+        }
+        predicates.add(leaf(field.in(new HashSet<>(Arrays.asList(a, b)))));
+        predicates.add(leaf(field.notIn(new HashSet<>(Arrays.asList(a, b)))));
+        predicates.add(leaf(field.isNull()));
+        predicates.add(leaf(field.isNotNull()));
+        return predicates;
+    }
+
+    private static List<SpeedmentPredicateImpl<Value, ?>> string(String a, String b) {
+        final List<SpeedmentPredicateImpl<Value, ?>> predicates = comparable(STRING, a, b);
+        predicates.add(leaf(STRING.equalIgnoreCase(a)));
+        predicates.add(leaf(STRING.notEqualIgnoreCase(a)));
+        predicates.add(leaf(STRING.startsWith(a)));
+        predicates.add(leaf(STRING.endsWith(a)));
+        predicates.add(leaf(STRING.contains(a)));
+        predicates.add(leaf(STRING.isEmpty()));
+        predicates.add(leaf(STRING.isNotEmpty()));
+        return predicates;
+    }
+
+    private static SpeedmentPredicateImpl<Value, ?> leaf(Object predicate) {
+        assertTrue(predicate instanceof SpeedmentPredicateImpl);
+        @SuppressWarnings("unchecked")
+        final SpeedmentPredicateImpl<Value, ?> leaf = (SpeedmentPredicateImpl<Value, ?>) predicate;
+        return leaf;
+    }
+
+    private static final class Value {
+
+        private Object value;
+
+        private Value(Object value) {
+            this.value = value;
+        }
+
+        private Object get() {
+            return value;
+        }
+
+        private Value set(Object value) {
+            this.value = value;
+            return this;
+        }
+    }
+}
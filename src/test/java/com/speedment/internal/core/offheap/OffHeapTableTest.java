@@ -0,0 +1,172 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.offheap;
+
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.StreamDecorator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OffHeapTableTest {
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 52, null),
+        new Person(2, "Bob", 41, 1),
+        new Person(3, null, 33, 1),
+        new Person(4, "Dee", null, 2),
+        new Person(5, "Zoë", 29, 9),
+        new Person(6, null, null, null)
+    );
+
+    private PersonManager manager;
+    private OffHeapTable<Person> table;
+
+    @Before
+    public void setUp() {
+        manager = PersonManager.create(new MySqlDbmsType(), new FakeDatabase());
+        table = OffHeapTable.of(manager, PERSONS.stream().map(p -> new Person(p.getId(), p.getName(), p.getAge(), p.getBoss())));
+    }
+
+    @Test
+    public void testStream() {
+        assertEquals(6, table.size());
+        assertEquals(PERSONS, collect(table.stream(StreamDecorator.IDENTITY)));
+        assertEquals(6, manager.getNewInstanceCount());
+    }
+
+    @Test
+    public void testEntitiesAreCopies() {
+        table.stream(StreamDecorator.IDENTITY).forEach(p -> p.setName("Zed").setAge(0));
+        assertEquals(PERSONS, collect(table.stream(StreamDecorator.IDENTITY)));
+    }
+
+    @Test
+    public void testLeaves() {
+        assertEquivalent(() -> Person.NAME.equal("Ada"));
+        assertEquivalent(() -> Person.NAME.equal("Zoë"));
+        assertEquivalent(() -> Person.NAME.notEqual("Ada"));
+        assertEquivalent(() -> Person.NAME.startsWith("Z"));
+        assertEquivalent(() -> Person.NAME.isNull());
+        assertEquivalent(() -> Person.AGE.greaterThan(33));
+        assertEquivalent(() -> Person.AGE.lessOrEqual(33));
+        assertEquivalent(() -> Person.AGE.between(29, 41));
+        assertEquivalent(() -> Person.AGE.in(29, 52));
+        assertEquivalent(() -> Person.BOSS.equal(1));
+    }
+
+    @Test
+    public void testNegatedLeaves() {
+        assertEquivalent(() -> Person.NAME.equal("Ada").negate());
+        assertEquivalent(() -> Person.NAME.notEqual("Ada").negate());
+        assertEquivalent(() -> Person.AGE.greaterThan(33).negate());
+        assertEquivalent(() -> Person.AGE.between(29, 41).negate());
+        assertEquivalent(() -> Person.AGE.isNull().negate());
+    }
+
+    @Test
+    public void testCombinations() {
+        assertEquivalent(() -> Person.AGE.greaterThan(30).and(Person.NAME.startsWith("B")));
+        assertEquivalent(() -> Person.AGE.lessThan(30).or(Person.NAME.isNull()));
+        assertEquivalent(() -> Person.AGE.greaterThan(30).and(Person.NAME.isNotNull()).negate());
+        assertEquivalent(() -> Person.AGE.isNull().or(Person.NAME.equal("Bob")).negate());
+        assertEquivalent(() -> Person.AGE.between(20, 50).and(Person.NAME.equal("Bob").or(Person.NAME.equal("Dee")).negate()));
+        assertEquivalent(() -> Person.AGE.lessThan(40).negate().or(Person.NAME.equal("Ada").negate().and(Person.BOSS.isNotNull())).negate());
+    }
+
+    @Test
+    public void testCombinationsWithOtherPredicates() {
+        assertEquivalent(() -> Person.AGE.greaterThan(20).and(p -> p.getId() % 2 == 0));
+        assertEquivalent(() -> Person.NAME.isNotNull().or(p -> p.getId() == 6));
+    }
+
+    @Test
+    public void testSeveralFilters() {
+        final List<Person> expected = PERSONS.stream()
+            .filter(Person.AGE.isNotNull())
+            .filter(p -> p.getId() > 1)
+            .filter(Person.NAME.isNotNull())
+            .collect(Collectors.toList());
+        assertEquals(expected, collect(table.stream(StreamDecorator.IDENTITY)
+            .filter(Person.AGE.isNotNull())
+            .filter(p -> p.getId() > 1)
+            .filter(Person.NAME.isNotNull())
+        ));
+    }
+
+    @Test
+    public void testCountWithoutEntities() {
+        assertEquals(6, table.stream(StreamDecorator.IDENTITY).count());
+        assertEquals(2, table.stream(StreamDecorator.IDENTITY).filter(Person.NAME.isNull()).count());
+        assertEquals(1, table.stream(StreamDecorator.IDENTITY).filter(Person.NAME.isNotNull()).filter(Person.AGE.greaterThan(40).and(Person.BOSS.isNull())).count());
+        assertEquals(0, manager.getNewInstanceCount());
+    }
+
+    @Test
+    public void testCountOfMatchingEntities() {
+        assertEquals(1, table.stream(StreamDecorator.IDENTITY).filter(Person.AGE.greaterThan(30)).filter(p -> p.getName() == null).count());
+        // Entities are only created for the rows of the field predicate
+        assertEquals(3, manager.getNewInstanceCount());
+    }
+
+    @Test
+    public void testCountOfAllEntities() {
+        assertEquals(3, table.stream(StreamDecorator.IDENTITY).filter(p -> p.getId() % 2 == 0).count());
+        assertEquals(6, manager.getNewInstanceCount());
+    }
+
+    @Test
+    public void testOnlyMatchingEntitiesAreCreated() {
+        assertEquals(Arrays.asList("Ada", "Bob"), table.stream(StreamDecorator.IDENTITY)
+            .filter(Person.AGE.greaterThan(40))
+            .map(Person::getName)
+            .collect(Collectors.toList())
+        );
+        assertEquals(2, manager.getNewInstanceCount());
+    }
+
+    /**
+     * Asserts that the entities of a stream of the table, and the count, are
+     * the same for a new predicate of the given supplier as for filtering
+     * the entities in Java.
+     */
+    private void assertEquivalent(Supplier<Predicate<Person>> predicate) {
+        final Predicate<Person> java = predicate.get();
+        final List<Person> expected = PERSONS.stream().filter(java).collect(Collectors.toList());
+        assertEquals(java.toString(), expected, collect(table.stream(StreamDecorator.IDENTITY).filter(predicate.get())));
+        assertEquals(java.toString(), expected.size(), table.stream(StreamDecorator.IDENTITY).filter(predicate.get()).count());
+    }
+
+    private static List<Person> collect(Stream<Person> stream) {
+        try (final Stream<Person> s = stream) {
+            return s.collect(Collectors.toList());
+        }
+    }
+}
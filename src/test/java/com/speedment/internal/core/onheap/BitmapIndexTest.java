@@ -0,0 +1,183 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.field.Inclusion;
+import com.speedment.internal.core.field.predicate.impl.SpeedmentPredicateImpl;
+import com.speedment.internal.core.manager.sql.Person;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class BitmapIndexTest {
+
+    private static final String[] NAMES = {"", "Ada", "ada", "Bob", "Bobby", "Cy", "Dee", "Zoë", "日本"};
+
+    @Test
+    public void testMaxCardinality() {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < BitmapIndex.MAX_CARDINALITY; i++) {
+            values.add(i);
+            values.add(i);
+        }
+        assertTrue(BitmapIndex.of(values).isPresent());
+        values.add(BitmapIndex.MAX_CARDINALITY);
+        assertFalse(BitmapIndex.of(values).isPresent());
+    }
+
+    @Test
+    public void testNullIsDistinctValue() {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < BitmapIndex.MAX_CARDINALITY - 1; i++) {
+            values.add(i);
+        }
+        values.add(null);
+        assertTrue(BitmapIndex.of(values).isPresent());
+        values.add(null);
+        assertTrue(BitmapIndex.of(values).isPresent());
+        values.add(-1);
+        assertFalse(BitmapIndex.of(values).isPresent());
+    }
+
+    @Test
+    public void testEmpty() {
+        final BitmapIndex index = BitmapIndex.of(new ArrayList<>()).get();
+        assertTrue(index.rows(leaf(Person.AGE.isNull())).isEmpty());
+        assertTrue(index.rows(leaf(Person.AGE.equal(1).negate())).isEmpty());
+    }
+
+    @Test
+    public void testNulls() {
+        final BitmapIndex index = BitmapIndex.of(Arrays.asList(null, 1, null, 2)).get();
+        assertEquals(bits(0, 2), index.rows(leaf(Person.AGE.isNull())));
+        assertEquals(bits(1, 3), index.rows(leaf(Person.AGE.isNotNull())));
+        assertEquals(bits(1, 3), index.rows(leaf(Person.AGE.isNull().negate())));
+        // A negated comparison is true for null values
+        assertEquals(bits(3), index.rows(leaf(Person.AGE.greaterThan(1))));
+        assertEquals(bits(0, 1, 2), index.rows(leaf(Person.AGE.greaterThan(1).negate())));
+        assertEquals(bits(0, 2, 3), index.rows(leaf(Person.AGE.equal(1).negate())));
+    }
+
+    @Test
+    public void testIntegers() {
+        final List<Integer> values = values(r -> r.nextInt(20) - 10);
+        for (final Integer[] operands : new Integer[][]{{0, 5}, {-10, 9}, {3, 3}, {100, 200}}) {
+            assertEquivalent(values, Person::setAge, () -> integers(operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testStrings() {
+        final List<String> values = values(r -> NAMES[r.nextInt(NAMES.length)]);
+        for (final String[] operands : new String[][]{{"Ada", "Cy"}, {"", "Bob"}, {"ada", "Zoë"}, {"B", "日本"}}) {
+            assertEquivalent(values, Person::setName, () -> strings(operands[0], operands[1]));
+        }
+    }
+
+    private static <V> List<V> values(Function<Random, V> function) {
+        final Random random = new Random(4711);
+        final List<V> values = new ArrayList<>();
+        for (int row = 0; row < 500; row++) {
+            values.add(random.nextInt(5) == 0 ? null : function.apply(random));
+        }
+        return values;
+    }
+
+    /**
+     * Asserts that each of the predicates of the supplier, and each of them
+     * negated, is true for the same rows of a bitmap index of the values as
+     * when the predicate is tested on each value.
+     */
+    private static <V> void assertEquivalent(List<V> values, BiFunction<Person, V, Person> setter, Supplier<List<SpeedmentPredicateImpl<Person, ?>>> predicates) {
+        final BitmapIndex index = BitmapIndex.of(values).get();
+        final List<SpeedmentPredicateImpl<Person, ?>> negated = predicates.get();
+        negated.forEach(SpeedmentPredicateImpl::negate);
+        for (final List<SpeedmentPredicateImpl<Person, ?>> list : Arrays.asList(predicates.get(), negated)) {
+            for (final SpeedmentPredicateImpl<Person, ?> predicate : list) {
+                final BitSet expected = new BitSet();
+                IntStream.range(0, values.size())
+                    .filter(row -> predicate.test(setter.apply(new Person(), values.get(row))))
+                    .forEach(expected::set);
+                assertEquals(predicate.toString(), expected, index.rows(predicate));
+            }
+        }
+    }
+
+    private static List<SpeedmentPredicateImpl<Person, ?>> integers(Integer a, Integer b) {
+        final List<SpeedmentPredicateImpl<Person, ?>> predicates = new ArrayList<>();
+        predicates.add(leaf(Person.AGE.equal(a)));
+        predicates.add(leaf(Person.AGE.notEqual(a)));
+        predicates.add(leaf(Person.AGE.lessThan(a)));
+        predicates.add(leaf(Person.AGE.lessOrEqual(a)));
+        predicates.add(leaf(Person.AGE.greaterThan(a)));
+        predicates.add(leaf(Person.AGE.greaterOrEqual(a)));
+        for (final Inclusion inclusion : Inclusion.values()) {
+            predicates.add(leaf(Person.AGE.between(a, b, inclusion)));
+        }
+        predicates.add(leaf(Person.AGE.in(a, b)));
+        predicates.add(leaf(Person.AGE.notIn(a, b)));
+        predicates.add(leaf(Person.AGE.isNull()));
+        predicates.add(leaf(Person.AGE.isNotNull()));
+        return predicates;
+    }
+
+    private static List<SpeedmentPredicateImpl<Person, ?>> strings(String a, String b) {
+        final List<SpeedmentPredicateImpl<Person, ?>> predicates = new ArrayList<>();
+        predicates.add(leaf(Person.NAME.equal(a)));
+        predicates.add(leaf(Person.NAME.notEqual(a)));
+        predicates.add(leaf(Person.NAME.lessThan(a)));
+        predicates.add(leaf(Person.NAME.greaterOrEqual(a)));
+        predicates.add(leaf(Person.NAME.between(a, b)));
+        predicates.add(leaf(Person.NAME.in(a, b)));
+        predicates.add(leaf(Person.NAME.equalIgnoreCase(a)));
+        predicates.add(leaf(Person.NAME.notEqualIgnoreCase(a)));
+        predicates.add(leaf(Person.NAME.startsWith(a)));
+        predicates.add(leaf(Person.NAME.endsWith(a)));
+        predicates.add(leaf(Person.NAME.contains(a)));
+        predicates.add(leaf(Person.NAME.isEmpty()));
+        predicates.add(leaf(Person.NAME.isNotEmpty()));
+        predicates.add(leaf(Person.NAME.isNull()));
+        return predicates;
+    }
+
+    private static SpeedmentPredicateImpl<Person, ?> leaf(Object predicate) {
+        assertTrue(predicate instanceof SpeedmentPredicateImpl);
+        @SuppressWarnings("unchecked")
+        final SpeedmentPredicateImpl<Person, ?> leaf = (SpeedmentPredicateImpl<Person, ?>) predicate;
+        return leaf;
+    }
+
+    private static BitSet bits(int... rows) {
+        final BitSet bits = new BitSet();
+        IntStream.of(rows).forEach(bits::set);
+        return bits;
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.field.ComparableField;
+import com.speedment.field.Inclusion;
+import com.speedment.field.StringField;
+import com.speedment.field.predicate.PredicateType;
+import com.speedment.field.predicate.SpeedmentPredicate;
+import com.speedment.field.trait.ComparableFieldTrait;
+import com.speedment.field.trait.ReferenceFieldTrait;
+import com.speedment.internal.core.field.ComparableFieldImpl;
+import com.speedment.internal.core.field.StringFieldImpl;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class ColumnIndexTest {
+
+    private static final int ROWS = 500;
+
+    private static final ComparableField<Value, Integer> INT = new ComparableFieldImpl<>("int", v -> (Integer) v.get(), Value::set);
+    private static final ComparableField<Value, BigDecimal> DECIMAL = new ComparableFieldImpl<>("decimal", v -> (BigDecimal) v.get(), Value::set);
+    private static final StringField<Value> STRING = new StringFieldImpl<>("string", v -> (String) v.get(), Value::set);
+
+    private static final BigDecimal[] DECIMALS = {
+        new BigDecimal("1"), new BigDecimal("1.0"), new BigDecimal("1.00"),
+        new BigDecimal("2.5"), new BigDecimal("2.50"), new BigDecimal("-3"), new BigDecimal("-3.000"), BigDecimal.ZERO
+    };
+
+    private static final String[] STRINGS = {"", "a", "A", "ab", "abc", "abd", "b", "ba", "é", "日本", "日本語"};
+
+    @Test
+    public void testCompareEqualValues() {
+        final List<BigDecimal> values = Arrays.asList(new BigDecimal("1.0"), new BigDecimal("1.00"), null, new BigDecimal("2"), new BigDecimal("1"));
+        final ColumnIndex index = new ColumnIndex(values);
+        // The values are not equal, so equality finds only one of them
+        assertArrayEquals(new int[]{1}, index.rows(DECIMAL.equal(new BigDecimal("1.00"))));
+        // But they compare as equal, so a range finds all of them
+        assertArrayEquals(new int[]{0, 1, 4}, index.rows(DECIMAL.lessOrEqual(new BigDecimal("1"))));
+        assertArrayEquals(new int[]{0, 1, 3, 4}, index.rows(DECIMAL.greaterOrEqual(new BigDecimal("1.000"))));
+        assertArrayEquals(new int[]{0, 1, 4}, index.rows(DECIMAL.between(new BigDecimal("0.5"), new BigDecimal("1.0"), Inclusion.START_INCLUSIVE_END_INCLUSIVE)));
+        assertArrayEquals(new int[]{3}, index.rows(DECIMAL.between(new BigDecimal("1.00"), new BigDecimal("2.0"), Inclusion.START_EXCLUSIVE_END_INCLUSIVE)));
+    }
+
+    @Test
+    public void testIntegers() {
+        final List<Integer> values = values(r -> r.nextInt(20) - 10);
+        for (final Integer[] operands : new Integer[][]{{0, 5}, {-10, 9}, {5, -5}, {3, 3}, {100, 200}, {-100, -50}}) {
+            assertEquivalent(values, comparable(INT, operands[0], operands[1]));
+        }
+    }
+
+    @Test
+    public void testDecimals() {
+        final List<BigDecimal> values = values(r -> DECIMALS[r.nextInt(DECIMALS.length)]);
+        for (final BigDecimal a : DECIMALS) {
+            for (final BigDecimal b : DECIMALS) {
+                assertEquivalent(values, comparable(DECIMAL, a, b));
+            }
+        }
+    }
+
+    @Test
+    public void testStrings() {
+        final List<String> values = values(r -> STRINGS[r.nextInt(STRINGS.length)]);
+        for (final String a : STRINGS) {
+            for (final String b : new String[]{"", "ab", "b", "日本", "zz"}) {
+                final List<SpeedmentPredicate<Value, ?>> predicates = comparable(STRING, a, b);
+                predicates.add(STRING.startsWith(a));
+                assertEquivalent(values, predicates);
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyNulls() {
+        final ColumnIndex index = new ColumnIndex(Arrays.asList(null, null));
+        assertTrue(index.supports(INT.equal(1)));
+        assertArrayEquals(new int[0], index.rows(INT.equal(1)));
+        // Without any value the type of the column is not known
+        assertFalse(index.supports(INT.greaterThan(1)));
+    }
+
+    @Test
+    public void testUnsupported() {
+        final ColumnIndex index = new ColumnIndex(Arrays.asList(1, 2, null));
+        assertFalse(index.supports(INT.equal(1).negate()));
+        assertFalse(index.supports(INT.notEqual(1)));
+        assertFalse(index.supports(INT.isNull()));
+        assertFalse(index.supports(INT.in(new HashSet<>(Arrays.asList(1, null)))));
+        // A string prefix of a column that is not a string column
+        assertFalse(index.supports(STRING.startsWith("1")));
+    }
+
+    @Test
+    public void testMixedClasses() {
+        final ColumnIndex index = new ColumnIndex(Arrays.asList(1, 2L, 1));
+        assertTrue(index.supports(INT.equal(1)));
+        assertArrayEquals(new int[]{0, 2}, index.rows(INT.equal(1)));
+        // Values of different classes can not be compared
+        assertFalse(index.supports(INT.greaterThan(0)));
+    }
+
+    private static <V> List<V> values(Function<Random, V> function) {
+        final Random random = new Random(4711);
+        final List<V> values = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            values.add(random.nextInt(6) == 0 ? null : function.apply(random));
+        }
+        return values;
+    }
+
+    /**
+     * Asserts that each of the given predicates is supported by an index of
+     * the values and finds the same rows as when the predicate is tested on
+     * each value.
+     */
+    private static void assertEquivalent(List<?> values, List<SpeedmentPredicate<Value, ?>> predicates) {
+        final ColumnIndex index = new ColumnIndex(values);
+        for (final SpeedmentPredicate<Value, ?> predicate : predicates) {
+            if (predicate.getPredicateType() == PredicateType.ALWAYS_FALSE) {
+                // An empty range is resolved by the field, not by the index
+                continue;
+            }
+            final String message = predicate.getPredicateType() + " " + predicate;
+            assertTrue(message, index.supports(predicate));
+            final List<Integer> expected = IntStream.range(0, values.size())
+                .filter(row -> predicate.test(new Value(values.get(row))))
+                .boxed()
+                .collect(Collectors.toList());
+            assertEquals(message, expected, IntStream.of(index.rows(predicate)).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    private static <V extends Comparable<? super V>, F extends ReferenceFieldTrait<Value, V> & ComparableFieldTrait<Value, V>>
+        List<SpeedmentPredicate<Value, ?>> comparable(F field, V a, V b) {
+        final List<SpeedmentPredicate<Value, ?>> predicates = new ArrayList<>();
+        predicates.add(field.equal(a));
+        predicates.add(field.in(new HashSet<>(Arrays.asList(a, b))));
+        predicates.add(field.lessThan(a));
+        predicates.add(field.lessOrEqual(a));
+        predicates.add(field.greaterThan(a));
+        predicates.add(field.greaterOrEqual(a));
+        for (final Inclusion inclusion : Inclusion.values()) {
+            predicates.add(field.between(a, b, inclusion));
+        }
+        return predicates;
+    }
+
+    private static final class Value {
+
+        private Object value;
+
+        private Value(Object value) {
+            this.value = value;
+        }
+
+        private Object get() {
+            return value;
+        }
+
+        private Value set(Object value) {
+            this.value = value;
+            return this;
+        }
+    }
+}
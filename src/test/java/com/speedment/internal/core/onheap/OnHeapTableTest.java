@@ -0,0 +1,240 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.onheap;
+
+import com.speedment.config.Index;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.StreamDecorator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OnHeapTableTest {
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 52, null),
+        new Person(2, "Bob", 41, 1),
+        new Person(3, "Cy", 33, 1),
+        new Person(4, "Dee", 25, 2),
+        new Person(5, "Eve", null, 9)
+    );
+
+    @Test
+    public void testStreamsCopiesWithoutIndexes() {
+        assertCopies(table(false), s -> s);
+    }
+
+    @Test
+    public void testStreamsCopiesOfScan() {
+        assertCopies(table(true), s -> s.filter(p -> p.getId() > 0));
+    }
+
+    @Test
+    public void testStreamsCopiesOfIndexLookup() {
+        assertCopies(table(true), s -> s.filter(Person.AGE.greaterThan(0)));
+    }
+
+    @Test
+    public void testStreamsCopiesOfBitmapLookup() {
+        assertCopies(table(true), s -> s.filter(Person.AGE.isNull().or(Person.AGE.notEqual(0))));
+    }
+
+    @Test
+    public void testOnlyCopiesEntitiesThatPassFieldFilters() {
+        for (final boolean indexed : new boolean[]{false, true}) {
+            final PersonManager manager = manager(indexed);
+            final OnHeapTable<Person> table = table(manager);
+            final int before = manager.getNewInstanceCount();
+            assertEquals(PERSONS.subList(0, 2), collect(table, s -> s.filter(Person.AGE.greaterThan(40)).filter(Person.ID.lessThan(9))));
+            assertEquals(before + 2, manager.getNewInstanceCount());
+        }
+    }
+
+    @Test
+    public void testCountAndMatchDoNotCopy() {
+        final PersonManager manager = manager(false);
+        final OnHeapTable<Person> table = table(manager);
+        final int before = manager.getNewInstanceCount();
+        try (final Stream<Person> stream = table.stream(StreamDecorator.IDENTITY)) {
+            assertEquals(2, stream.filter(Person.AGE.greaterThan(40)).count());
+        }
+        try (final Stream<Person> stream = table.stream(StreamDecorator.IDENTITY)) {
+            assertTrue(stream.anyMatch(Person.NAME.equal("Cy")));
+        }
+        try (final Stream<Person> stream = table.stream(StreamDecorator.IDENTITY)) {
+            assertTrue(stream.filter(Person.AGE.isNotNull()).allMatch(Person.AGE.greaterThan(20)));
+        }
+        assertEquals(before, manager.getNewInstanceCount());
+
+        // A predicate that is not built from fields may modify the entities
+        try (final Stream<Person> stream = table.stream(StreamDecorator.IDENTITY)) {
+            assertTrue(stream.noneMatch(p -> p.setName("Zed") == null));
+        }
+        assertEquals(before + PERSONS.size(), manager.getNewInstanceCount());
+    }
+
+    @Test
+    public void testJavaFilterSeesCopies() {
+        final OnHeapTable<Person> table = table(true);
+        try (final Stream<Person> stream = table.stream(StreamDecorator.IDENTITY)) {
+            assertEquals(PERSONS.size(), stream.filter(Person.ID.greaterThan(0)).filter(p -> p.setAge(0) != null).count());
+        }
+        assertEquals(PERSONS, collect(table, s -> s));
+    }
+
+    @Test
+    public void testModifiedEntityDoesNotChangeIndexedResult() {
+        final OnHeapTable<Person> table = table(true);
+        try (final Stream<Person> stream = table.stream(StreamDecorator.IDENTITY)) {
+            stream.forEach(p -> p.setAge(99).setName("Zed"));
+        }
+        assertEquals(PERSONS.subList(1, 3), collect(table, s -> s.filter(Person.AGE.between(30, 50))));
+        assertEquals(PERSONS.subList(0, 1), collect(table, s -> s.filter(Person.NAME.equal("Ada"))));
+    }
+
+    @Test
+    public void testBitmapLeaves() {
+        final OnHeapTable<Person> table = table(true);
+        assertBitmapEquivalent(table, () -> Person.AGE.isNull());
+        assertBitmapEquivalent(table, () -> Person.AGE.notEqual(41));
+        assertBitmapEquivalent(table, () -> Person.AGE.greaterThan(30).negate());
+        assertBitmapEquivalent(table, () -> Person.NAME.endsWith("e"));
+        assertBitmapEquivalent(table, () -> Person.NAME.equal("Ada").negate());
+    }
+
+    @Test
+    public void testBitmapCombinations() {
+        final OnHeapTable<Person> table = table(true);
+        assertBitmapEquivalent(table, () -> Person.AGE.isNull().or(Person.NAME.equal("Ada")));
+        assertBitmapEquivalent(table, () -> Person.AGE.notEqual(41).and(Person.NAME.startsWith("B").negate()));
+        assertBitmapEquivalent(table, () -> Person.AGE.greaterThan(30).and(Person.NAME.isNotNull()).negate());
+        assertBitmapEquivalent(table, () -> Person.AGE.lessThan(30).or(Person.NAME.contains("o")).negate());
+        assertBitmapEquivalent(table, () -> Person.AGE.between(20, 50).negate().or(Person.NAME.equal("Bob").and(Person.AGE.isNotNull()).negate()));
+        assertBitmapEquivalent(table, () -> Person.AGE.isNull().or(Person.AGE.in(25, 52)).negate().and(Person.NAME.isEmpty().negate()));
+    }
+
+    @Test
+    public void testBitmapsOfSeveralFilters() {
+        final OnHeapTable<Person> table = table(true);
+        final List<Person> expected = PERSONS.stream()
+            .filter(Person.AGE.notEqual(52))
+            .filter(Person.NAME.equal("Bob").or(Person.NAME.equal("Eve")).negate())
+            .collect(Collectors.toList());
+        assertEquals(expected, collect(table, s -> s
+            .filter(Person.AGE.notEqual(52))
+            .filter(Person.NAME.equal("Bob").or(Person.NAME.equal("Eve")).negate())
+        ));
+    }
+
+    @Test
+    public void testBitmapCardinality() {
+        final PersonManager manager = PersonManager.create(new MySqlDbmsType(), new FakeDatabase());
+        addIndex(manager, "age");
+        addIndex(manager, "boss");
+        // The age has a distinct value for each row, and the boss has four
+        final List<Person> persons = IntStream.range(0, 3 * BitmapIndex.MAX_CARDINALITY)
+            .mapToObj(i -> new Person(i, "P" + i, i % 10 == 0 ? null : i, i % 7 == 0 ? null : i % 3))
+            .collect(Collectors.toList());
+        final OnHeapTable<Person> table = OnHeapTable.of(manager, persons.stream());
+
+        assertFalse(table.canUseIndex(Person.AGE.notEqual(5)));
+        assertTrue(table.canUseIndex(Person.AGE.greaterThan(5)));
+        assertTrue(table.canUseIndex(Person.BOSS.notEqual(1)));
+        assertTrue(table.canUseIndex(Person.BOSS.isNull().or(Person.AGE.lessThan(100)).negate()));
+
+        for (final Supplier<Predicate<Person>> predicate : Arrays.<Supplier<Predicate<Person>>>asList(
+            () -> Person.AGE.notEqual(5),
+            () -> Person.BOSS.notEqual(1),
+            () -> Person.BOSS.isNull().or(Person.AGE.lessThan(100)).negate(),
+            () -> Person.BOSS.equal(2).and(Person.AGE.between(100, 600)).negate()
+        )) {
+            final List<Person> expected = persons.stream().filter(predicate.get()).collect(Collectors.toList());
+            assertEquals(expected, collect(table, s -> s.filter(predicate.get())));
+        }
+    }
+
+    /**
+     * Asserts that a new predicate of the given supplier is evaluated with
+     * the indexes of the table, and that the entities found are the same as
+     * when filtering the entities in Java.
+     */
+    private static void assertBitmapEquivalent(OnHeapTable<Person> table, Supplier<Predicate<Person>> predicate) {
+        final Predicate<Person> java = predicate.get();
+        assertTrue(java.toString(), table.canUseIndex(java));
+        final List<Person> expected = PERSONS.stream().filter(java).collect(Collectors.toList());
+        assertEquals(java.toString(), expected, collect(table, s -> s.filter(predicate.get())));
+    }
+
+    private static void assertCopies(OnHeapTable<Person> table, Function<Stream<Person>, Stream<Person>> pipeline) {
+        final List<Person> expected = pipeline.apply(PERSONS.stream()).collect(Collectors.toList());
+        final List<Person> first = collect(table, pipeline);
+        assertEquals(expected, first);
+        first.forEach(p -> p.setName(null).setAge(0));
+
+        final List<Person> second = collect(table, pipeline);
+        assertEquals(expected, second);
+        for (int i = 0; i < first.size(); i++) {
+            assertNotSame(first.get(i), second.get(i));
+        }
+    }
+
+    private static List<Person> collect(OnHeapTable<Person> table, Function<Stream<Person>, Stream<Person>> pipeline) {
+        try (final Stream<Person> stream = pipeline.apply(table.stream(StreamDecorator.IDENTITY))) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    private static OnHeapTable<Person> table(boolean indexed) {
+        return table(manager(indexed));
+    }
+
+    private static OnHeapTable<Person> table(PersonManager manager) {
+        return OnHeapTable.of(manager, PERSONS.stream().map(p -> new Person(p.getId(), p.getName(), p.getAge(), p.getBoss())));
+    }
+
+    private static PersonManager manager(boolean indexed) {
+        final PersonManager manager = PersonManager.create(new MySqlDbmsType(), new FakeDatabase());
+        if (indexed) {
+            addIndex(manager, "age");
+            addIndex(manager, "name");
+        }
+        return manager;
+    }
+
+    private static void addIndex(PersonManager manager, String columnName) {
+        final Index index = manager.getTable().addNewIndex();
+        index.setName(columnName + "_index");
+        index.addNewIndexColumn().setName(columnName);
+    }
+}
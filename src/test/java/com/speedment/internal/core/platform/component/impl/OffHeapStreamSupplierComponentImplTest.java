@@ -0,0 +1,115 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.platform.component.impl;
+
+import com.speedment.config.parameters.StorageEngineType;
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.StreamDecorator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OffHeapStreamSupplierComponentImplTest {
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 52, null),
+        new Person(2, "Bob", 41, 1),
+        new Person(3, null, null, 1)
+    );
+
+    private FakeDatabase database;
+    private PersonManager manager;
+    private OffHeapStreamSupplierComponentImpl component;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> PERSONS.stream().map(Person::toRow).collect(Collectors.toList()));
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+        component = new OffHeapStreamSupplierComponentImpl(manager.getSpeedment());
+    }
+
+    @Test
+    public void testIsHeld() {
+        assertTrue(component.isHeld(StorageEngineType.OFF_HEAP));
+        assertTrue(component.isHeld(StorageEngineType.ON_HEAP));
+        assertFalse(component.isHeld(StorageEngineType.NATIVE));
+        assertFalse(component.isHeld(StorageEngineType.INHERIT));
+    }
+
+    @Test
+    public void testOffHeap() {
+        manager.getTable().setStorageEngineType(StorageEngineType.OFF_HEAP);
+        component.load(manager);
+        assertTrue(component.isOffHeap(Person.class));
+        assertFalse(component.isOnHeap(Person.class));
+        assertEquals(PERSONS, stream());
+        assertEquals(Arrays.asList(PERSONS.get(1)), collect(component.stream(Person.class, StreamDecorator.IDENTITY).filter(Person.BOSS.equal(1).and(Person.NAME.isNotNull()))));
+        // The table is read once, when it is loaded
+        assertEquals(1, database.getQueries().size());
+    }
+
+    @Test
+    public void testOnHeap() {
+        manager.getTable().setStorageEngineType(StorageEngineType.ON_HEAP);
+        component.load(manager);
+        assertFalse(component.isOffHeap(Person.class));
+        assertTrue(component.isOnHeap(Person.class));
+        assertEquals(PERSONS, stream());
+    }
+
+    @Test
+    public void testNotLoaded() {
+        assertFalse(component.isOffHeap(Person.class));
+        assertEquals(PERSONS, stream());
+        // The stream is read from the database
+        assertEquals(1, database.getQueries().size());
+        assertEquals(PERSONS, stream());
+        assertEquals(2, database.getQueries().size());
+    }
+
+    @Test
+    public void testStop() {
+        manager.getTable().setStorageEngineType(StorageEngineType.OFF_HEAP);
+        component.load(manager);
+        component.stop();
+        assertFalse(component.isOffHeap(Person.class));
+    }
+
+    private List<Person> stream() {
+        return collect(component.stream(Person.class, StreamDecorator.IDENTITY));
+    }
+
+    private static List<Person> collect(Stream<Person> stream) {
+        try (final Stream<Person> s = stream) {
+            return s.collect(Collectors.toList());
+        }
+    }
+}
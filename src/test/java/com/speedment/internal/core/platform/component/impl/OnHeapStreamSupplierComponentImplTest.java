@@ -0,0 +1,76 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.platform.component.impl;
+
+import com.speedment.internal.core.config.dbms.MySqlDbmsType;
+import com.speedment.internal.core.db.FakeDatabase;
+import com.speedment.internal.core.manager.sql.Person;
+import com.speedment.internal.core.manager.sql.PersonManager;
+import com.speedment.stream.StreamDecorator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class OnHeapStreamSupplierComponentImplTest {
+
+    private static final List<Person> PERSONS = Arrays.asList(
+        new Person(1, "Ada", 52, null),
+        new Person(2, "Bob", 41, 1)
+    );
+
+    private FakeDatabase database;
+    private PersonManager manager;
+    private OnHeapStreamSupplierComponentImpl component;
+
+    @Before
+    public void setUp() {
+        database = new FakeDatabase();
+        database.setResponder(q -> PERSONS.stream().map(Person::toRow).collect(Collectors.toList()));
+        manager = PersonManager.create(new MySqlDbmsType(), database);
+        component = new OnHeapStreamSupplierComponentImpl(manager.getSpeedment());
+        component.load(manager);
+    }
+
+    @Test
+    public void testLoad() {
+        assertTrue(component.isOnHeap(Person.class));
+        assertEquals(PERSONS, stream());
+        // The table is read once, when it is loaded
+        assertEquals(1, database.getQueries().size());
+    }
+
+    @Test
+    public void testModifiedEntityIsNotShared() {
+        stream().forEach(p -> p.setName("Zed").setBoss(7));
+        assertEquals(PERSONS, stream());
+    }
+
+    private List<Person> stream() {
+        try (final Stream<Person> stream = component.stream(Person.class, StreamDecorator.IDENTITY)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import com.speedment.internal.util.tuple.Tuple2;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class HashJoinTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testInnerJoinIntegralKeys() {
+        for (int size = 0; size < 200; size += 7) {
+            final List<Integer> probe = randomKeys(size * 2, size);
+            final List<Integer> build = randomKeys(size, size);
+            assertJoin(probe, build, Function.identity());
+        }
+    }
+
+    @Test
+    public void testInnerJoinMixedKeys() {
+        final List<Object> probe = Arrays.asList(1, 2L, "2", 3, null, "a", 1);
+        final List<Object> build = Arrays.asList(1, 2, 2L, null, 1, "a", "b", 3);
+        assertJoin(probe, build, Function.identity());
+    }
+
+    @Test
+    public void testLeftJoin() {
+        final List<String> probe = Arrays.asList("1", "2", "", "3", "1");
+        final List<Integer> build = Arrays.asList(1, 1, 3, null);
+        final Function<String, Integer> probeKey = s -> s.isEmpty() ? null : Integer.valueOf(s);
+        final List<String> actual = HashJoin.leftJoin(probe.stream(), probeKey, build.stream(), Function.identity())
+            .map(t -> t.get0() + "=" + t.get1().map(String::valueOf).orElse("-"))
+            .collect(toList());
+        assertEquals(Arrays.asList("1=1", "1=1", "2=-", "=-", "3=3", "1=1", "1=1"), actual);
+    }
+
+    @Test
+    public void testEqualKeysAreInBuildOrder() {
+        final List<String> build = Arrays.asList("1a", "2a", "1b", "1c", "2b");
+        // Integral keys and other keys are held in different tables
+        final Function<String, Integer> integralKey = s -> Integer.valueOf(s.substring(0, 1));
+        final Function<String, String> stringKey = s -> s.substring(0, 1);
+        assertEquals(Arrays.asList("1=1a", "1=1b", "1=1c", "2=2a", "2=2b"),
+            HashJoin.innerJoin(Stream.of(1, 2), Function.identity(), build.stream(), integralKey)
+                .map(t -> t.get0() + "=" + t.get1())
+                .collect(toList())
+        );
+        assertEquals(Arrays.asList("1=1a", "1=1b", "1=1c", "3=-"),
+            HashJoin.leftJoin(Stream.of("1", "3"), Function.identity(), build.stream(), stringKey)
+                .map(t -> t.get0() + "=" + t.get1().orElse("-"))
+                .collect(toList())
+        );
+    }
+
+    @Test
+    public void testBuildStreamIsClosed() {
+        final boolean[] closed = {false};
+        final Stream<Integer> build = Stream.of(1, 2).onClose(() -> closed[0] = true);
+        final List<Tuple2<Integer, Integer>> actual = HashJoin.innerJoin(Stream.of(2), Function.identity(), build, Function.identity())
+            .collect(toList());
+        assertEquals(1, actual.size());
+        assertTrue(closed[0]);
+    }
+
+    private List<Integer> randomKeys(int size, int bound) {
+        final List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            keys.add(random.nextInt(10) == 0 ? null : random.nextInt(bound + 1) - bound / 2);
+        }
+        return keys;
+    }
+
+    private static <T> void assertJoin(List<T> probe, List<T> build, Function<? super T, ?> key) {
+        final List<String> expected = new ArrayList<>();
+        for (final T p : probe) {
+            for (final T b : build) {
+                if (key.apply(p) != null && Objects.equals(key.apply(p), key.apply(b))) {
+                    expected.add(p + "=" + b);
+                }
+            }
+        }
+        final List<String> actual = HashJoin.innerJoin(probe.stream(), key, build.stream(), key)
+            .map(t -> t.get0() + "=" + t.get1())
+            .collect(toList());
+        expected.sort(null);
+        actual.sort(null);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class PrefetchingIteratorTest {
+
+    @Test
+    public void testOrder() {
+        final List<Integer> expected = IntStream.range(0, 10_000).boxed().collect(toList());
+        final List<Integer> result = new ArrayList<>();
+        try (final PrefetchingIterator<Integer> instance = new PrefetchingIterator<>(expected.iterator(), 3)) {
+            instance.forEachRemaining(result::add);
+            assertTrue(instance.isDone());
+        }
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testNull() {
+        final List<String> expected = Arrays.asList("a", null, "b");
+        final List<String> result = new ArrayList<>();
+        try (final PrefetchingIterator<String> instance = new PrefetchingIterator<>(expected.iterator(), 1)) {
+            instance.forEachRemaining(result::add);
+        }
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testException() {
+        final Iterator<Integer> source = Stream.of(1, 2, 0)
+            .map(i -> 2 / i)
+            .iterator();
+        try (final PrefetchingIterator<Integer> instance = new PrefetchingIterator<>(source, 16)) {
+            assertEquals(Integer.valueOf(2), instance.next());
+            assertEquals(Integer.valueOf(1), instance.next());
+            try {
+                instance.hasNext();
+                fail("Expected an ArithmeticException");
+            } catch (ArithmeticException expected) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testCloseEarly() {
+        final AtomicInteger produced = new AtomicInteger();
+        final Iterator<Integer> source = Stream.iterate(0, i -> i + 1)
+            .peek(i -> produced.incrementAndGet())
+            .iterator();
+        final PrefetchingIterator<Integer> instance = new PrefetchingIterator<>(source, 4);
+        assertEquals(Integer.valueOf(0), instance.next());
+        instance.close();
+        assertTrue(instance.isDone());
+        assertFalse(instance.hasNext());
+        // The buffer holds at most four elements and one is held by the producer
+        assertTrue(produced.get() <= 6);
+    }
+
+}
@@ -0,0 +1,148 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import com.speedment.stream.Publisher;
+import com.speedment.stream.Subscriber;
+import com.speedment.stream.Subscription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class StreamPublisherTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final Publisher<Integer> instance = new StreamPublisher<>(() -> {
+        created.incrementAndGet();
+        return IntStream.range(0, 5).boxed().onClose(closed::incrementAndGet);
+    });
+
+    @Test
+    public void testRequest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        instance.subscribe(subscriber);
+        assertEquals(0, created.get());
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(0, 1), subscriber.elements);
+        assertFalse(subscriber.completed);
+        subscriber.subscription.request(3);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), subscriber.elements);
+        assertEquals(0, closed.get());
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.completed);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testUnbounded() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        instance.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testRequestFromOnNext() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer element) {
+                super.onNext(element);
+                subscription.request(1);
+            }
+        };
+        instance.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), subscriber.elements);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testCancel() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        instance.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(0), subscriber.elements);
+        assertFalse(subscriber.completed);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testIllegalRequest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        instance.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    public void testSubscribers() {
+        final RecordingSubscriber first = new RecordingSubscriber();
+        final RecordingSubscriber second = new RecordingSubscriber();
+        instance.subscribe(first);
+        instance.subscribe(second);
+        first.subscription.request(Long.MAX_VALUE);
+        second.subscription.request(Long.MAX_VALUE);
+        assertEquals(first.elements, second.elements);
+        assertEquals(2, created.get());
+        assertEquals(2, closed.get());
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Integer> {
+
+        protected Subscription subscription;
+        private final List<Integer> elements = new ArrayList<>();
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer element) {
+            elements.add(element);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream;
+
+import java.math.BigInteger;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class SummaryStatisticsUtilTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testIntSummaryStatistics() {
+        for (int size = 0; size < 100; size++) {
+            final int[] values = random.ints(size, -1000, 1000).toArray();
+            final IntSummaryStatistics expected = IntStream.of(values).summaryStatistics();
+            final IntSummaryStatistics actual = SummaryStatisticsUtil.intSummaryStatistics(
+                expected.getCount(), BigInteger.valueOf(expected.getSum()), expected.getMin(), expected.getMax()
+            );
+            assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void testLongSummaryStatistics() {
+        for (int size = 0; size < 100; size++) {
+            final long[] values = random.longs(size, -1000, 1000).toArray();
+            final LongSummaryStatistics expected = LongStream.of(values).summaryStatistics();
+            final LongSummaryStatistics actual = SummaryStatisticsUtil.longSummaryStatistics(
+                expected.getCount(), BigInteger.valueOf(expected.getSum()), expected.getMin(), expected.getMax()
+            );
+            assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void testLongSummaryStatisticsOverflow() {
+        final long[] values = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE - 1, 7};
+        final BigInteger exactSum = LongStream.of(values)
+            .mapToObj(BigInteger::valueOf)
+            .reduce(BigInteger.ZERO, BigInteger::add);
+        final LongSummaryStatistics expected = LongStream.of(values).summaryStatistics();
+        final LongSummaryStatistics actual = SummaryStatisticsUtil.longSummaryStatistics(
+            values.length, exactSum, expected.getMin(), expected.getMax()
+        );
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testDoubleSummaryStatistics() {
+        for (int size = 0; size < 100; size++) {
+            final double[] values = random.doubles(size, -1000, 1000).toArray();
+            final DoubleSummaryStatistics expected = DoubleStream.of(values).summaryStatistics();
+            final DoubleSummaryStatistics actual = SummaryStatisticsUtil.doubleSummaryStatistics(
+                expected.getCount(), expected.getSum(), expected.getMin(), expected.getMax()
+            );
+            assertEquals(expected.getCount(), actual.getCount());
+            assertEquals(expected.getSum(), actual.getSum(), 1e-6);
+            assertEquals(expected.getMin(), actual.getMin(), 0);
+            assertEquals(expected.getMax(), actual.getMax(), 0);
+        }
+    }
+
+}
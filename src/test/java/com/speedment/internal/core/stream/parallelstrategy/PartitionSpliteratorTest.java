@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (c) 2006-2015, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.internal.core.stream.parallelstrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author pemi
+ */
+public class PartitionSpliteratorTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+
+    @Test
+    public void testSequential() {
+        final Spliterator<Integer> instance = new PartitionSpliterator<>(partitions(3));
+        assertEquals(0, opened.get());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8), StreamSupport.stream(instance, false).collect(toList()));
+        assertEquals(3, opened.get());
+    }
+
+    @Test
+    public void testTrySplit() {
+        final Spliterator<Integer> instance = new PartitionSpliterator<>(partitions(3));
+        final Spliterator<Integer> prefix = instance.trySplit();
+        assertNotNull(prefix);
+        assertEquals(0, opened.get());
+        final List<Integer> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        instance.forEachRemaining(result::add);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8), result);
+    }
+
+    @Test
+    public void testTrySplitLastPartition() {
+        final Spliterator<Integer> instance = new PartitionSpliterator<>(partitions(1));
+        // The last partition is opened and split by its own spliterator
+        final Spliterator<Integer> prefix = instance.trySplit();
+        assertNotNull(prefix);
+        assertEquals(1, opened.get());
+        assertEquals(3, StreamSupport.stream(prefix, false).count() + StreamSupport.stream(instance, false).count());
+    }
+
+    @Test
+    public void testEmpty() {
+        final Spliterator<Integer> instance = new PartitionSpliterator<>(partitions(0));
+        assertNull(instance.trySplit());
+        assertEquals(0, StreamSupport.stream(instance, false).count());
+    }
+
+    @Test
+    public void testParallel() {
+        final Spliterator<Integer> instance = new PartitionSpliterator<>(partitions(10));
+        assertEquals(
+            IntStream.range(0, 30).boxed().collect(toSet()),
+            StreamSupport.stream(instance, true).collect(toSet())
+        );
+    }
+
+    private List<Supplier<Spliterator<Integer>>> partitions(int count) {
+        final List<Supplier<Spliterator<Integer>>> partitions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final int start = i * 3;
+            partitions.add(() -> {
+                opened.incrementAndGet();
+                return Arrays.asList(start, start + 1, start + 2).spliterator();
+            });
+        }
+        return partitions;
+    }
+}
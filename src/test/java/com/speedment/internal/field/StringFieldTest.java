@@ -105,4 +105,11 @@ public class StringFieldTest extends BaseFieldTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void betweenNullFields() throws Exception {
+        final List<Entity> expected = collect(e -> e.getName() != null && e.getName().compareTo("a") >= 0 && e.getName().compareTo("c") < 0);
+        final List<Entity> result = collect(NAME.between("a", "c"));
+        assertEquals(expected, result);
+    }
+
 }